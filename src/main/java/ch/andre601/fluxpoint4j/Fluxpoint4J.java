@@ -1,15 +1,27 @@
 package ch.andre601.fluxpoint4j;
 
 import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.image.ImageBatcher;
 import ch.andre601.fluxpoint4j.mc.MCRequestBuilder;
+import ch.andre601.fluxpoint4j.render.ImageLoader;
+import ch.andre601.fluxpoint4j.render.LayerCache;
+import ch.andre601.fluxpoint4j.render.LocalRenderer;
+import ch.andre601.fluxpoint4j.render.RenderMode;
+import ch.andre601.fluxpoint4j.render.WelcomeRenderer;
+import ch.andre601.fluxpoint4j.request.FailedAPIResponse;
 import ch.andre601.fluxpoint4j.request.GeneratedImage;
 import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
 import ch.andre601.fluxpoint4j.request.RequestHandler;
+import ch.andre601.fluxpoint4j.request.RequestListener;
+import ch.andre601.fluxpoint4j.traffic.TrafficRecorder;
+import ch.andre601.fluxpoint4j.traffic.TrafficReplayer;
 import ch.andre601.fluxpoint4j.welcome.WelcomeImage;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Main class to interact with the Fluxpoint API.
@@ -20,12 +32,17 @@ import java.util.concurrent.CompletableFuture;
  *     <ul>
  *         <li>{@link #getCustomImage(CustomImage) getCustomImage(Image)}</li>
  *         <li>{@link #queueCustomImage(CustomImage) queueCustomImage(CustomImage)}</li>
+ *         <li>{@link #getCustomImage(CustomImage, RenderMode) getCustomImage(CustomImage, RenderMode)}</li>
+ *         <li>{@link #queueCustomImage(CustomImage, RenderMode) queueCustomImage(CustomImage, RenderMode)}</li>
+ *         <li>{@link #createImageBatcher() createImageBatcher()}</li>
  *     </ul>
  *     </li>
  *     <li>Creating Welcome Images:
  *     <ul>
  *         <li>{@link #getWelcomeImage(WelcomeImage) getWelcomeImage(WelcomeImage)}</li>
  *         <li>{@link #queueWelcomeImage(WelcomeImage) queueWelcomeImage(WelcomeImage)}</li>
+ *         <li>{@link #getWelcomeImage(WelcomeImage, RenderMode) getWelcomeImage(WelcomeImage, RenderMode)}</li>
+ *         <li>{@link #queueWelcomeImage(WelcomeImage, RenderMode) queueWelcomeImage(WelcomeImage, RenderMode)}</li>
  *     </ul>
  *     </li>
  *     <li>Getting MC Server information:
@@ -43,6 +60,10 @@ public class Fluxpoint4J{
     private String token = null;
     private final RequestHandler requestHandler = new RequestHandler();
     
+    private volatile RenderMode renderMode = RenderMode.API;
+    private volatile LocalRenderer localRenderer = null;
+    private volatile WelcomeRenderer welcomeRenderer = null;
+    
     /**
      * Sets the API token to use for the Fluxpoint API.
      * 
@@ -55,6 +76,126 @@ public class Fluxpoint4J{
         this.token = token;
     }
     
+    /**
+     * Sets the default {@link RenderMode RenderMode} used by {@link #getCustomImage(CustomImage) getCustomImage(CustomImage)},
+     * {@link #queueCustomImage(CustomImage) queueCustomImage(CustomImage)}, {@link #getWelcomeImage(WelcomeImage) getWelcomeImage(WelcomeImage)}
+     * and {@link #queueWelcomeImage(WelcomeImage) queueWelcomeImage(WelcomeImage)}.
+     * <br>Default is {@link RenderMode#API RenderMode.API}.
+     * 
+     * @param renderMode
+     *        The RenderMode to use.
+     */
+    public void setRenderMode(@NotNull RenderMode renderMode){
+        CheckUtil.notNull(renderMode, "RenderMode");
+        
+        this.renderMode = renderMode;
+    }
+    
+    /**
+     * Sets the URL of the Fluxpoint API all requests are sent to, such as a local simulator used for testing.
+     * <br>Default is {@code https://api.fluxpoint.dev}.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Base URL is null or empty.</li>
+     * </ul>
+     * 
+     * @param baseUrl
+     *        The URL of the API, without a trailing slash.
+     */
+    public void setBaseUrl(@NotNull String baseUrl){
+        CheckUtil.notNullOrEmpty(baseUrl, "Base URL");
+        
+        requestHandler.setBaseUrl(baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl);
+    }
+    
+    /**
+     * Sets whether the layers of custom images should be {@link ch.andre601.fluxpoint4j.request.LayerOptimizer optimized}
+     * before they are sent to the Fluxpoint API.
+     * <br>Optimizing removes layers that aren't visible in the generated image and merges others, which makes requests
+     * smaller and faster to generate without changing the image. Default is {@code false}.
+     * 
+     * @param optimizeLayers
+     *        Whether layers should be optimized.
+     */
+    public void setOptimizeLayers(boolean optimizeLayers){
+        requestHandler.setOptimizeLayers(optimizeLayers);
+    }
+    
+    /**
+     * Sets whether custom images should be sent in their {@link ch.andre601.fluxpoint4j.request.CanonicalJson canonical}
+     * JSON form to the Fluxpoint API.
+     * <br>The canonical form omits fields set to their default value and orders all keys, which makes requests of
+     * images with many layers considerably smaller. Default is {@code false}.
+     * 
+     * @param canonicalJson
+     *        Whether the canonical JSON should be sent.
+     */
+    public void setCanonicalJson(boolean canonicalJson){
+        requestHandler.setCanonicalJson(canonicalJson);
+    }
+    
+    /**
+     * Sets the size in characters above which the JSON of image requests is sent gzip-compressed to the Fluxpoint API.
+     * <br>Large custom images with many texts are highly repetitive and shrink considerably when compressed. If the API
+     * rejects a compressed request, it is resent uncompressed and compression is no longer used.
+     * Default is {@code -1}, which disables compression.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Threshold is less than -1.</li>
+     * </ul>
+     * 
+     * @param threshold
+     *        The size above which requests are compressed, or -1 to disable compression.
+     */
+    public void setGzipThreshold(int threshold){
+        CheckUtil.check(threshold >= -1, "Threshold may not be less than -1.");
+        
+        requestHandler.setGzipThreshold(threshold);
+    }
+    
+    /**
+     * Sets the {@link ImageLoader ImageLoader} used to load images of
+     * {@link ch.andre601.fluxpoint4j.image.format.Image.ImageURL ImageURL} layers and the avatar, banner and icon of
+     * welcome images when an image is generated locally.
+     * <br>Default is a {@link ch.andre601.fluxpoint4j.render.CachingImageLoader CachingImageLoader} around a
+     * {@link ch.andre601.fluxpoint4j.render.HttpImageLoader HttpImageLoader}.
+     * 
+     * @param imageLoader
+     *        The ImageLoader to use.
+     */
+    public synchronized void setImageLoader(@NotNull ImageLoader imageLoader){
+        setLocalRenderer(getLocalRenderer().toBuilder().withImageLoader(imageLoader).build());
+    }
+    
+    /**
+     * Sets the {@link LayerCache LayerCache} used to reuse the layers images have in common when they are generated
+     * locally, or {@code null} to always render all layers.
+     * <br>Default is {@code null}.
+     * 
+     * @param layerCache
+     *        The LayerCache to use, or {@code null}.
+     */
+    public synchronized void setLayerCache(@Nullable LayerCache layerCache){
+        setLocalRenderer(getLocalRenderer().toBuilder().withLayerCache(layerCache).build());
+    }
+    
+    /**
+     * Sets the {@link LocalRenderer LocalRenderer} used to generate custom images and welcome images locally.
+     * <br>Use the {@link LocalRenderer.Builder LocalRenderer.Builder} to create a renderer with non-default settings,
+     * such as tiled rendering of large canvases.
+     * 
+     * @param localRenderer
+     *        The LocalRenderer to use.
+     */
+    public synchronized void setLocalRenderer(@NotNull LocalRenderer localRenderer){
+        CheckUtil.notNull(localRenderer, "LocalRenderer");
+        
+        this.localRenderer = localRenderer;
+        this.welcomeRenderer = new WelcomeRenderer(localRenderer);
+    }
+    
     /**
      * Generates a custom image using the provided {@link CustomImage CustomImage instance}.
      *
@@ -85,7 +226,33 @@ public class Fluxpoint4J{
      */
     @Nullable
     public GenericAPIResponse getCustomImage(@NotNull CustomImage image){
-        return requestHandler.getCustomImage(token, image);
+        return getCustomImage(image, renderMode);
+    }
+    
+    /**
+     * Generates a custom image using the provided {@link CustomImage CustomImage instance} and {@link RenderMode RenderMode}.
+     * <br>The RenderMode decides whether the image is generated by the Fluxpoint API, locally or locally after the
+     * Fluxpoint API returned a failed response.
+     *
+     * <p>The returned {@link GenericAPIResponse GenericAPIResponse} can be one of two instances:
+     * <ul>
+     *     <li>Instance of {@link GeneratedImage GeneratedImage} on a successful request.</li>
+     *     <li>Instance of {@link ch.andre601.fluxpoint4j.request.FailedAPIResponse FailedAPIResponse} on a failed request</li>
+     * </ul>
+     * 
+     * @param  image
+     *         The {@link CustomImage CustomImage} to generate.
+     * @param  renderMode
+     *         The {@link RenderMode RenderMode} to use for this image.
+     * 
+     * @return {@link GenericAPIResponse GenericAPIResponse} that is either the GeneratedImage or FailedAPIResponse instance.
+     * 
+     * @see #getCustomImage(CustomImage) getCustomImage
+     */
+    @Nullable
+    public GenericAPIResponse getCustomImage(@NotNull CustomImage image, @NotNull RenderMode renderMode){
+        return generate(renderMode, () -> requestHandler.getCustomImage(token, image),
+            () -> getLocalRenderer().getCustomImage(image));
     }
     
     /**
@@ -120,7 +287,96 @@ public class Fluxpoint4J{
      * @see #getCustomImage(CustomImage) getCustomImage
      */
     public CompletableFuture<GenericAPIResponse> queueCustomImage(@NotNull CustomImage image){
-        return CompletableFuture.supplyAsync(() -> getCustomImage(image));
+        return CompletableFuture.supplyAsync(RequestHandler.queued(() -> getCustomImage(image)));
+    }
+    
+    /**
+     * Calls {@link #getCustomImage(CustomImage, RenderMode) getCustomImage(CustomImage, RenderMode)} and wraps it into a
+     * {@link CompletableFuture CompletableFuture&lt;GenericAPIResponse&gt;} for you to use.
+     * 
+     * @param  image
+     *         The {@link CustomImage CustomImage} to generate.
+     * @param  renderMode
+     *         The {@link RenderMode RenderMode} to use for this image.
+     * 
+     * @return {@link CompletableFuture CompletableFuture} with a {@link GenericAPIResponse GenericAPIResponse} instance.
+     * 
+     * @see #getCustomImage(CustomImage, RenderMode) getCustomImage
+     */
+    public CompletableFuture<GenericAPIResponse> queueCustomImage(@NotNull CustomImage image, @NotNull RenderMode renderMode){
+        return CompletableFuture.supplyAsync(RequestHandler.queued(() -> getCustomImage(image, renderMode)));
+    }
+    
+    /**
+     * Creates a new {@link ImageBatcher ImageBatcher} combining small custom images queued within 50 milliseconds into
+     * a single request to the Fluxpoint API.
+     * <br>Make sure to {@link ImageBatcher#close() close} the ImageBatcher once it is no longer needed.
+     * 
+     * @return New ImageBatcher instance.
+     */
+    public ImageBatcher createImageBatcher(){
+        return new ImageBatcher(token, requestHandler);
+    }
+    
+    /**
+     * Creates a new {@link ImageBatcher ImageBatcher} combining small custom images queued within the provided time
+     * into a single request to the Fluxpoint API.
+     * <br>Make sure to {@link ImageBatcher#close() close} the ImageBatcher once it is no longer needed.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>TimeUnit is null.</li>
+     *     <li>Window is negative.</li>
+     * </ul>
+     * 
+     * @param  window
+     *         The time to collect images for.
+     * @param  unit
+     *         The TimeUnit of the window.
+     * 
+     * @return New ImageBatcher instance.
+     */
+    public ImageBatcher createImageBatcher(long window, @NotNull TimeUnit unit){
+        return new ImageBatcher(token, requestHandler, window, unit);
+    }
+    
+    /**
+     * Adds a {@link RequestListener RequestListener} notified about every request made to the Fluxpoint API, such as a
+     * {@link TrafficRecorder TrafficRecorder}.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>RequestListener is null.</li>
+     * </ul>
+     * 
+     * @param listener
+     *        The RequestListener to add.
+     */
+    public void addRequestListener(@NotNull RequestListener listener){
+        CheckUtil.notNull(listener, "RequestListener");
+        
+        requestHandler.addRequestListener(listener);
+    }
+    
+    /**
+     * Removes a previously added {@link RequestListener RequestListener}.
+     * 
+     * @param listener
+     *        The RequestListener to remove.
+     */
+    public void removeRequestListener(@NotNull RequestListener listener){
+        requestHandler.removeRequestListener(listener);
+    }
+    
+    /**
+     * Creates a new {@link TrafficReplayer TrafficReplayer} replaying recorded requests using this instance's token and
+     * settings.
+     * <br>Use {@link #setBaseUrl(String) setBaseUrl} to replay them against a local stand-in of the Fluxpoint API.
+     * 
+     * @return New TrafficReplayer instance.
+     */
+    public TrafficReplayer createTrafficReplayer(){
+        return new TrafficReplayer(token, requestHandler);
     }
     
     /**
@@ -153,7 +409,33 @@ public class Fluxpoint4J{
      */
     @Nullable
     public GenericAPIResponse getWelcomeImage(@NotNull WelcomeImage image){
-        return requestHandler.getWelcomeImage(token, image);
+        return getWelcomeImage(image, renderMode);
+    }
+    
+    /**
+     * Generates a Welcome image using the provided {@link WelcomeImage WelcomeImage instance} and {@link RenderMode RenderMode}.
+     * <br>The RenderMode decides whether the image is generated by the Fluxpoint API, locally or locally after the
+     * Fluxpoint API returned a failed response.
+     *
+     * <p>The returned {@link GenericAPIResponse GenericAPIResponse} can be one of two instances:
+     * <ul>
+     *     <li>Instance of {@link GeneratedImage GeneratedImage} on a successful request.</li>
+     *     <li>Instance of {@link ch.andre601.fluxpoint4j.request.FailedAPIResponse FailedAPIResponse} on a failed request</li>
+     * </ul>
+     * 
+     * @param  image
+     *         The {@link WelcomeImage WelcomeImage} to generate.
+     * @param  renderMode
+     *         The {@link RenderMode RenderMode} to use for this image.
+     * 
+     * @return {@link GenericAPIResponse GenericAPIResponse} that is either the GeneratedImage or a failed API response.
+     * 
+     * @see #getWelcomeImage(WelcomeImage) getWelcomeImage
+     */
+    @Nullable
+    public GenericAPIResponse getWelcomeImage(@NotNull WelcomeImage image, @NotNull RenderMode renderMode){
+        return generate(renderMode, () -> requestHandler.getWelcomeImage(token, image),
+            () -> getWelcomeRenderer().getWelcomeImage(image));
     }
     
     /**
@@ -188,7 +470,24 @@ public class Fluxpoint4J{
      * @see #getWelcomeImage(WelcomeImage) getWelcomeImage
      */
     public CompletableFuture<GenericAPIResponse> queueWelcomeImage(@NotNull WelcomeImage image){
-        return CompletableFuture.supplyAsync(() -> getWelcomeImage(image));
+        return CompletableFuture.supplyAsync(RequestHandler.queued(() -> getWelcomeImage(image)));
+    }
+    
+    /**
+     * Calls {@link #getWelcomeImage(WelcomeImage, RenderMode) getWelcomeImage(WelcomeImage, RenderMode)} and wraps it
+     * into a {@link CompletableFuture CompletableFuture&lt;GenericAPIResponse&gt;} for you to use.
+     * 
+     * @param  image
+     *         The {@link WelcomeImage WelcomeImage} to generate.
+     * @param  renderMode
+     *         The {@link RenderMode RenderMode} to use for this image.
+     *
+     * @return {@link CompletableFuture CompletableFuture} with a {@link GenericAPIResponse GenericAPIResponse} instance.
+     * 
+     * @see #getWelcomeImage(WelcomeImage, RenderMode) getWelcomeImage
+     */
+    public CompletableFuture<GenericAPIResponse> queueWelcomeImage(@NotNull WelcomeImage image, @NotNull RenderMode renderMode){
+        return CompletableFuture.supplyAsync(RequestHandler.queued(() -> getWelcomeImage(image, renderMode)));
     }
     
     /**
@@ -312,7 +611,7 @@ public class Fluxpoint4J{
      */
     @Deprecated
     public CompletableFuture<GenericAPIResponse> queueMCServerInfo(@NotNull String host){
-        return CompletableFuture.supplyAsync(() -> getMCServerInfo(host));
+        return CompletableFuture.supplyAsync(RequestHandler.queued(() -> getMCServerInfo(host)));
     }
     
     /**
@@ -352,6 +651,53 @@ public class Fluxpoint4J{
      */
     @Deprecated
     public CompletableFuture<GenericAPIResponse> queueMCServerInfo(@NotNull String host, int port){
-        return CompletableFuture.supplyAsync(() -> getMCServerInfo(host, port));
+        return CompletableFuture.supplyAsync(RequestHandler.queued(() -> getMCServerInfo(host, port)));
+    }
+    
+    private GenericAPIResponse generate(RenderMode renderMode, Supplier<GenericAPIResponse> api,
+                                        Supplier<GenericAPIResponse> local){
+        switch(renderMode){
+            case LOCAL:
+                return local.get();
+            
+            case API_WITH_LOCAL_FALLBACK:
+                GenericAPIResponse response = api.get();
+                if(response instanceof FailedAPIResponse)
+                    return local.get();
+                
+                return response;
+            
+            case API:
+            default:
+                return api.get();
+        }
+    }
+    
+    private LocalRenderer getLocalRenderer(){
+        LocalRenderer renderer = localRenderer;
+        if(renderer == null){
+            synchronized(this){
+                if(localRenderer == null)
+                    localRenderer = new LocalRenderer();
+                
+                renderer = localRenderer;
+            }
+        }
+        
+        return renderer;
+    }
+    
+    private WelcomeRenderer getWelcomeRenderer(){
+        WelcomeRenderer renderer = welcomeRenderer;
+        if(renderer == null){
+            synchronized(this){
+                if(welcomeRenderer == null)
+                    welcomeRenderer = new WelcomeRenderer(getLocalRenderer());
+                
+                renderer = welcomeRenderer;
+            }
+        }
+        
+        return renderer;
     }
 }
@@ -0,0 +1,33 @@
+package ch.andre601.fluxpoint4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class HashUtil{
+    
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    public static MessageDigest sha256(){
+        try{
+            return MessageDigest.getInstance("SHA-256");
+        }catch(NoSuchAlgorithmException ex){
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(ex);
+        }
+    }
+    
+    public static String sha256Hex(String text){
+        return toHex(sha256().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    public static String toHex(byte[] bytes){
+        char[] chars = new char[bytes.length * 2];
+        for(int i = 0; i < bytes.length; i++){
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        
+        return new String(chars);
+    }
+}
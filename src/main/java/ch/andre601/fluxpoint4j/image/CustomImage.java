@@ -5,6 +5,7 @@ import ch.andre601.fluxpoint4j.image.format.Text;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -26,6 +27,35 @@ public class CustomImage{
         this.texts = texts;
     }
     
+    /**
+     * Returns the {@link ch.andre601.fluxpoint4j.image.format.Image Image instance} used as the base layer.
+     * 
+     * @return The base layer of this image.
+     */
+    public Image getBase(){
+        return base;
+    }
+    
+    /**
+     * Returns an unmodifiable List of the additional {@link ch.andre601.fluxpoint4j.image.format.Image Image instances}
+     * in the order they have been added.
+     * 
+     * @return Possibly-empty List of the additional images.
+     */
+    public List<Image> getImages(){
+        return Collections.unmodifiableList(images);
+    }
+    
+    /**
+     * Returns an unmodifiable List of the {@link ch.andre601.fluxpoint4j.image.format.Text Text instances} in the order
+     * they have been added.
+     * 
+     * @return Possibly-empty List of the texts.
+     */
+    public List<Text> getTexts(){
+        return Collections.unmodifiableList(texts);
+    }
+    
     /**
      * Builder class to create a new {@link CustomImage CustomImage instance}.
      * 
@@ -0,0 +1,372 @@
+package ch.andre601.fluxpoint4j.image;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import ch.andre601.fluxpoint4j.request.FailedAPIResponse;
+import ch.andre601.fluxpoint4j.request.GeneratedImage;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.RequestHandler;
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combines many small {@link CustomImage CustomImages} into a single request to the Fluxpoint API.
+ * 
+ * <p>Images {@link #queue(CustomImage) queued} within the same window are packed into a sprite sheet of up to
+ * 3000x3000 pixels, with the layers of every image moved to its place in the sheet. The sheet is generated with a
+ * single request and then cut back into the individual images, so that many images only cost a single request.
+ * 
+ * <p>Only images whose layers are guaranteed to stay inside the base layer are combined, as other layers would paint
+ * over their neighbours in the sheet. This means:
+ * <ul>
+ *     <li>The base layer is no circle, is at 0,0 and is at most {@link #MAX_SIZE 1000} pixels wide and high.</li>
+ *     <li>All images, including the radius of circles, are inside the base layer.</li>
+ *     <li>All texts have a max width and max height set and are inside the base layer.</li>
+ * </ul>
+ * Other images are sent in their own request, just like {@link ch.andre601.fluxpoint4j.Fluxpoint4J#queueCustomImage(CustomImage)
+ * Fluxpoint4J.queueCustomImage(CustomImage)} would.
+ */
+public class ImageBatcher implements Closeable{
+    
+    /**
+     * The max width and height of images to combine.
+     */
+    public static final int MAX_SIZE = 1000;
+    
+    private static final int SHEET_SIZE = 3000;
+    private static final int PADDING = 4;
+    private static final ColorObject TRANSPARENT = ColorObject.getFromRGBA(0, 0, 0, 0);
+    
+    private final String token;
+    private final RequestHandler handler;
+    private final long window;
+    
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Fluxpoint4J-ImageBatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private List<Pending> pending = new ArrayList<>();
+    private boolean closed = false;
+    
+    /**
+     * Creates a new ImageBatcher collecting images for 50 milliseconds before they are sent.
+     * 
+     * @param token
+     *        The API token to use.
+     * @param handler
+     *        The RequestHandler to perform the requests with.
+     */
+    public ImageBatcher(String token, RequestHandler handler){
+        this(token, handler, 50, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Creates a new ImageBatcher collecting images for the provided time before they are sent.
+     * <br>Longer windows combine more images into one request, but delay every image by up to the window.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>RequestHandler or TimeUnit is null.</li>
+     *     <li>Window is negative.</li>
+     * </ul>
+     * 
+     * @param token
+     *        The API token to use.
+     * @param handler
+     *        The RequestHandler to perform the requests with.
+     * @param window
+     *        The time to collect images for.
+     * @param unit
+     *        The TimeUnit of the window.
+     */
+    public ImageBatcher(String token, @NotNull RequestHandler handler, long window, @NotNull TimeUnit unit){
+        CheckUtil.notNull(handler, "RequestHandler");
+        CheckUtil.notNull(unit, "TimeUnit");
+        CheckUtil.check(window >= 0, "Window may not be negative.");
+        
+        this.token = token;
+        this.handler = handler;
+        this.window = unit.toNanos(window);
+    }
+    
+    /**
+     * Queues the provided {@link CustomImage CustomImage} to be generated together with the other images queued within
+     * the window.
+     * 
+     * <p>The returned {@link GenericAPIResponse GenericAPIResponse} can be one of two instances:
+     * <ul>
+     *     <li>Instance of {@link GeneratedImage GeneratedImage} on a successful request.</li>
+     *     <li>Instance of {@link FailedAPIResponse FailedAPIResponse} on a failed request. All images of the same
+     *     sprite sheet receive the same failed response.</li>
+     * </ul>
+     * 
+     * @param  image
+     *         The {@link CustomImage CustomImage} to generate.
+     * 
+     * @return {@link CompletableFuture CompletableFuture} with a {@link GenericAPIResponse GenericAPIResponse} instance.
+     */
+    public CompletableFuture<GenericAPIResponse> queue(@NotNull CustomImage image){
+        CheckUtil.notNull(image, "CustomImage");
+        
+        if(!isBatchable(image))
+            return CompletableFuture.supplyAsync(RequestHandler.queued(() -> handler.getCustomImage(token, image)));
+        
+        Pending request = new Pending(image);
+        synchronized(this){
+            if(closed){
+                request.future.complete(new FailedAPIResponse("ImageBatcher has been closed."));
+                return request.future;
+            }
+            
+            pending.add(request);
+            if(pending.size() == 1)
+                scheduler.schedule(this::flush, window, TimeUnit.NANOSECONDS);
+        }
+        
+        return request.future;
+    }
+    
+    /**
+     * Sends all queued images and stops the batcher.
+     * <br>Images queued afterwards receive a {@link FailedAPIResponse FailedAPIResponse}.
+     */
+    @Override
+    public void close(){
+        synchronized(this){
+            closed = true;
+        }
+        
+        flush();
+        scheduler.shutdown();
+    }
+    
+    /**
+     * Returns whether the provided {@link CustomImage CustomImage} can be combined with other images.
+     * 
+     * @param  image
+     *         The CustomImage to check.
+     * 
+     * @return True if the image can be combined with other images, otherwise false.
+     */
+    public static boolean isBatchable(@NotNull CustomImage image){
+        Image base = image.getBase();
+        if(base instanceof Image.Circle || base.getPosX() != 0 || base.getPosY() != 0)
+            return false;
+        if(base.getWidth() > MAX_SIZE || base.getHeight() > MAX_SIZE)
+            return false;
+        
+        int width = base.getWidth();
+        int height = base.getHeight();
+        for(Image layer : image.getImages()){
+            // Circles are positioned by their center.
+            if(layer instanceof Image.Circle){
+                int radius = ((Image.Circle)layer).getRadius();
+                if(!inside(layer.getPosX() - radius, layer.getPosY() - radius, radius * 2, radius * 2, width, height))
+                    return false;
+            }else if(!inside(layer.getPosX(), layer.getPosY(), layer.getWidth(), layer.getHeight(), width, height)){
+                return false;
+            }
+        }
+        
+        for(Text text : image.getTexts()){
+            if(text.getMaxWidth() <= 0 || text.getMaxHeight() <= 0)
+                return false;
+            
+            int x = text.getPosX();
+            switch(text.getTextAlignment()){
+                case MIDDLE:
+                    x -= text.getMaxWidth() / 2;
+                    break;
+                
+                case RIGHT:
+                    x -= text.getMaxWidth();
+                    break;
+                
+                case LEFT:
+                default:
+                    break;
+            }
+            
+            if(!inside(x, text.getPosY(), text.getMaxWidth(), text.getMaxHeight(), width, height))
+                return false;
+        }
+        
+        return true;
+    }
+    
+    private static boolean inside(int x, int y, int width, int height, int maxWidth, int maxHeight){
+        return x >= 0 && y >= 0 && x + width <= maxWidth && y + height <= maxHeight;
+    }
+    
+    private void flush(){
+        List<Pending> requests;
+        synchronized(this){
+            if(pending.isEmpty())
+                return;
+            
+            requests = pending;
+            pending = new ArrayList<>();
+        }
+        
+        for(List<Pending> sheet : pack(requests))
+            CompletableFuture.runAsync(() -> send(sheet));
+    }
+    
+    /*
+     * Shelf packing: Images are placed left to right in rows, tallest first, with a new row starting when the current one
+     * is full and a new sheet starting when no row fits anymore.
+     */
+    private static List<List<Pending>> pack(List<Pending> requests){
+        requests.sort(Comparator.comparingInt((Pending request) -> request.height).reversed());
+        
+        List<List<Pending>> sheets = new ArrayList<>();
+        List<Pending> sheet = new ArrayList<>();
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+        for(Pending request : requests){
+            if(x + request.width > SHEET_SIZE){
+                x = 0;
+                y += rowHeight + PADDING;
+                rowHeight = 0;
+            }
+            
+            if(y + request.height > SHEET_SIZE){
+                sheets.add(sheet);
+                sheet = new ArrayList<>();
+                x = 0;
+                y = 0;
+                rowHeight = 0;
+            }
+            
+            request.x = x;
+            request.y = y;
+            sheet.add(request);
+            
+            x += request.width + PADDING;
+            rowHeight = Math.max(rowHeight, request.height);
+        }
+        
+        sheets.add(sheet);
+        return sheets;
+    }
+    
+    private void send(List<Pending> sheet){
+        try{
+            if(sheet.size() == 1){
+                Pending request = sheet.get(0);
+                request.future.complete(handler.getCustomImage(token, request.image));
+                return;
+            }
+            
+            GenericAPIResponse response = handler.getCustomImage(token, createSheet(sheet));
+            if(!(response instanceof GeneratedImage)){
+                for(Pending request : sheet)
+                    request.future.complete(response);
+                return;
+            }
+            
+            BufferedImage image = ((GeneratedImage)response).getAsBufferedImage();
+            if(image == null){
+                FailedAPIResponse failed = new FailedAPIResponse("Received sprite sheet could not be decoded.");
+                for(Pending request : sheet)
+                    request.future.complete(failed);
+                return;
+            }
+            
+            for(Pending request : sheet)
+                request.future.complete(new GeneratedImage(crop(image, request)));
+        }catch(RuntimeException ex){
+            for(Pending request : sheet)
+                request.future.completeExceptionally(ex);
+        }
+    }
+    
+    private JsonObject createSheet(List<Pending> sheet){
+        int width = 0;
+        int height = 0;
+        for(Pending request : sheet){
+            width = Math.max(width, request.x + request.width);
+            height = Math.max(height, request.y + request.height);
+        }
+        
+        CustomImage canvas = CustomImage.Builder.createBase(new Image.Rectangle()
+            .withWidth(width)
+            .withHeight(height)
+            .withColor(TRANSPARENT))
+            .build();
+        
+        JsonObject json = handler.toJson(canvas);
+        JsonArray images = json.getAsJsonArray("images");
+        JsonArray texts = json.getAsJsonArray("texts");
+        for(Pending request : sheet){
+            JsonObject image = handler.toJson(request.image);
+            
+            images.add(offset(image.getAsJsonObject("base"), request));
+            for(JsonElement layer : image.getAsJsonArray("images"))
+                images.add(offset(layer.getAsJsonObject(), request));
+            for(JsonElement text : image.getAsJsonArray("texts"))
+                texts.add(offset(text.getAsJsonObject(), request));
+        }
+        
+        return json;
+    }
+    
+    private static JsonObject offset(JsonObject layer, Pending request){
+        layer.addProperty("x", layer.get("x").getAsInt() + request.x);
+        layer.addProperty("y", layer.get("y").getAsInt() + request.y);
+        return layer;
+    }
+    
+    private static BufferedImage crop(BufferedImage sheet, Pending request){
+        BufferedImage image = new BufferedImage(request.width, request.height, BufferedImage.TYPE_INT_ARGB);
+        int width = Math.min(request.width, sheet.getWidth() - request.x);
+        int height = Math.min(request.height, sheet.getHeight() - request.y);
+        if(width <= 0 || height <= 0)
+            return image;
+        
+        Graphics2D g = image.createGraphics();
+        try{
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(sheet.getSubimage(request.x, request.y, width, height), 0, 0, null);
+        }finally{
+            g.dispose();
+        }
+        
+        return image;
+    }
+    
+    private static final class Pending{
+        
+        private final CustomImage image;
+        private final int width;
+        private final int height;
+        private final CompletableFuture<GenericAPIResponse> future = new CompletableFuture<>();
+        
+        private int x = 0;
+        private int y = 0;
+        
+        private Pending(CustomImage image){
+            this.image = image;
+            this.width = image.getBase().getWidth();
+            this.height = image.getBase().getHeight();
+        }
+    }
+}
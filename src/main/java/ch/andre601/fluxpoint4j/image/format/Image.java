@@ -95,6 +95,60 @@ public abstract class Image{
      */
     public abstract Image withColor(@NotNull ColorObject color);
     
+    /**
+     * Returns the type of this image as used by the Fluxpoint API (i.e. {@code bitmap} for a {@link Rectangle Rectangle}).
+     * 
+     * @return The type of this image.
+     */
+    public String getType(){
+        return type;
+    }
+    
+    /**
+     * Returns the position on the X (horizontal) axis of this image.
+     * 
+     * @return The horizontal position of this image.
+     */
+    public int getPosX(){
+        return posX;
+    }
+    
+    /**
+     * Returns the position on the Y (vertical) axis of this image.
+     * 
+     * @return The vertical position of this image.
+     */
+    public int getPosY(){
+        return posY;
+    }
+    
+    /**
+     * Returns the width of this image.
+     * 
+     * @return The width of this image.
+     */
+    public int getWidth(){
+        return width;
+    }
+    
+    /**
+     * Returns the height of this image.
+     * 
+     * @return The height of this image.
+     */
+    public int getHeight(){
+        return height;
+    }
+    
+    /**
+     * Returns the {@link ColorObject ColorObject} used by this image.
+     * 
+     * @return The color of this image.
+     */
+    public ColorObject getColor(){
+        return color;
+    }
+    
     /**
      * Class used to create the JSON for a Rectangle-shaped image (Referred to as "bitmap" in the fluxpoint API).
      * 
@@ -202,6 +256,15 @@ public abstract class Image{
             this.round = round;
             return this;
         }
+    
+        /**
+         * Returns the rounding of the Rectangle's corners.
+         * 
+         * @return How round the corners are.
+         */
+        public int getRound(){
+            return round;
+        }
     }
     
     /**
@@ -350,6 +413,33 @@ public abstract class Image{
             this.round = round;
             return this;
         }
+    
+        /**
+         * Returns the URL to get the image from.
+         * 
+         * @return Possibly-null URL of the source image.
+         */
+        public String getUrl(){
+            return url;
+        }
+    
+        /**
+         * Returns whether the Fluxpoint API should cache the received image.
+         * 
+         * @return True if the image should be cached by the API, otherwise false.
+         */
+        public boolean isCaching(){
+            return cache;
+        }
+    
+        /**
+         * Returns the rounding of the image's corners.
+         * 
+         * @return The strength of rounding the corner.
+         */
+        public int getRound(){
+            return round;
+        }
     }
     
     /**
@@ -458,6 +548,15 @@ public abstract class Image{
             this.radius = radius;
             return this;
         }
+    
+        /**
+         * Returns the radius of the circle.
+         * 
+         * @return The radius of the circle.
+         */
+        public int getRadius(){
+            return radius;
+        }
     }
     
     /**
@@ -565,6 +664,15 @@ public abstract class Image{
             this.cut = cut.getName();
             return this;
         }
+    
+        /**
+         * Returns where the missing piece of the triangle is displayed.
+         * 
+         * @return The {@link Cut cut position} of this triangle.
+         */
+        public Cut getCut(){
+            return Cut.fromName(cut);
+        }
     }
     
     /**
@@ -599,5 +707,22 @@ public abstract class Image{
         public String getName(){
             return name;
         }
+    
+        /**
+         * Returns the Cut matching the provided name, or {@link #TOP_LEFT TOP_LEFT} if no Cut matches.
+         * 
+         * @param  name
+         *         The name of the cut, as used by the Fluxpoint API.
+         * 
+         * @return The Cut matching the provided name.
+         */
+        public static Cut fromName(String name){
+            for(Cut cut : values()){
+                if(cut.getName().equals(name))
+                    return cut;
+            }
+            
+            return TOP_LEFT;
+        }
     }
 }
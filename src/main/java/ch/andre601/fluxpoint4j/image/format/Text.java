@@ -286,6 +286,162 @@ public abstract class Text{
      */
     public abstract Text withOutlineBlur(int outlineBlur);
     
+    /**
+     * Returns the relative X (horizontal) position of the text.
+     * 
+     * @return The horizontal position of the text.
+     */
+    public int getPosX(){
+        return posX;
+    }
+    
+    /**
+     * Returns the relative Y (vertical) position of the text.
+     * 
+     * @return The vertical position of the text.
+     */
+    public int getPosY(){
+        return posY;
+    }
+    
+    /**
+     * Returns the {@link TextAlignment TextAlignment} of this text.
+     * 
+     * @return The Text-alignment of this text.
+     */
+    public TextAlignment getTextAlignment(){
+        return TextAlignment.fromName(textAlignment);
+    }
+    
+    /**
+     * Returns the text size.
+     * 
+     * @return The size of the text.
+     */
+    public int getSize(){
+        return size;
+    }
+    
+    /**
+     * Returns the font used for the text.
+     * 
+     * @return The font used for the text.
+     */
+    public String getFont(){
+        return font;
+    }
+    
+    /**
+     * Returns the Text color.
+     * 
+     * @return The {@link ColorObject ColorObject} used for the text.
+     */
+    public ColorObject getColor(){
+        return color;
+    }
+    
+    /**
+     * Returns the background color of the text.
+     * 
+     * @return The {@link ColorObject ColorObject} used for the text-background.
+     */
+    public ColorObject getBackgroundColor(){
+        return backgroundColor;
+    }
+    
+    /**
+     * Returns whether the text is <b>bold</b> or not.
+     * 
+     * @return True if the text is bold, otherwise false.
+     */
+    public boolean isBold(){
+        return bold;
+    }
+    
+    /**
+     * Returns whether the text is <i>italic</i> or not.
+     * 
+     * @return True if the text is italic, otherwise false.
+     */
+    public boolean isItalic(){
+        return italic;
+    }
+    
+    /**
+     * Returns whether the text is <u>underlined</u> or not.
+     * 
+     * @return True if the text is underlined, otherwise false.
+     */
+    public boolean isUnderline(){
+        return underline;
+    }
+    
+    /**
+     * Returns the font weight of this text.
+     * 
+     * @return The font weight of this text.
+     */
+    public int getWeight(){
+        return weight;
+    }
+    
+    /**
+     * Returns the maximum width the text should take.
+     * <br>A value of 0 means that no maximum width has been set.
+     * 
+     * @return The maximum width of the text.
+     */
+    public int getMaxWidth(){
+        return maxWidth;
+    }
+    
+    /**
+     * Returns the maximum height the text should take.
+     * <br>A value of 0 means that no maximum height has been set.
+     * 
+     * @return The maximum height of the text.
+     */
+    public int getMaxHeight(){
+        return maxHeight;
+    }
+    
+    /**
+     * Returns whether the text should have an outline or not.
+     * 
+     * @return True if the text has an outline, otherwise false.
+     */
+    public boolean hasOutline(){
+        return outline;
+    }
+    
+    /**
+     * Returns the width of the outline.
+     * 
+     * @return The width of the outline.
+     */
+    public int getOutlineWidth(){
+        return outlineWidth;
+    }
+    
+    /**
+     * Returns the outline color.
+     * <br>The returned String is not guaranteed to follow any particular format.
+     * 
+     * @return The color of the outline.
+     */
+    public String getOutlineColor(){
+        return outlineColor;
+    }
+    
+    /**
+     * Returns the blur the outline should have.
+     * 
+     * @return The strength of the blurring for the outline.
+     */
+    public int getOutlineBlur(){
+        return outlineBlur;
+    }
+    
     /**
      * Represents a single text line to add.
      * <br>If you would like to add multiple lines, consider using {@link MultiLine MultiLine} instead.
@@ -542,7 +698,7 @@ public abstract class Text{
          */
         @Override
         public SingleLine withOutlineColor(@NotNull ColorObject color){
-            this.color = color;
+            this.outlineColor = color.getColor();
             return this;
         }
     
@@ -561,6 +717,15 @@ public abstract class Text{
             this.outlineBlur = outlineBlur;
             return this;
         }
+    
+        /**
+         * Returns the text to display.
+         * 
+         * @return The text to display.
+         */
+        public String getText(){
+            return text;
+        }
     }
     
     /**
@@ -819,7 +984,7 @@ public abstract class Text{
          */
         @Override
         public MultiLine withOutlineColor(@NotNull ColorObject color){
-            this.color = color;
+            this.outlineColor = color.getColor();
             return this;
         }
     
@@ -858,6 +1023,24 @@ public abstract class Text{
             this.lineSpacing = lineSpacing;
             return this;
         }
+    
+        /**
+         * Returns the text lines to display.
+         * 
+         * @return The text lines to display.
+         */
+        public String[] getTexts(){
+            return texts;
+        }
+    
+        /**
+         * Returns the spacing between the different lines of text.
+         * 
+         * @return The space each line has in-between.
+         */
+        public double getLineSpacing(){
+            return lineSpacing;
+        }
     }
     
     /**
@@ -887,5 +1070,22 @@ public abstract class Text{
         public String getName(){
             return name;
         }
+    
+        /**
+         * Returns the TextAlignment matching the provided name, or {@link #LEFT LEFT} if no TextAlignment matches.
+         * 
+         * @param  name
+         *         The name of the text-alignment, as used by the Fluxpoint API.
+         * 
+         * @return The TextAlignment matching the provided name.
+         */
+        public static TextAlignment fromName(String name){
+            for(TextAlignment alignment : values()){
+                if(alignment.getName().equals(name))
+                    return alignment;
+            }
+            
+            return LEFT;
+        }
     }
 }
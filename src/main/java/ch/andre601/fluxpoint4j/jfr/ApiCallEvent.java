@@ -0,0 +1,38 @@
+package ch.andre601.fluxpoint4j.jfr;
+
+/**
+ * Flight Recorder event of a single call to the Fluxpoint API, started when created through
+ * {@link FlightEvents#apiCall() FlightEvents.apiCall()}.
+ * <br>The duration of the event is the time spent on the network, while the time the call waited in a queue before it
+ * was started is recorded separately.
+ */
+public interface ApiCallEvent{
+    
+    /**
+     * Whether the event is recorded, used to skip computing its values otherwise.
+     * 
+     * @return True if the event should be committed, otherwise false.
+     */
+    boolean shouldCommit();
+    
+    /**
+     * Ends the event and records it with the provided values.
+     * 
+     * @param endpoint
+     *        The endpoint called, such as {@code /gen/custom}.
+     * @param payloadSize
+     *        The size of the uncompressed request body in bytes.
+     * @param statusCode
+     *        The HTTP status code of the response, or -1 if none was received.
+     * @param responseSize
+     *        The size of the response body in bytes, or -1 if none was received.
+     * @param queueWait
+     *        The time in nanoseconds the call waited before it was started.
+     * @param compressed
+     *        Whether the request body was sent gzip-compressed.
+     * @param retried
+     *        Whether the request had to be sent again, because the compressed request was rejected.
+     */
+    void commit(String endpoint, long payloadSize, int statusCode, long responseSize, long queueWait, boolean compressed,
+                boolean retried);
+}
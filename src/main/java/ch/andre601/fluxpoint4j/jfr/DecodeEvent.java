@@ -0,0 +1,27 @@
+package ch.andre601.fluxpoint4j.jfr;
+
+/**
+ * Flight Recorder event of decoding an image, started when created through
+ * {@link FlightEvents#decode() FlightEvents.decode()}.
+ */
+public interface DecodeEvent{
+    
+    /**
+     * Whether the event is recorded, used to skip computing its values otherwise.
+     * 
+     * @return True if the event should be committed, otherwise false.
+     */
+    boolean shouldCommit();
+    
+    /**
+     * Ends the event and records it with the provided values.
+     * 
+     * @param source
+     *        Where the image came from, such as its URL.
+     * @param width
+     *        The width of the decoded image, or -1 if decoding failed.
+     * @param height
+     *        The height of the decoded image, or -1 if decoding failed.
+     */
+    void commit(String source, int width, int height);
+}
@@ -0,0 +1,13 @@
+package ch.andre601.fluxpoint4j.jfr;
+
+/**
+ * Creates the Flight Recorder events, either ones recorded by JFR or ones doing nothing.
+ */
+interface EventFactory{
+    
+    ApiCallEvent apiCall();
+    
+    RenderEvent render();
+    
+    DecodeEvent decode();
+}
@@ -0,0 +1,41 @@
+package ch.andre601.fluxpoint4j.jfr;
+
+/**
+ * Creates the Java Flight Recorder events of Fluxpoint4J, used internally by the request handler and local renderers.
+ * 
+ * <p>This version is used on Java 10 and older, where no events are recorded. The version used on Java 11 and newer
+ * records the events with JFR, provided the {@code jdk.jfr} module is present.
+ */
+public final class FlightEvents{
+    
+    private static final EventFactory FACTORY = NoOpEvents.INSTANCE;
+    
+    private FlightEvents(){}
+    
+    /**
+     * Starts a new {@link ApiCallEvent ApiCallEvent}.
+     * 
+     * @return The started event.
+     */
+    public static ApiCallEvent apiCall(){
+        return FACTORY.apiCall();
+    }
+    
+    /**
+     * Starts a new {@link RenderEvent RenderEvent}.
+     * 
+     * @return The started event.
+     */
+    public static RenderEvent render(){
+        return FACTORY.render();
+    }
+    
+    /**
+     * Starts a new {@link DecodeEvent DecodeEvent}.
+     * 
+     * @return The started event.
+     */
+    public static DecodeEvent decode(){
+        return FACTORY.decode();
+    }
+}
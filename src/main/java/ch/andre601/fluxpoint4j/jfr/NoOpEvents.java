@@ -0,0 +1,39 @@
+package ch.andre601.fluxpoint4j.jfr;
+
+/**
+ * Events used when Flight Recorder isn't available, doing nothing.
+ * <br>The same instance is returned for every event, so no objects are created.
+ */
+enum NoOpEvents implements EventFactory, ApiCallEvent, RenderEvent, DecodeEvent{
+    INSTANCE;
+    
+    @Override
+    public ApiCallEvent apiCall(){
+        return this;
+    }
+    
+    @Override
+    public RenderEvent render(){
+        return this;
+    }
+    
+    @Override
+    public DecodeEvent decode(){
+        return this;
+    }
+    
+    @Override
+    public boolean shouldCommit(){
+        return false;
+    }
+    
+    @Override
+    public void commit(String endpoint, long payloadSize, int statusCode, long responseSize, long queueWait,
+                       boolean compressed, boolean retried){}
+    
+    @Override
+    public void commit(String phase, int width, int height, int layers){}
+    
+    @Override
+    public void commit(String source, int width, int height){}
+}
@@ -0,0 +1,29 @@
+package ch.andre601.fluxpoint4j.jfr;
+
+/**
+ * Flight Recorder event of a phase of rendering an image locally, started when created through
+ * {@link FlightEvents#render() FlightEvents.render()}.
+ */
+public interface RenderEvent{
+    
+    /**
+     * Whether the event is recorded, used to skip computing its values otherwise.
+     * 
+     * @return True if the event should be committed, otherwise false.
+     */
+    boolean shouldCommit();
+    
+    /**
+     * Ends the event and records it with the provided values.
+     * 
+     * @param phase
+     *        The phase of the rendering, such as {@code layout}, {@code layers} or {@code paint}.
+     * @param width
+     *        The width of the rendered image.
+     * @param height
+     *        The height of the rendered image.
+     * @param layers
+     *        The number of layers handled in this phase.
+     */
+    void commit(String phase, int width, int height, int layers);
+}
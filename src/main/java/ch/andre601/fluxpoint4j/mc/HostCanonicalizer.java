@@ -0,0 +1,146 @@
+package ch.andre601.fluxpoint4j.mc;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Maps the different names of a Minecraft server to a single {@link ServerTarget ServerTarget}, so that aliases of the
+ * same server share one cache entry.
+ * 
+ * <p>A host is canonicalized like the Minecraft client resolves it:
+ * <ol>
+ *     <li>Trailing dots are removed. Case is already ignored by the ServerTarget.</li>
+ *     <li>When the default port 25565 is used, the {@code _minecraft._tcp} SRV record of the host replaces host and
+ *     port.</li>
+ *     <li>CNAME records of the resulting host are followed to its canonical name.</li>
+ * </ol>
+ * IP addresses are returned unchanged. Results are cached for the TTL. Failed lookups keep the host as-is and are not
+ * cached, so that a temporary DNS failure doesn't split the aliases of a server for the whole TTL.
+ */
+public class HostCanonicalizer{
+    
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    private static final int PURGE_THRESHOLD = 1024;
+    
+    private final HostResolver resolver;
+    private final long ttl;
+    
+    private final Map<ServerTarget, Entry> entries = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a new HostCanonicalizer using the {@link HostResolver#system() system resolver} and caching results for
+     * 5 minutes.
+     */
+    public HostCanonicalizer(){
+        this(HostResolver.system(), 5, TimeUnit.MINUTES);
+    }
+    
+    /**
+     * Creates a new HostCanonicalizer using the provided resolver and TTL.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>HostResolver or TimeUnit is null.</li>
+     *     <li>TTL is negative.</li>
+     * </ul>
+     * 
+     * @param resolver
+     *        The HostResolver to look up DNS records with.
+     * @param ttl
+     *        The time results are cached for.
+     * @param unit
+     *        The TimeUnit of the TTL.
+     */
+    public HostCanonicalizer(@NotNull HostResolver resolver, long ttl, @NotNull TimeUnit unit){
+        CheckUtil.notNull(resolver, "HostResolver");
+        CheckUtil.notNull(unit, "TimeUnit");
+        CheckUtil.check(ttl >= 0, "TTL may not be negative.");
+        
+        this.resolver = resolver;
+        this.ttl = unit.toNanos(ttl);
+    }
+    
+    /**
+     * Returns the canonical ServerTarget of the provided one.
+     * 
+     * @param  target
+     *         The ServerTarget to canonicalize.
+     * 
+     * @return The canonical ServerTarget. May be the provided instance when it already is canonical.
+     */
+    @NotNull
+    public ServerTarget canonicalize(@NotNull ServerTarget target){
+        CheckUtil.notNull(target, "ServerTarget");
+        
+        long now = System.nanoTime();
+        Entry entry = entries.get(target);
+        if(entry != null && now - entry.expires < 0)
+            return entry.target;
+        
+        ServerTarget canonical;
+        try{
+            canonical = resolve(target);
+        }catch(IOException ex){
+            // The host may still be reachable, i.e. through an A record, so it is kept as-is.
+            String host = stripDot(target.getHost());
+            return host.equals(target.getHost()) ? target : new ServerTarget(host, target.getPort());
+        }
+        
+        if(entries.size() >= PURGE_THRESHOLD)
+            entries.values().removeIf(cached -> now - cached.expires >= 0);
+        entries.put(target, new Entry(canonical, now + ttl));
+        return canonical;
+    }
+    
+    /**
+     * Removes all cached results.
+     */
+    public void clear(){
+        entries.clear();
+    }
+    
+    private ServerTarget resolve(ServerTarget target) throws IOException{
+        String host = stripDot(target.getHost());
+        int port = target.getPort();
+        if(isIpAddress(host))
+            return host.equals(target.getHost()) ? target : new ServerTarget(host, port);
+        
+        if(port == ServerTarget.DEFAULT_PORT){
+            ServerTarget srv = resolver.resolveSrv(host);
+            if(srv != null){
+                host = stripDot(srv.getHost());
+                port = srv.getPort();
+            }
+        }
+        
+        host = stripDot(resolver.resolveCanonicalName(host));
+        
+        ServerTarget canonical = new ServerTarget(host, port);
+        return canonical.equals(target) ? target : canonical;
+    }
+    
+    private static boolean isIpAddress(String host){
+        return host.indexOf(':') >= 0 || IPV4.matcher(host).matches();
+    }
+    
+    private static String stripDot(String host){
+        return host.endsWith(".") ? host.substring(0, host.length() - 1) : host;
+    }
+    
+    private static final class Entry{
+        
+        private final ServerTarget target;
+        private final long expires;
+        
+        private Entry(ServerTarget target, long expires){
+            this.target = target;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ch.andre601.fluxpoint4j.mc;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Interface used by the {@link HostCanonicalizer HostCanonicalizer} to look up the DNS records of Minecraft servers.
+ * 
+ * <p>The {@link #system() system resolver} queries the DNS servers configured for the JVM, but you can provide your
+ * own, i.e. a stub returning fixed records in tests.
+ */
+@FunctionalInterface
+public interface HostResolver{
+    
+    /**
+     * Looks up the {@code _minecraft._tcp} SRV record of the provided host.
+     * 
+     * @param  host
+     *         The host to look up.
+     * 
+     * @return Possibly-null ServerTarget the SRV record points to. Null when the host has no SRV record.
+     * 
+     * @throws IOException
+     *         When the lookup failed.
+     */
+    @Nullable
+    ServerTarget resolveSrv(@NotNull String host) throws IOException;
+    
+    /**
+     * Follows the CNAME records of the provided host to its canonical name.
+     * <br>The default implementation returns the host unchanged.
+     * 
+     * @param  host
+     *         The host to look up.
+     * 
+     * @return The canonical name of the host, or the host itself when it has no CNAME record.
+     * 
+     * @throws IOException
+     *         When the lookup failed.
+     */
+    @NotNull
+    default String resolveCanonicalName(@NotNull String host) throws IOException{
+        return host;
+    }
+    
+    /**
+     * Returns a HostResolver querying the DNS servers configured for the JVM through JNDI.
+     * 
+     * @return HostResolver using the system DNS servers.
+     */
+    static HostResolver system(){
+        return JndiHostResolver.INSTANCE;
+    }
+}
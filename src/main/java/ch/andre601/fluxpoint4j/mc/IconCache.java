@@ -0,0 +1,229 @@
+package ch.andre601.fluxpoint4j.mc;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.HashUtil;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache for the icons of Minecraft servers, used by the {@link MCRequestBuilder MCRequestBuilder} to avoid having the
+ * Fluxpoint API include the icon in every response.
+ * 
+ * <p>When a cache is {@link MCRequestBuilder#withIconCache(IconCache) set}, requests are performed without the icon,
+ * unless the server is seen for the first time or its icon is older than the TTL. The
+ * {@link MCServerPingResponse#getRawIcon() raw icon} is then added to the returned response from this cache.
+ * <br>A changed MOTD often comes with a new icon, so it causes the icon to be fetched again with a second request. To
+ * keep servers that constantly change their MOTD from doubling the requests, this happens at most once per TTL and
+ * server.
+ * <br>Icons are stored by the SHA-256 hash of their content, so servers sharing the same icon, such as the servers of
+ * a network, share a single instance of it. Icons no longer used by any server are removed.
+ * 
+ * <p>The same cache can be shared by multiple builders and threads.
+ */
+public class IconCache{
+    
+    private final long ttl;
+    
+    private final Map<ServerTarget, Entry> entries = new HashMap<>();
+    private final Map<String, Icon> icons = new HashMap<>();
+    
+    /**
+     * Creates a new IconCache refreshing icons every hour.
+     */
+    public IconCache(){
+        this(1, TimeUnit.HOURS);
+    }
+    
+    /**
+     * Creates a new IconCache refreshing icons after the provided time.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>TTL is less than 1.</li>
+     *     <li>TimeUnit is null.</li>
+     * </ul>
+     * 
+     * @param ttl
+     *        The time after which the icon of a server is fetched again.
+     * @param unit
+     *        The TimeUnit of the TTL.
+     */
+    public IconCache(long ttl, @NotNull TimeUnit unit){
+        CheckUtil.check(ttl > 0, "TTL may not be less than 1.");
+        CheckUtil.notNull(unit, "TimeUnit");
+        
+        this.ttl = unit.toNanos(ttl);
+    }
+    
+    /**
+     * Returns the cached Base64-encoded icon of the provided server.
+     * 
+     * @param  target
+     *         The server to get the icon of.
+     * 
+     * @return Possibly-null Base64-encoded icon of the server. Null when no icon has been fetched yet or the server has none.
+     */
+    @Nullable
+    public synchronized String getIcon(@NotNull ServerTarget target){
+        Entry entry = entries.get(target);
+        return entry == null || entry.hash == null ? null : icons.get(entry.hash).icon;
+    }
+    
+    /**
+     * Returns the SHA-256 hash of the cached icon of the provided server, as lower-case hex String.
+     * <br>Servers with the same hash share the same icon.
+     * 
+     * @param  target
+     *         The server to get the icon hash of.
+     * 
+     * @return Possibly-null hash of the icon. Null when no icon has been fetched yet or the server has none.
+     */
+    @Nullable
+    public synchronized String getIconHash(@NotNull ServerTarget target){
+        Entry entry = entries.get(target);
+        return entry == null ? null : entry.hash;
+    }
+    
+    /**
+     * Returns the icon with the provided SHA-256 hash.
+     * 
+     * @param  hash
+     *         The hash of the icon, as lower-case hex String.
+     * 
+     * @return Possibly-null Base64-encoded icon with the hash. Null when no server uses an icon with this hash.
+     */
+    @Nullable
+    public synchronized String getIconByHash(@NotNull String hash){
+        Icon icon = icons.get(hash);
+        return icon == null ? null : icon.icon;
+    }
+    
+    /**
+     * Removes the icon of the provided server, so that it is fetched again with the next request.
+     * 
+     * @param target
+     *        The server to remove the icon of.
+     */
+    public synchronized void invalidate(@NotNull ServerTarget target){
+        release(entries.remove(target));
+    }
+    
+    /**
+     * Removes all icons from the cache.
+     */
+    public synchronized void clear(){
+        entries.clear();
+        icons.clear();
+    }
+    
+    /**
+     * Returns the amount of distinct icons in the cache.
+     * 
+     * @return The amount of distinct icons.
+     */
+    public synchronized int size(){
+        return icons.size();
+    }
+    
+    synchronized boolean needsIcon(ServerTarget target){
+        Entry entry = entries.get(target);
+        return entry == null || System.nanoTime() - entry.fetched >= ttl;
+    }
+    
+    /*
+     * Returns whether the icon should be fetched again because the MOTD changed, which is limited to once per TTL.
+     */
+    synchronized boolean refetchForMotd(ServerTarget target, String motd){
+        Entry entry = entries.get(target);
+        if(entry == null || Objects.equals(entry.motd, motd))
+            return false;
+        
+        long now = System.nanoTime();
+        if(entry.refetched && now - entry.refetchedAt < ttl)
+            return false;
+        
+        entry.refetched = true;
+        entry.refetchedAt = now;
+        return true;
+    }
+    
+    /*
+     * Stores the icon of the response if it has been requested with the icon, or otherwise adds the cached icon to it.
+     * Failed responses and offline servers are returned unchanged and don't update the cache.
+     */
+    synchronized GenericAPIResponse apply(ServerTarget target, GenericAPIResponse response, boolean withIcon){
+        if(!(response instanceof MCServerPingResponse) || !((MCServerPingResponse)response).isOnline())
+            return response;
+        
+        MCServerPingResponse ping = (MCServerPingResponse)response;
+        if(!withIcon){
+            Entry entry = entries.get(target);
+            if(entry == null || entry.hash == null)
+                return response;
+            
+            return ping.toBuilder().withRawIcon(icons.get(entry.hash).icon).build();
+        }
+        
+        String hash = null;
+        String icon = ping.getRawIcon();
+        if(icon != null && !icon.isEmpty()){
+            hash = HashUtil.sha256Hex(icon);
+            Icon cached = icons.computeIfAbsent(hash, key -> new Icon(ping.getRawIcon()));
+            cached.users++;
+            icon = cached.icon;
+        }
+        
+        Entry entry = new Entry(hash, ping.getMotd(), System.nanoTime());
+        Entry previous = entries.put(target, entry);
+        if(previous != null){
+            entry.refetched = previous.refetched;
+            entry.refetchedAt = previous.refetchedAt;
+        }
+        release(previous);
+        
+        // Returning the cached instance lets servers with the same icon share it.
+        return icon == null || icon == ping.getRawIcon() ? response : ping.toBuilder().withRawIcon(icon).build();
+    }
+    
+    private void release(Entry entry){
+        if(entry == null || entry.hash == null)
+            return;
+        
+        Icon icon = icons.get(entry.hash);
+        if(icon != null && --icon.users <= 0)
+            icons.remove(entry.hash);
+    }
+    
+    private static final class Entry{
+        
+        private final String hash;
+        private final String motd;
+        private final long fetched;
+        
+        private boolean refetched = false;
+        private long refetchedAt;
+        
+        private Entry(String hash, String motd, long fetched){
+            this.hash = hash;
+            this.motd = motd;
+            this.fetched = fetched;
+        }
+    }
+    
+    private static final class Icon{
+        
+        private final String icon;
+        private int users = 0;
+        
+        private Icon(String icon){
+            this.icon = icon;
+        }
+    }
+}
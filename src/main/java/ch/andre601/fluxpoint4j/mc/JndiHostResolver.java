@@ -0,0 +1,103 @@
+package ch.andre601.fluxpoint4j.mc;
+
+import java.io.IOException;
+import java.util.Hashtable;
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+
+/*
+ * HostResolver using the DNS provider of JNDI, which is part of every JDK.
+ */
+final class JndiHostResolver implements HostResolver{
+    
+    static final JndiHostResolver INSTANCE = new JndiHostResolver();
+    
+    private static final int MAX_CNAME_DEPTH = 8;
+    
+    private JndiHostResolver(){}
+    
+    @Override
+    public ServerTarget resolveSrv(String host) throws IOException{
+        Attribute attribute = lookup("_minecraft._tcp." + host, "SRV");
+        if(attribute == null)
+            return null;
+        
+        // Records are "priority weight port target". The lowest priority and the highest weight win.
+        String[] best = null;
+        try{
+            NamingEnumeration<?> records = attribute.getAll();
+            while(records.hasMore()){
+                String[] record = String.valueOf(records.next()).trim().split("\\s+");
+                if(record.length != 4)
+                    continue;
+                
+                if(best == null || compare(record, best) < 0)
+                    best = record;
+            }
+            
+            if(best == null)
+                return null;
+            
+            return new ServerTarget(stripDot(best[3]), Integer.parseInt(best[2]));
+        }catch(NamingException | IllegalArgumentException ex){
+            throw new IOException("Invalid SRV record for " + host + ": " + ex.getMessage(), ex);
+        }
+    }
+    
+    @Override
+    public String resolveCanonicalName(String host) throws IOException{
+        String current = host;
+        for(int i = 0; i < MAX_CNAME_DEPTH; i++){
+            Attribute attribute = lookup(current, "CNAME");
+            if(attribute == null)
+                return current;
+            
+            try{
+                current = stripDot(String.valueOf(attribute.get()));
+            }catch(NamingException ex){
+                throw new IOException("Invalid CNAME record for " + current + ": " + ex.getMessage(), ex);
+            }
+        }
+        
+        return current;
+    }
+    
+    private static Attribute lookup(String name, String type) throws IOException{
+        Hashtable<String, String> environment = new Hashtable<>();
+        environment.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.dns.DnsContextFactory");
+        environment.put(Context.PROVIDER_URL, "dns:");
+        
+        DirContext context = null;
+        try{
+            context = new InitialDirContext(environment);
+            return context.getAttributes(name, new String[]{type}).get(type);
+        }catch(NameNotFoundException ex){
+            return null;
+        }catch(NamingException ex){
+            throw new IOException("Could not look up " + type + " record of " + name + ": " + ex.getMessage(), ex);
+        }finally{
+            if(context != null){
+                try{
+                    context.close();
+                }catch(NamingException ignored){}
+            }
+        }
+    }
+    
+    private static int compare(String[] record, String[] other){
+        int priority = Integer.compare(Integer.parseInt(record[0]), Integer.parseInt(other[0]));
+        if(priority != 0)
+            return priority;
+        
+        return Integer.compare(Integer.parseInt(other[1]), Integer.parseInt(record[1]));
+    }
+    
+    private static String stripDot(String host){
+        return host.endsWith(".") ? host.substring(0, host.length() - 1) : host;
+    }
+}
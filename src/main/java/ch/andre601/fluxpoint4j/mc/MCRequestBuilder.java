@@ -2,8 +2,10 @@ package ch.andre601.fluxpoint4j.mc;
 
 import ch.andre601.fluxpoint4j.CheckUtil;
 import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
 import ch.andre601.fluxpoint4j.request.RequestHandler;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -12,6 +14,8 @@ import java.util.concurrent.CompletableFuture;
  * 
  * <p>This class allows you to {@link #withHost(String) set a host}, {@link #withPort(int) set a port} and
  * {@link #withIcon(boolean) if icon should be included}.
+ * <br>Repeated requests for the same servers should {@link #withIconCache(IconCache) use an IconCache} instead of
+ * including the icon in every response.
  */
 public class MCRequestBuilder{
     
@@ -21,6 +25,8 @@ public class MCRequestBuilder{
     private String host = null;
     private int port = 25565;
     private boolean withIcon = false;
+    private IconCache iconCache = null;
+    private HostCanonicalizer canonicalizer = null;
     
     public MCRequestBuilder(String token, RequestHandler handler){
         this.token = token;
@@ -68,6 +74,40 @@ public class MCRequestBuilder{
         return this;
     }
     
+    /**
+     * Sets the {@link IconCache IconCache} to get the Server's icon from, or {@code null} to not use a cache.
+     * <br>When set, the icon is only requested from the Fluxpoint API when the server has no cached icon yet, the
+     * cached icon expired or the MOTD of the server changed, with the latter causing a second request at most once per
+     * TTL. All other responses have the cached icon added to them, which keeps the responses of the API small.
+     * {@link #withIcon(boolean) withIcon(boolean)} is ignored in this case.
+     * 
+     * @param  iconCache
+     *         The IconCache to use, or {@code null}.
+     * 
+     * @return This builder after the IconCache has been set. Useful for chaining.
+     */
+    public MCRequestBuilder withIconCache(@Nullable IconCache iconCache){
+        this.iconCache = iconCache;
+        return this;
+    }
+    
+    /**
+     * Sets the {@link HostCanonicalizer HostCanonicalizer} to resolve the host and port with before the
+     * {@link #withIconCache(IconCache) IconCache} is used, or {@code null} to use them as-is.
+     * <br>This makes aliases of the same server, such as SRV records and CNAMEs, share the same cached icon. The
+     * request itself is still made with the host and port set in this builder, so the HostCanonicalizer is ignored
+     * when no IconCache is set.
+     * 
+     * @param  canonicalizer
+     *         The HostCanonicalizer to use, or {@code null}.
+     * 
+     * @return This builder after the HostCanonicalizer has been set. Useful for chaining.
+     */
+    public MCRequestBuilder withHostCanonicalizer(@Nullable HostCanonicalizer canonicalizer){
+        this.canonicalizer = canonicalizer;
+        return this;
+    }
+    
     /**
      * Performs a request towards the Fluxpoint API to check a MC server and receive possible information from it.
      * 
@@ -98,6 +138,8 @@ public class MCRequestBuilder{
      * <ul>
      *     <li>{@link #withHost(String) Host} is null or empty.</li>
      *     <li>{@link #withPort(int) Port} is not a positive number.</li>
+     *     <li>{@link #withPort(int) Port} is larger than 65535 while an {@link #withIconCache(IconCache) IconCache} is
+     *     set.</li>
      * </ul>
      * 
      * @return A {@link GenericAPIResponse GenericAPIResponse} after a request has been made.
@@ -106,7 +148,28 @@ public class MCRequestBuilder{
         CheckUtil.notNullOrEmpty(host, "Host");
         CheckUtil.isPositive(port, "Port");
         
-        return handler.getMcServerResponse(token, host, port, withIcon);
+        if(iconCache == null)
+            return handler.getMcServerResponse(token, host, port, withIcon);
+        
+        // The canonical target is only used as the key of the cache. The API is still asked for the host and port set.
+        ServerTarget target = new ServerTarget(host, port);
+        if(canonicalizer != null)
+            target = canonicalizer.canonicalize(target);
+        
+        boolean fetchIcon = iconCache.needsIcon(target);
+        GenericAPIResponse response = handler.getMcServerResponse(token, host, port, fetchIcon);
+        
+        // A changed MOTD often comes with a new icon, so it is fetched again. The IconCache limits this to once per TTL.
+        if(!fetchIcon && response instanceof MCServerPingResponse && ((MCServerPingResponse)response).isOnline()
+            && iconCache.refetchForMotd(target, ((MCServerPingResponse)response).getMotd())){
+            GenericAPIResponse withIcon = handler.getMcServerResponse(token, host, port, true);
+            if(withIcon instanceof MCServerPingResponse){
+                response = withIcon;
+                fetchIcon = true;
+            }
+        }
+        
+        return iconCache.apply(target, response, fetchIcon);
     }
     
     /**
@@ -152,6 +215,6 @@ public class MCRequestBuilder{
      * @return A {@link GenericAPIResponse GenericAPIResponse} after a request has been made.
      */
     public CompletableFuture<GenericAPIResponse> queueRequest(){
-        return CompletableFuture.supplyAsync(this::performRequest);
+        return CompletableFuture.supplyAsync(RequestHandler.queued(this::performRequest));
     }
 }
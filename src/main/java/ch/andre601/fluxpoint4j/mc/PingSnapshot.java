@@ -0,0 +1,396 @@
+package ch.andre601.fluxpoint4j.mc;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.HashUtil;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format to persist the latest {@link MCServerPingResponse MCServerPingResponse} of many servers, such
+ * as when restarting a monitor.
+ * 
+ * <p>A snapshot starts with a header containing the magic {@code FPPS} and the format version, followed by a table of
+ * all distinct Strings, a table of all distinct icons and finally the responses. The responses only reference entries
+ * of the tables and store numbers as VarInts, so MOTDs, versions and icons shared by many servers are only stored once.
+ * <br>Icons are deduplicated by their SHA-256 hash and stored as decoded PNG bytes.
+ */
+public final class PingSnapshot{
+    
+    private static final int MAGIC = 0x46505053; // FPPS
+    private static final int VERSION = 1;
+    
+    private static final int FLAG_ONLINE = 1;
+    private static final int FLAG_FULL_QUERY = 1 << 1;
+    
+    private static final int ICON_BYTES = 0;
+    private static final int ICON_STRING = 1;
+    
+    private PingSnapshot(){}
+    
+    /**
+     * Writes the provided responses to the file, replacing its previous content.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>File or responses are null.</li>
+     * </ul>
+     * 
+     * @param  file
+     *         The file to write the snapshot to.
+     * @param  responses
+     *         The responses to write, by their server.
+     * 
+     * @throws IOException
+     *         When the file could not be written.
+     */
+    public static void write(@NotNull Path file, @NotNull Map<ServerTarget, MCServerPingResponse> responses) throws IOException{
+        CheckUtil.notNull(file, "File");
+        
+        ByteBuffer buffer = encode(responses);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)){
+            while(buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+    
+    /**
+     * Reads the responses of a snapshot file, which is memory-mapped while it is read.
+     * 
+     * @param  file
+     *         The file to read the snapshot from.
+     * 
+     * @return Map of the responses by their server, in the order they were written.
+     * 
+     * @throws IOException
+     *         When the file could not be read or is not a valid snapshot.
+     */
+    @NotNull
+    public static Map<ServerTarget, MCServerPingResponse> read(@NotNull Path file) throws IOException{
+        CheckUtil.notNull(file, "File");
+        
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+    
+    /**
+     * Encodes the provided responses into a snapshot.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Responses are null or contain null keys or values.</li>
+     * </ul>
+     * 
+     * @param  responses
+     *         The responses to encode, by their server.
+     * 
+     * @return ByteBuffer containing the snapshot, ready to be read.
+     */
+    @NotNull
+    public static ByteBuffer encode(@NotNull Map<ServerTarget, MCServerPingResponse> responses){
+        CheckUtil.notNull(responses, "Responses");
+        
+        Table<String> strings = new Table<>();
+        Table<Icon> icons = new Table<>();
+        MessageDigest digest = HashUtil.sha256();
+        
+        Output entries = new Output();
+        entries.writeVarInt(responses.size());
+        for(Map.Entry<ServerTarget, MCServerPingResponse> entry : responses.entrySet()){
+            ServerTarget target = entry.getKey();
+            MCServerPingResponse response = entry.getValue();
+            CheckUtil.notNull(target, "ServerTarget");
+            CheckUtil.notNull(response, "Response");
+            
+            int flags = (response.isOnline() ? FLAG_ONLINE : 0) | (response.isFullQuery() ? FLAG_FULL_QUERY : 0);
+            
+            entries.writeVarInt(strings.indexOf(target.getHost()));
+            entries.writeVarInt(target.getPort());
+            entries.writeVarInt(flags);
+            entries.writeVarInt(zigZag(response.getCode()));
+            entries.writeVarInt(zigZag(response.getPlayersOnline()));
+            entries.writeVarInt(zigZag(response.getMaxPlayers()));
+            entries.writeVarInt(strings.optionalIndexOf(response.getMessage()));
+            entries.writeVarInt(strings.optionalIndexOf(response.getMotd()));
+            entries.writeVarInt(strings.optionalIndexOf(response.getVersion()));
+            entries.writeVarInt(strings.optionalIndexOf(response.getStatus()));
+            entries.writeVarInt(strings.optionalIndexOf(response.getIcon()));
+            entries.writeVarInt(strings.optionalIndexOf(response.getSoftware()));
+            entries.writeVarInt(response.getRawIcon() == null ? 0 : icons.indexOf(Icon.of(response.getRawIcon(), digest)) + 1);
+            writeStrings(entries, strings, response.getPlayers());
+            writeStrings(entries, strings, response.getPlugins());
+        }
+        
+        Output output = new Output();
+        output.ensure(8);
+        output.buffer.putInt(MAGIC);
+        output.writeVarInt(VERSION);
+        
+        output.writeVarInt(strings.size());
+        for(String string : strings.values)
+            output.writeBytes(string.getBytes(StandardCharsets.UTF_8));
+        
+        output.writeVarInt(icons.size());
+        for(Icon icon : icons.values){
+            output.writeVarInt(icon.kind);
+            output.writeBytes(icon.data);
+        }
+        
+        ByteBuffer content = entries.buffer;
+        content.flip();
+        output.ensure(content.remaining());
+        output.buffer.put(content);
+        
+        output.buffer.flip();
+        return output.buffer;
+    }
+    
+    /**
+     * Decodes the responses of a snapshot, starting at the current position of the buffer.
+     * 
+     * @param  buffer
+     *         The buffer containing the snapshot.
+     * 
+     * @return Map of the responses by their server, in the order they were written.
+     * 
+     * @throws IOException
+     *         When the buffer does not contain a valid snapshot.
+     */
+    @NotNull
+    public static Map<ServerTarget, MCServerPingResponse> decode(@NotNull ByteBuffer buffer) throws IOException{
+        CheckUtil.notNull(buffer, "Buffer");
+        
+        try{
+            if(buffer.remaining() < 4 || buffer.getInt() != MAGIC)
+                throw new IOException("Invalid snapshot: Missing FPPS header.");
+            
+            int version = readVarInt(buffer);
+            if(version != VERSION)
+                throw new IOException("Invalid snapshot: Unsupported version " + version + ".");
+            
+            String[] strings = new String[readCount(buffer)];
+            for(int i = 0; i < strings.length; i++)
+                strings[i] = new String(readBytes(buffer), StandardCharsets.UTF_8);
+            
+            String[] icons = new String[readCount(buffer)];
+            for(int i = 0; i < icons.length; i++){
+                int kind = readVarInt(buffer);
+                byte[] data = readBytes(buffer);
+                icons[i] = kind == ICON_BYTES ? Base64.getEncoder().encodeToString(data) : new String(data, StandardCharsets.UTF_8);
+            }
+            
+            int count = readCount(buffer);
+            Map<ServerTarget, MCServerPingResponse> responses = new LinkedHashMap<>(count * 4 / 3 + 1);
+            for(int i = 0; i < count; i++){
+                ServerTarget target = new ServerTarget(strings[readVarInt(buffer)], readVarInt(buffer));
+                int flags = readVarInt(buffer);
+                
+                MCServerPingResponse.Builder builder = new MCServerPingResponse.Builder()
+                    .withOnline((flags & FLAG_ONLINE) != 0)
+                    .withFullQuery((flags & FLAG_FULL_QUERY) != 0)
+                    .withCode(unZigZag(readVarInt(buffer)))
+                    .withPlayersOnline(unZigZag(readVarInt(buffer)))
+                    .withMaxPlayers(unZigZag(readVarInt(buffer)))
+                    .withMessage(optional(strings, readVarInt(buffer)))
+                    .withMotd(optional(strings, readVarInt(buffer)))
+                    .withVersion(optional(strings, readVarInt(buffer)))
+                    .withStatus(optional(strings, readVarInt(buffer)))
+                    .withIcon(optional(strings, readVarInt(buffer)))
+                    .withSoftware(optional(strings, readVarInt(buffer)))
+                    .withRawIcon(optional(icons, readVarInt(buffer)))
+                    .withPlayers(readStrings(buffer, strings))
+                    .withPlugins(readStrings(buffer, strings));
+                
+                responses.put(target, builder.build());
+            }
+            
+            return responses;
+        }catch(BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex){
+            throw new IOException("Invalid snapshot: " + ex, ex);
+        }
+    }
+    
+    private static void writeStrings(Output output, Table<String> strings, String[] values){
+        int count = 0;
+        if(values != null){
+            for(String value : values){
+                if(value != null)
+                    count++;
+            }
+        }
+        
+        output.writeVarInt(count);
+        if(count == 0)
+            return;
+        
+        for(String value : values){
+            if(value != null)
+                output.writeVarInt(strings.indexOf(value));
+        }
+    }
+    
+    private static String[] readStrings(ByteBuffer buffer, String[] strings) throws IOException{
+        String[] values = new String[readCount(buffer)];
+        for(int i = 0; i < values.length; i++)
+            values[i] = strings[readVarInt(buffer)];
+        
+        return values;
+    }
+    
+    private static String optional(String[] values, int index){
+        return index == 0 ? null : values[index - 1];
+    }
+    
+    private static int readVarInt(ByteBuffer buffer) throws IOException{
+        Integer value = VarInt.read(buffer);
+        if(value == null)
+            throw new BufferUnderflowException();
+        
+        return value;
+    }
+    
+    /*
+     * Counts are checked against the remaining bytes, as every counted element takes at least one byte.
+     */
+    private static int readCount(ByteBuffer buffer) throws IOException{
+        int count = readVarInt(buffer);
+        if(count < 0 || count > buffer.remaining())
+            throw new IOException("Invalid snapshot: Invalid count " + count + ".");
+        
+        return count;
+    }
+    
+    private static byte[] readBytes(ByteBuffer buffer) throws IOException{
+        int length = readVarInt(buffer);
+        if(length < 0 || length > buffer.remaining())
+            throw new IOException("Invalid snapshot: Invalid length " + length + ".");
+        
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+    
+    private static int zigZag(int value){
+        return (value << 1) ^ (value >> 31);
+    }
+    
+    private static int unZigZag(int value){
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private static final class Output{
+        
+        private ByteBuffer buffer = ByteBuffer.allocate(4096);
+        
+        void ensure(int bytes){
+            if(buffer.remaining() >= bytes)
+                return;
+            
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        
+        void writeVarInt(int value){
+            ensure(VarInt.MAX_SIZE);
+            VarInt.write(buffer, value);
+        }
+        
+        void writeBytes(byte[] bytes){
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+    
+    /*
+     * Assigns an index to every distinct value, in the order they were first added.
+     */
+    private static final class Table<T>{
+        
+        private final Map<T, Integer> indices = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+        
+        int indexOf(T value){
+            Integer index = indices.get(value);
+            if(index == null){
+                index = values.size();
+                indices.put(value, index);
+                values.add(value);
+            }
+            
+            return index;
+        }
+        
+        int optionalIndexOf(T value){
+            return value == null ? 0 : indexOf(value) + 1;
+        }
+        
+        int size(){
+            return values.size();
+        }
+    }
+    
+    /*
+     * Icons are compared by the SHA-256 hash of their content. Icons that don't survive being decoded and encoded
+     * again unchanged, such as ones containing line breaks, are kept as String.
+     */
+    private static final class Icon{
+        
+        private final int kind;
+        private final byte[] data;
+        private final byte[] hash;
+        
+        private Icon(int kind, byte[] data, byte[] hash){
+            this.kind = kind;
+            this.data = data;
+            this.hash = hash;
+        }
+        
+        static Icon of(String icon, MessageDigest digest){
+            byte[] data;
+            int kind;
+            try{
+                data = Base64.getDecoder().decode(icon);
+                kind = Base64.getEncoder().encodeToString(data).equals(icon) ? ICON_BYTES : ICON_STRING;
+            }catch(IllegalArgumentException ex){
+                data = null;
+                kind = ICON_STRING;
+            }
+            
+            if(kind == ICON_STRING)
+                data = icon.getBytes(StandardCharsets.UTF_8);
+            
+            digest.update((byte)kind);
+            return new Icon(kind, data, digest.digest(data));
+        }
+        
+        @Override
+        public boolean equals(Object obj){
+            return obj instanceof Icon && Arrays.equals(hash, ((Icon)obj).hash);
+        }
+        
+        @Override
+        public int hashCode(){
+            return Arrays.hashCode(hash);
+        }
+    }
+}
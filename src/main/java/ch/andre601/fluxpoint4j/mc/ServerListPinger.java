@@ -0,0 +1,450 @@
+package ch.andre601.fluxpoint4j.mc;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.request.FailedAPIResponse;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pings Minecraft servers directly using the <a href="https://wiki.vg/Server_List_Ping" target="_blank">Server List Ping</a>
+ * protocol, without sending a request to the Fluxpoint API.
+ * 
+ * <p>All pings are handled by a single background thread using non-blocking sockets, allowing thousands of servers
+ * to be pinged at the same time.
+ * <br>Results are returned in the same shape as the ones of {@link MCRequestBuilder#performRequest() MCRequestBuilder}:
+ * <ul>
+ *     <li>Instance of {@link MCServerPingResponse MCServerPingResponse} with status {@code ok} when the server responded.</li>
+ *     <li>Instance of {@link MCServerPingResponse MCServerPingResponse} with status {@code offline} when the server
+ *     could not be reached or did not respond in time. The reason is available through its message.</li>
+ *     <li>Instance of {@link FailedAPIResponse FailedAPIResponse} when the server sent an invalid response or the
+ *     pinger has been closed.</li>
+ * </ul>
+ * 
+ * <p>The pinger should be {@link #close() closed} once it is no longer needed.
+ */
+public class ServerListPinger implements Closeable{
+    
+    /**
+     * Protocol version sent in the handshake. {@code -1} is used by clients that don't know the server's version yet.
+     */
+    private static final int PROTOCOL_VERSION = -1;
+    /**
+     * Largest status response accepted. Icons are limited to 64x64 pixels, so valid responses stay far below this.
+     */
+    private static final int MAX_RESPONSE_SIZE = 1 << 20;
+    private static final String ICON_PREFIX = "data:image/png;base64,";
+    
+    private final long timeout;
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Ping> pending = new ConcurrentLinkedQueue<>();
+    private final PriorityQueue<Ping> deadlines = new PriorityQueue<>(Comparator.comparingLong(ping -> ping.deadline));
+    
+    private volatile boolean closed = false;
+    
+    /**
+     * Creates a new ServerListPinger with a timeout of 5 seconds.
+     * 
+     * @throws IOException
+     *         When the Selector could not be opened.
+     */
+    public ServerListPinger() throws IOException{
+        this(5, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Creates a new ServerListPinger with the provided timeout.
+     * <br>The timeout covers the whole ping, from connecting to receiving the full response.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Timeout is 0 or less.</li>
+     *     <li>TimeUnit is null.</li>
+     * </ul>
+     * 
+     * @param  timeout
+     *         The time to wait for a server to respond.
+     * @param  unit
+     *         The TimeUnit of the timeout.
+     * 
+     * @throws IOException
+     *         When the Selector could not be opened.
+     */
+    public ServerListPinger(long timeout, @NotNull TimeUnit unit) throws IOException{
+        CheckUtil.check(timeout > 0, "Timeout needs to be larger than 0.");
+        CheckUtil.notNull(unit, "TimeUnit");
+        
+        this.timeout = unit.toNanos(timeout);
+        this.selector = Selector.open();
+        this.thread = new Thread(this::run, "Fluxpoint4J-ServerListPinger");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    /**
+     * Pings the provided server.
+     * <br>The domain of the server is resolved on the calling thread, before the ping is handed to the background thread.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>ServerTarget is null.</li>
+     * </ul>
+     * 
+     * @param  target
+     *         The server to ping.
+     * 
+     * @return CompletableFuture containing either a {@link MCServerPingResponse MCServerPingResponse} or a
+     *         {@link FailedAPIResponse FailedAPIResponse}.
+     */
+    public CompletableFuture<GenericAPIResponse> ping(@NotNull ServerTarget target){
+        CheckUtil.notNull(target, "ServerTarget");
+        
+        if(closed)
+            return CompletableFuture.completedFuture(new FailedAPIResponse("ServerListPinger has been closed."));
+        
+        InetSocketAddress address;
+        try{
+            address = new InetSocketAddress(InetAddress.getByName(target.getHost()), target.getPort());
+        }catch(UnknownHostException ex){
+            return CompletableFuture.completedFuture(offline("Unknown host " + target.getHost()));
+        }
+        
+        Ping ping = new Ping(target, address, System.nanoTime() + timeout);
+        pending.add(ping);
+        selector.wakeup();
+        
+        // The pinger may have been closed while the ping was added, in which case it wouldn't be handled anymore.
+        if(closed && pending.remove(ping))
+            ping.future.complete(new FailedAPIResponse("ServerListPinger has been closed."));
+        
+        return ping.future;
+    }
+    
+    /**
+     * Closes this pinger. Pings that are still running are completed with a
+     * {@link FailedAPIResponse FailedAPIResponse}.
+     */
+    @Override
+    public void close(){
+        if(closed)
+            return;
+        
+        closed = true;
+        selector.wakeup();
+        
+        if(Thread.currentThread() != thread){
+            try{
+                thread.join();
+            }catch(InterruptedException ex){
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private void run(){
+        try{
+            while(!closed){
+                long wait = 0;
+                Ping next = nextDeadline();
+                if(next != null)
+                    wait = Math.max(1, TimeUnit.NANOSECONDS.toMillis(next.deadline - System.nanoTime()) + 1);
+                
+                selector.select(wait);
+                
+                Ping ping;
+                while((ping = pending.poll()) != null)
+                    connect(ping);
+                
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while(keys.hasNext()){
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+                
+                long now = System.nanoTime();
+                while((next = nextDeadline()) != null && next.deadline - now <= 0){
+                    deadlines.poll();
+                    next.finish(offline("Timed out after " + TimeUnit.NANOSECONDS.toMillis(timeout) + "ms"));
+                }
+            }
+        }catch(IOException ex){
+            closed = true;
+        }finally{
+            FailedAPIResponse response = new FailedAPIResponse("ServerListPinger has been closed.");
+            
+            Ping ping;
+            while((ping = pending.poll()) != null)
+                ping.future.complete(response);
+            while((ping = deadlines.poll()) != null)
+                ping.finish(response);
+            
+            try{
+                selector.close();
+            }catch(IOException ignored){}
+        }
+    }
+    
+    /*
+     * Returns the ping with the next deadline. Pings that completed before their deadline are only removed once they
+     * reach the head of the queue, as removing them from the middle of it is linear.
+     */
+    private Ping nextDeadline(){
+        Ping next;
+        while((next = deadlines.peek()) != null && next.future.isDone()){
+            deadlines.poll();
+            // The future may also have been cancelled by the caller, leaving the connection open.
+            next.close();
+        }
+        
+        return next;
+    }
+    
+    private void connect(Ping ping){
+        deadlines.add(ping);
+        try{
+            SocketChannel channel = SocketChannel.open();
+            ping.channel = channel;
+            channel.configureBlocking(false);
+            
+            if(channel.connect(ping.address)){
+                channel.register(selector, SelectionKey.OP_WRITE, ping);
+            }else{
+                channel.register(selector, SelectionKey.OP_CONNECT, ping);
+            }
+        }catch(IOException ex){
+            ping.finish(offline(ex));
+        }catch(RuntimeException ex){
+            // I.e. an unresolved address, which must only fail this ping and not the selector thread.
+            ping.finish(offline(ex.getClass().getSimpleName()));
+        }
+    }
+    
+    private void handle(SelectionKey key){
+        Ping ping = (Ping)key.attachment();
+        try{
+            if(key.isConnectable()){
+                ping.channel.finishConnect();
+                key.interestOps(SelectionKey.OP_WRITE);
+            }else if(key.isWritable()){
+                ping.channel.write(ping.out);
+                if(!ping.out.hasRemaining())
+                    key.interestOps(SelectionKey.OP_READ);
+            }else if(key.isReadable()){
+                read(ping);
+            }
+        }catch(CancelledKeyException ignored){
+        }catch(IOException ex){
+            ping.finish(offline(ex));
+        }catch(RuntimeException ex){
+            // A single broken server must not stop the selector thread, as all other pings would never complete.
+            ping.finish(new FailedAPIResponse("Ping failed: " + ex));
+        }
+    }
+    
+    private void read(Ping ping) throws IOException{
+        if(!ping.in.hasRemaining()){
+            if(ping.in.capacity() >= MAX_RESPONSE_SIZE + VarInt.MAX_SIZE){
+                ping.finish(new FailedAPIResponse("Invalid status response: Response is larger than " + MAX_RESPONSE_SIZE + " bytes."));
+                return;
+            }
+            
+            ByteBuffer buffer = ByteBuffer.allocate(Math.min(ping.in.capacity() * 4, MAX_RESPONSE_SIZE + VarInt.MAX_SIZE));
+            ping.in.flip();
+            buffer.put(ping.in);
+            ping.in = buffer;
+        }
+        
+        if(ping.channel.read(ping.in) < 0){
+            ping.finish(offline("Connection closed by server"));
+            return;
+        }
+        
+        ByteBuffer buffer = (ByteBuffer)ping.in.duplicate().flip();
+        try{
+            Integer length = VarInt.read(buffer);
+            if(length == null || buffer.remaining() < length)
+                return;
+            
+            if(length > MAX_RESPONSE_SIZE || length < 1)
+                throw new IOException("Invalid packet length " + length + ".");
+            
+            buffer.limit(buffer.position() + length);
+            Integer id = VarInt.read(buffer);
+            if(id == null || id != 0)
+                throw new IOException("Unexpected packet id " + id + ".");
+            
+            Integer size = VarInt.read(buffer);
+            if(size == null || size < 0 || size > buffer.remaining())
+                throw new IOException("Invalid string length " + size + ".");
+            
+            String json = new String(buffer.array(), buffer.position(), size, StandardCharsets.UTF_8);
+            ping.finish(parse(json));
+        }catch(IOException | RuntimeException ex){
+            // Gson throws various RuntimeExceptions for values of the wrong type, such as "online":"abc".
+            ping.finish(new FailedAPIResponse("Invalid status response: " + ex.getMessage()));
+        }
+    }
+    
+    private static MCServerPingResponse parse(String json){
+        JsonObject root = JsonParser.parseString(json).getAsJsonObject();
+        MCServerPingResponse.Builder builder = new MCServerPingResponse.Builder()
+            .withOnline(true)
+            .withStatus("ok");
+        
+        if(root.has("description"))
+            builder.withMotd(text(root.get("description")));
+        
+        JsonObject players = object(root, "players");
+        if(players != null){
+            if(players.has("online"))
+                builder.withPlayersOnline(players.get("online").getAsInt());
+            if(players.has("max"))
+                builder.withMaxPlayers(players.get("max").getAsInt());
+            
+            if(players.has("sample") && players.get("sample").isJsonArray()){
+                List<String> names = new ArrayList<>();
+                for(JsonElement player : players.getAsJsonArray("sample")){
+                    if(player.isJsonObject() && player.getAsJsonObject().has("name"))
+                        names.add(player.getAsJsonObject().get("name").getAsString());
+                }
+                
+                builder.withPlayers(names.toArray(new String[0]));
+            }
+        }
+        
+        JsonObject version = object(root, "version");
+        if(version != null && version.has("name"))
+            builder.withVersion(version.get("name").getAsString());
+        
+        if(root.has("favicon") && root.get("favicon").isJsonPrimitive()){
+            String favicon = root.get("favicon").getAsString();
+            builder.withRawIcon(favicon.startsWith(ICON_PREFIX) ? favicon.substring(ICON_PREFIX.length()) : favicon);
+        }
+        
+        return builder.build();
+    }
+    
+    private static JsonObject object(JsonObject parent, String name){
+        JsonElement element = parent.get(name);
+        return element != null && element.isJsonObject() ? element.getAsJsonObject() : null;
+    }
+    
+    /*
+     * The description is either a plain String or a chat component, whose text is spread across its "extra" components.
+     */
+    private static String text(JsonElement element){
+        if(element.isJsonPrimitive())
+            return element.getAsString();
+        
+        StringBuilder builder = new StringBuilder();
+        if(element.isJsonArray()){
+            for(JsonElement child : element.getAsJsonArray())
+                builder.append(text(child));
+        }else if(element.isJsonObject()){
+            JsonObject component = element.getAsJsonObject();
+            if(component.has("text"))
+                builder.append(component.get("text").getAsString());
+            
+            JsonElement extra = component.get("extra");
+            if(extra instanceof JsonArray){
+                for(JsonElement child : extra.getAsJsonArray())
+                    builder.append(text(child));
+            }
+        }
+        
+        return builder.toString();
+    }
+    
+    private static MCServerPingResponse offline(IOException ex){
+        return offline(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+    }
+    
+    private static MCServerPingResponse offline(String reason){
+        return new MCServerPingResponse.Builder()
+            .withOnline(false)
+            .withStatus("offline")
+            .withMessage(reason)
+            .build();
+    }
+    
+    private static ByteBuffer request(ServerTarget target){
+        byte[] host = target.getHost().getBytes(StandardCharsets.UTF_8);
+        int handshake = VarInt.size(0) + VarInt.size(PROTOCOL_VERSION) + VarInt.size(host.length) + host.length + 2 +
+                VarInt.size(1);
+        
+        ByteBuffer buffer = ByteBuffer.allocate(VarInt.size(handshake) + handshake + 2);
+        
+        // Handshake packet, switching to the status state
+        VarInt.write(buffer, handshake);
+        VarInt.write(buffer, 0);
+        VarInt.write(buffer, PROTOCOL_VERSION);
+        VarInt.write(buffer, host.length);
+        buffer.put(host);
+        buffer.putShort((short)target.getPort());
+        VarInt.write(buffer, 1);
+        
+        // Status request packet
+        VarInt.write(buffer, 1);
+        VarInt.write(buffer, 0);
+        
+        buffer.flip();
+        return buffer;
+    }
+    
+    private static class Ping{
+        
+        private final CompletableFuture<GenericAPIResponse> future = new CompletableFuture<>();
+        private final InetSocketAddress address;
+        private final long deadline;
+        private final ByteBuffer out;
+        
+        private ByteBuffer in = ByteBuffer.allocate(1024);
+        private SocketChannel channel;
+        
+        Ping(ServerTarget target, InetSocketAddress address, long deadline){
+            this.address = address;
+            this.deadline = deadline;
+            this.out = request(target);
+        }
+        
+        void finish(GenericAPIResponse response){
+            close();
+            future.complete(response);
+        }
+        
+        void close(){
+            if(channel != null){
+                try{
+                    channel.close();
+                }catch(IOException ignored){}
+            }
+        }
+    }
+}
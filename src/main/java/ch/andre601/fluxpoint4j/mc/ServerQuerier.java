@@ -0,0 +1,453 @@
+package ch.andre601.fluxpoint4j.mc;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.request.FailedAPIResponse;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.UnknownHostException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries Minecraft servers directly using the UDP <a href="https://wiki.vg/Query" target="_blank">Query</a> protocol,
+ * which returns the full list of online players and the installed plugins.
+ * <br>The server needs to have {@code enable-query} set to {@code true} in its {@code server.properties}.
+ * 
+ * <p>All queries are sent through a single {@link DatagramChannel DatagramChannel} handled by one background thread,
+ * allowing thousands of servers to be queried at the same time. Every query has its own timeout.
+ * <br>The returned {@link GenericAPIResponse GenericAPIResponse} can be one of two instances:
+ * <ul>
+ *     <li>Instance of {@link MCServerPingResponse MCServerPingResponse}, which is a {@link MCServerPingResponse#isFullQuery() full query}
+ *     with status {@code ok} when the server responded, or which has status {@code offline} when it did not respond in time.</li>
+ *     <li>Instance of {@link FailedAPIResponse FailedAPIResponse} when the server sent an invalid response or the
+ *     querier has been closed.</li>
+ * </ul>
+ * 
+ * <p>The querier should be {@link #close() closed} once it is no longer needed.
+ */
+public class ServerQuerier implements Closeable{
+    
+    private static final byte TYPE_HANDSHAKE = 9;
+    private static final byte TYPE_STAT = 0;
+    /**
+     * Session ids are limited to the lower 4 bits of every byte, which leaves room for 65536 concurrent queries.
+     */
+    private static final int MAX_SESSIONS = 1 << 16;
+    /**
+     * The constant {@code splitnum\0\x80\0} in front of the key-value section of a full stat response.
+     */
+    private static final int STAT_PADDING = 11;
+    /**
+     * The constant {@code \x01player_\0\0} in front of the player section of a full stat response.
+     */
+    private static final int PLAYERS_PADDING = 10;
+    
+    private final long timeout;
+    private final Selector selector;
+    private final DatagramChannel channel;
+    private final SelectionKey key;
+    private final Thread thread;
+    private final Queue<Query> pending = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, Query> sessions = new HashMap<>();
+    private final ArrayDeque<Query> outgoing = new ArrayDeque<>();
+    private final PriorityQueue<Query> deadlines = new PriorityQueue<>(Comparator.comparingLong(query -> query.deadline));
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocate(65535);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocate(15);
+    
+    private int nextSession = 0;
+    private volatile boolean closed = false;
+    
+    /**
+     * Creates a new ServerQuerier with a default timeout of 5 seconds.
+     * 
+     * @throws IOException
+     *         When the DatagramChannel could not be opened.
+     */
+    public ServerQuerier() throws IOException{
+        this(5, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Creates a new ServerQuerier with the provided default timeout.
+     * <br>The timeout covers the whole query, from the handshake to receiving the full stat.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Timeout is 0 or less.</li>
+     *     <li>TimeUnit is null.</li>
+     * </ul>
+     * 
+     * @param  timeout
+     *         The time to wait for a server to respond.
+     * @param  unit
+     *         The TimeUnit of the timeout.
+     * 
+     * @throws IOException
+     *         When the DatagramChannel could not be opened.
+     */
+    public ServerQuerier(long timeout, @NotNull TimeUnit unit) throws IOException{
+        CheckUtil.check(timeout > 0, "Timeout needs to be larger than 0.");
+        CheckUtil.notNull(unit, "TimeUnit");
+        
+        this.timeout = unit.toNanos(timeout);
+        this.selector = Selector.open();
+        this.channel = DatagramChannel.open();
+        this.channel.setOption(StandardSocketOptions.SO_RCVBUF, 1 << 20);
+        this.channel.configureBlocking(false);
+        this.channel.bind(null);
+        this.key = channel.register(selector, SelectionKey.OP_READ);
+        this.thread = new Thread(this::run, "Fluxpoint4J-ServerQuerier");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    /**
+     * Queries the provided server using the default timeout.
+     * <br>Note that the query port may differ from the port players connect to.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>ServerTarget is null.</li>
+     * </ul>
+     * 
+     * @param  target
+     *         The server to query.
+     * 
+     * @return CompletableFuture containing either a {@link MCServerPingResponse MCServerPingResponse} or a
+     *         {@link FailedAPIResponse FailedAPIResponse}.
+     */
+    public CompletableFuture<GenericAPIResponse> query(@NotNull ServerTarget target){
+        return query(target, timeout, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Queries the provided server using the provided timeout.
+     * <br>The domain of the server is resolved on the calling thread, before the query is handed to the background thread.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>ServerTarget is null.</li>
+     *     <li>Timeout is 0 or less.</li>
+     *     <li>TimeUnit is null.</li>
+     * </ul>
+     * 
+     * @param  target
+     *         The server to query.
+     * @param  timeout
+     *         The time to wait for the server to respond.
+     * @param  unit
+     *         The TimeUnit of the timeout.
+     * 
+     * @return CompletableFuture containing either a {@link MCServerPingResponse MCServerPingResponse} or a
+     *         {@link FailedAPIResponse FailedAPIResponse}.
+     */
+    public CompletableFuture<GenericAPIResponse> query(@NotNull ServerTarget target, long timeout, @NotNull TimeUnit unit){
+        CheckUtil.notNull(target, "ServerTarget");
+        CheckUtil.check(timeout > 0, "Timeout needs to be larger than 0.");
+        CheckUtil.notNull(unit, "TimeUnit");
+        
+        if(closed)
+            return CompletableFuture.completedFuture(new FailedAPIResponse("ServerQuerier has been closed."));
+        
+        InetSocketAddress address;
+        try{
+            address = new InetSocketAddress(InetAddress.getByName(target.getHost()), target.getPort());
+        }catch(UnknownHostException ex){
+            return CompletableFuture.completedFuture(offline("Unknown host " + target.getHost()));
+        }
+        
+        Query query = new Query(address, unit.toNanos(timeout));
+        pending.add(query);
+        selector.wakeup();
+        
+        // The querier may have been closed while the query was added, in which case it wouldn't be handled anymore.
+        if(closed && pending.remove(query))
+            query.future.complete(new FailedAPIResponse("ServerQuerier has been closed."));
+        
+        return query.future;
+    }
+    
+    /**
+     * Closes this querier. Queries that are still running are completed with a
+     * {@link FailedAPIResponse FailedAPIResponse}.
+     */
+    @Override
+    public void close(){
+        if(closed)
+            return;
+        
+        closed = true;
+        selector.wakeup();
+        
+        if(Thread.currentThread() != thread){
+            try{
+                thread.join();
+            }catch(InterruptedException ex){
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private void run(){
+        try{
+            while(!closed){
+                long wait = 0;
+                Query next = nextDeadline();
+                if(next != null)
+                    wait = Math.max(1, TimeUnit.NANOSECONDS.toMillis(next.deadline - System.nanoTime()) + 1);
+                
+                selector.select(wait);
+                selector.selectedKeys().clear();
+                
+                Query query;
+                while((query = pending.poll()) != null)
+                    start(query);
+                
+                receive();
+                send();
+                
+                long now = System.nanoTime();
+                while((next = nextDeadline()) != null && next.deadline - now <= 0){
+                    deadlines.poll();
+                    finish(next, offline("Timed out after " + TimeUnit.NANOSECONDS.toMillis(next.timeout) + "ms"));
+                }
+            }
+        }catch(IOException ex){
+            closed = true;
+        }finally{
+            FailedAPIResponse response = new FailedAPIResponse("ServerQuerier has been closed.");
+            
+            Query query;
+            while((query = pending.poll()) != null)
+                query.future.complete(response);
+            while((query = deadlines.poll()) != null)
+                query.future.complete(response);
+            
+            try{
+                channel.close();
+                selector.close();
+            }catch(IOException ignored){}
+        }
+    }
+    
+    /*
+     * Returns the query with the next deadline. Queries that completed before their deadline are only removed once
+     * they reach the head of the queue, as removing them from the middle of it is linear.
+     */
+    private Query nextDeadline(){
+        Query next;
+        while((next = deadlines.peek()) != null && next.future.isDone()){
+            deadlines.poll();
+            // The future may also have been cancelled by the caller, leaving the session in use.
+            sessions.remove(next.session, next);
+        }
+        
+        return next;
+    }
+    
+    private void start(Query query){
+        if(sessions.size() >= MAX_SESSIONS){
+            query.future.complete(new FailedAPIResponse("Too many queries running at the same time."));
+            return;
+        }
+        
+        int session;
+        do{
+            session = session(nextSession++);
+        }while(sessions.containsKey(session));
+        
+        query.session = session;
+        query.deadline = System.nanoTime() + query.timeout;
+        sessions.put(session, query);
+        deadlines.add(query);
+        outgoing.add(query);
+    }
+    
+    private void receive() throws IOException{
+        SocketAddress source;
+        while((source = channel.receive(receiveBuffer)) != null){
+            receiveBuffer.flip();
+            try{
+                handle(source, receiveBuffer);
+            }finally{
+                receiveBuffer.clear();
+            }
+        }
+    }
+    
+    private void handle(SocketAddress source, ByteBuffer buffer){
+        if(buffer.remaining() < 5)
+            return;
+        
+        byte type = buffer.get();
+        Query query = sessions.get(buffer.getInt());
+        
+        // Stray packets, such as late responses to timed out queries, are ignored.
+        if(query == null || !query.address.equals(source))
+            return;
+        
+        try{
+            if(type == TYPE_HANDSHAKE && query.token == null){
+                query.token = Integer.parseInt(readString(buffer).trim());
+                outgoing.add(query);
+            }else if(type == TYPE_STAT && query.token != null){
+                finish(query, parse(buffer));
+            }
+        }catch(RuntimeException ex){
+            // Malformed packets only fail their own query and must not stop the receiving thread.
+            finish(query, new FailedAPIResponse("Invalid query response: " + ex));
+        }
+    }
+    
+    private void send() throws IOException{
+        Query query;
+        while((query = outgoing.peek()) != null){
+            if(query.future.isDone()){
+                outgoing.poll();
+                continue;
+            }
+            
+            sendBuffer.clear();
+            sendBuffer.put((byte)0xFE).put((byte)0xFD);
+            if(query.token == null){
+                sendBuffer.put(TYPE_HANDSHAKE).putInt(query.session);
+            }else{
+                // The 4 bytes of padding after the token request the full stat instead of the basic one.
+                sendBuffer.put(TYPE_STAT).putInt(query.session).putInt(query.token).putInt(0);
+            }
+            sendBuffer.flip();
+            
+            // The send buffer of the socket is full. The remaining queries are sent once it's writable again.
+            if(channel.send(sendBuffer, query.address) == 0)
+                break;
+            
+            outgoing.poll();
+        }
+        
+        key.interestOps(outgoing.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+    
+    private void finish(Query query, GenericAPIResponse response){
+        sessions.remove(query.session, query);
+        query.future.complete(response);
+    }
+    
+    private static MCServerPingResponse parse(ByteBuffer buffer){
+        if(buffer.remaining() < STAT_PADDING)
+            throw new BufferUnderflowException();
+        
+        buffer.position(buffer.position() + STAT_PADDING);
+        
+        Map<String, String> values = new HashMap<>();
+        String name;
+        while(!(name = readString(buffer)).isEmpty())
+            values.put(name, readString(buffer));
+        
+        List<String> players = new ArrayList<>();
+        if(buffer.remaining() > PLAYERS_PADDING){
+            buffer.position(buffer.position() + PLAYERS_PADDING);
+            while(buffer.hasRemaining() && !(name = readString(buffer)).isEmpty())
+                players.add(name);
+        }
+        
+        MCServerPingResponse.Builder builder = new MCServerPingResponse.Builder()
+            .withOnline(true)
+            .withStatus("ok")
+            .withFullQuery(true)
+            .withMotd(values.get("hostname"))
+            .withVersion(values.get("version"))
+            .withPlayersOnline(Integer.parseInt(values.getOrDefault("numplayers", "0")))
+            .withMaxPlayers(Integer.parseInt(values.getOrDefault("maxplayers", "0")))
+            .withPlayers(players.toArray(new String[0]));
+        
+        // Plugins are reported as "<software>: <plugin> <version>; <plugin> <version>", or just "<software>".
+        String plugins = values.get("plugins");
+        if(plugins != null && !plugins.isEmpty()){
+            int index = plugins.indexOf(':');
+            if(index < 0){
+                builder.withSoftware(plugins.trim());
+            }else{
+                builder.withSoftware(plugins.substring(0, index).trim());
+                
+                List<String> list = new ArrayList<>();
+                for(String plugin : plugins.substring(index + 1).split(";")){
+                    if(!plugin.trim().isEmpty())
+                        list.add(plugin.trim());
+                }
+                builder.withPlugins(list.toArray(new String[0]));
+            }
+        }
+        
+        return builder.build();
+    }
+    
+    /*
+     * Reads a null-terminated String. A missing terminator at the end of the packet is tolerated.
+     */
+    private static String readString(ByteBuffer buffer){
+        if(!buffer.hasRemaining())
+            throw new BufferUnderflowException();
+        
+        int start = buffer.position();
+        int end = start;
+        while(end < buffer.limit() && buffer.get(end) != 0)
+            end++;
+        
+        buffer.position(Math.min(end + 1, buffer.limit()));
+        return new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+    }
+    
+    /*
+     * Spreads the counter across the lower 4 bits of each byte, as servers ignore the upper ones.
+     */
+    private static int session(int counter){
+        return (counter & 0x0F) | (counter & 0xF0) << 4 | (counter & 0x0F00) << 8 | (counter & 0xF000) << 12;
+    }
+    
+    private static MCServerPingResponse offline(String reason){
+        return new MCServerPingResponse.Builder()
+            .withOnline(false)
+            .withStatus("offline")
+            .withMessage(reason)
+            .build();
+    }
+    
+    private static class Query{
+        
+        private final CompletableFuture<GenericAPIResponse> future = new CompletableFuture<>();
+        private final InetSocketAddress address;
+        private final long timeout;
+        
+        private int session;
+        private long deadline;
+        private Integer token = null;
+        
+        Query(InetSocketAddress address, long timeout){
+            this.address = address;
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ch.andre601.fluxpoint4j.mc;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+
+/**
+ * Host and port of a Minecraft server to ping or query.
+ * <br>Hosts are compared ignoring case.
+ */
+public final class ServerTarget{
+    
+    /**
+     * The default port of Minecraft servers.
+     */
+    public static final int DEFAULT_PORT = 25565;
+    
+    private final String host;
+    private final int port;
+    
+    /**
+     * Creates a new ServerTarget using the default port 25565.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Host is null or empty.</li>
+     * </ul>
+     * 
+     * @param host
+     *        The domain/IP of the server.
+     */
+    public ServerTarget(@NotNull String host){
+        this(host, DEFAULT_PORT);
+    }
+    
+    /**
+     * Creates a new ServerTarget.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Host is null or empty.</li>
+     *     <li>Port is not between 0 and 65535.</li>
+     * </ul>
+     * 
+     * @param host
+     *        The domain/IP of the server.
+     * @param port
+     *        The port of the server.
+     */
+    public ServerTarget(@NotNull String host, int port){
+        CheckUtil.notNullOrEmpty(host, "Host");
+        CheckUtil.check(port >= 0 && port <= 65535, "Port needs to be between 0 and 65535.");
+        
+        this.host = host.toLowerCase(Locale.ROOT);
+        this.port = port;
+    }
+    
+    /**
+     * Returns the domain/IP of the server, in lower case.
+     * 
+     * @return The domain/IP of the server.
+     */
+    public String getHost(){
+        return host;
+    }
+    
+    /**
+     * Returns the port of the server.
+     * 
+     * @return The port of the server.
+     */
+    public int getPort(){
+        return port;
+    }
+    
+    @Override
+    public boolean equals(Object obj){
+        if(this == obj)
+            return true;
+        if(!(obj instanceof ServerTarget))
+            return false;
+        
+        ServerTarget other = (ServerTarget)obj;
+        return port == other.port && host.equals(other.host);
+    }
+    
+    @Override
+    public int hashCode(){
+        return host.hashCode() * 31 + port;
+    }
+    
+    @Override
+    public String toString(){
+        return host + ":" + port;
+    }
+}
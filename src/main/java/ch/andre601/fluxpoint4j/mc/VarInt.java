@@ -0,0 +1,64 @@
+package ch.andre601.fluxpoint4j.mc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reading and writing of the variable-length integers used by the Minecraft protocol.
+ * <br>Every byte holds 7 bits of the value, with the highest bit marking that another byte follows.
+ */
+final class VarInt{
+    
+    static final int MAX_SIZE = 5;
+    
+    private VarInt(){}
+    
+    static int size(int value){
+        int size = 1;
+        while((value & ~0x7F) != 0){
+            value >>>= 7;
+            size++;
+        }
+        
+        return size;
+    }
+    
+    static void write(ByteBuffer buffer, int value){
+        while((value & ~0x7F) != 0){
+            buffer.put((byte)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        
+        buffer.put((byte)value);
+    }
+    
+    /**
+     * Reads a VarInt from the buffer, if it is complete.
+     * <br>The position of the buffer is only advanced when the VarInt could be read.
+     * 
+     * @param  buffer
+     *         The buffer to read from.
+     * 
+     * @return The value, or {@code null} if the buffer does not contain the whole VarInt yet.
+     * 
+     * @throws IOException
+     *         When the VarInt is longer than 5 bytes.
+     */
+    static Integer read(ByteBuffer buffer) throws IOException{
+        int value = 0;
+        int position = buffer.position();
+        for(int i = 0; i < MAX_SIZE; i++){
+            if(position + i >= buffer.limit())
+                return null;
+            
+            byte current = buffer.get(position + i);
+            value |= (current & 0x7F) << (7 * i);
+            if((current & 0x80) == 0){
+                buffer.position(position + i + 1);
+                return value;
+            }
+        }
+        
+        throw new IOException("VarInt is longer than " + MAX_SIZE + " bytes.");
+    }
+}
@@ -0,0 +1,403 @@
+package ch.andre601.fluxpoint4j.mc.history;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded time-series store for the player counts of Minecraft servers.
+ * 
+ * <p>Every server gets a ring buffer holding up to {@code capacity} samples, after which the oldest samples are
+ * overwritten. A sample only takes 8 bytes, as timestamps are stored as the milliseconds since the previous sample.
+ * <br>The ring buffers are kept outside the Java heap, either in direct buffers or, for long retention, in a
+ * memory-mapped file that is reopened with all its samples by creating a new PlayerHistory for the same file.
+ * 
+ * <p>Samples of a server have to be {@link #record(ServerTarget, long, int) recorded} in ascending order of their
+ * timestamps. All methods of this class are thread-safe.
+ */
+public class PlayerHistory implements Closeable{
+    
+    private static final int MAGIC = 0x46505448; // FPTH
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 64;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - Series.HEADER_SIZE) / Series.SAMPLE_SIZE;
+    
+    private final int capacity;
+    private final Map<ServerTarget, Series> series = new ConcurrentHashMap<>();
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> mapped = new ArrayList<>();
+    
+    /**
+     * Creates a new PlayerHistory keeping its samples in direct buffers outside the Java heap.
+     * <br>The samples are lost once this PlayerHistory is garbage collected.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Capacity is less than 1 or larger than 268435417.</li>
+     * </ul>
+     * 
+     * @param capacity
+     *        The amount of samples to keep per server.
+     */
+    public PlayerHistory(int capacity){
+        CheckUtil.inRange(capacity, 1, MAX_CAPACITY, "Capacity");
+        
+        this.capacity = capacity;
+        this.channel = null;
+        this.header = null;
+    }
+    
+    /**
+     * Creates a new PlayerHistory keeping its samples in the provided memory-mapped file.
+     * <br>When the file already exists are its samples loaded and the capacity of the file is used instead of the
+     * provided one.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>File is null.</li>
+     *     <li>Capacity is less than 1 or larger than 268435417.</li>
+     * </ul>
+     * 
+     * @param  file
+     *         The file to store the samples in.
+     * @param  capacity
+     *         The amount of samples to keep per server.
+     * 
+     * @throws IOException
+     *         When the file could not be opened or is not a PlayerHistory file.
+     */
+    public PlayerHistory(@NotNull Path file, int capacity) throws IOException{
+        CheckUtil.notNull(file, "File");
+        CheckUtil.inRange(capacity, 1, MAX_CAPACITY, "Capacity");
+        
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try{
+            boolean created = channel.size() == 0;
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER_SIZE);
+            
+            if(created){
+                header.putInt(0, MAGIC);
+                header.putInt(4, VERSION);
+                header.putInt(8, capacity);
+                header.putInt(12, 0);
+            }else if(header.getInt(0) != MAGIC || header.getInt(4) != VERSION){
+                throw new IOException(file + " is not a PlayerHistory file of version " + VERSION + ".");
+            }
+            
+            this.capacity = header.getInt(8);
+            
+            int count = header.getInt(12);
+            for(int slot = 0; slot < count; slot++){
+                MappedByteBuffer buffer = map(slot);
+                series.put(parse(Series.readKey(buffer)), new Series(buffer, this.capacity));
+            }
+        }catch(IOException | RuntimeException ex){
+            channel.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Records the state of a server from a ping response.
+     * <br>Servers that are offline are recorded with -1 players.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>ServerTarget or response is null.</li>
+     *     <li>The timestamp is older than the last recorded timestamp of the server.</li>
+     * </ul>
+     * 
+     * @param target
+     *        The server the response is from.
+     * @param timestamp
+     *        The time of the ping, in milliseconds since the epoch.
+     * @param response
+     *        The ping response to record.
+     */
+    public void record(@NotNull ServerTarget target, long timestamp, @NotNull MCServerPingResponse response){
+        CheckUtil.notNull(response, "Response");
+        
+        record(target, timestamp, response.isOnline() ? response.getPlayersOnline() : -1);
+    }
+    
+    /**
+     * Records the amount of players of a server.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>ServerTarget is null.</li>
+     *     <li>Players is less than -1.</li>
+     *     <li>The timestamp is older than the last recorded timestamp of the server.</li>
+     *     <li>The file of this PlayerHistory could not be extended.</li>
+     * </ul>
+     * 
+     * @param target
+     *        The server to record the players of.
+     * @param timestamp
+     *        The time of the sample, in milliseconds since the epoch.
+     * @param players
+     *        The amount of online players, or -1 if the server is offline.
+     */
+    public void record(@NotNull ServerTarget target, long timestamp, int players){
+        CheckUtil.notNull(target, "ServerTarget");
+        CheckUtil.largerThan(players, -1, "Players");
+        
+        getOrCreate(target).add(timestamp, players);
+    }
+    
+    /**
+     * Returns the samples of a server between the provided timestamps, both inclusive.
+     * 
+     * @param  target
+     *         The server to get the samples of.
+     * @param  from
+     *         The start of the range, in milliseconds since the epoch.
+     * @param  to
+     *         The end of the range, in milliseconds since the epoch.
+     * 
+     * @return Possibly-empty {@link PlayerSamples PlayerSamples} within the range.
+     */
+    @NotNull
+    public PlayerSamples getSamples(@NotNull ServerTarget target, long from, long to){
+        Series series = this.series.get(target);
+        if(series == null)
+            return PlayerSamples.EMPTY;
+        
+        Collector collector = new Collector();
+        series.forEach(from, to, collector::add);
+        return collector.toSamples();
+    }
+    
+    /**
+     * Returns the min, max and average amount of players of a server between the provided timestamps, both inclusive.
+     * <br>The statistics are computed directly on the stored samples, without copying them.
+     * 
+     * @param  target
+     *         The server to get the statistics of.
+     * @param  from
+     *         The start of the range, in milliseconds since the epoch.
+     * @param  to
+     *         The end of the range, in milliseconds since the epoch.
+     * 
+     * @return {@link PlayerStats PlayerStats} of the samples within the range.
+     */
+    @NotNull
+    public PlayerStats getStats(@NotNull ServerTarget target, long from, long to){
+        Series series = this.series.get(target);
+        if(series == null)
+            return new PlayerStats(0, 0, 0, 0, 0);
+        
+        long[] stats = {0, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, 0};
+        series.forEach(from, to, (timestamp, players) -> {
+            stats[0]++;
+            if(players < 0)
+                return;
+            
+            stats[1]++;
+            stats[2] = Math.min(stats[2], players);
+            stats[3] = Math.max(stats[3], players);
+            stats[4] += players;
+        });
+        
+        return new PlayerStats((int)stats[0], (int)stats[1], (int)stats[2], (int)stats[3], stats[4]);
+    }
+    
+    /**
+     * Returns the samples of a server between the provided timestamps, combined into buckets of the provided size.
+     * <br>Every bucket starts at {@code from + n * bucketSize} and holds the rounded average amount of players while
+     * the server was online, or -1 if it was offline in all samples of the bucket. Buckets without samples are omitted.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Bucket size is 0 or less.</li>
+     * </ul>
+     * 
+     * @param  target
+     *         The server to get the samples of.
+     * @param  from
+     *         The start of the range, in milliseconds since the epoch.
+     * @param  to
+     *         The end of the range, in milliseconds since the epoch.
+     * @param  bucketSize
+     *         The size of a bucket, in milliseconds.
+     * 
+     * @return Possibly-empty {@link PlayerSamples PlayerSamples} containing one sample per bucket.
+     */
+    @NotNull
+    public PlayerSamples downsample(@NotNull ServerTarget target, long from, long to, long bucketSize){
+        CheckUtil.check(bucketSize > 0, "Bucket size needs to be larger than 0.");
+        
+        Series series = this.series.get(target);
+        if(series == null)
+            return PlayerSamples.EMPTY;
+        
+        Collector collector = new Collector();
+        // Current bucket index, online samples, sum of players and whether the bucket has any samples.
+        long[] bucket = {-1, 0, 0, 0};
+        series.forEach(from, to, (timestamp, players) -> {
+            long index = (timestamp - from) / bucketSize;
+            if(index != bucket[0]){
+                flush(collector, bucket, from, bucketSize);
+                bucket[0] = index;
+            }
+            
+            bucket[3] = 1;
+            if(players >= 0){
+                bucket[1]++;
+                bucket[2] += players;
+            }
+        });
+        flush(collector, bucket, from, bucketSize);
+        
+        return collector.toSamples();
+    }
+    
+    /**
+     * Returns the amount of samples stored for the provided server.
+     * 
+     * @param  target
+     *         The server to get the amount of samples of.
+     * 
+     * @return The amount of stored samples.
+     */
+    public int size(@NotNull ServerTarget target){
+        Series series = this.series.get(target);
+        return series == null ? 0 : series.size();
+    }
+    
+    /**
+     * Returns the servers with recorded samples.
+     * 
+     * @return Unmodifiable copy of the servers with recorded samples.
+     */
+    public Set<ServerTarget> getTargets(){
+        return Collections.unmodifiableSet(new HashSet<>(series.keySet()));
+    }
+    
+    /**
+     * Returns the amount of samples kept per server.
+     * 
+     * @return The amount of samples kept per server.
+     */
+    public int getCapacity(){
+        return capacity;
+    }
+    
+    /**
+     * Writes all samples to the file and closes it. Does nothing when the samples are not stored in a file.
+     * <br>The PlayerHistory can't be used anymore afterwards.
+     * 
+     * @throws IOException
+     *         When the file could not be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException{
+        if(channel == null || !channel.isOpen())
+            return;
+        
+        header.force();
+        for(MappedByteBuffer buffer : mapped)
+            buffer.force();
+        
+        channel.close();
+    }
+    
+    private Series getOrCreate(ServerTarget target){
+        Series existing = series.get(target);
+        if(existing != null)
+            return existing;
+        
+        synchronized(this){
+            existing = series.get(target);
+            if(existing != null)
+                return existing;
+            
+            String key = target.toString();
+            CheckUtil.check(key.getBytes(StandardCharsets.UTF_8).length <= Series.MAX_KEY_LENGTH,
+                "Host may not be longer than " + Series.MAX_KEY_LENGTH + " bytes.");
+            
+            ByteBuffer buffer;
+            if(channel == null){
+                buffer = ByteBuffer.allocateDirect(Series.slotSize(capacity));
+            }else{
+                int slot = header.getInt(12);
+                try{
+                    buffer = map(slot);
+                }catch(IOException ex){
+                    throw new IllegalArgumentException("Could not extend the file of this PlayerHistory.", ex);
+                }
+                header.putInt(12, slot + 1);
+            }
+            
+            Series.writeKey(buffer, key);
+            Series created = new Series(buffer, capacity);
+            series.put(target, created);
+            return created;
+        }
+    }
+    
+    private MappedByteBuffer map(int slot) throws IOException{
+        long position = FILE_HEADER_SIZE + (long)slot * Series.slotSize(capacity);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, Series.slotSize(capacity));
+        mapped.add(buffer);
+        return buffer;
+    }
+    
+    private static ServerTarget parse(String key){
+        int index = key.lastIndexOf(':');
+        return new ServerTarget(key.substring(0, index), Integer.parseInt(key.substring(index + 1)));
+    }
+    
+    private static void flush(Collector collector, long[] bucket, long from, long bucketSize){
+        if(bucket[3] == 0)
+            return;
+        
+        int players = bucket[1] == 0 ? -1 : (int)Math.round((double)bucket[2] / bucket[1]);
+        collector.add(from + bucket[0] * bucketSize, players);
+        
+        bucket[1] = 0;
+        bucket[2] = 0;
+        bucket[3] = 0;
+    }
+    
+    private static class Collector{
+        
+        private long[] timestamps = new long[16];
+        private int[] players = new int[16];
+        private int size = 0;
+        
+        void add(long timestamp, int players){
+            if(size == timestamps.length){
+                this.timestamps = Arrays.copyOf(timestamps, size * 2);
+                this.players = Arrays.copyOf(this.players, size * 2);
+            }
+            
+            this.timestamps[size] = timestamp;
+            this.players[size] = players;
+            size++;
+        }
+        
+        PlayerSamples toSamples(){
+            return size == 0 ? PlayerSamples.EMPTY : new PlayerSamples(timestamps, players, size);
+        }
+    }
+}
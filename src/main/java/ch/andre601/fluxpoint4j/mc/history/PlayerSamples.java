@@ -0,0 +1,87 @@
+package ch.andre601.fluxpoint4j.mc.history;
+
+import java.util.Arrays;
+
+/**
+ * Player counts of a server, as returned by {@link PlayerHistory#getSamples(ch.andre601.fluxpoint4j.mc.ServerTarget, long, long) getSamples}
+ * and {@link PlayerHistory#downsample(ch.andre601.fluxpoint4j.mc.ServerTarget, long, long, long) downsample}.
+ * <br>The samples are held in primitive arrays and ordered from the oldest to the newest.
+ */
+public final class PlayerSamples{
+    
+    static final PlayerSamples EMPTY = new PlayerSamples(new long[0], new int[0], 0);
+    
+    private final long[] timestamps;
+    private final int[] players;
+    private final int size;
+    
+    PlayerSamples(long[] timestamps, int[] players, int size){
+        this.timestamps = timestamps;
+        this.players = players;
+        this.size = size;
+    }
+    
+    /**
+     * Returns the amount of samples.
+     * 
+     * @return The amount of samples.
+     */
+    public int size(){
+        return size;
+    }
+    
+    /**
+     * Returns the timestamp of the sample at the provided index, in milliseconds since the epoch.
+     * 
+     * @param  index
+     *         The index of the sample.
+     * 
+     * @return The timestamp of the sample.
+     * 
+     * @throws IndexOutOfBoundsException
+     *         When the index is negative or not smaller than {@link #size() size()}.
+     */
+    public long getTimestamp(int index){
+        checkIndex(index);
+        return timestamps[index];
+    }
+    
+    /**
+     * Returns the amount of players of the sample at the provided index.
+     * 
+     * @param  index
+     *         The index of the sample.
+     * 
+     * @return The amount of players, or -1 if the server was offline.
+     * 
+     * @throws IndexOutOfBoundsException
+     *         When the index is negative or not smaller than {@link #size() size()}.
+     */
+    public int getPlayers(int index){
+        checkIndex(index);
+        return players[index];
+    }
+    
+    /**
+     * Returns a copy of all timestamps.
+     * 
+     * @return Array containing the timestamps of all samples.
+     */
+    public long[] getTimestamps(){
+        return Arrays.copyOf(timestamps, size);
+    }
+    
+    /**
+     * Returns a copy of all player counts, with -1 for samples where the server was offline.
+     * 
+     * @return Array containing the player counts of all samples.
+     */
+    public int[] getPlayers(){
+        return Arrays.copyOf(players, size);
+    }
+    
+    private void checkIndex(int index){
+        if(index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size);
+    }
+}
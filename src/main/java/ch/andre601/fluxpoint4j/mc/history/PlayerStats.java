@@ -0,0 +1,69 @@
+package ch.andre601.fluxpoint4j.mc.history;
+
+/**
+ * Statistics over the player counts of a server within a time range, as returned by
+ * {@link PlayerHistory#getStats(ch.andre601.fluxpoint4j.mc.ServerTarget, long, long) getStats}.
+ * <br>Samples where the server was offline only count towards the {@link #getSamples() samples} and
+ * {@link #getUptime() uptime}.
+ */
+public final class PlayerStats{
+    
+    private final int samples;
+    private final int onlineSamples;
+    private final int min;
+    private final int max;
+    private final long sum;
+    
+    PlayerStats(int samples, int onlineSamples, int min, int max, long sum){
+        this.samples = samples;
+        this.onlineSamples = onlineSamples;
+        this.min = min;
+        this.max = max;
+        this.sum = sum;
+    }
+    
+    /**
+     * Returns the amount of samples within the range.
+     * 
+     * @return The amount of samples.
+     */
+    public int getSamples(){
+        return samples;
+    }
+    
+    /**
+     * Returns the lowest amount of players while the server was online.
+     * 
+     * @return The lowest amount of players, or -1 if the server was never online.
+     */
+    public int getMin(){
+        return onlineSamples == 0 ? -1 : min;
+    }
+    
+    /**
+     * Returns the highest amount of players while the server was online.
+     * 
+     * @return The highest amount of players, or -1 if the server was never online.
+     */
+    public int getMax(){
+        return onlineSamples == 0 ? -1 : max;
+    }
+    
+    /**
+     * Returns the average amount of players while the server was online.
+     * 
+     * @return The average amount of players, or -1 if the server was never online.
+     */
+    public double getAverage(){
+        return onlineSamples == 0 ? -1 : (double)sum / onlineSamples;
+    }
+    
+    /**
+     * Returns the fraction of samples in which the server was online.
+     * 
+     * @return Value between 0 and 1, or 0 if there are no samples.
+     */
+    public double getUptime(){
+        return samples == 0 ? 0 : (double)onlineSamples / samples;
+    }
+}
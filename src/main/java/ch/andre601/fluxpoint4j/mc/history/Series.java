@@ -0,0 +1,165 @@
+package ch.andre601.fluxpoint4j.mc.history;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ring buffer holding the samples of a single server inside a {@link ByteBuffer ByteBuffer}, which is either a direct
+ * buffer or a region of a memory-mapped file.
+ * 
+ * <p>Every sample takes 8 bytes: The milliseconds since the previous sample followed by the amount of players, or -1
+ * when the server was offline. Only the timestamps of the oldest and newest sample are stored in full, which allows
+ * iterating the samples from either end.
+ * <br>Gaps too large for a delta are bridged by {@link #GAP gap} samples that are skipped by all queries.
+ * 
+ * <p>Player counts are stored as they are rather than as deltas. With fixed-size samples a delta wouldn't take less
+ * space, and variable-size samples couldn't be overwritten in place once the ring is full.
+ */
+final class Series{
+    
+    static final int GAP = Integer.MIN_VALUE;
+    static final int MAX_KEY_LENGTH = 272;
+    static final int HEADER_SIZE = 32 + MAX_KEY_LENGTH;
+    static final int SAMPLE_SIZE = 8;
+    
+    private static final int FIRST = 0;
+    private static final int LAST = 8;
+    private static final int START = 16;
+    private static final int SIZE = 20;
+    private static final int KEY_LENGTH = 24;
+    private static final int KEY = 32;
+    
+    private final ByteBuffer buffer;
+    private final int capacity;
+    
+    private long first;
+    private long last;
+    private int start;
+    private int size;
+    
+    Series(ByteBuffer buffer, int capacity){
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.first = buffer.getLong(FIRST);
+        this.last = buffer.getLong(LAST);
+        this.start = buffer.getInt(START);
+        this.size = buffer.getInt(SIZE);
+    }
+    
+    static int slotSize(int capacity){
+        return HEADER_SIZE + capacity * SAMPLE_SIZE;
+    }
+    
+    static String readKey(ByteBuffer buffer){
+        int length = buffer.getInt(KEY_LENGTH);
+        byte[] key = new byte[length];
+        for(int i = 0; i < length; i++)
+            key[i] = buffer.get(KEY + i);
+        
+        return new String(key, StandardCharsets.UTF_8);
+    }
+    
+    static void writeKey(ByteBuffer buffer, String key){
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(KEY_LENGTH, bytes.length);
+        for(int i = 0; i < bytes.length; i++)
+            buffer.put(KEY + i, bytes[i]);
+    }
+    
+    synchronized void add(long timestamp, int players){
+        if(size > 0 && timestamp < last)
+            throw new IllegalArgumentException("Timestamps need to be recorded in ascending order.");
+        
+        if(size == 0){
+            first = timestamp;
+            last = timestamp;
+            put(0, players);
+        }else{
+            long delta = timestamp - last;
+            while(delta > Integer.MAX_VALUE){
+                put(Integer.MAX_VALUE, GAP);
+                delta -= Integer.MAX_VALUE;
+            }
+            
+            put((int)delta, players);
+            last = timestamp;
+        }
+        
+        buffer.putLong(FIRST, first);
+        buffer.putLong(LAST, last);
+        buffer.putInt(START, start);
+        buffer.putInt(SIZE, size);
+    }
+    
+    private void put(int delta, int players){
+        if(size == capacity){
+            // The oldest sample is overwritten, which makes the following one the oldest. With a capacity of 1, that is
+            // the sample being added.
+            start = (start + 1) % capacity;
+            size--;
+            first += size == 0 ? delta : delta(0);
+        }
+        
+        int position = offset(size);
+        buffer.putInt(position, delta);
+        buffer.putInt(position + 4, players);
+        size++;
+    }
+    
+    synchronized int size(){
+        return size;
+    }
+    
+    /**
+     * Passes all samples between from and to (both inclusive) to the visitor, from the oldest to the newest.
+     * <br>The samples are located by walking from whichever end of the ring is closer in time.
+     */
+    synchronized void forEach(long from, long to, SampleVisitor visitor){
+        if(size == 0 || to < first || from > last || from > to)
+            return;
+        
+        int index;
+        long timestamp;
+        if(from - first <= last - from){
+            index = 0;
+            timestamp = first;
+            while(timestamp < from){
+                index++;
+                timestamp += delta(index);
+            }
+        }else{
+            index = size - 1;
+            timestamp = last;
+            while(index > 0 && timestamp - delta(index) >= from){
+                timestamp -= delta(index);
+                index--;
+            }
+        }
+        
+        while(index < size && timestamp <= to){
+            int players = players(index);
+            if(players != GAP)
+                visitor.visit(timestamp, players);
+            
+            index++;
+            if(index < size)
+                timestamp += delta(index);
+        }
+    }
+    
+    private int delta(int index){
+        return buffer.getInt(offset(index));
+    }
+    
+    private int players(int index){
+        return buffer.getInt(offset(index) + 4);
+    }
+    
+    private int offset(int index){
+        return HEADER_SIZE + ((start + index) % capacity) * SAMPLE_SIZE;
+    }
+    
+    interface SampleVisitor{
+        void visit(long timestamp, int players);
+    }
+}
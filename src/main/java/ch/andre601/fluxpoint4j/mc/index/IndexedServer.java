@@ -0,0 +1,44 @@
+package ch.andre601.fluxpoint4j.mc.index;
+
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A server of a {@link ServerIndex ServerIndex} together with its latest response.
+ */
+public final class IndexedServer{
+    
+    private final ServerTarget target;
+    private final MCServerPingResponse response;
+    
+    IndexedServer(ServerTarget target, MCServerPingResponse response){
+        this.target = target;
+        this.response = response;
+    }
+    
+    /**
+     * Returns the server.
+     * 
+     * @return The server.
+     */
+    @NotNull
+    public ServerTarget getTarget(){
+        return target;
+    }
+    
+    /**
+     * Returns the latest response of the server.
+     * 
+     * @return The latest response of the server.
+     */
+    @NotNull
+    public MCServerPingResponse getResponse(){
+        return response;
+    }
+    
+    @Override
+    public String toString(){
+        return target + " (" + (response.isOnline() ? response.getPlayersOnline() + " players" : "offline") + ")";
+    }
+}
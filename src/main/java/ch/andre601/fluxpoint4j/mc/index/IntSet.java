@@ -0,0 +1,57 @@
+package ch.andre601.fluxpoint4j.mc.index;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive ints, kept as a sorted array.
+ * <br>The sets of the {@link PresenceIndex PresenceIndex} usually only hold one or two ids, for which a sorted array
+ * is both the smallest and the fastest representation.
+ */
+final class IntSet{
+    
+    private static final int[] EMPTY = new int[0];
+    
+    private int[] values = EMPTY;
+    private int size = 0;
+    
+    boolean add(int value){
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if(index >= 0)
+            return false;
+        
+        index = -index - 1;
+        if(size == values.length)
+            values = Arrays.copyOf(values, Math.max(2, size * 2));
+        
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+        return true;
+    }
+    
+    boolean remove(int value){
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if(index < 0)
+            return false;
+        
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+    
+    boolean contains(int value){
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+    
+    int size(){
+        return size;
+    }
+    
+    boolean isEmpty(){
+        return size == 0;
+    }
+    
+    int get(int index){
+        return values[index];
+    }
+}
@@ -0,0 +1,306 @@
+package ch.andre601.fluxpoint4j.mc.index;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index of the servers players are on, built from the {@link MCServerPingResponse#getPlayers() players} of ping
+ * responses.
+ * 
+ * <p>Player names and servers are mapped to int ids, and every player only holds a small set of server ids, which
+ * keeps the index compact even for many thousands of servers. {@link #update(ServerTarget, MCServerPingResponse) Updates}
+ * only touch the players that joined or left a server since its previous response, and
+ * {@link #getServers(String) lookups} are a single hash lookup.
+ * <br>Names are compared ignoring case, just like Minecraft does.
+ * 
+ * <p>Note that servers usually only return a sample of their players in a Server List Ping. Use
+ * {@link ch.andre601.fluxpoint4j.mc.ServerQuerier full queries} for complete player lists.
+ */
+public class PresenceIndex{
+    
+    private static final int[] NO_PLAYERS = new int[0];
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private final Map<ServerTarget, Integer> serverIds = new HashMap<>();
+    private ServerTarget[] servers = new ServerTarget[16];
+    private int[][] serverPlayers = new int[16][];
+    private final IntSet freeServers = new IntSet();
+    private int serverCount = 0;
+    
+    private final Map<String, Integer> playerIds = new HashMap<>();
+    private String[] names = new String[64];
+    private IntSet[] presence = new IntSet[64];
+    private final IntSet freePlayers = new IntSet();
+    private int playerCount = 0;
+    
+    public PresenceIndex(){}
+    
+    /**
+     * Updates the players of the provided server with the ones of the response.
+     * <br>Servers that are offline are treated as having no players.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>ServerTarget or response is null.</li>
+     * </ul>
+     * 
+     * @param target
+     *        The server the response is from.
+     * @param response
+     *        The response containing the current players of the server.
+     */
+    public void update(@NotNull ServerTarget target, @NotNull MCServerPingResponse response){
+        CheckUtil.notNull(target, "ServerTarget");
+        CheckUtil.notNull(response, "Response");
+        
+        String[] players = response.isOnline() && response.getPlayers() != null ? response.getPlayers() : new String[0];
+        
+        lock.writeLock().lock();
+        try{
+            int server = serverId(target);
+            
+            int[] next = new int[players.length];
+            int size = 0;
+            for(String name : players){
+                if(name != null && !name.isEmpty())
+                    next[size++] = intern(name);
+            }
+            
+            Arrays.sort(next, 0, size);
+            int unique = 0;
+            for(int i = 0; i < size; i++){
+                if(unique == 0 || next[unique - 1] != next[i])
+                    next[unique++] = next[i];
+            }
+            
+            apply(server, unique == 0 ? NO_PLAYERS : Arrays.copyOf(next, unique));
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Removes the provided server and all its players from the index.
+     * 
+     * @param  target
+     *         The server to remove.
+     * 
+     * @return True if the server was part of the index, otherwise false.
+     */
+    public boolean remove(@NotNull ServerTarget target){
+        lock.writeLock().lock();
+        try{
+            Integer server = serverIds.remove(target);
+            if(server == null)
+                return false;
+            
+            apply(server, NO_PLAYERS);
+            servers[server] = null;
+            serverPlayers[server] = null;
+            freeServers.add(server);
+            return true;
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the servers the provided player is currently on.
+     * 
+     * @param  player
+     *         The name of the player, ignoring case.
+     * 
+     * @return Possibly-empty, unmodifiable Set of the servers the player is on.
+     */
+    @NotNull
+    public Set<ServerTarget> getServers(@NotNull String player){
+        lock.readLock().lock();
+        try{
+            Integer id = playerIds.get(player.toLowerCase(Locale.ROOT));
+            if(id == null)
+                return Collections.emptySet();
+            
+            IntSet set = presence[id];
+            if(set.size() == 1)
+                return Collections.singleton(servers[set.get(0)]);
+            
+            Set<ServerTarget> result = new HashSet<>();
+            for(int i = 0; i < set.size(); i++)
+                result.add(servers[set.get(i)]);
+            
+            return Collections.unmodifiableSet(result);
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns whether the provided player is on any of the indexed servers.
+     * 
+     * @param  player
+     *         The name of the player, ignoring case.
+     * 
+     * @return True if the player is on at least one server, otherwise false.
+     */
+    public boolean isOnline(@NotNull String player){
+        lock.readLock().lock();
+        try{
+            return playerIds.containsKey(player.toLowerCase(Locale.ROOT));
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the players of the provided server, as of its last update.
+     * 
+     * @param  target
+     *         The server to get the players of.
+     * 
+     * @return Possibly-empty String array containing the names of the players.
+     */
+    public String[] getPlayers(@NotNull ServerTarget target){
+        lock.readLock().lock();
+        try{
+            Integer server = serverIds.get(target);
+            if(server == null)
+                return new String[0];
+            
+            int[] players = serverPlayers[server];
+            String[] result = new String[players.length];
+            for(int i = 0; i < players.length; i++)
+                result[i] = names[players[i]];
+            
+            return result;
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the amount of distinct players on the indexed servers.
+     * 
+     * @return The amount of distinct players.
+     */
+    public int getPlayerCount(){
+        lock.readLock().lock();
+        try{
+            return playerIds.size();
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns the amount of indexed servers.
+     * 
+     * @return The amount of indexed servers.
+     */
+    public int getServerCount(){
+        lock.readLock().lock();
+        try{
+            return serverIds.size();
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+    
+    /*
+     * Merges the sorted player ids of the server with the new ones, only touching the players that joined or left.
+     */
+    private void apply(int server, int[] next){
+        int[] previous = serverPlayers[server];
+        int i = 0;
+        int j = 0;
+        while(i < previous.length || j < next.length){
+            if(j == next.length || (i < previous.length && previous[i] < next[j])){
+                leave(previous[i++], server);
+            }else if(i == previous.length || next[j] < previous[i]){
+                presence[next[j++]].add(server);
+            }else{
+                i++;
+                j++;
+            }
+        }
+        
+        serverPlayers[server] = next;
+    }
+    
+    private void leave(int player, int server){
+        IntSet set = presence[player];
+        set.remove(server);
+        if(!set.isEmpty())
+            return;
+        
+        playerIds.remove(names[player].toLowerCase(Locale.ROOT));
+        names[player] = null;
+        presence[player] = null;
+        freePlayers.add(player);
+    }
+    
+    private int serverId(ServerTarget target){
+        Integer existing = serverIds.get(target);
+        if(existing != null)
+            return existing;
+        
+        int id;
+        if(freeServers.isEmpty()){
+            id = serverCount++;
+            if(id == servers.length){
+                servers = Arrays.copyOf(servers, id * 2);
+                serverPlayers = Arrays.copyOf(serverPlayers, id * 2);
+            }
+        }else{
+            id = freeServers.get(0);
+            freeServers.remove(id);
+        }
+        
+        servers[id] = target;
+        serverPlayers[id] = NO_PLAYERS;
+        serverIds.put(target, id);
+        return id;
+    }
+    
+    /*
+     * Returns the id of the player, assigning a new one if the player isn't on any server yet.
+     * The stored name is updated to the latest spelling.
+     */
+    private int intern(String name){
+        String key = name.toLowerCase(Locale.ROOT);
+        Integer existing = playerIds.get(key);
+        if(existing != null){
+            names[existing] = name;
+            return existing;
+        }
+        
+        int id;
+        if(freePlayers.isEmpty()){
+            id = playerCount++;
+            if(id == names.length){
+                names = Arrays.copyOf(names, id * 2);
+                presence = Arrays.copyOf(presence, id * 2);
+            }
+        }else{
+            id = freePlayers.get(0);
+            freePlayers.remove(id);
+        }
+        
+        names[id] = name;
+        presence[id] = new IntSet();
+        playerIds.put(key, id);
+        return id;
+    }
+}
@@ -0,0 +1,286 @@
+package ch.andre601.fluxpoint4j.mc.index;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Index over the latest {@link MCServerPingResponse MCServerPingResponse} of every monitored server.
+ * 
+ * <p>The index keeps the online servers ordered by their {@link MCServerPingResponse#getPlayersOnline() player count},
+ * which is updated incrementally with every {@link #update(ServerTarget, MCServerPingResponse) update}, so no sorting
+ * is needed when reading.
+ * <br>Reads go through immutable {@link Snapshot Snapshots}. A snapshot is only created once after the index changed
+ * and is then shared by all readers without locking, which makes repeated reads, such as a dashboard reloading its
+ * page, cheap.
+ */
+public class ServerIndex{
+    
+    private static final Comparator<IndexedServer> RANKING = Comparator
+        .comparingInt((IndexedServer server) -> server.getResponse().getPlayersOnline()).reversed()
+        .thenComparing(server -> server.getTarget().getHost())
+        .thenComparingInt(server -> server.getTarget().getPort());
+    
+    private final Map<ServerTarget, IndexedServer> servers = new HashMap<>();
+    private final TreeSet<IndexedServer> online = new TreeSet<>(RANKING);
+    private final Set<IndexedServer> offline = new LinkedHashSet<>();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0, Collections.emptyList(),
+        Collections.emptyList(), Collections.emptyMap()));
+    
+    private volatile long version = 0;
+    
+    public ServerIndex(){}
+    
+    /**
+     * Sets the latest response of the provided server.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>ServerTarget or response is null.</li>
+     * </ul>
+     * 
+     * @param target
+     *        The server the response is from.
+     * @param response
+     *        The latest response of the server.
+     */
+    public synchronized void update(@NotNull ServerTarget target, @NotNull MCServerPingResponse response){
+        CheckUtil.notNull(target, "ServerTarget");
+        CheckUtil.notNull(response, "Response");
+        
+        IndexedServer server = new IndexedServer(target, response);
+        detach(servers.put(target, server));
+        
+        if(response.isOnline()){
+            online.add(server);
+        }else{
+            offline.add(server);
+        }
+        version++;
+    }
+    
+    /**
+     * Removes the provided server from the index.
+     * 
+     * @param  target
+     *         The server to remove.
+     * 
+     * @return True if the server was part of the index, otherwise false.
+     */
+    public synchronized boolean remove(@NotNull ServerTarget target){
+        IndexedServer server = servers.remove(target);
+        if(server == null)
+            return false;
+        
+        detach(server);
+        version++;
+        return true;
+    }
+    
+    /**
+     * Returns a snapshot of the current state of the index.
+     * <br>The same snapshot is returned until the index is changed again.
+     * 
+     * @return Immutable {@link Snapshot Snapshot} of the index.
+     */
+    @NotNull
+    public Snapshot getSnapshot(){
+        Snapshot current = snapshot.get();
+        if(current.version == version)
+            return current;
+        
+        synchronized(this){
+            current = snapshot.get();
+            if(current.version == version)
+                return current;
+            
+            current = createSnapshot();
+            snapshot.set(current);
+            return current;
+        }
+    }
+    
+    private void detach(IndexedServer server){
+        if(server == null)
+            return;
+        
+        if(server.getResponse().isOnline()){
+            online.remove(server);
+        }else{
+            offline.remove(server);
+        }
+    }
+    
+    private Snapshot createSnapshot(){
+        List<IndexedServer> ranking = new ArrayList<>(online);
+        
+        // Grouping the ranked servers first keeps every group ordered by the player count.
+        Map<String, List<IndexedServer>> groups = new HashMap<>();
+        for(IndexedServer server : ranking)
+            group(groups, server);
+        for(IndexedServer server : offline)
+            group(groups, server);
+        
+        for(Map.Entry<String, List<IndexedServer>> entry : groups.entrySet())
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        
+        return new Snapshot(version, Collections.unmodifiableList(ranking),
+            Collections.unmodifiableList(new ArrayList<>(offline)), groups);
+    }
+    
+    private static void group(Map<String, List<IndexedServer>> groups, IndexedServer server){
+        MCServerPingResponse response = server.getResponse();
+        if(response.getVersion() != null)
+            groups.computeIfAbsent("version:" + response.getVersion(), key -> new ArrayList<>()).add(server);
+        if(response.getStatus() != null)
+            groups.computeIfAbsent("status:" + response.getStatus(), key -> new ArrayList<>()).add(server);
+    }
+    
+    /**
+     * Immutable state of a {@link ServerIndex ServerIndex} at a point in time.
+     * <br>Snapshots are safe to share between threads.
+     */
+    public static final class Snapshot{
+        
+        private final long version;
+        private final List<IndexedServer> online;
+        private final List<IndexedServer> offline;
+        private final Map<String, List<IndexedServer>> groups;
+        private final Map<ServerTarget, IndexedServer> servers = new HashMap<>();
+        
+        private Snapshot(long version, List<IndexedServer> online, List<IndexedServer> offline,
+                         Map<String, List<IndexedServer>> groups){
+            this.version = version;
+            this.online = online;
+            this.offline = offline;
+            this.groups = groups;
+            
+            for(IndexedServer server : online)
+                servers.put(server.getTarget(), server);
+            for(IndexedServer server : offline)
+                servers.put(server.getTarget(), server);
+        }
+        
+        /**
+         * Returns the online servers with the most players, ordered by their player count.
+         * 
+         * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+         * <ul>
+         *     <li>Limit is negative.</li>
+         * </ul>
+         * 
+         * @param  limit
+         *         The maximum amount of servers to return.
+         * 
+         * @return Unmodifiable List of up to {@code limit} servers.
+         */
+        @NotNull
+        public List<IndexedServer> getTop(int limit){
+            CheckUtil.isPositive(limit, "Limit");
+            
+            return online.subList(0, Math.min(limit, online.size()));
+        }
+        
+        /**
+         * Returns all online servers, ordered by their player count.
+         * 
+         * @return Unmodifiable List of all online servers.
+         */
+        @NotNull
+        public List<IndexedServer> getOnline(){
+            return online;
+        }
+        
+        /**
+         * Returns all offline servers.
+         * 
+         * @return Unmodifiable List of all offline servers.
+         */
+        @NotNull
+        public List<IndexedServer> getOffline(){
+            return offline;
+        }
+        
+        /**
+         * Returns the servers reporting the provided {@link MCServerPingResponse#getVersion() version}, with the online
+         * ones ordered by their player count first.
+         * 
+         * @param  version
+         *         The version to filter by.
+         * 
+         * @return Possibly-empty, unmodifiable List of the servers with the provided version.
+         */
+        @NotNull
+        public List<IndexedServer> getByVersion(@NotNull String version){
+            return groups.getOrDefault("version:" + version, Collections.emptyList());
+        }
+        
+        /**
+         * Returns the servers with the provided {@link MCServerPingResponse#getStatus() status}, with the online ones
+         * ordered by their player count first.
+         * 
+         * @param  status
+         *         The status to filter by.
+         * 
+         * @return Possibly-empty, unmodifiable List of the servers with the provided status.
+         */
+        @NotNull
+        public List<IndexedServer> getByStatus(@NotNull String status){
+            return groups.getOrDefault("status:" + status, Collections.emptyList());
+        }
+        
+        /**
+         * Returns the latest response of the provided server.
+         * 
+         * @param  target
+         *         The server to get the response of.
+         * 
+         * @return Possibly-null response of the server. Null when the server isn't part of the index.
+         */
+        @Nullable
+        public MCServerPingResponse get(@NotNull ServerTarget target){
+            IndexedServer server = servers.get(target);
+            return server == null ? null : server.getResponse();
+        }
+        
+        /**
+         * Returns the amount of online servers.
+         * 
+         * @return The amount of online servers.
+         */
+        public int getOnlineCount(){
+            return online.size();
+        }
+        
+        /**
+         * Returns the amount of offline servers.
+         * 
+         * @return The amount of offline servers.
+         */
+        public int getOfflineCount(){
+            return offline.size();
+        }
+        
+        /**
+         * Returns the amount of servers in this snapshot.
+         * 
+         * @return The amount of servers.
+         */
+        public int size(){
+            return online.size() + offline.size();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ch.andre601.fluxpoint4j.mc.watcher;
+
+import ch.andre601.fluxpoint4j.Fluxpoint4J;
+import ch.andre601.fluxpoint4j.mc.ServerListPinger;
+import ch.andre601.fluxpoint4j.mc.ServerQuerier;
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface used by the {@link ServerWatcher ServerWatcher} to obtain the current status of a server.
+ * 
+ * <p>Implementations are available for the {@link #of(Fluxpoint4J) Fluxpoint API}, the
+ * {@link #of(ServerListPinger) ServerListPinger} and the {@link #of(ServerQuerier) ServerQuerier}, but you can provide
+ * your own, i.e. to fall back to the API when a direct ping fails.
+ */
+@FunctionalInterface
+public interface PingSource{
+    
+    /**
+     * Pings the provided server.
+     * <br>Responses other than {@link ch.andre601.fluxpoint4j.request.MCServerPingResponse MCServerPingResponse} are
+     * treated as failed pings by the ServerWatcher.
+     * 
+     * @param  target
+     *         The server to ping.
+     * 
+     * @return CompletableFuture containing the response.
+     */
+    CompletableFuture<GenericAPIResponse> ping(@NotNull ServerTarget target);
+    
+    /**
+     * Creates a PingSource pinging servers through the Fluxpoint API.
+     * <br>Keep the rate limits of the API in mind when watching many servers.
+     * 
+     * @param  api
+     *         The Fluxpoint4J instance to use.
+     * 
+     * @return PingSource using the {@link ch.andre601.fluxpoint4j.mc.MCRequestBuilder MCRequestBuilder}.
+     */
+    static PingSource of(@NotNull Fluxpoint4J api){
+        return target -> api.getNewMCRequestBuilder()
+            .withHost(target.getHost())
+            .withPort(target.getPort())
+            .queueRequest();
+    }
+    
+    /**
+     * Creates a PingSource pinging servers directly.
+     * 
+     * @param  pinger
+     *         The ServerListPinger to use.
+     * 
+     * @return PingSource using the {@link ServerListPinger ServerListPinger}.
+     */
+    static PingSource of(@NotNull ServerListPinger pinger){
+        return pinger::ping;
+    }
+    
+    /**
+     * Creates a PingSource querying servers directly.
+     * 
+     * @param  querier
+     *         The ServerQuerier to use.
+     * 
+     * @return PingSource using the {@link ServerQuerier ServerQuerier}.
+     */
+    static PingSource of(@NotNull ServerQuerier querier){
+        return querier::query;
+    }
+}
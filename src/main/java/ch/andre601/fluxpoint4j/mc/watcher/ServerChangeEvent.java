@@ -0,0 +1,122 @@
+package ch.andre601.fluxpoint4j.mc.watcher;
+
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Event passed to a {@link ServerChangeListener ServerChangeListener} when a watched server changed.
+ */
+public class ServerChangeEvent{
+    
+    private final ServerTarget target;
+    private final MCServerPingResponse previous;
+    private final MCServerPingResponse current;
+    private final Set<Change> changes;
+    
+    ServerChangeEvent(ServerTarget target, MCServerPingResponse previous, MCServerPingResponse current, Set<Change> changes){
+        this.target = target;
+        this.previous = previous;
+        this.current = current;
+        this.changes = Collections.unmodifiableSet(changes);
+    }
+    
+    /**
+     * Returns the server that changed.
+     * 
+     * @return The server that changed.
+     */
+    @NotNull
+    public ServerTarget getTarget(){
+        return target;
+    }
+    
+    /**
+     * Returns the previous response of the server.
+     * <br>This is {@code null} for the first response received after the server has been watched, in which case
+     * {@link #getChanges() all values} are marked as changed.
+     * 
+     * @return Possibly-null previous response of the server.
+     */
+    @Nullable
+    public MCServerPingResponse getPrevious(){
+        return previous;
+    }
+    
+    /**
+     * Returns the current response of the server.
+     * 
+     * @return The current response of the server.
+     */
+    @NotNull
+    public MCServerPingResponse getCurrent(){
+        return current;
+    }
+    
+    /**
+     * Returns the values that changed.
+     * 
+     * @return Unmodifiable, never empty Set of the values that changed.
+     */
+    @NotNull
+    public Set<Change> getChanges(){
+        return changes;
+    }
+    
+    /**
+     * Returns whether the provided value changed.
+     * 
+     * @param  change
+     *         The value to check.
+     * 
+     * @return True if the value changed, otherwise false.
+     */
+    public boolean hasChanged(@NotNull Change change){
+        return changes.contains(change);
+    }
+    
+    static Set<Change> compare(@Nullable MCServerPingResponse previous, MCServerPingResponse current){
+        if(previous == null)
+            return EnumSet.allOf(Change.class);
+        
+        Set<Change> changes = EnumSet.noneOf(Change.class);
+        if(previous.isOnline() != current.isOnline())
+            changes.add(Change.ONLINE);
+        if(previous.getPlayersOnline() != current.getPlayersOnline())
+            changes.add(Change.PLAYERS_ONLINE);
+        if(!Objects.equals(previous.getMotd(), current.getMotd()))
+            changes.add(Change.MOTD);
+        if(!Objects.equals(previous.getVersion(), current.getVersion()))
+            changes.add(Change.VERSION);
+        
+        return changes;
+    }
+    
+    /**
+     * The values of a server that are compared by the {@link ServerWatcher ServerWatcher}.
+     */
+    public enum Change{
+        /**
+         * The server went {@link MCServerPingResponse#isOnline() online or offline}.
+         */
+        ONLINE,
+        /**
+         * The {@link MCServerPingResponse#getPlayersOnline() amount of online players} changed.
+         */
+        PLAYERS_ONLINE,
+        /**
+         * The {@link MCServerPingResponse#getMotd() MOTD} changed.
+         */
+        MOTD,
+        /**
+         * The {@link MCServerPingResponse#getVersion() version} changed.
+         */
+        VERSION
+    }
+}
@@ -0,0 +1,18 @@
+package ch.andre601.fluxpoint4j.mc.watcher;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listener notified by the {@link ServerWatcher ServerWatcher} whenever a watched server changed.
+ */
+@FunctionalInterface
+public interface ServerChangeListener{
+    
+    /**
+     * Called when the online state, player count, MOTD or version of a watched server changed.
+     * 
+     * @param event
+     *        The event containing the previous and current state of the server.
+     */
+    void onChange(@NotNull ServerChangeEvent event);
+}
@@ -0,0 +1,476 @@
+package ch.andre601.fluxpoint4j.mc.watcher;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Watches Minecraft servers by pinging them periodically and notifies {@link ServerChangeListener listeners} whenever
+ * the online state, player count, MOTD or version of a server changed.
+ * 
+ * <p>Every server is watched with its own base interval, which is adapted over time:
+ * <ul>
+ *     <li>After a change is the server pinged again after its base interval.</li>
+ *     <li>While the server doesn't change is the interval increased by 50% after every ping.</li>
+ *     <li>While the server is offline or the ping fails is the interval doubled after every ping.</li>
+ * </ul>
+ * The interval never exceeds the base interval times the {@link Builder#withMaxBackoff(int) max backoff}, and a random
+ * {@link Builder#withJitter(double) jitter} is applied to every ping, so that servers watched with the same interval
+ * don't end up being pinged at the same time.
+ * 
+ * <p>Pings are scheduled on a hashed timing wheel handled by a single background thread, which allows watching
+ * hundreds of thousands of servers. The pings themselves are performed by the provided {@link PingSource PingSource}.
+ * <br>The watcher should be {@link #close() closed} once it is no longer needed.
+ */
+public class ServerWatcher implements Closeable{
+    
+    private final PingSource pingSource;
+    private final double jitter;
+    private final int maxBackoff;
+    private final Executor listenerExecutor;
+    private final ExecutorService ownedExecutor;
+    private final TimingWheel<Watch> wheel;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Map<ServerTarget, Watch> watches = new ConcurrentHashMap<>();
+    private final List<ServerChangeListener> listeners = new CopyOnWriteArrayList<>();
+    
+    private volatile boolean closed = false;
+    
+    private ServerWatcher(PingSource pingSource, long tickNanos, int wheelSize, double jitter, int maxBackoff,
+                          Executor listenerExecutor){
+        this.pingSource = pingSource;
+        this.jitter = jitter;
+        this.maxBackoff = maxBackoff;
+        
+        if(listenerExecutor == null){
+            this.ownedExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Fluxpoint4J-ServerWatcher-Events");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.listenerExecutor = ownedExecutor;
+        }else{
+            this.ownedExecutor = null;
+            this.listenerExecutor = listenerExecutor;
+        }
+        
+        this.wheel = new TimingWheel<>(tickNanos, wheelSize);
+        this.thread = new Thread(this::run, "Fluxpoint4J-ServerWatcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    /**
+     * Starts watching the provided server.
+     * <br>The first ping is performed after a random delay within the interval, to spread pings of servers added at
+     * the same time. Its result is reported as a change of all values.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>ServerTarget is null.</li>
+     *     <li>Interval is 0 or less.</li>
+     *     <li>TimeUnit is null.</li>
+     * </ul>
+     * 
+     * @param  target
+     *         The server to watch.
+     * @param  interval
+     *         The base interval to ping the server in.
+     * @param  unit
+     *         The TimeUnit of the interval.
+     * 
+     * @return True if the server is now watched, false if it was already watched or the watcher has been closed.
+     */
+    public boolean watch(@NotNull ServerTarget target, long interval, @NotNull TimeUnit unit){
+        CheckUtil.notNull(target, "ServerTarget");
+        CheckUtil.check(interval > 0, "Interval needs to be larger than 0.");
+        CheckUtil.notNull(unit, "TimeUnit");
+        
+        if(closed)
+            return false;
+        
+        Watch watch = new Watch(target, unit.toNanos(interval));
+        if(watches.putIfAbsent(target, watch) != null)
+            return false;
+        
+        tasks.add(() -> schedule(watch, (long)(ThreadLocalRandom.current().nextDouble() * watch.base)));
+        return true;
+    }
+    
+    /**
+     * Stops watching the provided server.
+     * <br>A ping that is currently running is still completed, but its result is ignored.
+     * 
+     * @param  target
+     *         The server to stop watching.
+     * 
+     * @return True if the server was watched, otherwise false.
+     */
+    public boolean unwatch(@NotNull ServerTarget target){
+        Watch watch = watches.remove(target);
+        if(watch == null)
+            return false;
+        
+        tasks.add(() -> {
+            watch.cancelled = true;
+            if(watch.node != null)
+                wheel.cancel(watch.node);
+        });
+        return true;
+    }
+    
+    /**
+     * Returns the servers currently watched.
+     * 
+     * @return Unmodifiable copy of the watched servers.
+     */
+    public Set<ServerTarget> getTargets(){
+        return Collections.unmodifiableSet(new HashSet<>(watches.keySet()));
+    }
+    
+    /**
+     * Returns the last {@link MCServerPingResponse MCServerPingResponse} received for the provided server.
+     * 
+     * @param  target
+     *         The server to get the last response of.
+     * 
+     * @return Possibly-null last response of the server. Null when the server isn't watched or hasn't been pinged yet.
+     */
+    @Nullable
+    public MCServerPingResponse getLastResponse(@NotNull ServerTarget target){
+        Watch watch = watches.get(target);
+        return watch == null ? null : watch.last;
+    }
+    
+    /**
+     * Returns the current, adapted interval of the provided server, without jitter.
+     * 
+     * @param  target
+     *         The server to get the interval of.
+     * @param  unit
+     *         The TimeUnit to return the interval in.
+     * 
+     * @return The current interval of the server, or -1 if the server isn't watched.
+     */
+    public long getInterval(@NotNull ServerTarget target, @NotNull TimeUnit unit){
+        Watch watch = watches.get(target);
+        return watch == null ? -1 : unit.convert(watch.interval, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Adds a listener to notify about changes of watched servers.
+     * <br>Listeners are called using the {@link Builder#withListenerExecutor(Executor) listener executor}.
+     * 
+     * @param listener
+     *        The listener to add.
+     */
+    public void addListener(@NotNull ServerChangeListener listener){
+        CheckUtil.notNull(listener, "Listener");
+        
+        listeners.add(listener);
+    }
+    
+    /**
+     * Removes a previously added listener.
+     * 
+     * @param listener
+     *        The listener to remove.
+     */
+    public void removeListener(@NotNull ServerChangeListener listener){
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Stops watching all servers and stops the background thread.
+     */
+    @Override
+    public void close(){
+        if(closed)
+            return;
+        
+        closed = true;
+        LockSupport.unpark(thread);
+        
+        if(Thread.currentThread() != thread){
+            try{
+                thread.join();
+            }catch(InterruptedException ex){
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        watches.clear();
+        if(ownedExecutor != null)
+            ownedExecutor.shutdown();
+    }
+    
+    private void run(){
+        long tickNanos = wheel.getTickNanos();
+        long next = System.nanoTime() + tickNanos;
+        
+        while(!closed){
+            long sleep = next - System.nanoTime();
+            if(sleep > 0){
+                LockSupport.parkNanos(this, sleep);
+                continue;
+            }
+            
+            Runnable task;
+            while((task = tasks.poll()) != null)
+                task.run();
+            
+            // Catch up on ticks missed while the thread was busy or not scheduled.
+            while(next - System.nanoTime() <= 0){
+                wheel.advance(this::ping);
+                next += tickNanos;
+            }
+        }
+    }
+    
+    private void schedule(Watch watch, long delay){
+        if(!watch.cancelled)
+            watch.node = wheel.schedule(watch, delay);
+    }
+    
+    private void ping(Watch watch){
+        watch.node = null;
+        
+        CompletableFuture<GenericAPIResponse> future;
+        try{
+            future = pingSource.ping(watch.target);
+        }catch(RuntimeException ex){
+            complete(watch, null);
+            return;
+        }
+        
+        future.whenComplete((response, throwable) -> tasks.add(() -> complete(watch, throwable == null ? response : null)));
+    }
+    
+    private void complete(Watch watch, GenericAPIResponse response){
+        if(watch.cancelled)
+            return;
+        
+        long max = watch.base * maxBackoff;
+        if(response instanceof MCServerPingResponse){
+            MCServerPingResponse current = (MCServerPingResponse)response;
+            MCServerPingResponse previous = watch.last;
+            Set<ServerChangeEvent.Change> changes = ServerChangeEvent.compare(previous, current);
+            watch.last = current;
+            
+            if(!changes.isEmpty()){
+                watch.interval = watch.base;
+                dispatch(new ServerChangeEvent(watch.target, previous, current, changes));
+            }else if(current.isOnline()){
+                watch.interval = Math.min(watch.interval + watch.interval / 2, max);
+            }else{
+                watch.interval = Math.min(watch.interval * 2, max);
+            }
+        }else{
+            watch.interval = Math.min(watch.interval * 2, max);
+        }
+        
+        double factor = 1 + jitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1);
+        schedule(watch, (long)(watch.interval * factor));
+    }
+    
+    private void dispatch(ServerChangeEvent event){
+        if(listeners.isEmpty())
+            return;
+        
+        listenerExecutor.execute(() -> {
+            for(ServerChangeListener listener : listeners){
+                try{
+                    listener.onChange(event);
+                }catch(RuntimeException ignored){}
+            }
+        });
+    }
+    
+    private static class Watch{
+        
+        private final ServerTarget target;
+        private final long base;
+        
+        private volatile long interval;
+        private volatile MCServerPingResponse last = null;
+        private TimingWheel.Node<Watch> node = null;
+        private boolean cancelled = false;
+        
+        Watch(ServerTarget target, long base){
+            this.target = target;
+            this.base = base;
+            this.interval = base;
+        }
+    }
+    
+    /**
+     * Builder class to create a new {@link ServerWatcher ServerWatcher}.
+     * <br>A {@link #withPingSource(PingSource) PingSource} is required.
+     */
+    public static class Builder{
+        
+        private PingSource pingSource = null;
+        private long tickNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        private int wheelSize = 512;
+        private double jitter = 0.1;
+        private int maxBackoff = 8;
+        private Executor listenerExecutor = null;
+        
+        public Builder(){}
+        
+        /**
+         * Sets the {@link PingSource PingSource} used to ping the watched servers.
+         * 
+         * @param  pingSource
+         *         The PingSource to use.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withPingSource(@NotNull PingSource pingSource){
+            this.pingSource = pingSource;
+            return this;
+        }
+        
+        /**
+         * Sets the duration of a single tick of the timing wheel, which is the precision pings are scheduled with.
+         * <br>Default is 100 milliseconds.
+         * 
+         * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+         * <ul>
+         *     <li>Duration is less than 1 millisecond.</li>
+         *     <li>TimeUnit is null.</li>
+         * </ul>
+         * 
+         * @param  duration
+         *         The duration of a tick.
+         * @param  unit
+         *         The TimeUnit of the duration.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withTickDuration(long duration, @NotNull TimeUnit unit){
+            CheckUtil.notNull(unit, "TimeUnit");
+            CheckUtil.check(unit.toMillis(duration) >= 1, "Tick duration needs to be at least 1 millisecond.");
+            
+            this.tickNanos = unit.toNanos(duration);
+            return this;
+        }
+        
+        /**
+         * Sets the amount of buckets of the timing wheel, which is rounded up to the next power of two.
+         * <br>Intervals longer than one rotation of the wheel are supported, but require the pings to be visited
+         * once per rotation. Default is 512.
+         * 
+         * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+         * <ul>
+         *     <li>Size is less than 1 or larger than 1073741824.</li>
+         * </ul>
+         * 
+         * @param  wheelSize
+         *         The amount of buckets.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withWheelSize(int wheelSize){
+            CheckUtil.inRange(wheelSize, 1, 1 << 30, "Wheel size");
+            
+            this.wheelSize = wheelSize;
+            return this;
+        }
+        
+        /**
+         * Sets the jitter applied to every interval, as fraction of the interval.
+         * <br>A jitter of 0.1 pings a server with an interval of 60 seconds after 54 to 66 seconds. Default is 0.1.
+         * 
+         * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+         * <ul>
+         *     <li>Jitter is not between 0 and 1.</li>
+         * </ul>
+         * 
+         * @param  jitter
+         *         The jitter to apply.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withJitter(double jitter){
+            CheckUtil.check(jitter >= 0 && jitter <= 1, "Jitter needs to be between 0 and 1.");
+            
+            this.jitter = jitter;
+            return this;
+        }
+        
+        /**
+         * Sets how many times the base interval of a server the interval may grow to while the server is stable or
+         * offline. Default is 8.
+         * 
+         * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+         * <ul>
+         *     <li>Max backoff is less than 1.</li>
+         * </ul>
+         * 
+         * @param  maxBackoff
+         *         The maximum multiplier of the base interval.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withMaxBackoff(int maxBackoff){
+            CheckUtil.largerThan(maxBackoff, 1, "Max backoff");
+            
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+        
+        /**
+         * Sets the Executor used to call the {@link ServerChangeListener listeners}.
+         * <br>By default is a single background thread used, which calls the listeners in the order the changes
+         * were detected.
+         * 
+         * @param  listenerExecutor
+         *         The Executor to call listeners with, or {@code null} to use the default one.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withListenerExecutor(@Nullable Executor listenerExecutor){
+            this.listenerExecutor = listenerExecutor;
+            return this;
+        }
+        
+        /**
+         * Creates a new {@link ServerWatcher ServerWatcher} using the values of this Builder.
+         * 
+         * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+         * <ul>
+         *     <li>{@link #withPingSource(PingSource) PingSource} is null.</li>
+         * </ul>
+         * 
+         * @return New ServerWatcher instance.
+         */
+        public ServerWatcher build(){
+            CheckUtil.notNull(pingSource, "PingSource");
+            
+            return new ServerWatcher(pingSource, tickNanos, wheelSize, jitter, maxBackoff, listenerExecutor);
+        }
+    }
+}
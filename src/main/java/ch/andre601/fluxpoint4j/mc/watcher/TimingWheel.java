@@ -0,0 +1,138 @@
+package ch.andre601.fluxpoint4j.mc.watcher;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel used by the {@link ServerWatcher ServerWatcher} to schedule pings.
+ * <br>Scheduling and cancelling are O(1), and advancing the wheel only visits the nodes in the current bucket, which
+ * keeps the cost independent of the number of watched servers.
+ * 
+ * <p>This class is not thread-safe and is only used by the thread of the ServerWatcher.
+ */
+final class TimingWheel<T>{
+    
+    private final long tickNanos;
+    private final Bucket<T>[] buckets;
+    private final int mask;
+    
+    private long tick = 0;
+    
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickNanos, int size){
+        this.tickNanos = tickNanos;
+        
+        int buckets = Integer.highestOneBit(Math.max(size, 1) - 1) << 1;
+        this.buckets = (Bucket<T>[])new Bucket<?>[Math.max(buckets, 1)];
+        for(int i = 0; i < this.buckets.length; i++)
+            this.buckets[i] = new Bucket<>();
+        
+        this.mask = this.buckets.length - 1;
+    }
+    
+    long getTickNanos(){
+        return tickNanos;
+    }
+    
+    /**
+     * Schedules the value to expire after the provided delay, rounded up to whole ticks.
+     */
+    Node<T> schedule(T value, long delayNanos){
+        long ticks = Math.max(1, (delayNanos + tickNanos - 1) / tickNanos);
+        long target = tick + ticks;
+        
+        Node<T> node = new Node<>(value);
+        node.rounds = (ticks - 1) / buckets.length;
+        buckets[(int)(target & mask)].add(node);
+        return node;
+    }
+    
+    void cancel(Node<T> node){
+        if(node.bucket != null)
+            node.bucket.remove(node);
+    }
+    
+    /**
+     * Advances the wheel by one tick, passing every value that expired to the consumer.
+     * <br>The expired values are only passed on once the bucket has been walked, so the consumer may schedule values
+     * into the current bucket without them expiring in the same tick.
+     */
+    void advance(Consumer<T> expired){
+        tick++;
+        
+        Bucket<T> bucket = buckets[(int)(tick & mask)];
+        Node<T> first = null;
+        Node<T> last = null;
+        Node<T> node = bucket.head;
+        while(node != null){
+            Node<T> next = node.next;
+            if(node.rounds <= 0){
+                bucket.remove(node);
+                if(last == null){
+                    first = node;
+                }else{
+                    last.next = node;
+                }
+                last = node;
+            }else{
+                node.rounds--;
+            }
+            node = next;
+        }
+        
+        while(first != null){
+            node = first;
+            first = node.next;
+            node.next = null;
+            expired.accept(node.value);
+        }
+    }
+    
+    static final class Node<T>{
+        
+        private final T value;
+        
+        private long rounds;
+        private Bucket<T> bucket;
+        private Node<T> prev;
+        private Node<T> next;
+        
+        private Node(T value){
+            this.value = value;
+        }
+    }
+    
+    private static final class Bucket<T>{
+        
+        private Node<T> head;
+        private Node<T> tail;
+        
+        void add(Node<T> node){
+            node.bucket = this;
+            node.prev = tail;
+            if(tail == null){
+                head = node;
+            }else{
+                tail.next = node;
+            }
+            tail = node;
+        }
+        
+        void remove(Node<T> node){
+            if(node.prev == null){
+                head = node.next;
+            }else{
+                node.prev.next = node.next;
+            }
+            
+            if(node.next == null){
+                tail = node.prev;
+            }else{
+                node.next.prev = node.prev;
+            }
+            
+            node.bucket = null;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+}
@@ -0,0 +1,587 @@
+package ch.andre601.fluxpoint4j.png;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Encoder writing {@link BufferedImage BufferedImages} as 8-bit RGB or RGBA PNG images.
+ * 
+ * <p>The image data is split into chunks of rows, which are filtered and compressed in parallel using the
+ * {@link java.util.concurrent.ForkJoinPool#commonPool() common ForkJoinPool}. Every chunk is compressed as part of a
+ * single zlib stream, using the end of the previous chunk as preset dictionary, so the result compresses almost as
+ * well as compressing all rows at once.
+ * <br>Deflaters and buffers are reused per thread. The output only depends on the settings of the encoder and not on
+ * the amount of threads used.
+ * 
+ * <p>Encoders with non-default settings can be created using the {@link Builder nested Builder class}.
+ * <br>A PngEncoder is immutable and can safely be shared between multiple threads.
+ */
+public class PngEncoder{
+    
+    private static final byte[] SIGNATURE = {(byte)0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int MAX_IDAT_SIZE = 1024 * 1024;
+    
+    private static final PngEncoder DEFAULT = new Builder().build();
+    
+    private static final ThreadLocal<Deflater[]> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater[10]);
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[64 * 1024]);
+    
+    private final Filter filter;
+    private final int compressionLevel;
+    private final int chunkSize;
+    private final boolean parallel;
+    
+    private PngEncoder(Filter filter, int compressionLevel, int chunkSize, boolean parallel){
+        this.filter = filter;
+        this.compressionLevel = compressionLevel;
+        this.chunkSize = chunkSize;
+        this.parallel = parallel;
+    }
+    
+    /**
+     * Returns the PngEncoder using the default settings of the {@link Builder Builder}.
+     * 
+     * @return The default PngEncoder.
+     */
+    public static PngEncoder getDefault(){
+        return DEFAULT;
+    }
+    
+    /**
+     * Returns the {@link Filter Filter} applied to the rows of the image.
+     * 
+     * @return The Filter used by this encoder.
+     */
+    public Filter getFilter(){
+        return filter;
+    }
+    
+    /**
+     * Returns the deflate level (0 to 9) used to compress the image.
+     * 
+     * @return The deflate level used by this encoder.
+     */
+    public int getCompressionLevel(){
+        return compressionLevel;
+    }
+    
+    /**
+     * Encodes the provided image as PNG.
+     * 
+     * @param  image
+     *         The image to encode.
+     * 
+     * @return Byte array containing the PNG image.
+     */
+    public byte[] encode(@NotNull BufferedImage image){
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try{
+            encode(image, output);
+        }catch(IOException ex){
+            // Writing to a ByteArrayOutputStream does not throw an IOException.
+            throw new IllegalStateException(ex);
+        }
+        
+        return output.toByteArray();
+    }
+    
+    /**
+     * Encodes the provided image as PNG and writes it to the provided OutputStream.
+     * <br>The OutputStream is not closed.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Image is null.</li>
+     *     <li>Output is null.</li>
+     * </ul>
+     * 
+     * @param  image
+     *         The image to encode.
+     * @param  output
+     *         The OutputStream to write the PNG image to.
+     * 
+     * @throws IOException
+     *         When writing to the OutputStream fails.
+     */
+    public void encode(@NotNull BufferedImage image, @NotNull OutputStream output) throws IOException{
+        CheckUtil.notNull(image, "Image");
+        CheckUtil.notNull(output, "Output");
+        
+        ImageRows rows = new ImageRows(image);
+        int rowsPerChunk = Math.max(1, chunkSize / (rows.getRowLength() + 1));
+        int chunkCount = (image.getHeight() + rowsPerChunk - 1) / rowsPerChunk;
+        
+        // Filtering first, as every chunk uses the filtered data of the previous chunk as dictionary.
+        byte[][] filtered = new byte[chunkCount][];
+        chunks(chunkCount).forEach(chunk -> filtered[chunk] = filter(rows, chunk * rowsPerChunk, Math.min(image.getHeight(), (chunk + 1) * rowsPerChunk)));
+        
+        byte[][] compressed = new byte[chunkCount][];
+        chunks(chunkCount).forEach(chunk -> compressed[chunk] = deflate(filtered, chunk));
+        
+        Adler32 adler = new Adler32();
+        for(byte[] data : filtered)
+            adler.update(data, 0, data.length);
+        
+        output.write(SIGNATURE);
+        writeChunk(output, "IHDR", header(image.getWidth(), image.getHeight(), rows.hasAlpha()), 0, 13);
+        
+        IdatWriter idat = new IdatWriter(output);
+        idat.write(new byte[]{0x78, zlibFlags(compressionLevel)}, 0, 2);
+        for(byte[] data : compressed)
+            idat.write(data, 0, data.length);
+        
+        long checksum = adler.getValue();
+        idat.write(new byte[]{(byte)(checksum >>> 24), (byte)(checksum >>> 16), (byte)(checksum >>> 8), (byte)checksum}, 0, 4);
+        idat.flush();
+        
+        writeChunk(output, "IEND", new byte[0], 0, 0);
+    }
+    
+    private IntStream chunks(int chunkCount){
+        IntStream chunks = IntStream.range(0, chunkCount);
+        return parallel && chunkCount > 1 ? chunks.parallel() : chunks;
+    }
+    
+    private byte[] filter(ImageRows rows, int firstRow, int endRow){
+        int length = rows.getRowLength();
+        byte[] data = new byte[(endRow - firstRow) * (length + 1)];
+        byte[] previous = new byte[length];
+        byte[] current = new byte[length];
+        byte[][] candidates = new byte[filter == Filter.ADAPTIVE ? 5 : 1][length];
+        
+        if(firstRow > 0)
+            rows.read(firstRow - 1, previous);
+        
+        for(int row = firstRow; row < endRow; row++){
+            rows.read(row, current);
+            int offset = (row - firstRow) * (length + 1);
+            
+            if(filter == Filter.ADAPTIVE){
+                int best = 0;
+                long bestSum = Long.MAX_VALUE;
+                for(int type = 0; type < 5; type++){
+                    long sum = apply(type, current, previous, rows.getBytesPerPixel(), candidates[type]);
+                    if(sum < bestSum){
+                        bestSum = sum;
+                        best = type;
+                    }
+                }
+                
+                data[offset] = (byte)best;
+                System.arraycopy(candidates[best], 0, data, offset + 1, length);
+            }else{
+                data[offset] = (byte)filter.getType();
+                apply(filter.getType(), current, previous, rows.getBytesPerPixel(), candidates[0]);
+                System.arraycopy(candidates[0], 0, data, offset + 1, length);
+            }
+            
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        
+        return data;
+    }
+    
+    /*
+     * Applies the filter of the provided type and returns the sum of the absolute (signed) filtered values, which is
+     * the heuristic recommended by the PNG specification to choose a filter per row.
+     */
+    private static long apply(int type, byte[] current, byte[] previous, int bpp, byte[] target){
+        long sum = 0;
+        for(int i = 0; i < current.length; i++){
+            int x = current[i] & 0xFF;
+            int a = i >= bpp ? current[i - bpp] & 0xFF : 0;
+            int b = previous[i] & 0xFF;
+            int c = i >= bpp ? previous[i - bpp] & 0xFF : 0;
+            
+            int value;
+            switch(type){
+                case 1:
+                    value = x - a;
+                    break;
+                
+                case 2:
+                    value = x - b;
+                    break;
+                
+                case 3:
+                    value = x - ((a + b) >>> 1);
+                    break;
+                
+                case 4:
+                    value = x - paeth(a, b, c);
+                    break;
+                
+                case 0:
+                default:
+                    value = x;
+                    break;
+            }
+            
+            target[i] = (byte)value;
+            sum += Math.abs((byte)value);
+        }
+        
+        return sum;
+    }
+    
+    private static int paeth(int a, int b, int c){
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        
+        if(pa <= pb && pa <= pc)
+            return a;
+        
+        return pb <= pc ? b : c;
+    }
+    
+    private byte[] deflate(byte[][] filtered, int chunk){
+        Deflater deflater = deflater(compressionLevel);
+        byte[] buffer = BUFFERS.get();
+        
+        if(chunk > 0){
+            byte[] previous = filtered[chunk - 1];
+            int length = Math.min(DICTIONARY_SIZE, previous.length);
+            deflater.setDictionary(previous, previous.length - length, length);
+        }
+        
+        ByteArrayOutputStream output = new ByteArrayOutputStream(filtered[chunk].length / 2 + 64);
+        deflater.setInput(filtered[chunk]);
+        
+        boolean last = chunk == filtered.length - 1;
+        if(last){
+            deflater.finish();
+            while(!deflater.finished())
+                output.write(buffer, 0, deflater.deflate(buffer));
+        }else{
+            // A sync flush ends the chunk on a byte boundary without ending the stream.
+            int count;
+            do{
+                count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                output.write(buffer, 0, count);
+            }while(count == buffer.length);
+        }
+        
+        return output.toByteArray();
+    }
+    
+    /*
+     * Deflaters are kept per level, as changing the level of a Deflater before setting a dictionary corrupts its output.
+     */
+    private static Deflater deflater(int level){
+        Deflater[] deflaters = DEFLATERS.get();
+        if(deflaters[level] == null){
+            deflaters[level] = new Deflater(level, true);
+        }else{
+            deflaters[level].reset();
+        }
+        
+        return deflaters[level];
+    }
+    
+    private static byte zlibFlags(int level){
+        if(level <= 1)
+            return 0x01;
+        if(level <= 5)
+            return 0x5E;
+        if(level == 6)
+            return (byte)0x9C;
+        
+        return (byte)0xDA;
+    }
+    
+    private static byte[] header(int width, int height, boolean alpha){
+        byte[] header = new byte[13];
+        writeInt(header, 0, width);
+        writeInt(header, 4, height);
+        header[8] = 8;
+        header[9] = (byte)(alpha ? 6 : 2);
+        // Compression, filter and interlace method are all 0.
+        return header;
+    }
+    
+    private static void writeChunk(OutputStream output, String type, byte[] data, int offset, int length) throws IOException{
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        byte[] lengthBytes = new byte[4];
+        writeInt(lengthBytes, 0, length);
+        
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, offset, length);
+        
+        byte[] crcBytes = new byte[4];
+        writeInt(crcBytes, 0, (int)crc.getValue());
+        
+        output.write(lengthBytes);
+        output.write(typeBytes);
+        output.write(data, offset, length);
+        output.write(crcBytes);
+    }
+    
+    private static void writeInt(byte[] target, int offset, int value){
+        target[offset] = (byte)(value >>> 24);
+        target[offset + 1] = (byte)(value >>> 16);
+        target[offset + 2] = (byte)(value >>> 8);
+        target[offset + 3] = (byte)value;
+    }
+    
+    /**
+     * The filter applied to every row of the image before compressing it.
+     * <br>Filters don't change the image, but can make the data a lot more compressible.
+     */
+    public enum Filter{
+        /**
+         * No filter is applied.
+         */
+        NONE(0),
+        /**
+         * Every byte is stored as the difference to the same byte of the pixel on the left.
+         */
+        SUB(1),
+        /**
+         * Every byte is stored as the difference to the same byte of the pixel above.
+         */
+        UP(2),
+        /**
+         * Every byte is stored as the difference to the average of the pixels on the left and above.
+         */
+        AVERAGE(3),
+        /**
+         * Every byte is stored as the difference to the pixel on the left, above or above-left, whichever is closest
+         * to their linear prediction.
+         */
+        PAETH(4),
+        /**
+         * The filter is chosen per row, using the one resulting in the smallest sum of differences (Default).
+         */
+        ADAPTIVE(-1);
+        
+        private final int type;
+        
+        Filter(int type){
+            this.type = type;
+        }
+        
+        int getType(){
+            return type;
+        }
+    }
+    
+    /*
+     * Rows of an image as non-premultiplied RGB or RGBA bytes.
+     */
+    private static class ImageRows{
+        private final BufferedImage image;
+        private final boolean alpha;
+        private final int[] pixels;
+        
+        ImageRows(BufferedImage image){
+            this.image = image;
+            this.alpha = image.getColorModel().hasAlpha();
+            
+            int type = image.getType();
+            boolean direct = (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_ARGB_PRE || type == BufferedImage.TYPE_INT_RGB)
+                && image.getRaster().getParent() == null
+                && image.getRaster().getDataBuffer().getSize() == image.getWidth() * image.getHeight();
+            this.pixels = direct ? ((DataBufferInt)image.getRaster().getDataBuffer()).getData() : null;
+        }
+        
+        boolean hasAlpha(){
+            return alpha;
+        }
+        
+        int getBytesPerPixel(){
+            return alpha ? 4 : 3;
+        }
+        
+        int getRowLength(){
+            return image.getWidth() * getBytesPerPixel();
+        }
+        
+        void read(int row, byte[] target){
+            int width = image.getWidth();
+            int[] argb;
+            if(pixels != null){
+                argb = pixels;
+            }else{
+                argb = image.getRGB(0, row, width, 1, null, 0, width);
+            }
+            
+            int offset = pixels != null ? row * width : 0;
+            boolean premultiplied = pixels != null && image.getType() == BufferedImage.TYPE_INT_ARGB_PRE;
+            
+            int index = 0;
+            for(int x = 0; x < width; x++){
+                int pixel = argb[offset + x];
+                int a = pixel >>> 24;
+                int r = (pixel >> 16) & 0xFF;
+                int g = (pixel >> 8) & 0xFF;
+                int b = pixel & 0xFF;
+                
+                if(premultiplied && a != 255){
+                    if(a == 0){
+                        r = g = b = 0;
+                    }else{
+                        r = Math.min(255, (r * 255 + a / 2) / a);
+                        g = Math.min(255, (g * 255 + a / 2) / a);
+                        b = Math.min(255, (b * 255 + a / 2) / a);
+                    }
+                }
+                
+                target[index++] = (byte)r;
+                target[index++] = (byte)g;
+                target[index++] = (byte)b;
+                if(alpha)
+                    target[index++] = (byte)a;
+            }
+        }
+    }
+    
+    /*
+     * Splits the compressed data into IDAT chunks of at most MAX_IDAT_SIZE bytes.
+     */
+    private static class IdatWriter{
+        private final OutputStream output;
+        private final byte[] buffer = new byte[MAX_IDAT_SIZE];
+        private int size = 0;
+        
+        IdatWriter(OutputStream output){
+            this.output = output;
+        }
+        
+        void write(byte[] data, int offset, int length) throws IOException{
+            while(length > 0){
+                int count = Math.min(length, buffer.length - size);
+                System.arraycopy(data, offset, buffer, size, count);
+                size += count;
+                offset += count;
+                length -= count;
+                
+                if(size == buffer.length)
+                    flush();
+            }
+        }
+        
+        void flush() throws IOException{
+            if(size == 0)
+                return;
+            
+            writeChunk(output, "IDAT", buffer, 0, size);
+            size = 0;
+        }
+    }
+    
+    /**
+     * Builder class to create a new {@link PngEncoder PngEncoder instance}.
+     */
+    public static class Builder{
+        
+        private Filter filter = Filter.ADAPTIVE;
+        private int compressionLevel = 6;
+        private int chunkSize = 256 * 1024;
+        private boolean parallel = true;
+        
+        public Builder(){}
+        
+        /**
+         * Sets the {@link Filter Filter} to apply to the rows of the image.
+         * <br>Default is {@link Filter#ADAPTIVE ADAPTIVE}.
+         * 
+         * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+         * <ul>
+         *     <li>Filter is null.</li>
+         * </ul>
+         * 
+         * @param  filter
+         *         The Filter to use.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withFilter(@NotNull Filter filter){
+            CheckUtil.notNull(filter, "Filter");
+            
+            this.filter = filter;
+            return this;
+        }
+        
+        /**
+         * Sets the deflate level to compress the image with, from 0 (no compression) to 9 (best compression).
+         * <br>Default is 6.
+         * 
+         * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+         * <ul>
+         *     <li>CompressionLevel is not between 0 and 9.</li>
+         * </ul>
+         * 
+         * @param  compressionLevel
+         *         The deflate level to use.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withCompressionLevel(int compressionLevel){
+            CheckUtil.check(compressionLevel >= 0 && compressionLevel <= 9, "CompressionLevel needs to be between 0 and 9.");
+            
+            this.compressionLevel = compressionLevel;
+            return this;
+        }
+        
+        /**
+         * Sets the amount of uncompressed bytes that are filtered and compressed together as one chunk of rows.
+         * <br>Smaller chunks allow more parallelism, but compress slightly worse. Default is 256 KiB.
+         * 
+         * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+         * <ul>
+         *     <li>ChunkSize is less than 1024.</li>
+         * </ul>
+         * 
+         * @param  chunkSize
+         *         The amount of bytes per chunk.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withChunkSize(int chunkSize){
+            CheckUtil.largerThan(chunkSize, 1024, "ChunkSize");
+            
+            this.chunkSize = chunkSize;
+            return this;
+        }
+        
+        /**
+         * Sets whether chunks should be filtered and compressed in parallel.
+         * <br>Default is {@code true}.
+         * 
+         * @param  parallel
+         *         Whether chunks should be processed in parallel.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withParallel(boolean parallel){
+            this.parallel = parallel;
+            return this;
+        }
+        
+        /**
+         * Creates a new {@link PngEncoder PngEncoder instance} using the settings of this Builder.
+         * 
+         * @return New PngEncoder instance.
+         */
+        public PngEncoder build(){
+            return new PngEncoder(filter, compressionLevel, chunkSize, parallel);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ch.andre601.fluxpoint4j.render;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Blends premultiplied ARGB pixels onto each other using the Porter-Duff "source over" rule, which is what the
+ * {@link LocalRenderer LocalRenderer} uses to composite prepared layers such as text and rounded images.
+ * 
+ * <p>On Java 17 and newer will the blending be vectorized when the {@code jdk.incubator.vector} module is available
+ * (i.e. by starting the JVM with {@code --add-modules jdk.incubator.vector}). Otherwise is a scalar loop used, which
+ * gives exactly the same result.
+ */
+public final class AlphaCompositor{
+    
+    private static final CompositeKernel KERNEL = CompositeKernels.create();
+    
+    private AlphaCompositor(){}
+    
+    /**
+     * Returns whether the blending uses the Vector API.
+     * 
+     * @return True if the blending is vectorized, otherwise false.
+     */
+    public static boolean isVectorized(){
+        return !(KERNEL instanceof ScalarCompositeKernel);
+    }
+    
+    /**
+     * Blends an area of {@code width}x{@code height} pixels from {@code src} onto {@code dst}.
+     * <br>Both arrays contain premultiplied ARGB pixels row by row, such as the ones of a
+     * {@link java.awt.image.BufferedImage#TYPE_INT_ARGB_PRE TYPE_INT_ARGB_PRE} image.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Src or dst is null.</li>
+     *     <li>The area exceeds the bounds of src or dst.</li>
+     * </ul>
+     * 
+     * @param src
+     *        The pixels to blend.
+     * @param srcOffset
+     *        The index of the top-left pixel in src.
+     * @param srcScan
+     *        The distance between two rows in src.
+     * @param dst
+     *        The pixels to blend onto.
+     * @param dstOffset
+     *        The index of the top-left pixel in dst.
+     * @param dstScan
+     *        The distance between two rows in dst.
+     * @param width
+     *        The width of the area to blend.
+     * @param height
+     *        The height of the area to blend.
+     */
+    public static void srcOver(@NotNull int[] src, int srcOffset, int srcScan, @NotNull int[] dst, int dstOffset, int dstScan,
+                               int width, int height){
+        CheckUtil.notNull(src, "Src");
+        CheckUtil.notNull(dst, "Dst");
+        if(width <= 0 || height <= 0)
+            return;
+        
+        CheckUtil.check(fits(src.length, srcOffset, srcScan, width, height), "Area exceeds the bounds of src.");
+        CheckUtil.check(fits(dst.length, dstOffset, dstScan, width, height), "Area exceeds the bounds of dst.");
+        
+        for(int row = 0; row < height; row++)
+            KERNEL.srcOver(src, srcOffset + row * srcScan, dst, dstOffset + row * dstScan, width);
+    }
+    
+    /**
+     * Blends the provided color onto an area of {@code width}x{@code height} pixels of {@code dst}.
+     * <br>The array contains premultiplied ARGB pixels row by row, such as the ones of a
+     * {@link java.awt.image.BufferedImage#TYPE_INT_ARGB_PRE TYPE_INT_ARGB_PRE} image.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Dst is null.</li>
+     *     <li>The area exceeds the bounds of dst.</li>
+     * </ul>
+     * 
+     * @param argb
+     *        The color to blend, as non-premultiplied ARGB value (i.e. {@link java.awt.Color#getRGB() Color.getRGB()}).
+     * @param dst
+     *        The pixels to blend onto.
+     * @param dstOffset
+     *        The index of the top-left pixel in dst.
+     * @param dstScan
+     *        The distance between two rows in dst.
+     * @param width
+     *        The width of the area to blend.
+     * @param height
+     *        The height of the area to blend.
+     */
+    public static void fill(int argb, @NotNull int[] dst, int dstOffset, int dstScan, int width, int height){
+        CheckUtil.notNull(dst, "Dst");
+        if(width <= 0 || height <= 0)
+            return;
+        
+        CheckUtil.check(fits(dst.length, dstOffset, dstScan, width, height), "Area exceeds the bounds of dst.");
+        
+        int alpha = argb >>> 24;
+        int color = alpha << 24
+            | ScalarCompositeKernel.div255(((argb >> 16) & 0xFF) * alpha) << 16
+            | ScalarCompositeKernel.div255(((argb >> 8) & 0xFF) * alpha) << 8
+            | ScalarCompositeKernel.div255((argb & 0xFF) * alpha);
+        
+        for(int row = 0; row < height; row++)
+            KERNEL.fill(color, dst, dstOffset + row * dstScan, width);
+    }
+    
+    private static boolean fits(int length, int offset, int scan, int width, int height){
+        return offset >= 0 && scan >= width && (long)offset + (long)(height - 1) * scan + width <= length;
+    }
+}
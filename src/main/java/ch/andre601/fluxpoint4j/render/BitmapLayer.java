@@ -0,0 +1,55 @@
+package ch.andre601.fluxpoint4j.render;
+
+import java.awt.*;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Layer drawing an image, scaled to the layer's size and optionally with rounded corners.
+ * <br>Used for {@link ch.andre601.fluxpoint4j.image.format.Image.ImageURL ImageURL}.
+ */
+class BitmapLayer extends RenderLayer{
+    
+    private final BufferedImage image;
+    private final Rectangle bounds;
+    
+    BitmapLayer(BufferedImage source, int x, int y, int width, int height, int round){
+        this.bounds = new Rectangle(x, y, width, height);
+        this.image = round > 0 ? roundCorners(source, width, height, round) : source;
+    }
+    
+    /*
+     * Clipping in Java2D is not anti-aliased, so the rounded image is instead created once by drawing the source into
+     * an anti-aliased mask.
+     */
+    private static BufferedImage roundCorners(BufferedImage source, int width, int height, int round){
+        BufferedImage rounded = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = rounded.createGraphics();
+        try{
+            LocalRenderer.applyHints(g);
+            g.setColor(Color.WHITE);
+            g.fill(new RoundRectangle2D.Float(0, 0, width, height, round * 2, round * 2));
+            g.setComposite(AlphaComposite.SrcIn);
+            g.drawImage(source, 0, 0, width, height, null);
+        }finally{
+            g.dispose();
+        }
+        
+        return rounded;
+    }
+    
+    @Override
+    Rectangle getBounds(){
+        return bounds;
+    }
+    
+    @Override
+    void paint(RenderTarget target){
+        if(image.getWidth() == bounds.width && image.getHeight() == bounds.height){
+            target.drawImage(image, bounds.x, bounds.y);
+            return;
+        }
+        
+        target.getGraphics().drawImage(image, bounds.x, bounds.y, bounds.width, bounds.height, null);
+    }
+}
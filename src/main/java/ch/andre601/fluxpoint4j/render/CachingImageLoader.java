@@ -0,0 +1,156 @@
+package ch.andre601.fluxpoint4j.render;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ImageLoader ImageLoader} keeping the most recently used images of another ImageLoader in memory.
+ * 
+ * <p>Concurrent requests for the same URL only load the image once, with all callers receiving the same result.
+ * <br>Failed loads are not cached.
+ * 
+ * <p>Images returned by this loader are shared and should not be modified.
+ */
+public class CachingImageLoader implements ImageLoader{
+    
+    private final ImageLoader delegate;
+    private final int maxEntries;
+    private final long expireAfterNanos;
+    
+    private final Map<String, CachedImage> cache;
+    private final Map<String, CompletableFuture<BufferedImage>> loading = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a new CachingImageLoader keeping up to 256 images of the provided ImageLoader for up to 1 hour.
+     * 
+     * @param delegate
+     *        The ImageLoader to load uncached images with.
+     */
+    public CachingImageLoader(@NotNull ImageLoader delegate){
+        this(delegate, 256, 1, TimeUnit.HOURS);
+    }
+    
+    /**
+     * Creates a new CachingImageLoader keeping up to {@code maxEntries} images of the provided ImageLoader for the
+     * provided duration.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Delegate is null.</li>
+     *     <li>MaxEntries is less than 1.</li>
+     *     <li>ExpireAfter is less than 1.</li>
+     * </ul>
+     * 
+     * @param delegate
+     *        The ImageLoader to load uncached images with.
+     * @param maxEntries
+     *        The maximum amount of images to keep.
+     * @param expireAfter
+     *        How long an image should be kept after it has been loaded.
+     * @param unit
+     *        The TimeUnit of {@code expireAfter}.
+     */
+    public CachingImageLoader(@NotNull ImageLoader delegate, int maxEntries, long expireAfter, @NotNull TimeUnit unit){
+        CheckUtil.notNull(delegate, "Delegate");
+        CheckUtil.largerThan(maxEntries, 1, "MaxEntries");
+        CheckUtil.check(expireAfter >= 1, "ExpireAfter may not be less than 1.");
+        
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.expireAfterNanos = unit.toNanos(expireAfter);
+        this.cache = new LinkedHashMap<String, CachedImage>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedImage> eldest){
+                return size() > CachingImageLoader.this.maxEntries;
+            }
+        };
+    }
+    
+    @Override
+    @NotNull
+    public BufferedImage load(@NotNull String url) throws IOException{
+        BufferedImage cached = getCached(url);
+        if(cached != null)
+            return cached;
+        
+        CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+        CompletableFuture<BufferedImage> existing = loading.putIfAbsent(url, future);
+        if(existing != null)
+            return await(existing);
+        
+        try{
+            BufferedImage image = delegate.load(url);
+            synchronized(cache){
+                cache.put(url, new CachedImage(image, System.nanoTime() + expireAfterNanos));
+            }
+            
+            future.complete(image);
+            return image;
+        }catch(IOException | RuntimeException ex){
+            future.completeExceptionally(ex);
+            throw ex;
+        }finally{
+            loading.remove(url, future);
+        }
+    }
+    
+    /**
+     * Removes all cached images.
+     */
+    public void clear(){
+        synchronized(cache){
+            cache.clear();
+        }
+    }
+    
+    private BufferedImage getCached(String url){
+        synchronized(cache){
+            CachedImage entry = cache.get(url);
+            if(entry == null)
+                return null;
+            
+            if(System.nanoTime() - entry.expiresAt > 0){
+                cache.remove(url);
+                return null;
+            }
+            
+            return entry.image;
+        }
+    }
+    
+    private static BufferedImage await(CompletableFuture<BufferedImage> future) throws IOException{
+        try{
+            return future.get();
+        }catch(InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for image.", ex);
+        }catch(ExecutionException ex){
+            Throwable cause = ex.getCause();
+            if(cause instanceof IOException)
+                throw (IOException)cause;
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            
+            throw new IOException(cause);
+        }
+    }
+    
+    private static class CachedImage{
+        private final BufferedImage image;
+        private final long expiresAt;
+        
+        CachedImage(BufferedImage image, long expiresAt){
+            this.image = image;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ch.andre601.fluxpoint4j.render;
+
+/**
+ * Kernel blending a row of premultiplied ARGB pixels onto another one using the Porter-Duff "source over" rule.
+ * 
+ * <p>All implementations have to produce exactly the same result, as renders must not depend on the kernel being used.
+ */
+interface CompositeKernel{
+    
+    /**
+     * Blends {@code length} pixels of {@code src}, starting at {@code srcPos}, onto the pixels of {@code dst}, starting
+     * at {@code dstPos}.
+     * 
+     * @param src
+     *        The premultiplied ARGB pixels to blend.
+     * @param srcPos
+     *        The index of the first pixel to blend.
+     * @param dst
+     *        The premultiplied ARGB pixels to blend onto.
+     * @param dstPos
+     *        The index of the first pixel to blend onto.
+     * @param length
+     *        The amount of pixels to blend.
+     */
+    void srcOver(int[] src, int srcPos, int[] dst, int dstPos, int length);
+    
+    /**
+     * Blends the provided color onto {@code length} pixels of {@code dst}, starting at {@code dstPos}.
+     * 
+     * @param color
+     *        The premultiplied ARGB color to blend.
+     * @param dst
+     *        The premultiplied ARGB pixels to blend onto.
+     * @param dstPos
+     *        The index of the first pixel to blend onto.
+     * @param length
+     *        The amount of pixels to blend.
+     */
+    void fill(int color, int[] dst, int dstPos, int length);
+}
@@ -0,0 +1,17 @@
+package ch.andre601.fluxpoint4j.render;
+
+/**
+ * Selects the {@link CompositeKernel CompositeKernel} to use.
+ * 
+ * <p>This version is used on Java 8 to 16 and always uses the {@link ScalarCompositeKernel ScalarCompositeKernel}.
+ * <br>The multi-release jar contains a version of this class for Java 17 and newer, which uses the Vector API when the
+ * {@code jdk.incubator.vector} module is available.
+ */
+final class CompositeKernels{
+    
+    private CompositeKernels(){}
+    
+    static CompositeKernel create(){
+        return new ScalarCompositeKernel();
+    }
+}
@@ -0,0 +1,447 @@
+package ch.andre601.fluxpoint4j.render;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.*;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the fonts used by the {@link LocalRenderer LocalRenderer} for text layers.
+ * 
+ * <p>Font families are resolved once against the fonts available on the system (and the ones registered through
+ * {@link #registerFont(Font) registerFont(Font)}), ignoring case, spaces and dashes. Unknown families fall back to the
+ * {@link Font#DIALOG Dialog} font, the same way Java does it.
+ * <br>Derived fonts for a combination of family, size, weight and style are created once and reused, as are the
+ * shaped lines of text and their rasterized glyphs. Rasterized glyphs are kept per font, text, color and sub-pixel
+ * position, bounded by the memory they use with the least recently used ones being removed first.
+ * 
+ * <p>A single FontRegistry can safely be shared between multiple renderers and threads.
+ */
+public class FontRegistry{
+    
+    private static final int MAX_FONTS = 1024;
+    
+    private final int maxLayouts;
+    private final long maxGlyphBytes;
+    
+    private volatile Map<String, String> families = null;
+    private final Map<String, String> registered = new ConcurrentHashMap<>();
+    private final Map<FontKey, Font> fonts = new ConcurrentHashMap<>();
+    
+    private final Map<LayoutKey, TextLayout> layouts;
+    private final LinkedHashMap<GlyphRunKey, GlyphRun> glyphRuns = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedGlyphBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    
+    /**
+     * Creates a new FontRegistry keeping up to 4096 shaped lines of text and using up to 16 MiB of memory for
+     * rasterized glyphs.
+     */
+    public FontRegistry(){
+        this(4096, 16L * 1024 * 1024);
+    }
+    
+    /**
+     * Creates a new FontRegistry keeping up to {@code maxLayouts} shaped lines of text and using up to
+     * {@code maxGlyphBytes} bytes for rasterized glyphs.
+     * <br>Rasterized glyphs take 4 bytes per pixel.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>MaxLayouts is less than 1.</li>
+     *     <li>MaxGlyphBytes is less than 1.</li>
+     * </ul>
+     * 
+     * @param maxLayouts
+     *        The maximum amount of shaped lines of text to keep.
+     * @param maxGlyphBytes
+     *        The maximum amount of memory, in bytes, the rasterized glyphs may use.
+     */
+    public FontRegistry(int maxLayouts, long maxGlyphBytes){
+        CheckUtil.largerThan(maxLayouts, 1, "MaxLayouts");
+        CheckUtil.check(maxGlyphBytes >= 1, "MaxGlyphBytes may not be less than 1.");
+        
+        this.maxLayouts = maxLayouts;
+        this.maxGlyphBytes = maxGlyphBytes;
+        this.layouts = Collections.synchronizedMap(new LinkedHashMap<LayoutKey, TextLayout>(64, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LayoutKey, TextLayout> eldest){
+                return size() > FontRegistry.this.maxLayouts;
+            }
+        });
+    }
+    
+    /**
+     * Registers the provided font, making its family available to text layers, even when it isn't installed on the
+     * system.
+     * <br>The font is also registered in the local {@link GraphicsEnvironment GraphicsEnvironment}.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Font is null.</li>
+     * </ul>
+     * 
+     * @param  font
+     *         The Font to register.
+     * 
+     * @return This FontRegistry instance. Useful for chaining.
+     */
+    public FontRegistry registerFont(@NotNull Font font){
+        CheckUtil.notNull(font, "Font");
+        
+        GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+        registered.put(normalize(font.getFamily(Locale.ROOT)), font.getFamily(Locale.ROOT));
+        fonts.clear();
+        clearLayouts();
+        return this;
+    }
+    
+    /**
+     * Loads the font families available on the system, if not already done.
+     * <br>This is otherwise done on the first text being rendered, which may take a while on systems with many fonts.
+     * 
+     * @return This FontRegistry instance. Useful for chaining.
+     */
+    public FontRegistry preload(){
+        families();
+        return this;
+    }
+    
+    /**
+     * Returns the name of the font family that would be used for the provided name.
+     * <br>Generic names such as {@code sans serif}, {@code serif} and {@code monospace} are mapped to the logical
+     * fonts of Java, while unknown families resolve to {@link Font#DIALOG Dialog}.
+     * 
+     * @param  name
+     *         The name of the font family to resolve.
+     * 
+     * @return The resolved name of the font family.
+     */
+    public String resolveFamily(@NotNull String name){
+        String normalized = normalize(name);
+        switch(normalized){
+            case "sansserif":
+            case "sans":
+                return Font.SANS_SERIF;
+            
+            case "serif":
+                return Font.SERIF;
+            
+            case "monospace":
+            case "monospaced":
+                return Font.MONOSPACED;
+            
+            default:
+                String family = registered.get(normalized);
+                if(family != null)
+                    return family;
+                
+                family = families().get(normalized);
+                return family == null ? Font.DIALOG : family;
+        }
+    }
+    
+    /**
+     * Returns the amount of lines of text that could be painted using already rasterized glyphs.
+     * 
+     * @return Amount of cache hits.
+     */
+    public synchronized long getHits(){
+        return hits;
+    }
+    
+    /**
+     * Returns the amount of lines of text whose glyphs had to be rasterized.
+     * 
+     * @return Amount of cache misses.
+     */
+    public synchronized long getMisses(){
+        return misses;
+    }
+    
+    /**
+     * Removes all derived fonts, shaped lines of text and rasterized glyphs.
+     * <br>Registered fonts and the resolved font families are kept.
+     */
+    public void clear(){
+        fonts.clear();
+        clearLayouts();
+    }
+    
+    Font getFont(Text text, float size){
+        float weight = text.isBold() ? Math.max(TextAttribute.WEIGHT_BOLD, weight(text.getWeight())) : weight(text.getWeight());
+        FontKey key = new FontKey(resolveFamily(text.getFont()), size, weight, text.isItalic(), text.isUnderline());
+        
+        Font font = fonts.get(key);
+        if(font != null)
+            return font;
+        
+        font = key.create();
+        if(fonts.size() < MAX_FONTS)
+            fonts.put(key, font);
+        
+        return font;
+    }
+    
+    TextLayout getLayout(Font font, String text){
+        LayoutKey key = new LayoutKey(font, text);
+        TextLayout layout = layouts.get(key);
+        if(layout != null)
+            return layout;
+        
+        layout = new TextLayout(text, font, TextLayer.FONT_RENDER_CONTEXT);
+        layouts.put(key, layout);
+        return layout;
+    }
+    
+    /*
+     * The glyphs are rasterized at the fractional part of the position, so that placing the result on whole pixels
+     * gives the same glyph positions as drawing the text directly.
+     */
+    GlyphRun getGlyphRun(TextLayout layout, Font font, String text, Color color, float x, float y){
+        int pixelX = (int)Math.floor(x);
+        int pixelY = (int)Math.floor(y);
+        GlyphRunKey key = new GlyphRunKey(font, text, color.getRGB(), x - pixelX, y - pixelY);
+        
+        synchronized(this){
+            GlyphRun run = glyphRuns.get(key);
+            if(run != null){
+                hits++;
+                return run;
+            }
+            
+            misses++;
+        }
+        
+        GlyphRun run = rasterize(layout, color, key.fractionX, key.fractionY);
+        long bytes = run.getBytes();
+        if(bytes > maxGlyphBytes)
+            return run;
+        
+        synchronized(this){
+            GlyphRun previous = glyphRuns.put(key, run);
+            if(previous != null)
+                usedGlyphBytes -= previous.getBytes();
+            
+            usedGlyphBytes += bytes;
+            evict();
+        }
+        
+        return run;
+    }
+    
+    /*
+     * Maps a CSS-like font weight (400 = regular, 700 = bold) to the weight scale of Java (1.0 = regular, 2.0 = bold).
+     */
+    static float weight(int weight){
+        if(weight <= 400)
+            return 0.5f + weight / 800f;
+        
+        return Math.min(TextAttribute.WEIGHT_ULTRABOLD, 1.0f + (weight - 400) / 300f);
+    }
+    
+    private Map<String, String> families(){
+        Map<String, String> families = this.families;
+        if(families != null)
+            return families;
+        
+        synchronized(this){
+            if(this.families != null)
+                return this.families;
+            
+            families = new HashMap<>();
+            for(String family : GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames(Locale.ROOT))
+                families.putIfAbsent(normalize(family), family);
+            
+            this.families = families;
+            return families;
+        }
+    }
+    
+    private static String normalize(String name){
+        return name.toLowerCase(Locale.ROOT).replace(" ", "").replace("-", "");
+    }
+    
+    private static GlyphRun rasterize(TextLayout layout, Color color, float fractionX, float fractionY){
+        Rectangle bounds = layout.getPixelBounds(TextLayer.FONT_RENDER_CONTEXT, fractionX, fractionY);
+        
+        // The pixel bounds don't always include decorations such as underlines.
+        Rectangle2D logical = layout.getBounds();
+        bounds.add(new Rectangle2D.Double(
+            logical.getX() + fractionX,
+            logical.getY() + fractionY,
+            logical.getWidth(),
+            logical.getHeight()
+        ).getBounds());
+        bounds.grow(2, 2);
+        
+        BufferedImage image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        try{
+            LocalRenderer.applyHints(g);
+            g.setColor(color);
+            layout.draw(g, fractionX - bounds.x, fractionY - bounds.y);
+        }finally{
+            g.dispose();
+        }
+        
+        return new GlyphRun(image, bounds.x, bounds.y);
+    }
+    
+    private void evict(){
+        Iterator<GlyphRun> iterator = glyphRuns.values().iterator();
+        while(usedGlyphBytes > maxGlyphBytes && iterator.hasNext()){
+            usedGlyphBytes -= iterator.next().getBytes();
+            iterator.remove();
+        }
+    }
+    
+    private void clearLayouts(){
+        layouts.clear();
+        synchronized(this){
+            glyphRuns.clear();
+            usedGlyphBytes = 0;
+        }
+    }
+    
+    /**
+     * Rasterized line of text, to be drawn relative to the whole pixel of its position.
+     */
+    static class GlyphRun{
+        private final BufferedImage image;
+        private final int offsetX;
+        private final int offsetY;
+        
+        GlyphRun(BufferedImage image, int offsetX, int offsetY){
+            this.image = image;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+        }
+        
+        void draw(RenderTarget target, float x, float y){
+            target.drawImage(image, (int)Math.floor(x) + offsetX, (int)Math.floor(y) + offsetY);
+        }
+        
+        long getBytes(){
+            return (long)image.getWidth() * image.getHeight() * 4;
+        }
+    }
+    
+    private static class FontKey{
+        private final String family;
+        private final float size;
+        private final float weight;
+        private final boolean italic;
+        private final boolean underline;
+        
+        FontKey(String family, float size, float weight, boolean italic, boolean underline){
+            this.family = family;
+            this.size = size;
+            this.weight = weight;
+            this.italic = italic;
+            this.underline = underline;
+        }
+        
+        Font create(){
+            Map<TextAttribute, Object> attributes = new HashMap<>();
+            attributes.put(TextAttribute.FAMILY, family);
+            attributes.put(TextAttribute.SIZE, size);
+            attributes.put(TextAttribute.WEIGHT, weight);
+            attributes.put(TextAttribute.POSTURE, italic ? TextAttribute.POSTURE_OBLIQUE : TextAttribute.POSTURE_REGULAR);
+            if(underline)
+                attributes.put(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON);
+            
+            return new Font(attributes);
+        }
+        
+        @Override
+        public boolean equals(Object obj){
+            if(this == obj)
+                return true;
+            if(!(obj instanceof FontKey))
+                return false;
+            
+            FontKey other = (FontKey)obj;
+            return family.equals(other.family) && Float.compare(size, other.size) == 0 &&
+                Float.compare(weight, other.weight) == 0 && italic == other.italic && underline == other.underline;
+        }
+        
+        @Override
+        public int hashCode(){
+            return Objects.hash(family, size, weight, italic, underline);
+        }
+    }
+    
+    private static class LayoutKey{
+        private final Font font;
+        private final String text;
+        
+        LayoutKey(Font font, String text){
+            this.font = font;
+            this.text = text;
+        }
+        
+        @Override
+        public boolean equals(Object obj){
+            if(this == obj)
+                return true;
+            if(!(obj instanceof LayoutKey))
+                return false;
+            
+            LayoutKey other = (LayoutKey)obj;
+            return font.equals(other.font) && text.equals(other.text);
+        }
+        
+        @Override
+        public int hashCode(){
+            return font.hashCode() * 31 + text.hashCode();
+        }
+    }
+    
+    private static class GlyphRunKey{
+        private final Font font;
+        private final String text;
+        private final int color;
+        private final float fractionX;
+        private final float fractionY;
+        
+        GlyphRunKey(Font font, String text, int color, float fractionX, float fractionY){
+            this.font = font;
+            this.text = text;
+            this.color = color;
+            this.fractionX = fractionX;
+            this.fractionY = fractionY;
+        }
+        
+        @Override
+        public boolean equals(Object obj){
+            if(this == obj)
+                return true;
+            if(!(obj instanceof GlyphRunKey))
+                return false;
+            
+            GlyphRunKey other = (GlyphRunKey)obj;
+            return color == other.color && Float.compare(fractionX, other.fractionX) == 0 &&
+                Float.compare(fractionY, other.fractionY) == 0 && font.equals(other.font) && text.equals(other.text);
+        }
+        
+        @Override
+        public int hashCode(){
+            return Objects.hash(font, text, color, fractionX, fractionY);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ch.andre601.fluxpoint4j.render;
+
+import java.util.stream.IntStream;
+
+/**
+ * Blur of an alpha mask, approximating a gaussian blur using three box blurs.
+ * 
+ * <p>Every box blur is separated into a horizontal and a vertical pass using a running sum, making the cost per pixel
+ * independent of the radius. The vertical pass is performed as a horizontal pass over the transposed mask, so that
+ * both passes read rows sequentially and can be split across rows for large masks.
+ * <br>Pixels outside of the mask are treated as fully transparent.
+ */
+final class GaussianBlur{
+    
+    private static final int PASSES = 3;
+    private static final int PARALLEL_THRESHOLD = 256 * 256;
+    
+    private GaussianBlur(){}
+    
+    /**
+     * Blurs the provided alpha values (0 to 255) in place.
+     * 
+     * @param alpha
+     *        The alpha values of the mask, row by row.
+     * @param width
+     *        The width of the mask.
+     * @param height
+     *        The height of the mask.
+     * @param sigma
+     *        The standard deviation of the gaussian blur to approximate.
+     */
+    static void blur(int[] alpha, int width, int height, float sigma){
+        blur(alpha, width, height, sigma, (long)width * height >= PARALLEL_THRESHOLD);
+    }
+    
+    static void blur(int[] alpha, int width, int height, float sigma, boolean parallel){
+        int[] radii = boxRadii(sigma);
+        int[] buffer = new int[alpha.length];
+        
+        // Horizontal passes, with the last one transposing the result into the buffer.
+        passes(alpha, buffer, width, height, radii, parallel);
+        // Vertical passes over the transposed mask, with the last one transposing the result back.
+        passes(buffer, alpha, height, width, radii, parallel);
+    }
+    
+    /*
+     * Box sizes approximating a gaussian blur, as described in "Fast Almost-Gaussian Filtering" by Peter Kovesi.
+     */
+    static int[] boxRadii(float sigma){
+        double ideal = Math.sqrt(12 * sigma * sigma / PASSES + 1);
+        int lower = (int)Math.floor(ideal);
+        if(lower % 2 == 0)
+            lower--;
+        
+        int upper = lower + 2;
+        long lowerCount = Math.round((12 * sigma * sigma - PASSES * lower * lower - 4 * PASSES * lower - 3 * PASSES) / (-4.0 * lower - 4));
+        
+        int[] radii = new int[PASSES];
+        for(int i = 0; i < PASSES; i++)
+            radii[i] = ((i < lowerCount ? lower : upper) - 1) / 2;
+        
+        return radii;
+    }
+    
+    /*
+     * Applies all box passes to the rows of src. src is used as scratch space and the transposed result is written to dst.
+     */
+    private static void passes(int[] src, int[] dst, int width, int height, int[] radii, boolean parallel){
+        IntStream rows = IntStream.range(0, height);
+        if(parallel)
+            rows = rows.parallel();
+        
+        rows.forEach(row -> {
+            int[] scratch = new int[width];
+            int offset = row * width;
+            for(int i = 0; i < radii.length - 1; i++){
+                box(src, offset, scratch, 0, 1, width, radii[i]);
+                System.arraycopy(scratch, 0, src, offset, width);
+            }
+            
+            box(src, offset, dst, row, height, width, radii[radii.length - 1]);
+        });
+    }
+    
+    /*
+     * Box blur of a single row using a running sum. The output is written with the provided stride, which allows
+     * writing the row as a column of the transposed mask.
+     */
+    private static void box(int[] src, int srcOffset, int[] dst, int dstOffset, int dstStride, int length, int radius){
+        if(radius <= 0){
+            for(int i = 0; i < length; i++)
+                dst[dstOffset + i * dstStride] = src[srcOffset + i];
+            
+            return;
+        }
+        
+        int size = radius * 2 + 1;
+        int half = size / 2;
+        int sum = 0;
+        for(int i = 0; i < Math.min(radius, length); i++)
+            sum += src[srcOffset + i];
+        
+        for(int i = 0; i < length; i++){
+            int add = i + radius;
+            if(add < length)
+                sum += src[srcOffset + add];
+            
+            int remove = i - radius - 1;
+            if(remove >= 0)
+                sum -= src[srcOffset + remove];
+            
+            dst[dstOffset + i * dstStride] = (sum + half) / size;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ch.andre601.fluxpoint4j.render;
+
+import ch.andre601.fluxpoint4j.jfr.DecodeEvent;
+import ch.andre601.fluxpoint4j.jfr.FlightEvents;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Default {@link ImageLoader ImageLoader} implementation which downloads images using a plain HTTP GET request.
+ */
+public class HttpImageLoader implements ImageLoader{
+    
+    private final OkHttpClient client;
+    
+    public HttpImageLoader(){
+        this(new OkHttpClient());
+    }
+    
+    public HttpImageLoader(@NotNull OkHttpClient client){
+        this.client = client;
+    }
+    
+    @Override
+    @NotNull
+    public BufferedImage load(@NotNull String url) throws IOException{
+        Request request = new Request.Builder()
+            .url(url)
+            .build();
+        
+        try(Response response = client.newCall(request).execute()){
+            ResponseBody responseBody = response.body();
+            if(!response.isSuccessful() || responseBody == null)
+                throw new IOException("Received response code " + response.code() + " for image " + url);
+            
+            try(InputStream stream = responseBody.byteStream()){
+                DecodeEvent event = FlightEvents.decode();
+                BufferedImage image = ImageIO.read(stream);
+                if(event.shouldCommit())
+                    event.commit(url, image == null ? -1 : image.getWidth(), image == null ? -1 : image.getHeight());
+                
+                if(image == null)
+                    throw new IOException("Unsupported image format for image " + url);
+                
+                return image;
+            }
+        }
+    }
+}
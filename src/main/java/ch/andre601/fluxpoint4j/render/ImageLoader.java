@@ -0,0 +1,30 @@
+package ch.andre601.fluxpoint4j.render;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Interface used by the {@link LocalRenderer LocalRenderer} and {@link WelcomeRenderer WelcomeRenderer} to obtain the
+ * images referenced by {@link ch.andre601.fluxpoint4j.image.format.Image.ImageURL ImageURL} layers and welcome images.
+ * 
+ * <p>By default is a {@link HttpImageLoader HttpImageLoader} wrapped into a {@link CachingImageLoader CachingImageLoader}
+ * used, but you can provide your own implementation to i.e. load images from the file system.
+ */
+public interface ImageLoader{
+    
+    /**
+     * Loads the image found at the provided URL.
+     * 
+     * @param  url
+     *         The URL of the image to load.
+     * 
+     * @return The loaded {@link BufferedImage BufferedImage}. Never null.
+     * 
+     * @throws IOException
+     *         When the image could not be loaded or decoded.
+     */
+    @NotNull
+    BufferedImage load(@NotNull String url) throws IOException;
+}
@@ -0,0 +1,200 @@
+package ch.andre601.fluxpoint4j.render;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of rasterized layer stack prefixes used by the {@link LocalRenderer LocalRenderer}.
+ * 
+ * <p>Images generated from the same template usually share their first layers (background, frames, static shapes)
+ * and only differ in a few layers on top (username, avatar). The cache remembers which prefixes of the layer stack
+ * have been rendered before and keeps a raster of the deepest recurring prefix, so that later renders only need to
+ * paint the layers that differ.
+ * <br>At most one raster is stored per render, which is first the case when a template is rendered the second time.
+ * 
+ * <p>The cache is bounded by the memory used by the stored rasters, with the least recently used ones being removed
+ * first. A single LayerCache can safely be shared between multiple renderers and threads.
+ */
+public class LayerCache{
+    
+    private static final int MAX_SEEN_PREFIXES = 16384;
+    
+    private final long maxBytes;
+    private long usedBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    
+    private final LinkedHashMap<LayerKey, BufferedImage> rasters = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<LayerKey, Boolean> seen = new LinkedHashMap<LayerKey, Boolean>(256, 0.75f, true){
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LayerKey, Boolean> eldest){
+            return size() > MAX_SEEN_PREFIXES;
+        }
+    };
+    
+    /**
+     * Creates a new LayerCache using up to 64 MiB of memory.
+     */
+    public LayerCache(){
+        this(64L * 1024 * 1024);
+    }
+    
+    /**
+     * Creates a new LayerCache using up to the provided amount of bytes for stored rasters.
+     * <br>A raster takes 4 bytes per pixel of the canvas.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>MaxBytes is less than 1.</li>
+     * </ul>
+     * 
+     * @param maxBytes
+     *        The maximum amount of memory, in bytes, the stored rasters may use.
+     */
+    public LayerCache(long maxBytes){
+        CheckUtil.check(maxBytes >= 1, "MaxBytes may not be less than 1.");
+        
+        this.maxBytes = maxBytes;
+    }
+    
+    /**
+     * Returns the amount of renders that could start from a cached raster.
+     * 
+     * @return Amount of cache hits.
+     */
+    public synchronized long getHits(){
+        return hits;
+    }
+    
+    /**
+     * Returns the amount of renders that had to start from an empty canvas.
+     * 
+     * @return Amount of cache misses.
+     */
+    public synchronized long getMisses(){
+        return misses;
+    }
+    
+    /**
+     * Returns the amount of memory, in bytes, currently used by stored rasters.
+     * 
+     * @return Used memory in bytes.
+     */
+    public synchronized long getUsedBytes(){
+        return usedBytes;
+    }
+    
+    /**
+     * Removes all stored rasters and forgets all previously seen prefixes.
+     */
+    public synchronized void clear(){
+        rasters.clear();
+        seen.clear();
+        usedBytes = 0;
+    }
+    
+    /**
+     * Finds the deepest prefix with a stored raster and copies the raster into a new canvas.
+     * 
+     * @param  keys
+     *         The keys of all prefixes of the layer stack.
+     * 
+     * @return The {@link Start Start} of the render, with {@link Start#getIndex() index} -1 and no canvas if no
+     *         prefix is cached.
+     */
+    synchronized Start start(LayerKey[] keys){
+        for(int i = keys.length - 1; i >= 0; i--){
+            BufferedImage raster = rasters.get(keys[i]);
+            if(raster != null){
+                hits++;
+                return new Start(i, copy(raster));
+            }
+        }
+        
+        misses++;
+        return new Start(-1, null);
+    }
+    
+    /**
+     * Marks all provided prefixes as seen and returns the index of the deepest prefix which has already been seen by
+     * a previous render and is deeper than the provided start, meaning it should be stored after being painted.
+     * 
+     * @param  keys
+     *         The keys of all prefixes of the layer stack.
+     * @param  start
+     *         The index of the prefix the render starts from.
+     * 
+     * @return Index of the prefix to store, or -1 if none should be stored.
+     */
+    synchronized int recurringPrefix(LayerKey[] keys, int start){
+        int recurring = -1;
+        for(int i = 0; i < keys.length; i++){
+            if(seen.put(keys[i], Boolean.TRUE) != null && i > start)
+                recurring = i;
+        }
+        
+        return recurring;
+    }
+    
+    /**
+     * Stores a copy of the provided canvas as raster of the provided prefix.
+     * 
+     * @param key
+     *        The key of the prefix.
+     * @param canvas
+     *        The canvas after all layers of the prefix have been painted.
+     */
+    void store(LayerKey key, BufferedImage canvas){
+        long size = 4L * canvas.getWidth() * canvas.getHeight();
+        if(size > maxBytes)
+            return;
+        
+        BufferedImage copy = copy(canvas);
+        synchronized(this){
+            BufferedImage previous = rasters.put(key, copy);
+            if(previous != null)
+                usedBytes -= 4L * previous.getWidth() * previous.getHeight();
+            
+            usedBytes += size;
+            
+            Iterator<BufferedImage> iterator = rasters.values().iterator();
+            while(usedBytes > maxBytes && iterator.hasNext()){
+                BufferedImage eldest = iterator.next();
+                usedBytes -= 4L * eldest.getWidth() * eldest.getHeight();
+                iterator.remove();
+            }
+        }
+    }
+    
+    static BufferedImage copy(BufferedImage source){
+        BufferedImage copy = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        int[] from = ((DataBufferInt)source.getRaster().getDataBuffer()).getData();
+        int[] to = ((DataBufferInt)copy.getRaster().getDataBuffer()).getData();
+        System.arraycopy(from, 0, to, 0, to.length);
+        
+        return copy;
+    }
+    
+    static class Start{
+        private final int index;
+        private final BufferedImage canvas;
+        
+        Start(int index, BufferedImage canvas){
+            this.index = index;
+            this.canvas = canvas;
+        }
+        
+        int getIndex(){
+            return index;
+        }
+        
+        BufferedImage getCanvas(){
+            return canvas;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ch.andre601.fluxpoint4j.render;
+
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import ch.andre601.fluxpoint4j.util.ColorObjectSerializer;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Structural hash of a prefix of the layer stack, meaning of the base and all layers painted on top of it so far.
+ * <br>Two independent 64-bit hashes are combined to make collisions between different prefixes practically impossible.
+ * 
+ * <p>The hash of a single layer is created from its JSON representation, so any change to a layer results in a
+ * different key for its own and all following prefixes.
+ */
+final class LayerKey{
+    
+    private static final Gson GSON = new GsonBuilder()
+        .registerTypeAdapter(ColorObject.class, new ColorObjectSerializer())
+        .create();
+    
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private final long first;
+    private final long second;
+    
+    private LayerKey(long first, long second){
+        this.first = first;
+        this.second = second;
+    }
+    
+    /**
+     * Creates the keys for every prefix of the provided layers, where the key at index {@code i} covers the layers
+     * {@code 0} to {@code i}.
+     * 
+     * @param  layers
+     *         The model objects (Images and Texts) of the layer stack, starting with the base.
+     * 
+     * @return Array containing the key of each prefix.
+     */
+    static LayerKey[] prefixes(Object[] layers){
+        LayerKey[] keys = new LayerKey[layers.length];
+        
+        long first = FNV_OFFSET;
+        long second = 0;
+        for(int i = 0; i < layers.length; i++){
+            String json = layers[i].getClass().getName() + GSON.toJson(layers[i]);
+            
+            for(int j = 0; j < json.length(); j++){
+                char c = json.charAt(j);
+                first = (first ^ c) * FNV_PRIME;
+                second = second * 31 + c;
+            }
+            
+            // Separates the layers, so that shifting content from one layer into another changes the key.
+            first = (first ^ 0xFFFF) * FNV_PRIME;
+            second = mix(second + i);
+            
+            keys[i] = new LayerKey(first, second);
+        }
+        
+        return keys;
+    }
+    
+    private static long mix(long value){
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+    
+    @Override
+    public boolean equals(Object obj){
+        if(this == obj)
+            return true;
+        if(!(obj instanceof LayerKey))
+            return false;
+        
+        LayerKey other = (LayerKey)obj;
+        return first == other.first && second == other.second;
+    }
+    
+    @Override
+    public int hashCode(){
+        return (int)(first ^ (first >>> 32));
+    }
+}
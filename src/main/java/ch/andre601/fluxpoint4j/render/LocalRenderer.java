@@ -0,0 +1,372 @@
+package ch.andre601.fluxpoint4j.render;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import ch.andre601.fluxpoint4j.jfr.FlightEvents;
+import ch.andre601.fluxpoint4j.jfr.RenderEvent;
+import ch.andre601.fluxpoint4j.request.FailedAPIResponse;
+import ch.andre601.fluxpoint4j.request.GeneratedImage;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Renderer used to generate a {@link CustomImage CustomImage} locally, without performing any request towards the
+ * Fluxpoint API.
+ * 
+ * <p>The base image defines the size of the canvas and is always placed in the top-left corner. All other images are
+ * drawn in the order they were added, followed by all texts.
+ * <br>Images of {@link Image.ImageURL ImageURL} layers are obtained through the {@link ImageLoader ImageLoader} this
+ * renderer has been created with, while fonts are resolved and cached by its {@link FontRegistry FontRegistry}.
+ * <br>When a {@link LayerCache LayerCache} is provided, will the renderer start from the deepest cached prefix of the
+ * layer stack and only paint the remaining layers on top of it.
+ * 
+ * <p>Renderers with non-default settings, such as tiled rendering of large canvases, can be created using the
+ * {@link Builder nested Builder class}.
+ * 
+ * <p>Note that the output is a close approximation of what the Fluxpoint API generates and may differ in small
+ * details such as fonts available on the system.
+ */
+public class LocalRenderer{
+    
+    private final ImageLoader imageLoader;
+    private final LayerCache layerCache;
+    private final FontRegistry fontRegistry;
+    private final int tileSize;
+    private final int tilingThreshold;
+    
+    /**
+     * Creates a new LocalRenderer using a {@link CachingImageLoader CachingImageLoader} around a
+     * {@link HttpImageLoader HttpImageLoader} to load images.
+     */
+    public LocalRenderer(){
+        this(new CachingImageLoader(new HttpImageLoader()));
+    }
+    
+    /**
+     * Creates a new LocalRenderer using the provided {@link ImageLoader ImageLoader} to load images.
+     * 
+     * @param imageLoader
+     *        The ImageLoader to use for {@link Image.ImageURL ImageURL} layers.
+     */
+    public LocalRenderer(@NotNull ImageLoader imageLoader){
+        this(imageLoader, null);
+    }
+    
+    /**
+     * Creates a new LocalRenderer using the provided {@link ImageLoader ImageLoader} to load images and the provided
+     * {@link LayerCache LayerCache} to reuse the layers images of the same template have in common.
+     * 
+     * @param imageLoader
+     *        The ImageLoader to use for {@link Image.ImageURL ImageURL} layers.
+     * @param layerCache
+     *        The LayerCache to use, or {@code null} to always render all layers.
+     */
+    public LocalRenderer(@NotNull ImageLoader imageLoader, @Nullable LayerCache layerCache){
+        this(imageLoader, layerCache, new FontRegistry(), 0, 0);
+    }
+    
+    private LocalRenderer(ImageLoader imageLoader, LayerCache layerCache, FontRegistry fontRegistry, int tileSize, int tilingThreshold){
+        CheckUtil.notNull(imageLoader, "ImageLoader");
+        
+        this.imageLoader = imageLoader;
+        this.layerCache = layerCache;
+        this.fontRegistry = fontRegistry;
+        this.tileSize = tileSize;
+        this.tilingThreshold = tilingThreshold;
+    }
+    
+    /**
+     * Returns the {@link ImageLoader ImageLoader} used by this renderer.
+     * 
+     * @return The ImageLoader used by this renderer.
+     */
+    public ImageLoader getImageLoader(){
+        return imageLoader;
+    }
+    
+    /**
+     * Returns the {@link FontRegistry FontRegistry} used by this renderer.
+     * 
+     * @return The FontRegistry used by this renderer.
+     */
+    public FontRegistry getFontRegistry(){
+        return fontRegistry;
+    }
+    
+    /**
+     * Creates a new {@link Builder Builder} with all settings of this renderer applied to it.
+     * 
+     * @return New Builder instance based on this renderer.
+     */
+    public Builder toBuilder(){
+        return new Builder()
+            .withImageLoader(imageLoader)
+            .withLayerCache(layerCache)
+            .withFontRegistry(fontRegistry)
+            .withTiledRendering(tileSize, tilingThreshold);
+    }
+    
+    /**
+     * Renders the provided {@link CustomImage CustomImage} into a new {@link BufferedImage BufferedImage}.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>A color of any layer could not be parsed.</li>
+     *     <li>An {@link Image.ImageURL ImageURL} has no URL set.</li>
+     * </ul>
+     * 
+     * @param  image
+     *         The CustomImage to render.
+     * 
+     * @return The rendered image.
+     * 
+     * @throws IOException
+     *         When an image of an {@link Image.ImageURL ImageURL} layer could not be loaded.
+     */
+    public BufferedImage render(@NotNull CustomImage image) throws IOException{
+        Rectangle canvasBounds = canvasBounds(image.getBase());
+        Object[] sources = layerSources(image);
+        
+        if(layerCache == null){
+            BufferedImage canvas = createCanvas(canvasBounds);
+            paint(createLayers(sources, 0, canvasBounds), canvas);
+            return canvas;
+        }
+        
+        LayerKey[] keys = LayerKey.prefixes(sources);
+        LayerCache.Start start = layerCache.start(keys);
+        int store = layerCache.recurringPrefix(keys, start.getIndex());
+        
+        int first = start.getIndex() + 1;
+        List<RenderLayer> layers = createLayers(sources, first, canvasBounds);
+        BufferedImage canvas = start.getCanvas() == null ? createCanvas(canvasBounds) : start.getCanvas();
+        
+        if(store < 0){
+            paint(layers, canvas);
+        }else{
+            paint(layers.subList(0, store - first + 1), canvas);
+            layerCache.store(keys[store], canvas);
+            paint(layers.subList(store - first + 1, layers.size()), canvas);
+        }
+        
+        return canvas;
+    }
+    
+    /**
+     * Renders the provided {@link CustomImage CustomImage} and wraps the result into a {@link GenericAPIResponse GenericAPIResponse},
+     * the same way {@link ch.andre601.fluxpoint4j.Fluxpoint4J#getCustomImage(CustomImage) Fluxpoint4J.getCustomImage(CustomImage)}
+     * would.
+     *
+     * <p>The returned {@link GenericAPIResponse GenericAPIResponse} can be one of two instances:
+     * <ul>
+     *     <li>Instance of {@link GeneratedImage GeneratedImage} on a successful render.</li>
+     *     <li>Instance of {@link FailedAPIResponse FailedAPIResponse} on a failed render.</li>
+     * </ul>
+     * 
+     * @param  image
+     *         The CustomImage to render.
+     * 
+     * @return {@link GenericAPIResponse GenericAPIResponse} that is either the GeneratedImage or FailedAPIResponse instance.
+     */
+    public GenericAPIResponse getCustomImage(@NotNull CustomImage image){
+        try{
+            return new GeneratedImage(render(image));
+        }catch(IOException ex){
+            return new FailedAPIResponse("Encountered IOException: " + ex.getMessage());
+        }catch(IllegalArgumentException ex){
+            return new FailedAPIResponse(400, ex.getMessage());
+        }
+    }
+    
+    static void applyHints(Graphics2D g){
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+    }
+    
+    static Rectangle canvasBounds(Image base){
+        if(base instanceof Image.Circle){
+            int radius = ((Image.Circle)base).getRadius();
+            return new Rectangle(base.getPosX() - radius, base.getPosY() - radius, radius * 2, radius * 2);
+        }
+        
+        return new Rectangle(base.getPosX(), base.getPosY(), base.getWidth(), base.getHeight());
+    }
+    
+    /*
+     * Returns the model objects of all layers in the order they are painted: The base, all images and then all texts.
+     */
+    static Object[] layerSources(CustomImage image){
+        Object[] sources = new Object[1 + image.getImages().size() + image.getTexts().size()];
+        sources[0] = image.getBase();
+        
+        int index = 1;
+        for(Image layer : image.getImages())
+            sources[index++] = layer;
+        for(Text text : image.getTexts())
+            sources[index++] = text;
+        
+        return sources;
+    }
+    
+    List<RenderLayer> createLayers(Object[] sources, int first, Rectangle canvasBounds) throws IOException{
+        RenderEvent event = FlightEvents.render();
+        List<RenderLayer> layers = new ArrayList<>(sources.length - first);
+        for(int i = first; i < sources.length; i++){
+            if(sources[i] instanceof Text){
+                layers.add(RenderLayer.of((Text)sources[i], fontRegistry));
+            }else if(i == 0){
+                // The base always covers the whole canvas, no matter its position.
+                layers.add(RenderLayer.of((Image)sources[i], -canvasBounds.x, -canvasBounds.y, imageLoader));
+            }else{
+                layers.add(RenderLayer.of((Image)sources[i], 0, 0, imageLoader));
+            }
+        }
+        
+        if(event.shouldCommit())
+            event.commit("layers", canvasBounds.width, canvasBounds.height, layers.size());
+        
+        return layers;
+    }
+    
+    static BufferedImage createCanvas(Rectangle canvasBounds){
+        return new BufferedImage(canvasBounds.width, canvasBounds.height, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+    
+    void paint(List<RenderLayer> layers, BufferedImage canvas){
+        if(layers.isEmpty())
+            return;
+        
+        RenderEvent event = FlightEvents.render();
+        if(tileSize > 0 && (long)canvas.getWidth() * canvas.getHeight() >= tilingThreshold){
+            TileRenderer.paint(layers, canvas, tileSize, ForkJoinPool.commonPool());
+        }else{
+            Graphics2D g = canvas.createGraphics();
+            try{
+                applyHints(g);
+                RenderTarget target = new RenderTarget(canvas, new Rectangle(canvas.getWidth(), canvas.getHeight()), g);
+                for(RenderLayer layer : layers)
+                    layer.paint(target);
+            }finally{
+                g.dispose();
+            }
+        }
+        
+        if(event.shouldCommit())
+            event.commit("paint", canvas.getWidth(), canvas.getHeight(), layers.size());
+    }
+    
+    /**
+     * Builder class to create a new {@link LocalRenderer LocalRenderer instance} with non-default settings.
+     */
+    public static class Builder{
+        
+        private ImageLoader imageLoader = null;
+        private LayerCache layerCache = null;
+        private FontRegistry fontRegistry = null;
+        private int tileSize = 0;
+        private int tilingThreshold = 0;
+        
+        public Builder(){}
+        
+        /**
+         * Sets the {@link ImageLoader ImageLoader} to use for {@link Image.ImageURL ImageURL} layers.
+         * <br>Default is a {@link CachingImageLoader CachingImageLoader} around a {@link HttpImageLoader HttpImageLoader}.
+         * 
+         * @param  imageLoader
+         *         The ImageLoader to use.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withImageLoader(@NotNull ImageLoader imageLoader){
+            CheckUtil.notNull(imageLoader, "ImageLoader");
+            
+            this.imageLoader = imageLoader;
+            return this;
+        }
+        
+        /**
+         * Sets the {@link LayerCache LayerCache} to use, or {@code null} to always render all layers.
+         * <br>Default is {@code null}.
+         * 
+         * @param  layerCache
+         *         The LayerCache to use.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withLayerCache(@Nullable LayerCache layerCache){
+            this.layerCache = layerCache;
+            return this;
+        }
+        
+        /**
+         * Sets the {@link FontRegistry FontRegistry} to resolve fonts and cache shaped and rasterized text with.
+         * <br>Default is a new FontRegistry for every built renderer.
+         * 
+         * @param  fontRegistry
+         *         The FontRegistry to use.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withFontRegistry(@NotNull FontRegistry fontRegistry){
+            CheckUtil.notNull(fontRegistry, "FontRegistry");
+            
+            this.fontRegistry = fontRegistry;
+            return this;
+        }
+        
+        /**
+         * Enables rendering of large canvases in tiles of {@code tileSize}x{@code tileSize} pixels, which are painted
+         * in parallel using the {@link ForkJoinPool#commonPool() common ForkJoinPool}.
+         * <br>Only canvases with at least {@code minPixels} pixels (width * height) are rendered in tiles, as the
+         * overhead outweighs the gain on small canvases. The rendered image is identical to one rendered without tiles.
+         * 
+         * <p>Using a tile size of 0 disables tiled rendering, which is the default.
+         * 
+         * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in any of the following cases:
+         * <ul>
+         *     <li>TileSize is less than 0.</li>
+         *     <li>MinPixels is less than 0.</li>
+         * </ul>
+         * 
+         * @param  tileSize
+         *         The width and height of a single tile, or 0 to disable tiled rendering.
+         * @param  minPixels
+         *         The minimum amount of pixels a canvas needs to have to be rendered in tiles.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withTiledRendering(int tileSize, int minPixels){
+            CheckUtil.isPositive(tileSize, "TileSize");
+            CheckUtil.isPositive(minPixels, "MinPixels");
+            
+            this.tileSize = tileSize;
+            this.tilingThreshold = minPixels;
+            return this;
+        }
+        
+        /**
+         * Creates a new {@link LocalRenderer LocalRenderer instance} using the settings of this Builder.
+         * 
+         * @return New LocalRenderer instance.
+         */
+        public LocalRenderer build(){
+            ImageLoader loader = imageLoader == null ? new CachingImageLoader(new HttpImageLoader()) : imageLoader;
+            FontRegistry fonts = fontRegistry == null ? new FontRegistry() : fontRegistry;
+            return new LocalRenderer(loader, layerCache, fonts, tileSize, tilingThreshold);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ch.andre601.fluxpoint4j.render;
+
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+
+import java.awt.*;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * A single, prepared layer of a locally rendered image.
+ * <br>Any resources (i.e. images from a URL) are resolved when the layer is created, so that painting it can not fail.
+ */
+abstract class RenderLayer{
+    
+    private static final double FLATNESS = 0.05;
+    
+    /**
+     * The area of the canvas this layer may paint into. The returned bounds may exceed the canvas.
+     * 
+     * @return The bounds of this layer.
+     */
+    abstract Rectangle getBounds();
+    
+    /**
+     * Paints this layer onto the provided target.
+     * 
+     * @param target
+     *        The target to paint the layer onto.
+     */
+    abstract void paint(RenderTarget target);
+    
+    static RenderLayer of(Image image, int offsetX, int offsetY, ImageLoader loader) throws IOException{
+        int x = image.getPosX() + offsetX;
+        int y = image.getPosY() + offsetY;
+        
+        if(image instanceof Image.ImageURL){
+            Image.ImageURL imageUrl = (Image.ImageURL)image;
+            if(imageUrl.getUrl() == null)
+                throw new IllegalArgumentException("ImageURL requires a URL to be set.");
+            
+            BufferedImage source = loader.load(imageUrl.getUrl());
+            return new BitmapLayer(source, x, y, image.getWidth(), image.getHeight(), imageUrl.getRound());
+        }
+        
+        Color color = ColorParser.parse(image.getColor());
+        if(image instanceof Image.Circle)
+            return ShapeLayer.circle(x, y, ((Image.Circle)image).getRadius(), color);
+        
+        if(image instanceof Image.Triangle)
+            return ShapeLayer.triangle(x, y, image.getWidth(), image.getHeight(), ((Image.Triangle)image).getCut(), color);
+        
+        int round = image instanceof Image.Rectangle ? ((Image.Rectangle)image).getRound() : 0;
+        return ShapeLayer.rectangle(x, y, image.getWidth(), image.getHeight(), round, color);
+    }
+    
+    static RenderLayer of(Text text, FontRegistry fonts){
+        return new TextLayer(text, fonts);
+    }
+    
+    /*
+     * Java2D subdivides curves depending on the clip, which gives slightly different edge pixels when a layer is painted
+     * in tiles. Curved shapes are therefore flattened into line segments once, so that every tile fills the same polygon.
+     */
+    static Shape flatten(Shape shape){
+        Path2D.Float path = new Path2D.Float();
+        path.append(shape.getPathIterator(null, FLATNESS), false);
+        return path;
+    }
+}
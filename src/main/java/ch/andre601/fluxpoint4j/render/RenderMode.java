@@ -0,0 +1,23 @@
+package ch.andre601.fluxpoint4j.render;
+
+/**
+ * Defines where a {@link ch.andre601.fluxpoint4j.image.CustomImage CustomImage} or
+ * {@link ch.andre601.fluxpoint4j.welcome.WelcomeImage WelcomeImage} should be generated.
+ * 
+ * @see ch.andre601.fluxpoint4j.Fluxpoint4J#setRenderMode(RenderMode) Fluxpoint4J.setRenderMode(RenderMode)
+ */
+public enum RenderMode{
+    /**
+     * Always use the Fluxpoint API to generate the image. This is the default.
+     */
+    API,
+    /**
+     * Always generate the image locally using the {@link LocalRenderer LocalRenderer} or
+     * {@link WelcomeRenderer WelcomeRenderer}, without performing any request.
+     */
+    LOCAL,
+    /**
+     * Use the Fluxpoint API to generate the image, but generate it locally should the API return a failed response.
+     */
+    API_WITH_LOCAL_FALLBACK
+}
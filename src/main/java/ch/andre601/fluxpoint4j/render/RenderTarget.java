@@ -0,0 +1,100 @@
+package ch.andre601.fluxpoint4j.render;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * The area of a canvas a layer is painted into, which is either the whole canvas or a single tile of it.
+ * 
+ * <p>Shapes are painted using the {@link #getGraphics() Graphics}, while rectangles and prepared images are blended
+ * directly onto the pixels of the canvas using the {@link AlphaCompositor AlphaCompositor}.
+ */
+final class RenderTarget{
+    
+    private final BufferedImage canvas;
+    private final Rectangle area;
+    private final Graphics2D graphics;
+    
+    RenderTarget(BufferedImage canvas, Rectangle area, Graphics2D graphics){
+        this.canvas = canvas;
+        this.area = area;
+        this.graphics = graphics;
+    }
+    
+    /**
+     * Returns the Graphics to paint with, using the coordinates of the whole canvas and being clipped to the area.
+     * 
+     * @return The Graphics to paint with.
+     */
+    Graphics2D getGraphics(){
+        return graphics;
+    }
+    
+    /**
+     * Draws the provided image unscaled at the provided position.
+     * <br>Premultiplied images are blended onto the canvas directly, any other image is drawn using the Graphics.
+     * 
+     * @param image
+     *        The image to draw.
+     * @param x
+     *        The X position of the image on the canvas.
+     * @param y
+     *        The Y position of the image on the canvas.
+     */
+    void drawImage(BufferedImage image, int x, int y){
+        if(!isPremultiplied(image) || !isPremultiplied(canvas)){
+            graphics.drawImage(image, x, y, null);
+            return;
+        }
+        
+        Rectangle visible = area.intersection(new Rectangle(x, y, image.getWidth(), image.getHeight()));
+        if(visible.isEmpty())
+            return;
+        
+        AlphaCompositor.srcOver(
+            pixels(image), (visible.y - y) * image.getWidth() + (visible.x - x), image.getWidth(),
+            pixels(canvas), visible.y * canvas.getWidth() + visible.x, canvas.getWidth(),
+            visible.width, visible.height
+        );
+    }
+    
+    /**
+     * Fills the provided rectangle with the provided color.
+     * 
+     * @param rect
+     *        The rectangle to fill.
+     * @param color
+     *        The color to fill the rectangle with.
+     */
+    void fillRect(Rectangle rect, Color color){
+        if(!isPremultiplied(canvas)){
+            graphics.setColor(color);
+            graphics.fill(rect);
+            return;
+        }
+        
+        Rectangle visible = area.intersection(rect);
+        if(visible.isEmpty())
+            return;
+        
+        AlphaCompositor.fill(
+            color.getRGB(),
+            pixels(canvas), visible.y * canvas.getWidth() + visible.x, canvas.getWidth(),
+            visible.width, visible.height
+        );
+    }
+    
+    /*
+     * Sub-images share the pixels of their parent, so only images owning all pixels of their data buffer are used.
+     */
+    private static boolean isPremultiplied(BufferedImage image){
+        return image.getType() == BufferedImage.TYPE_INT_ARGB_PRE
+            && image.getRaster().getParent() == null
+            && image.getRaster().getDataBuffer().getSize() == image.getWidth() * image.getHeight();
+    }
+    
+    private static int[] pixels(BufferedImage image){
+        return ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+    }
+}
@@ -0,0 +1,64 @@
+package ch.andre601.fluxpoint4j.render;
+
+import java.util.Arrays;
+
+/**
+ * {@link CompositeKernel CompositeKernel} blending one pixel at a time.
+ * <br>Fully transparent and fully opaque source pixels are handled without any blending.
+ */
+final class ScalarCompositeKernel implements CompositeKernel{
+    
+    @Override
+    public void srcOver(int[] src, int srcPos, int[] dst, int dstPos, int length){
+        for(int i = 0; i < length; i++){
+            int s = src[srcPos + i];
+            int alpha = s >>> 24;
+            if(alpha == 0)
+                continue;
+            
+            if(alpha == 255){
+                dst[dstPos + i] = s;
+                continue;
+            }
+            
+            int d = dst[dstPos + i];
+            int inverse = 255 - alpha;
+            dst[dstPos + i] = (alpha + div255((d >>> 24) * inverse)) << 24
+                | (((s >> 16) & 0xFF) + div255(((d >> 16) & 0xFF) * inverse)) << 16
+                | (((s >> 8) & 0xFF) + div255(((d >> 8) & 0xFF) * inverse)) << 8
+                | ((s & 0xFF) + div255((d & 0xFF) * inverse));
+        }
+    }
+    
+    @Override
+    public void fill(int color, int[] dst, int dstPos, int length){
+        int alpha = color >>> 24;
+        if(alpha == 0)
+            return;
+        
+        if(alpha == 255){
+            Arrays.fill(dst, dstPos, dstPos + length, color);
+            return;
+        }
+        
+        int inverse = 255 - alpha;
+        int red = (color >> 16) & 0xFF;
+        int green = (color >> 8) & 0xFF;
+        int blue = color & 0xFF;
+        for(int i = dstPos; i < dstPos + length; i++){
+            int d = dst[i];
+            dst[i] = (alpha + div255((d >>> 24) * inverse)) << 24
+                | (red + div255(((d >> 16) & 0xFF) * inverse)) << 16
+                | (green + div255(((d >> 8) & 0xFF) * inverse)) << 8
+                | (blue + div255((d & 0xFF) * inverse));
+        }
+    }
+    
+    /*
+     * Exact rounded division by 255 for values between 0 and 255 * 255.
+     */
+    static int div255(int value){
+        value += 128;
+        return (value + (value >> 8)) >> 8;
+    }
+}
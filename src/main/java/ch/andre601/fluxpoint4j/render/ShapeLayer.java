@@ -0,0 +1,92 @@
+package ch.andre601.fluxpoint4j.render;
+
+import ch.andre601.fluxpoint4j.image.format.Image;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.RoundRectangle2D;
+
+/**
+ * Layer filling a single shape with a solid color.
+ * <br>Used for {@link Image.Rectangle Rectangle}, {@link Image.Circle Circle} and {@link Image.Triangle Triangle}.
+ */
+class ShapeLayer extends RenderLayer{
+    
+    private final Shape shape;
+    private final Color color;
+    private final Rectangle bounds;
+    
+    private ShapeLayer(Shape shape, Color color){
+        this.shape = shape;
+        this.color = color;
+        this.bounds = shape.getBounds();
+    }
+    
+    static ShapeLayer rectangle(int x, int y, int width, int height, int round, Color color){
+        if(round <= 0)
+            return new ShapeLayer(new Rectangle(x, y, width, height), color);
+        
+        return new ShapeLayer(flatten(new RoundRectangle2D.Float(x, y, width, height, round * 2, round * 2)), color);
+    }
+    
+    /*
+     * Circles are positioned by their center, the same way the Fluxpoint API does it.
+     */
+    static ShapeLayer circle(int x, int y, int radius, Color color){
+        return new ShapeLayer(flatten(new Ellipse2D.Float(x - radius, y - radius, radius * 2, radius * 2)), color);
+    }
+    
+    static ShapeLayer triangle(int x, int y, int width, int height, Image.Cut cut, Color color){
+        Path2D.Float path = new Path2D.Float();
+        switch(cut){
+            case TOP_LEFT:
+                path.moveTo(x + width, y);
+                path.lineTo(x + width, y + height);
+                path.lineTo(x, y + height);
+                break;
+            
+            case TOP_RIGHT:
+                path.moveTo(x, y);
+                path.lineTo(x, y + height);
+                path.lineTo(x + width, y + height);
+                break;
+            
+            case BOTTOM_LEFT:
+                path.moveTo(x, y);
+                path.lineTo(x + width, y);
+                path.lineTo(x + width, y + height);
+                break;
+            
+            case BOTTOM_RIGHT:
+            default:
+                path.moveTo(x, y);
+                path.lineTo(x + width, y);
+                path.lineTo(x, y + height);
+                break;
+        }
+        path.closePath();
+        
+        return new ShapeLayer(path, color);
+    }
+    
+    @Override
+    Rectangle getBounds(){
+        return bounds;
+    }
+    
+    @Override
+    void paint(RenderTarget target){
+        if(color.getAlpha() == 0)
+            return;
+        
+        if(shape instanceof Rectangle){
+            target.fillRect((Rectangle)shape, color);
+            return;
+        }
+        
+        Graphics2D g = target.getGraphics();
+        g.setColor(color);
+        g.fill(shape);
+    }
+}
@@ -0,0 +1,244 @@
+package ch.andre601.fluxpoint4j.render;
+
+import ch.andre601.fluxpoint4j.image.format.Text;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * Layer drawing a {@link Text.SingleLine SingleLine} or {@link Text.MultiLine MultiLine} text, including its
+ * background, outline and alignment.
+ * 
+ * <p>The Y position marks the top of the first line and the X position is the left edge, center or right edge of
+ * each line, depending on the {@link Text.TextAlignment TextAlignment} used.
+ * <br>Should the text be larger than its {@link Text#getMaxWidth() max width} or {@link Text#getMaxHeight() max height}
+ * will the font size be reduced until it fits.
+ */
+class TextLayer extends RenderLayer{
+    
+    static final FontRenderContext FONT_RENDER_CONTEXT = new FontRenderContext(null, true, true);
+    
+    private final Text text;
+    private final FontRegistry fonts;
+    private final Font font;
+    private final String[] lines;
+    private final TextLayout[] layouts;
+    private final float[] lineX;
+    private final float[] baselines;
+    private final Rectangle2D block;
+    private final Rectangle bounds;
+    
+    private BufferedImage blurredOutline = null;
+    
+    TextLayer(Text text, FontRegistry fonts){
+        this.text = text;
+        this.fonts = fonts;
+        
+        String[] lines = lines(text);
+        double lineSpacing = text instanceof Text.MultiLine ? ((Text.MultiLine)text).getLineSpacing() : 1;
+        
+        Font font = fonts.getFont(text, text.getSize());
+        TextLayout[] layouts = layout(lines, font, fonts);
+        float blockWidth = width(layouts);
+        float blockHeight = height(layouts, lineSpacing);
+        
+        float scale = 1;
+        if(text.getMaxWidth() > 0 && blockWidth > text.getMaxWidth())
+            scale = text.getMaxWidth() / blockWidth;
+        if(text.getMaxHeight() > 0 && blockHeight > text.getMaxHeight())
+            scale = Math.min(scale, text.getMaxHeight() / blockHeight);
+        
+        if(scale < 1){
+            font = fonts.getFont(text, Math.max(1, text.getSize() * scale));
+            layouts = layout(lines, font, fonts);
+            blockWidth = width(layouts);
+            blockHeight = height(layouts, lineSpacing);
+        }
+        
+        this.font = font;
+        this.lines = lines;
+        this.layouts = layouts;
+        this.lineX = new float[layouts.length];
+        this.baselines = new float[layouts.length];
+        
+        float lineHeight = lineHeight(layouts[0]) * (float)lineSpacing;
+        float y = text.getPosY();
+        for(int i = 0; i < layouts.length; i++){
+            lineX[i] = alignedX(text.getPosX(), layouts[i].getAdvance(), text.getTextAlignment());
+            baselines[i] = y + layouts[i].getAscent();
+            y += lineHeight;
+        }
+        
+        this.block = new Rectangle2D.Float(
+            alignedX(text.getPosX(), blockWidth, text.getTextAlignment()),
+            text.getPosY(),
+            blockWidth,
+            blockHeight
+        );
+        
+        Rectangle2D visual = (Rectangle2D)block.clone();
+        for(int i = 0; i < layouts.length; i++){
+            Rectangle2D lineBounds = layouts[i].getBounds();
+            visual.add(new Rectangle2D.Float(
+                (float)(lineX[i] + lineBounds.getX()),
+                (float)(baselines[i] + lineBounds.getY()),
+                (float)lineBounds.getWidth(),
+                (float)lineBounds.getHeight()
+            ));
+        }
+        
+        int padding = 2 + outlinePadding();
+        Rectangle rect = visual.getBounds();
+        rect.grow(padding, padding);
+        this.bounds = rect;
+    }
+    
+    static String[] lines(Text text){
+        if(text instanceof Text.MultiLine)
+            return ((Text.MultiLine)text).getTexts();
+        
+        return new String[]{((Text.SingleLine)text).getText()};
+    }
+    
+    private static TextLayout[] layout(String[] lines, Font font, FontRegistry fonts){
+        TextLayout[] layouts = new TextLayout[lines.length];
+        for(int i = 0; i < lines.length; i++)
+            layouts[i] = fonts.getLayout(font, lines[i]);
+        
+        return layouts;
+    }
+    
+    private static float width(TextLayout[] layouts){
+        float width = 0;
+        for(TextLayout layout : layouts)
+            width = Math.max(width, layout.getAdvance());
+        
+        return width;
+    }
+    
+    private static float height(TextLayout[] layouts, double lineSpacing){
+        float lineHeight = lineHeight(layouts[0]);
+        return lineHeight * (float)lineSpacing * (layouts.length - 1) + lineHeight;
+    }
+    
+    private static float lineHeight(TextLayout layout){
+        return layout.getAscent() + layout.getDescent() + layout.getLeading();
+    }
+    
+    private static float alignedX(int x, float width, Text.TextAlignment alignment){
+        switch(alignment){
+            case MIDDLE:
+                return x - width / 2;
+            
+            case RIGHT:
+                return x - width;
+            
+            case LEFT:
+            default:
+                return x;
+        }
+    }
+    
+    private boolean hasOutline(){
+        return text.hasOutline() && text.getOutlineWidth() > 0;
+    }
+    
+    private int outlinePadding(){
+        if(!hasOutline())
+            return 0;
+        
+        return (text.getOutlineWidth() + 1) / 2 + text.getOutlineBlur() * 3;
+    }
+    
+    @Override
+    Rectangle getBounds(){
+        return bounds;
+    }
+    
+    @Override
+    void paint(RenderTarget target){
+        Color background = ColorParser.parse(text.getBackgroundColor());
+        if(background != null && background.getAlpha() > 0){
+            target.getGraphics().setColor(background);
+            target.getGraphics().fill(block);
+        }
+        
+        if(hasOutline())
+            paintOutline(target);
+        
+        Color color = ColorParser.parse(text.getColor());
+        if(color.getAlpha() == 0)
+            return;
+        
+        for(int i = 0; i < layouts.length; i++)
+            fonts.getGlyphRun(layouts[i], font, lines[i], color, lineX[i], baselines[i]).draw(target, lineX[i], baselines[i]);
+    }
+    
+    private void paintOutline(RenderTarget target){
+        Color color = ColorParser.parse(text.getOutlineColor());
+        if(color.getAlpha() == 0)
+            return;
+        
+        if(text.getOutlineBlur() <= 0){
+            target.getGraphics().setColor(color);
+            target.getGraphics().fill(strokedOutline());
+            return;
+        }
+        
+        target.drawImage(blurredOutline(color), bounds.x, bounds.y);
+    }
+    
+    private Shape strokedOutline(){
+        Path2D.Float outline = new Path2D.Float();
+        for(int i = 0; i < layouts.length; i++)
+            outline.append(layouts[i].getOutline(AffineTransform.getTranslateInstance(lineX[i], baselines[i])), false);
+        
+        return flatten(new BasicStroke(text.getOutlineWidth(), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND)
+            .createStrokedShape(outline));
+    }
+    
+    /*
+     * The blurred outline only depends on the layer itself, so it is created once and shared by all tiles painting it.
+     * Only the area around the text is blurred, not the whole canvas.
+     */
+    private synchronized BufferedImage blurredOutline(Color color){
+        if(blurredOutline != null)
+            return blurredOutline;
+        
+        BufferedImage mask = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D maskGraphics = mask.createGraphics();
+        try{
+            LocalRenderer.applyHints(maskGraphics);
+            maskGraphics.translate(-bounds.x, -bounds.y);
+            maskGraphics.setColor(Color.WHITE);
+            maskGraphics.fill(strokedOutline());
+        }finally{
+            maskGraphics.dispose();
+        }
+        
+        int[] pixels = ((DataBufferInt)mask.getRaster().getDataBuffer()).getData();
+        for(int i = 0; i < pixels.length; i++)
+            pixels[i] >>>= 24;
+        
+        GaussianBlur.blur(pixels, bounds.width, bounds.height, Math.max(text.getOutlineBlur() / 2f, 0.5f));
+        
+        // Turns the blurred alpha values back into premultiplied pixels of the outline color.
+        int alpha = color.getAlpha();
+        int red = color.getRed();
+        int green = color.getGreen();
+        int blue = color.getBlue();
+        for(int i = 0; i < pixels.length; i++){
+            int a = (pixels[i] * alpha + 127) / 255;
+            pixels[i] = a << 24 | ((red * a + 127) / 255) << 16 | ((green * a + 127) / 255) << 8 | (blue * a + 127) / 255;
+        }
+        
+        blurredOutline = mask;
+        return mask;
+    }
+}
@@ -0,0 +1,93 @@
+package ch.andre601.fluxpoint4j.render;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Paints layers onto a canvas split into tiles, with the tiles being painted in parallel.
+ * 
+ * <p>Every tile paints into its own part of the shared canvas, clipped to the tile, and only paints the layers whose
+ * bounds intersect it. Since tiles are only ever offset by whole pixels and curved shapes are flattened by the layers
+ * is the result the same as painting all layers onto the whole canvas at once.
+ */
+final class TileRenderer{
+    
+    private TileRenderer(){}
+    
+    static void paint(List<RenderLayer> layers, BufferedImage canvas, int tileSize, ForkJoinPool pool){
+        pool.invoke(new TileTask(layers, canvas, tileSize, 0, 0, canvas.getWidth(), canvas.getHeight()));
+    }
+    
+    private static class TileTask extends RecursiveAction{
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final List<RenderLayer> layers;
+        private final BufferedImage canvas;
+        private final int tileSize;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+        
+        TileTask(List<RenderLayer> layers, BufferedImage canvas, int tileSize, int x, int y, int width, int height){
+            this.layers = layers;
+            this.canvas = canvas;
+            this.tileSize = tileSize;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+        
+        @Override
+        protected void compute(){
+            if(width > tileSize || height > tileSize){
+                // Split along the longer side, keeping tile edges on multiples of the tile size.
+                if(width >= height){
+                    int half = tiles(width) / 2 * tileSize;
+                    invokeAll(
+                        new TileTask(layers, canvas, tileSize, x, y, half, height),
+                        new TileTask(layers, canvas, tileSize, x + half, y, width - half, height)
+                    );
+                }else{
+                    int half = tiles(height) / 2 * tileSize;
+                    invokeAll(
+                        new TileTask(layers, canvas, tileSize, x, y, width, half),
+                        new TileTask(layers, canvas, tileSize, x, y + half, width, height - half)
+                    );
+                }
+                return;
+            }
+            
+            Rectangle tile = new Rectangle(x, y, width, height);
+            List<RenderLayer> visible = new ArrayList<>(layers.size());
+            for(RenderLayer layer : layers){
+                if(layer.getBounds().intersects(tile))
+                    visible.add(layer);
+            }
+            
+            if(visible.isEmpty())
+                return;
+            
+            Graphics2D g = canvas.getSubimage(x, y, width, height).createGraphics();
+            try{
+                LocalRenderer.applyHints(g);
+                g.translate(-x, -y);
+                RenderTarget target = new RenderTarget(canvas, tile, g);
+                for(RenderLayer layer : visible)
+                    layer.paint(target);
+            }finally{
+                g.dispose();
+            }
+        }
+        
+        private int tiles(int size){
+            return (size + tileSize - 1) / tileSize;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package ch.andre601.fluxpoint4j.render;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import ch.andre601.fluxpoint4j.jfr.FlightEvents;
+import ch.andre601.fluxpoint4j.jfr.RenderEvent;
+import ch.andre601.fluxpoint4j.request.FailedAPIResponse;
+import ch.andre601.fluxpoint4j.request.GeneratedImage;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import ch.andre601.fluxpoint4j.welcome.WelcomeImage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Renderer used to generate a {@link WelcomeImage WelcomeImage} locally, without performing any request towards the
+ * Fluxpoint API.
+ * 
+ * <p>The welcome card is {@link #toCustomImage(WelcomeImage) translated into a CustomImage} with a fixed layout, which
+ * is then rendered by a {@link LocalRenderer LocalRenderer}:
+ * <ul>
+ *     <li>The background color, covered by the banner if one is set.</li>
+ *     <li>The round avatar on the left.</li>
+ *     <li>The "Welcome" text, username and members text next to the avatar.</li>
+ *     <li>The icon on the right.</li>
+ * </ul>
+ * 
+ * Avatar, banner and icon are loaded through the {@link ImageLoader ImageLoader} of this renderer. Since a banner or
+ * icon may also be the name of an asset only known to the Fluxpoint API will those be left out should they not be
+ * loadable.
+ */
+public class WelcomeRenderer{
+    
+    /**
+     * Width of the generated welcome image.
+     */
+    public static final int WIDTH = 1000;
+    /**
+     * Height of the generated welcome image.
+     */
+    public static final int HEIGHT = 300;
+    
+    private static final int MARGIN = 20;
+    private static final int AVATAR_SIZE = 200;
+    private static final int AVATAR_X = 50;
+    private static final int AVATAR_Y = (HEIGHT - AVATAR_SIZE) / 2;
+    private static final int AVATAR_BORDER = 6;
+    private static final int ICON_SIZE = 120;
+    private static final int ICON_X = WIDTH - ICON_SIZE - 50;
+    private static final int ICON_Y = (HEIGHT - ICON_SIZE) / 2;
+    private static final int TEXT_X = AVATAR_X + AVATAR_SIZE + 40;
+    private static final int TEXT_WIDTH = ICON_X - TEXT_X - 30;
+    
+    private static final ColorObject DEFAULT_TEXT_COLOR = ColorObject.getFromRGB(255, 255, 255);
+    private static final ColorObject DEFAULT_MEMBERS_COLOR = ColorObject.getFromRGB(200, 200, 200);
+    
+    private final LocalRenderer renderer;
+    
+    /**
+     * Creates a new WelcomeRenderer using a {@link CachingImageLoader CachingImageLoader} around a
+     * {@link HttpImageLoader HttpImageLoader} to load images.
+     */
+    public WelcomeRenderer(){
+        this(new CachingImageLoader(new HttpImageLoader()));
+    }
+    
+    /**
+     * Creates a new WelcomeRenderer using the provided {@link ImageLoader ImageLoader} to load images.
+     * <br>Since welcome images usually share the same banner and icon should the provided ImageLoader cache its images,
+     * i.e. by wrapping it into a {@link CachingImageLoader CachingImageLoader}.
+     * 
+     * @param imageLoader
+     *        The ImageLoader to use for avatar, banner and icon.
+     */
+    public WelcomeRenderer(@NotNull ImageLoader imageLoader){
+        this(imageLoader, null);
+    }
+    
+    /**
+     * Creates a new WelcomeRenderer using the provided {@link ImageLoader ImageLoader} to load images and the provided
+     * {@link LayerCache LayerCache} to reuse the layers welcome images have in common, such as background and banner.
+     * 
+     * @param imageLoader
+     *        The ImageLoader to use for avatar, banner and icon.
+     * @param layerCache
+     *        The LayerCache to use, or {@code null} to always render all layers.
+     */
+    public WelcomeRenderer(@NotNull ImageLoader imageLoader, @Nullable LayerCache layerCache){
+        this(new LocalRenderer(imageLoader, layerCache));
+    }
+    
+    /**
+     * Creates a new WelcomeRenderer using the settings and {@link ImageLoader ImageLoader} of the provided
+     * {@link LocalRenderer LocalRenderer}.
+     * 
+     * @param renderer
+     *        The LocalRenderer to render welcome images with.
+     */
+    public WelcomeRenderer(@NotNull LocalRenderer renderer){
+        CheckUtil.notNull(renderer, "Renderer");
+        
+        this.renderer = renderer;
+    }
+    
+    /**
+     * Renders the provided {@link WelcomeImage WelcomeImage} into a new {@link BufferedImage BufferedImage}.
+     * 
+     * @param  image
+     *         The WelcomeImage to render.
+     * 
+     * @return The rendered image.
+     * 
+     * @throws IOException
+     *         When the avatar could not be loaded.
+     */
+    public BufferedImage render(@NotNull WelcomeImage image) throws IOException{
+        // Banner and icon are loaded before the layout is created, so they are reused instead of being loaded twice and
+        // loading them isn't counted as layout time.
+        Map<String, BufferedImage> assets = loadAssets(image);
+        RenderEvent event = FlightEvents.render();
+        CustomImage customImage = toCustomImage(image, assets);
+        if(event.shouldCommit())
+            event.commit("layout", customImage.getBase().getWidth(), customImage.getBase().getHeight(),
+                1 + customImage.getImages().size() + customImage.getTexts().size());
+        
+        ImageLoader imageLoader = renderer.getImageLoader();
+        return renderer.toBuilder()
+            .withImageLoader(url -> {
+                BufferedImage asset = assets.get(url);
+                return asset != null ? asset : imageLoader.load(url);
+            })
+            .build()
+            .render(customImage);
+    }
+    
+    /**
+     * Renders the provided {@link WelcomeImage WelcomeImage} and wraps the result into a {@link GenericAPIResponse GenericAPIResponse},
+     * the same way {@link ch.andre601.fluxpoint4j.Fluxpoint4J#getWelcomeImage(WelcomeImage) Fluxpoint4J.getWelcomeImage(WelcomeImage)}
+     * would.
+     *
+     * <p>The returned {@link GenericAPIResponse GenericAPIResponse} can be one of two instances:
+     * <ul>
+     *     <li>Instance of {@link GeneratedImage GeneratedImage} on a successful render.</li>
+     *     <li>Instance of {@link FailedAPIResponse FailedAPIResponse} on a failed render.</li>
+     * </ul>
+     * 
+     * @param  image
+     *         The WelcomeImage to render.
+     * 
+     * @return {@link GenericAPIResponse GenericAPIResponse} that is either the GeneratedImage or FailedAPIResponse instance.
+     */
+    public GenericAPIResponse getWelcomeImage(@NotNull WelcomeImage image){
+        try{
+            return new GeneratedImage(render(image));
+        }catch(IOException ex){
+            return new FailedAPIResponse("Encountered IOException: " + ex.getMessage());
+        }catch(IllegalArgumentException ex){
+            return new FailedAPIResponse(400, ex.getMessage());
+        }
+    }
+    
+    /**
+     * Translates the provided {@link WelcomeImage WelcomeImage} into the {@link CustomImage CustomImage} used to render it.
+     * 
+     * @param  image
+     *         The WelcomeImage to translate.
+     * 
+     * @return The CustomImage representing the layout of the welcome image.
+     */
+    public CustomImage toCustomImage(@NotNull WelcomeImage image){
+        return toCustomImage(image, loadAssets(image));
+    }
+    
+    private CustomImage toCustomImage(WelcomeImage image, Map<String, BufferedImage> assets){
+        CustomImage.Builder builder = CustomImage.Builder.createBase(new Image.Rectangle()
+            .withColor(image.getBackgroundColor())
+            .withWidth(WIDTH)
+            .withHeight(HEIGHT));
+        
+        if(assets.containsKey(image.getBanner())){
+            builder.addImage(new Image.ImageURL()
+                .withUrl(image.getBanner())
+                .withPosX(MARGIN)
+                .withPosY(MARGIN)
+                .withWidth(WIDTH - MARGIN * 2)
+                .withHeight(HEIGHT - MARGIN * 2)
+                .withRound(MARGIN));
+        }
+        
+        builder.addImage(new Image.Circle()
+                .withColor(orDefault(image.getUsernameColor(), DEFAULT_TEXT_COLOR))
+                .withRadius(AVATAR_SIZE / 2 + AVATAR_BORDER)
+                .withPosX(AVATAR_X + AVATAR_SIZE / 2)
+                .withPosY(AVATAR_Y + AVATAR_SIZE / 2))
+            .addImage(new Image.ImageURL()
+                .withUrl(image.getAvatar())
+                .withPosX(AVATAR_X)
+                .withPosY(AVATAR_Y)
+                .withWidth(AVATAR_SIZE)
+                .withHeight(AVATAR_SIZE)
+                .withRound(AVATAR_SIZE / 2));
+        
+        if(assets.containsKey(image.getIcon())){
+            builder.addImage(new Image.ImageURL()
+                .withUrl(image.getIcon())
+                .withPosX(ICON_X)
+                .withPosY(ICON_Y)
+                .withWidth(ICON_SIZE)
+                .withHeight(ICON_SIZE));
+        }
+        
+        boolean hasMembers = image.getMembersText() != null && !image.getMembersText().isEmpty();
+        int top = hasMembers ? 55 : 80;
+        
+        builder.addText(new Text.SingleLine("Welcome")
+                .withColor(orDefault(image.getWelcomeColor(), DEFAULT_TEXT_COLOR))
+                .withSize(44)
+                .asBold(true)
+                .withMaxWidth(TEXT_WIDTH)
+                .withPosX(TEXT_X)
+                .withPosY(top))
+            .addText(new Text.SingleLine(image.getUsername())
+                .withColor(orDefault(image.getUsernameColor(), DEFAULT_TEXT_COLOR))
+                .withSize(56)
+                .asBold(true)
+                .withMaxWidth(TEXT_WIDTH)
+                .withPosX(TEXT_X)
+                .withPosY(top + 60));
+        
+        if(hasMembers){
+            builder.addText(new Text.SingleLine(image.getMembersText())
+                .withColor(orDefault(image.getMembersColor(), DEFAULT_MEMBERS_COLOR))
+                .withSize(30)
+                .withMaxWidth(TEXT_WIDTH)
+                .withPosX(TEXT_X)
+                .withPosY(top + 140));
+        }
+        
+        return builder.build();
+    }
+    
+    /*
+     * Loads banner and icon. Assets that can't be loaded are left out, which drops them from the layout.
+     */
+    private Map<String, BufferedImage> loadAssets(WelcomeImage image){
+        Map<String, BufferedImage> assets = new HashMap<>();
+        load(image.getBanner(), assets);
+        load(image.getIcon(), assets);
+        return assets;
+    }
+    
+    private void load(String asset, Map<String, BufferedImage> assets){
+        if(asset == null || asset.isEmpty() || assets.containsKey(asset))
+            return;
+        
+        try{
+            assets.put(asset, renderer.getImageLoader().load(asset));
+        }catch(IOException | RuntimeException ignored){}
+    }
+    
+    private static ColorObject orDefault(ColorObject color, ColorObject defaultColor){
+        return color == null ? defaultColor : color;
+    }
+}
@@ -0,0 +1,135 @@
+package ch.andre601.fluxpoint4j.request;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import okhttp3.Dns;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Dns Dns} implementation caching the addresses returned by another Dns, used by the {@link RequestHandler RequestHandler}
+ * so that not every request to the Fluxpoint API performs its own DNS lookup.
+ * 
+ * <p>Successful lookups are cached for the TTL, while failed lookups are cached for the negative TTL, so that requests
+ * for a host that doesn't exist fail fast instead of waiting for the DNS server every time.
+ * <br>Host names are compared ignoring case.
+ */
+public class CachingDns implements Dns{
+    
+    private static final int PURGE_THRESHOLD = 1024;
+    
+    private final Dns delegate;
+    private final long ttl;
+    private final long negativeTtl;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a new CachingDns using the {@link Dns#SYSTEM system Dns}, caching addresses for 60 seconds and failed
+     * lookups for 10 seconds.
+     */
+    public CachingDns(){
+        this(Dns.SYSTEM, 60, 10, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Creates a new CachingDns using the provided Dns and TTLs.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Dns or TimeUnit is null.</li>
+     *     <li>TTL or negative TTL is negative.</li>
+     * </ul>
+     * 
+     * @param delegate
+     *        The Dns to perform the actual lookups with.
+     * @param ttl
+     *        The time successful lookups are cached for.
+     * @param negativeTtl
+     *        The time failed lookups are cached for. 0 disables caching of failed lookups.
+     * @param unit
+     *        The TimeUnit of both TTLs.
+     */
+    public CachingDns(@NotNull Dns delegate, long ttl, long negativeTtl, @NotNull TimeUnit unit){
+        CheckUtil.notNull(delegate, "Dns");
+        CheckUtil.notNull(unit, "TimeUnit");
+        CheckUtil.check(ttl >= 0, "TTL may not be negative.");
+        CheckUtil.check(negativeTtl >= 0, "Negative TTL may not be negative.");
+        
+        this.delegate = delegate;
+        this.ttl = unit.toNanos(ttl);
+        this.negativeTtl = unit.toNanos(negativeTtl);
+    }
+    
+    @NotNull
+    @Override
+    public List<InetAddress> lookup(@NotNull String hostname) throws UnknownHostException{
+        String key = hostname.toLowerCase(Locale.ROOT);
+        long now = System.nanoTime();
+        
+        Entry entry = entries.get(key);
+        if(entry == null || entry.isExpired(now)){
+            entry = resolve(hostname, now);
+            
+            if(entries.size() >= PURGE_THRESHOLD)
+                entries.values().removeIf(cached -> cached.isExpired(now));
+            entries.put(key, entry);
+        }
+        
+        if(entry.error != null)
+            throw new UnknownHostException(entry.error);
+        
+        return entry.addresses;
+    }
+    
+    /**
+     * Removes the cached addresses of the provided host, so that it is looked up again with the next request.
+     * 
+     * @param hostname
+     *        The host to remove.
+     */
+    public void invalidate(@NotNull String hostname){
+        entries.remove(hostname.toLowerCase(Locale.ROOT));
+    }
+    
+    /**
+     * Removes all cached addresses.
+     */
+    public void clear(){
+        entries.clear();
+    }
+    
+    private Entry resolve(String hostname, long now){
+        try{
+            List<InetAddress> addresses = Collections.unmodifiableList(delegate.lookup(hostname));
+            return new Entry(addresses, null, now + ttl);
+        }catch(UnknownHostException ex){
+            String message = ex.getMessage() == null ? hostname : ex.getMessage();
+            return new Entry(null, message, now + negativeTtl);
+        }
+    }
+    
+    private static final class Entry{
+        
+        private final List<InetAddress> addresses;
+        private final String error;
+        private final long expires;
+        
+        private Entry(List<InetAddress> addresses, String error, long expires){
+            this.addresses = addresses;
+            this.error = error;
+            this.expires = expires;
+        }
+        
+        boolean isExpired(long now){
+            return now - expires >= 0;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package ch.andre601.fluxpoint4j.request;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import ch.andre601.fluxpoint4j.util.ColorObjectSerializer;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Canonical JSON encoding of {@link CustomImage CustomImages}.
+ * 
+ * <p>The canonical encoding omits every field of a layer that has its default value, such as the {@code Sans Serif}
+ * font or weight 500 of texts, and orders all keys alphabetically. This makes requests smaller and gives equal images
+ * the same encoding, no matter in which order their settings were made, which allows using it as a cache key.
+ * <br>The type, width and height of images are always included.
+ */
+public final class CanonicalJson{
+    
+    private static final Gson GSON = new GsonBuilder()
+        .registerTypeAdapter(ColorObject.class, new ColorObjectSerializer())
+        .create();
+    
+    private static final Set<String> KEEP_IMAGE = new HashSet<>(Arrays.asList("type", "width", "height"));
+    private static final Set<String> KEEP_TEXT = new HashSet<>(Arrays.asList("text", "texts"));
+    
+    private static final Map<String, JsonObject> IMAGE_DEFAULTS = new HashMap<>();
+    private static final JsonObject TEXT_DEFAULTS = new JsonObject();
+    
+    static{
+        for(Image image : new Image[]{new Image.Rectangle(), new Image.ImageURL(), new Image.Circle(), new Image.Triangle()}){
+            JsonObject defaults = GSON.toJsonTree(image).getAsJsonObject();
+            IMAGE_DEFAULTS.put(defaults.get("type").getAsString(), defaults);
+        }
+        
+        for(Text text : new Text[]{new Text.SingleLine("-"), new Text.MultiLine("-")}){
+            for(Map.Entry<String, JsonElement> entry : GSON.toJsonTree(text).getAsJsonObject().entrySet())
+                TEXT_DEFAULTS.add(entry.getKey(), entry.getValue());
+        }
+    }
+    
+    private CanonicalJson(){}
+    
+    /**
+     * Encodes the provided {@link CustomImage CustomImage} into its canonical JSON.
+     * 
+     * @param  image
+     *         The CustomImage to encode.
+     * 
+     * @return The canonical JSON of the CustomImage.
+     */
+    @NotNull
+    public static String encode(@NotNull CustomImage image){
+        CheckUtil.notNull(image, "CustomImage");
+        
+        return encode(GSON.toJsonTree(image).getAsJsonObject());
+    }
+    
+    /**
+     * Encodes the provided CustomImage JSON into its canonical form.
+     * <br>The provided JSON is not modified.
+     * 
+     * @param  json
+     *         The JSON of a CustomImage, containing {@code base}, {@code images} and {@code texts}.
+     * 
+     * @return The canonical JSON of the CustomImage.
+     */
+    @NotNull
+    public static String encode(@NotNull JsonObject json){
+        CheckUtil.notNull(json, "JSON");
+        
+        JsonObject result = new JsonObject();
+        for(String key : new TreeSet<>(json.keySet())){
+            JsonElement value = json.get(key);
+            switch(key){
+                case "base":
+                    result.add(key, value.isJsonObject() ? image(value.getAsJsonObject()) : sorted(value));
+                    break;
+                
+                case "images":
+                case "texts":
+                    JsonArray layers = new JsonArray();
+                    for(JsonElement layer : value.getAsJsonArray()){
+                        if(!layer.isJsonObject()){
+                            layers.add(sorted(layer));
+                        }else{
+                            layers.add(key.equals("images") ? image(layer.getAsJsonObject()) : text(layer.getAsJsonObject()));
+                        }
+                    }
+                    result.add(key, layers);
+                    break;
+                
+                default:
+                    result.add(key, sorted(value));
+            }
+        }
+        
+        return result.toString();
+    }
+    
+    private static JsonObject image(JsonObject image){
+        JsonElement type = image.get("type");
+        JsonObject defaults = type == null || !type.isJsonPrimitive() ? null : IMAGE_DEFAULTS.get(type.getAsString());
+        return withoutDefaults(image, defaults, KEEP_IMAGE);
+    }
+    
+    private static JsonObject text(JsonObject text){
+        return withoutDefaults(text, TEXT_DEFAULTS, KEEP_TEXT);
+    }
+    
+    private static JsonObject withoutDefaults(JsonObject layer, JsonObject defaults, Set<String> keep){
+        JsonObject result = new JsonObject();
+        for(String key : new TreeSet<>(layer.keySet())){
+            JsonElement value = layer.get(key);
+            if(defaults != null && !keep.contains(key) && value.equals(defaults.get(key)))
+                continue;
+            
+            result.add(key, sorted(value));
+        }
+        
+        return result;
+    }
+    
+    private static JsonElement sorted(JsonElement element){
+        if(element.isJsonArray()){
+            JsonArray result = new JsonArray();
+            for(JsonElement value : element.getAsJsonArray())
+                result.add(sorted(value));
+            
+            return result;
+        }
+        
+        if(element.isJsonObject()){
+            JsonObject object = element.getAsJsonObject();
+            JsonObject result = new JsonObject();
+            for(String key : new TreeSet<>(object.keySet()))
+                result.add(key, sorted(object.get(key)));
+            
+            return result;
+        }
+        
+        return element;
+    }
+}
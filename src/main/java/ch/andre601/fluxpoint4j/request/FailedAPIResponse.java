@@ -18,6 +18,11 @@ public class FailedAPIResponse implements GenericAPIResponse{
         this.message = message;
     }
     
+    public FailedAPIResponse(int code, String message){
+        this.code = code;
+        this.message = message;
+    }
+    
     /**
      * {@inheritDoc}
      * 
@@ -1,11 +1,16 @@
 package ch.andre601.fluxpoint4j.request;
 
 import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.jfr.DecodeEvent;
+import ch.andre601.fluxpoint4j.jfr.FlightEvents;
+import ch.andre601.fluxpoint4j.png.PngEncoder;
 import ch.andre601.fluxpoint4j.welcome.WelcomeImage;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -17,13 +22,23 @@ import java.io.InputStream;
  * 
  * This class allows you to get the image as either {@link #getAsInputStream() InputStream} or
  * {@link #getAsBufferedImage() BufferedImage}.
+ * 
+ * <p>Images generated {@link ch.andre601.fluxpoint4j.render.LocalRenderer locally} are kept as BufferedImage and are
+ * only encoded to PNG, using a {@link PngEncoder PngEncoder}, when requested as InputStream.
  */
 public class GeneratedImage implements GenericAPIResponse{
     
     private final InputStream inputStream;
+    private final BufferedImage image;
     
     public GeneratedImage(InputStream inputStream){
         this.inputStream = inputStream;
+        this.image = null;
+    }
+    
+    public GeneratedImage(BufferedImage image){
+        this.inputStream = null;
+        this.image = image;
     }
     
     /**
@@ -49,11 +64,35 @@ public class GeneratedImage implements GenericAPIResponse{
     
     /**
      * Gets the Generated Image as an {@link java.io.InputStream InputStream}.
+     * <br>Images generated locally are encoded using the {@link PngEncoder#getDefault() default PngEncoder}.
      * 
      * @return InputStream containing the image.
      */
     public InputStream getAsInputStream(){
-        return inputStream;
+        if(inputStream != null)
+            return inputStream;
+        
+        return new ByteArrayInputStream(PngEncoder.getDefault().encode(image));
+    }
+    
+    /**
+     * Gets the Generated Image as an {@link java.io.InputStream InputStream} containing the image encoded by the
+     * provided {@link PngEncoder PngEncoder}.
+     * <br>Images received from the Fluxpoint API are decoded and encoded again, which consumes the original InputStream.
+     * 
+     * @param  encoder
+     *         The PngEncoder to encode the image with.
+     * 
+     * @return InputStream containing the image, or {@code null} if the image received from the Fluxpoint API could
+     *         not be decoded.
+     */
+    @Nullable
+    public InputStream getAsInputStream(@NotNull PngEncoder encoder){
+        BufferedImage image = getAsBufferedImage();
+        if(image == null)
+            return null;
+        
+        return new ByteArrayInputStream(encoder.encode(image));
     }
     
     /**
@@ -64,8 +103,16 @@ public class GeneratedImage implements GenericAPIResponse{
      */
     @Nullable
     public BufferedImage getAsBufferedImage(){
+        if(image != null)
+            return image;
+        
         try{
-            return ImageIO.read(inputStream);
+            DecodeEvent event = FlightEvents.decode();
+            BufferedImage decoded = ImageIO.read(inputStream);
+            if(event.shouldCommit())
+                event.commit("api", decoded == null ? -1 : decoded.getWidth(), decoded == null ? -1 : decoded.getHeight());
+            
+            return decoded;
         }catch(IOException ex){
             return null;
         }
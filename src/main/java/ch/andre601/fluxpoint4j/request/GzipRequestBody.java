@@ -0,0 +1,115 @@
+package ch.andre601.fluxpoint4j.request;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * {@link RequestBody RequestBody} compressing its content with gzip while it is written to the connection, used by the
+ * {@link RequestHandler RequestHandler} for large requests.
+ * 
+ * <p>The {@link Deflater Deflaters} used for compression are pooled and reused across requests, as creating one
+ * allocates a considerable amount of native memory.
+ * <br>The body may be written multiple times, which allows OkHttp to retry the request.
+ */
+public final class GzipRequestBody extends RequestBody{
+    
+    private static final int MAX_POOLED = 8;
+    private static final int BUFFER_SIZE = 8192;
+    
+    private static final byte[] HEADER = {0x1f, (byte)0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    
+    private static final Queue<Deflater> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+    
+    private final byte[] content;
+    private final MediaType contentType;
+    
+    /**
+     * Creates a new GzipRequestBody compressing the UTF-8 bytes of the provided text.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Text is null.</li>
+     * </ul>
+     * 
+     * @param text
+     *        The text to compress.
+     * @param contentType
+     *        The content type of the uncompressed text. May be null.
+     */
+    public GzipRequestBody(@NotNull String text, @Nullable MediaType contentType){
+        CheckUtil.notNull(text, "Text");
+        
+        this.content = text.getBytes(StandardCharsets.UTF_8);
+        this.contentType = contentType;
+    }
+    
+    @Nullable
+    @Override
+    public MediaType contentType(){
+        return contentType;
+    }
+    
+    /*
+     * The compressed size is only known after writing, so the body is sent chunked.
+     */
+    @Override
+    public long contentLength(){
+        return -1;
+    }
+    
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException{
+        Deflater deflater = acquire();
+        try{
+            byte[] buffer = new byte[BUFFER_SIZE];
+            
+            sink.write(HEADER);
+            deflater.setInput(content);
+            deflater.finish();
+            while(!deflater.finished()){
+                int length = deflater.deflate(buffer);
+                sink.write(buffer, 0, length);
+            }
+            
+            CRC32 crc = new CRC32();
+            crc.update(content, 0, content.length);
+            sink.writeIntLe((int)crc.getValue());
+            sink.writeIntLe(content.length);
+        }finally{
+            release(deflater);
+        }
+    }
+    
+    private static Deflater acquire(){
+        Deflater deflater = POOL.poll();
+        if(deflater == null)
+            return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        
+        POOLED.decrementAndGet();
+        return deflater;
+    }
+    
+    private static void release(Deflater deflater){
+        if(POOLED.incrementAndGet() > MAX_POOLED){
+            POOLED.decrementAndGet();
+            deflater.end();
+            return;
+        }
+        
+        deflater.reset();
+        POOL.offer(deflater);
+    }
+}
@@ -0,0 +1,291 @@
+package ch.andre601.fluxpoint4j.request;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optimizes the JSON of a {@link ch.andre601.fluxpoint4j.image.CustomImage CustomImage} before it is sent to the
+ * Fluxpoint API, without changing the generated image.
+ * 
+ * <p>The following optimizations are made:
+ * <ul>
+ *     <li>Images outside the canvas, fully transparent shapes and empty or invisible texts are removed.</li>
+ *     <li>Images fully covered by a later, opaque rectangle are removed.</li>
+ *     <li>Rectangles partially outside the canvas are clipped to it.</li>
+ *     <li>Consecutive rectangles of the same color sharing an edge are merged into one.</li>
+ *     <li>Flags which are disabled, such as {@code bold} or {@code cache}, and the outline settings of texts without
+ *     outline are removed, as they are ignored by the API.</li>
+ * </ul>
+ * Colors given as name or HEX value are never treated as transparent or opaque, as only the Fluxpoint API knows how
+ * they are resolved.
+ */
+public final class LayerOptimizer{
+    
+    private static final String[] DISABLED_FLAGS = {"bold", "italic", "underline", "outline", "cache"};
+    private static final String[] OUTLINE_FIELDS = {"outlinewidth", "outlinecolor", "outlineblur"};
+    
+    private static final int MAX_SIZE = 3000;
+    
+    private LayerOptimizer(){}
+    
+    /**
+     * Returns an optimized copy of the provided CustomImage JSON.
+     * <br>The provided JSON is not modified.
+     * 
+     * @param  json
+     *         The JSON of a CustomImage, containing {@code base}, {@code images} and {@code texts}.
+     * 
+     * @return New, optimized JSON of the CustomImage.
+     */
+    @NotNull
+    public static JsonObject optimize(@NotNull JsonObject json){
+        CheckUtil.notNull(json, "JSON");
+        
+        JsonObject result = json.deepCopy();
+        JsonObject base = result.getAsJsonObject("base");
+        if(base == null)
+            return result;
+        
+        int width = getInt(base, "width", 0);
+        int height = getInt(base, "height", 0);
+        clean(base);
+        
+        JsonArray images = result.getAsJsonArray("images");
+        if(images != null)
+            result.add("images", optimizeImages(images, width, height));
+        
+        JsonArray texts = result.getAsJsonArray("texts");
+        if(texts != null)
+            result.add("texts", optimizeTexts(texts, width, height));
+        
+        return result;
+    }
+    
+    private static JsonArray optimizeImages(JsonArray images, int width, int height){
+        List<JsonObject> layers = new ArrayList<>(images.size());
+        for(JsonElement element : images){
+            JsonObject layer = element.getAsJsonObject();
+            if(isVisible(layer, width, height))
+                layers.add(clip(layer, width, height));
+        }
+        
+        // Walking backwards only needs to compare every layer with the opaque rectangles painted after it.
+        List<int[]> covers = new ArrayList<>();
+        List<JsonObject> visible = new ArrayList<>(layers.size());
+        for(int i = layers.size() - 1; i >= 0; i--){
+            JsonObject layer = layers.get(i);
+            int[] bounds = bounds(layer);
+            if(isCovered(bounds, covers))
+                continue;
+            
+            if(isPlainRectangle(layer) && alpha(layer) == 255)
+                covers.add(bounds);
+            visible.add(0, layer);
+        }
+        
+        JsonArray result = new JsonArray();
+        JsonObject previous = null;
+        for(JsonObject layer : visible){
+            if(previous != null && merge(previous, layer))
+                continue;
+            
+            clean(layer);
+            result.add(layer);
+            previous = layer;
+        }
+        
+        return result;
+    }
+    
+    private static JsonArray optimizeTexts(JsonArray texts, int width, int height){
+        JsonArray result = new JsonArray();
+        for(JsonElement element : texts){
+            JsonObject text = element.getAsJsonObject();
+            if(isEmpty(text) || isOutside(text, width, height))
+                continue;
+            
+            boolean outline = getBoolean(text, "outline");
+            if(!outline && alpha(text.get("color")) == 0 && alpha(text.get("back")) == 0)
+                continue;
+            
+            if(!outline){
+                for(String field : OUTLINE_FIELDS)
+                    text.remove(field);
+            }
+            
+            clean(text);
+            result.add(text);
+        }
+        
+        return result;
+    }
+    
+    private static boolean isVisible(JsonObject layer, int width, int height){
+        if(!"url".equals(getString(layer, "type")) && alpha(layer) == 0)
+            return false;
+        
+        int[] bounds = bounds(layer);
+        return bounds[2] > bounds[0] && bounds[3] > bounds[1]
+            && bounds[2] > 0 && bounds[3] > 0 && bounds[0] < width && bounds[1] < height;
+    }
+    
+    /*
+     * Only rectangles without rounded corners are clipped, as clipping would move the corners of rounded ones.
+     */
+    private static JsonObject clip(JsonObject layer, int width, int height){
+        if(!isPlainRectangle(layer))
+            return layer;
+        
+        int[] bounds = bounds(layer);
+        int x = Math.max(0, bounds[0]);
+        int y = Math.max(0, bounds[1]);
+        layer.addProperty("x", x);
+        layer.addProperty("y", y);
+        layer.addProperty("width", Math.min(width, bounds[2]) - x);
+        layer.addProperty("height", Math.min(height, bounds[3]) - y);
+        return layer;
+    }
+    
+    private static boolean isCovered(int[] bounds, List<int[]> covers){
+        for(int[] cover : covers){
+            if(cover[0] <= bounds[0] && cover[1] <= bounds[1] && cover[2] >= bounds[2] && cover[3] >= bounds[3])
+                return true;
+        }
+        
+        return false;
+    }
+    
+    /*
+     * Merges the layer into the previous one if both are rectangles of the same color sharing a full edge. As they
+     * don't overlap is the result the same, even for translucent colors.
+     */
+    private static boolean merge(JsonObject previous, JsonObject layer){
+        if(!isPlainRectangle(previous) || !isPlainRectangle(layer))
+            return false;
+        if(!String.valueOf(previous.get("color")).equals(String.valueOf(layer.get("color"))))
+            return false;
+        
+        int[] a = bounds(previous);
+        int[] b = bounds(layer);
+        if(a[1] == b[1] && a[3] == b[3] && (a[2] == b[0] || b[2] == a[0])){
+            if(Math.max(a[2], b[2]) - Math.min(a[0], b[0]) > MAX_SIZE)
+                return false;
+            
+            previous.addProperty("x", Math.min(a[0], b[0]));
+            previous.addProperty("width", Math.max(a[2], b[2]) - Math.min(a[0], b[0]));
+            return true;
+        }
+        
+        if(a[0] == b[0] && a[2] == b[2] && (a[3] == b[1] || b[3] == a[1])){
+            if(Math.max(a[3], b[3]) - Math.min(a[1], b[1]) > MAX_SIZE)
+                return false;
+            
+            previous.addProperty("y", Math.min(a[1], b[1]));
+            previous.addProperty("height", Math.max(a[3], b[3]) - Math.min(a[1], b[1]));
+            return true;
+        }
+        
+        return false;
+    }
+    
+    private static boolean isEmpty(JsonObject text){
+        JsonElement single = text.get("text");
+        if(single != null && !single.isJsonNull())
+            return single.getAsString().isEmpty();
+        
+        JsonElement lines = text.get("texts");
+        if(lines == null || !lines.isJsonArray())
+            return false;
+        
+        for(JsonElement line : lines.getAsJsonArray()){
+            if(!line.isJsonNull() && !line.getAsString().isEmpty())
+                return false;
+        }
+        
+        return true;
+    }
+    
+    /*
+     * Text is only known to be outside when it starts below or, for left-aligned text, right of the canvas.
+     */
+    private static boolean isOutside(JsonObject text, int width, int height){
+        if(getInt(text, "y", 0) >= height)
+            return true;
+        
+        return "l".equals(getString(text, "align")) && getInt(text, "x", 0) >= width;
+    }
+    
+    /*
+     * Bounds as left, top, right and bottom. Circles are positioned by their center.
+     */
+    private static int[] bounds(JsonObject layer){
+        int x = getInt(layer, "x", 0);
+        int y = getInt(layer, "y", 0);
+        if("circle".equals(getString(layer, "type"))){
+            int radius = getInt(layer, "radius", 0);
+            return new int[]{x - radius, y - radius, x + radius, y + radius};
+        }
+        
+        return new int[]{x, y, x + getInt(layer, "width", 0), y + getInt(layer, "height", 0)};
+    }
+    
+    private static boolean isPlainRectangle(JsonObject layer){
+        return "bitmap".equals(getString(layer, "type")) && getInt(layer, "round", 0) == 0;
+    }
+    
+    private static int alpha(JsonObject layer){
+        return alpha(layer.get("color"));
+    }
+    
+    /*
+     * Returns the alpha of colors in the "r, g, b" or "r, g, b, a" format, or -1 for other colors.
+     */
+    private static int alpha(JsonElement color){
+        if(color == null || !color.isJsonPrimitive())
+            return -1;
+        
+        String[] components = color.getAsString().split(",");
+        if(components.length != 3 && components.length != 4)
+            return -1;
+        
+        try{
+            for(String component : components)
+                Integer.parseInt(component.trim());
+            
+            return components.length == 3 ? 255 : Integer.parseInt(components[3].trim());
+        }catch(NumberFormatException ex){
+            return -1;
+        }
+    }
+    
+    private static void clean(JsonObject layer){
+        for(String flag : DISABLED_FLAGS){
+            if(layer.has(flag) && !getBoolean(layer, flag))
+                layer.remove(flag);
+        }
+        
+        if(getInt(layer, "round", -1) == 0)
+            layer.remove("round");
+    }
+    
+    private static int getInt(JsonObject object, String name, int fallback){
+        JsonElement element = object.get(name);
+        return element == null || !element.isJsonPrimitive() ? fallback : element.getAsInt();
+    }
+    
+    private static boolean getBoolean(JsonObject object, String name){
+        JsonElement element = object.get(name);
+        return element != null && element.isJsonPrimitive() && element.getAsBoolean();
+    }
+    
+    private static String getString(JsonObject object, String name){
+        JsonElement element = object.get(name);
+        return element == null || !element.isJsonPrimitive() ? null : element.getAsString();
+    }
+}
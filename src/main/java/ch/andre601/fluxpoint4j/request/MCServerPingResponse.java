@@ -1,5 +1,7 @@
 package ch.andre601.fluxpoint4j.request;
 
+import ch.andre601.fluxpoint4j.CheckUtil;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -20,6 +22,30 @@ public class MCServerPingResponse implements GenericAPIResponse{
     private String[] players;
     private String status;
     private String rawIcon;
+    private String software;
+    private String[] plugins;
+    
+    // No-Args constructor for Gson
+    public MCServerPingResponse(){}
+    
+    private MCServerPingResponse(int code, String message, boolean online, String icon, String motd, int playersOnline,
+                                 int playersMax, String version, boolean fullQuery, String[] players, String status,
+                                 String rawIcon, String software, String[] plugins){
+        this.code = code;
+        this.message = message;
+        this.online = online;
+        this.icon = icon;
+        this.motd = motd;
+        this.playersOnline = playersOnline;
+        this.playersMax = playersMax;
+        this.version = version;
+        this.fullQuery = fullQuery;
+        this.players = players;
+        this.status = status;
+        this.rawIcon = rawIcon;
+        this.software = software;
+        this.plugins = plugins;
+    }
     
     /**
      * {@inheritDoc}
@@ -150,4 +176,275 @@ public class MCServerPingResponse implements GenericAPIResponse{
     public String getRawIcon(){
         return rawIcon;
     }
+    
+    /**
+     * Returns the server software, such as {@code Paper on 1.19.2}.
+     * <br>This is only available when the server has been {@link ch.andre601.fluxpoint4j.mc.ServerQuerier queried directly}
+     * and reports its plugins.
+     * 
+     * @return Possibly-null String containing the server software.
+     */
+    @Nullable
+    public String getSoftware(){
+        return software;
+    }
+    
+    /**
+     * Gives you an Array of the plugins installed on the server, including their version (i.e. {@code WorldEdit 7.2.12}).
+     * <br>This is only available when the server has been {@link ch.andre601.fluxpoint4j.mc.ServerQuerier queried directly}
+     * and reports its plugins.
+     * 
+     * @return Possibly-empty String array containing the plugins of the server.
+     */
+    public String[] getPlugins(){
+        return plugins == null ? new String[0] : plugins;
+    }
+    
+    /**
+     * Creates a new {@link Builder Builder} with all values of this response applied to it.
+     * 
+     * @return New Builder instance based on this response.
+     */
+    public Builder toBuilder(){
+        return new Builder()
+            .withCode(code)
+            .withMessage(message)
+            .withOnline(online)
+            .withIcon(icon)
+            .withMotd(motd)
+            .withPlayersOnline(playersOnline)
+            .withMaxPlayers(playersMax)
+            .withVersion(version)
+            .withFullQuery(fullQuery)
+            .withPlayers(players == null ? new String[0] : players)
+            .withStatus(status)
+            .withRawIcon(rawIcon)
+            .withSoftware(software)
+            .withPlugins(getPlugins());
+    }
+    
+    /**
+     * Builder class to create a MCServerPingResponse without the Fluxpoint API, such as when
+     * {@link ch.andre601.fluxpoint4j.mc.ServerListPinger pinging a server directly}.
+     */
+    public static class Builder{
+        
+        private int code = 200;
+        private String message = null;
+        private boolean online = false;
+        private String icon = null;
+        private String motd = null;
+        private int playersOnline = 0;
+        private int playersMax = 0;
+        private String version = null;
+        private boolean fullQuery = false;
+        private String[] players = new String[0];
+        private String status = null;
+        private String rawIcon = null;
+        private String software = null;
+        private String[] plugins = new String[0];
+        
+        public Builder(){}
+        
+        /**
+         * Sets the status code of the response.
+         * <br>Default is 200.
+         * 
+         * @param  code
+         *         The status code.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withCode(int code){
+            this.code = code;
+            return this;
+        }
+        
+        /**
+         * Sets the message of the response.
+         * 
+         * @param  message
+         *         The message.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withMessage(@Nullable String message){
+            this.message = message;
+            return this;
+        }
+        
+        /**
+         * Sets whether the server is online.
+         * <br>Default is {@code false}.
+         * 
+         * @param  online
+         *         Whether the server is online.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withOnline(boolean online){
+            this.online = online;
+            return this;
+        }
+        
+        /**
+         * Sets the URL to the server's icon.
+         * 
+         * @param  icon
+         *         The URL to the icon.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withIcon(@Nullable String icon){
+            this.icon = icon;
+            return this;
+        }
+        
+        /**
+         * Sets the MOTD of the server.
+         * 
+         * @param  motd
+         *         The MOTD.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withMotd(@Nullable String motd){
+            this.motd = motd;
+            return this;
+        }
+        
+        /**
+         * Sets the amount of online players.
+         * 
+         * @param  playersOnline
+         *         The amount of online players.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withPlayersOnline(int playersOnline){
+            this.playersOnline = playersOnline;
+            return this;
+        }
+        
+        /**
+         * Sets the amount of players the server can accept.
+         * 
+         * @param  playersMax
+         *         The maximum amount of players.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withMaxPlayers(int playersMax){
+            this.playersMax = playersMax;
+            return this;
+        }
+        
+        /**
+         * Sets the version the server is running.
+         * 
+         * @param  version
+         *         The version.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withVersion(@Nullable String version){
+            this.version = version;
+            return this;
+        }
+        
+        /**
+         * Sets whether the response contains the full query.
+         * <br>Default is {@code false}.
+         * 
+         * @param  fullQuery
+         *         Whether the response contains the full query.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withFullQuery(boolean fullQuery){
+            this.fullQuery = fullQuery;
+            return this;
+        }
+        
+        /**
+         * Sets the names of the online players.
+         * <br>Default is an empty array.
+         * 
+         * @param  players
+         *         The names of the online players.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withPlayers(@NotNull String... players){
+            CheckUtil.notNull(players, "Players");
+            
+            this.players = players;
+            return this;
+        }
+        
+        /**
+         * Sets the status of the server.
+         * 
+         * @param  status
+         *         The status.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withStatus(@Nullable String status){
+            this.status = status;
+            return this;
+        }
+        
+        /**
+         * Sets the Base64-encoded icon of the server.
+         * 
+         * @param  rawIcon
+         *         The Base64-encoded icon.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withRawIcon(@Nullable String rawIcon){
+            this.rawIcon = rawIcon;
+            return this;
+        }
+        
+        /**
+         * Sets the software of the server.
+         * 
+         * @param  software
+         *         The server software.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withSoftware(@Nullable String software){
+            this.software = software;
+            return this;
+        }
+        
+        /**
+         * Sets the plugins installed on the server.
+         * <br>Default is an empty array.
+         * 
+         * @param  plugins
+         *         The plugins of the server.
+         * 
+         * @return This Builder instance. Useful for chaining.
+         */
+        public Builder withPlugins(@NotNull String... plugins){
+            CheckUtil.notNull(plugins, "Plugins");
+            
+            this.plugins = plugins;
+            return this;
+        }
+        
+        /**
+         * Creates a new {@link MCServerPingResponse MCServerPingResponse instance} using the values of this Builder.
+         * 
+         * @return New MCServerPingResponse instance.
+         */
+        public MCServerPingResponse build(){
+            return new MCServerPingResponse(code, message, online, icon, motd, playersOnline, playersMax, version,
+                fullQuery, players, status, rawIcon, software, plugins);
+        }
+    }
 }
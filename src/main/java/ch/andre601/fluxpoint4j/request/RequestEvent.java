@@ -0,0 +1,229 @@
+package ch.andre601.fluxpoint4j.request;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes a single request made to the Fluxpoint API, as passed to {@link RequestListener RequestListeners}.
+ * <br>Retries without compression are part of the same request, so the duration covers all of them.
+ */
+public final class RequestEvent{
+    
+    private final String endpoint;
+    private final String query;
+    private final String body;
+    private final long timestamp;
+    private final long duration;
+    private final int code;
+    private final long responseSize;
+    private final long encodeDuration;
+    private final long requestDuration;
+    private final long responseDuration;
+    
+    /**
+     * Creates a new RequestEvent without phase timings.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Endpoint is null or empty.</li>
+     *     <li>Duration is negative.</li>
+     * </ul>
+     * 
+     * @param endpoint
+     *        The endpoint the request was sent to, such as {@code /gen/custom}.
+     * @param query
+     *        The query of the request without leading {@code ?}, or null if it has none.
+     * @param body
+     *        The uncompressed JSON body of the request, or null if it has none.
+     * @param timestamp
+     *        The time the request was started at, in milliseconds since the epoch.
+     * @param duration
+     *        The time the request took, in nanoseconds.
+     * @param code
+     *        The HTTP status code of the response, or -1 if no response was received.
+     * @param responseSize
+     *        The size of the response body in bytes, or -1 if no response was received.
+     */
+    public RequestEvent(@NotNull String endpoint, @Nullable String query, @Nullable String body, long timestamp,
+                        long duration, int code, long responseSize){
+        this(endpoint, query, body, timestamp, duration, code, responseSize, -1, -1, -1);
+    }
+    
+    /**
+     * Creates a new RequestEvent.
+     * <br>Phase timings that are unknown are set to -1.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Endpoint is null or empty.</li>
+     *     <li>Duration is negative.</li>
+     * </ul>
+     * 
+     * @param endpoint
+     *        The endpoint the request was sent to, such as {@code /gen/custom}.
+     * @param query
+     *        The query of the request without leading {@code ?}, or null if it has none.
+     * @param body
+     *        The uncompressed JSON body of the request, or null if it has none.
+     * @param timestamp
+     *        The time the request was started at, in milliseconds since the epoch.
+     * @param duration
+     *        The time the request took, in nanoseconds.
+     * @param code
+     *        The HTTP status code of the response, or -1 if no response was received.
+     * @param responseSize
+     *        The size of the response body in bytes, or -1 if no response was received.
+     * @param encodeDuration
+     *        The time creating the body took before the request was started, in nanoseconds.
+     * @param requestDuration
+     *        The time until the response was received, in nanoseconds.
+     * @param responseDuration
+     *        The time reading the response body took, in nanoseconds.
+     */
+    public RequestEvent(@NotNull String endpoint, @Nullable String query, @Nullable String body, long timestamp,
+                        long duration, int code, long responseSize, long encodeDuration, long requestDuration,
+                        long responseDuration){
+        CheckUtil.notNullOrEmpty(endpoint, "Endpoint");
+        CheckUtil.check(duration >= 0, "Duration may not be negative.");
+        
+        this.endpoint = endpoint;
+        this.query = query;
+        this.body = body;
+        this.timestamp = timestamp;
+        this.duration = duration;
+        this.code = code;
+        this.responseSize = responseSize;
+        this.encodeDuration = encodeDuration;
+        this.requestDuration = requestDuration;
+        this.responseDuration = responseDuration;
+    }
+    
+    /**
+     * The endpoint the request was sent to, such as {@code /gen/custom} or {@code /mc/ping}.
+     * 
+     * @return The endpoint of the request.
+     */
+    @NotNull
+    public String getEndpoint(){
+        return endpoint;
+    }
+    
+    /**
+     * The query of the request without leading {@code ?}, such as {@code host=example.com&port=25565&icon=false}.
+     * 
+     * @return Possibly-null query of the request.
+     */
+    @Nullable
+    public String getQuery(){
+        return query;
+    }
+    
+    /**
+     * The JSON body of the request, as sent before compression.
+     * 
+     * @return Possibly-null body of the request.
+     */
+    @Nullable
+    public String getBody(){
+        return body;
+    }
+    
+    /**
+     * The time the request was started at.
+     * 
+     * @return The start of the request in milliseconds since the epoch.
+     */
+    public long getTimestamp(){
+        return timestamp;
+    }
+    
+    /**
+     * The time the request took, from sending it until the response body was read.
+     * 
+     * @param  unit
+     *         The TimeUnit to return the duration in.
+     * 
+     * @return The duration of the request in the provided TimeUnit.
+     */
+    public long getDuration(@NotNull TimeUnit unit){
+        return unit.convert(duration, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * The time creating the JSON body took, such as serializing, {@link LayerOptimizer optimizing} and
+     * {@link CanonicalJson canonically encoding} the image. It is not part of the {@link #getDuration(TimeUnit) duration}.
+     * 
+     * @param  unit
+     *         The TimeUnit to return the duration in.
+     * 
+     * @return The encoding duration in the provided TimeUnit, or -1 if unknown.
+     */
+    public long getEncodeDuration(@NotNull TimeUnit unit){
+        return convert(encodeDuration, unit);
+    }
+    
+    /**
+     * The time from sending the request until the status code and headers of the response were received, including
+     * any retries without compression.
+     * 
+     * @param  unit
+     *         The TimeUnit to return the duration in.
+     * 
+     * @return The request duration in the provided TimeUnit, or -1 if unknown.
+     */
+    public long getRequestDuration(@NotNull TimeUnit unit){
+        return convert(requestDuration, unit);
+    }
+    
+    /**
+     * The time reading the response body took.
+     * 
+     * @param  unit
+     *         The TimeUnit to return the duration in.
+     * 
+     * @return The response duration in the provided TimeUnit, or -1 if unknown or no response was received.
+     */
+    public long getResponseDuration(@NotNull TimeUnit unit){
+        return convert(responseDuration, unit);
+    }
+    
+    /**
+     * The HTTP status code of the response.
+     * 
+     * @return The status code of the response, or -1 if no response was received.
+     */
+    public int getCode(){
+        return code;
+    }
+    
+    /**
+     * The size of the response body.
+     * 
+     * @return The size of the response body in bytes, or -1 if no response was received.
+     */
+    public long getResponseSize(){
+        return responseSize;
+    }
+    
+    /**
+     * Whether the request was successful, meaning that the response had a 2xx status code.
+     * 
+     * @return True if the request was successful, otherwise false.
+     */
+    public boolean isSuccessful(){
+        return code >= 200 && code < 300;
+    }
+    
+    private static long convert(long duration, TimeUnit unit){
+        return duration < 0 ? -1 : unit.convert(duration, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public String toString(){
+        return getClass().getName() + "[endpoint=" + endpoint + ", code=" + code + ", duration="
+            + TimeUnit.NANOSECONDS.toMillis(duration) + "ms, responseSize=" + responseSize + "]";
+    }
+}
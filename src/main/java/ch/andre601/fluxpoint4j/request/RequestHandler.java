@@ -1,73 +1,295 @@
 package ch.andre601.fluxpoint4j.request;
 
 import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.jfr.ApiCallEvent;
+import ch.andre601.fluxpoint4j.jfr.FlightEvents;
 import ch.andre601.fluxpoint4j.util.ColorObject;
 import ch.andre601.fluxpoint4j.util.ColorObjectSerializer;
 import ch.andre601.fluxpoint4j.welcome.WelcomeImage;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
 import okhttp3.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 public class RequestHandler{
     
     public static final String BASE_URL = "https://api.fluxpoint.dev";
     
-    private final OkHttpClient CLIENT = new OkHttpClient();
+    private final OkHttpClient CLIENT;
     private final Gson GSON = new GsonBuilder()
         .registerTypeAdapter(ColorObject.class, new ColorObjectSerializer())
         .create();
     
+    private volatile String baseUrl = BASE_URL;
+    private volatile boolean optimizeLayers = false;
+    private volatile boolean canonicalJson = false;
+    private volatile int gzipThreshold = -1;
+    private volatile boolean gzipRejected = false;
+    
+    private final List<RequestListener> listeners = new CopyOnWriteArrayList<>();
+    
+    private static final ThreadLocal<Long> QUEUED_AT = new ThreadLocal<>();
+    
+    public RequestHandler(){
+        this(new CachingDns());
+    }
+    
+    public RequestHandler(Dns dns){
+        this.CLIENT = new OkHttpClient.Builder()
+            .dns(dns)
+            .build();
+    }
+    
+    public void setBaseUrl(String baseUrl){
+        this.baseUrl = baseUrl;
+    }
+    
+    public void setOptimizeLayers(boolean optimizeLayers){
+        this.optimizeLayers = optimizeLayers;
+    }
+    
+    public void setCanonicalJson(boolean canonicalJson){
+        this.canonicalJson = canonicalJson;
+    }
+    
+    public void setGzipThreshold(int gzipThreshold){
+        this.gzipThreshold = gzipThreshold;
+    }
+    
     public GenericAPIResponse getCustomImage(String token, CustomImage image){
-        return getImage(token, "/gen/custom", GSON.toJson(image));
+        long encodeStart = System.nanoTime();
+        if(optimizeLayers || canonicalJson)
+            return getCustomImage(token, toJson(image), encodeStart);
+        
+        String json = GSON.toJson(image);
+        return getImage(token, "/gen/custom", json, System.nanoTime() - encodeStart);
+    }
+    
+    public GenericAPIResponse getCustomImage(String token, JsonObject json){
+        return getCustomImage(token, json, System.nanoTime());
+    }
+    
+    private GenericAPIResponse getCustomImage(String token, JsonObject json, long encodeStart){
+        JsonObject body = optimizeLayers ? LayerOptimizer.optimize(json) : json;
+        String encoded = canonicalJson ? CanonicalJson.encode(body) : body.toString();
+        return getImage(token, "/gen/custom", encoded, System.nanoTime() - encodeStart);
+    }
+    
+    public JsonObject toJson(CustomImage image){
+        return GSON.toJsonTree(image).getAsJsonObject();
     }
     
     public GenericAPIResponse getWelcomeImage(String token, WelcomeImage image){
-        return getImage(token, "/gen/welcome", GSON.toJson(image));
+        long encodeStart = System.nanoTime();
+        String json = GSON.toJson(image);
+        return getImage(token, "/gen/welcome", json, System.nanoTime() - encodeStart);
+    }
+    
+    public GenericAPIResponse getWelcomeImage(String token, JsonObject json){
+        long encodeStart = System.nanoTime();
+        String encoded = json.toString();
+        return getImage(token, "/gen/welcome", encoded, System.nanoTime() - encodeStart);
     }
     
     public GenericAPIResponse getMcServerResponse(String token, String server, int port, boolean withIcon){
+        String query = String.format("host=%s&port=%d&icon=%b", server, port, withIcon);
         Request request = new Request.Builder()
-            .url(String.format("%s/mc/ping?host=%s&port=%d&icon=%b", BASE_URL, server, port, withIcon))
+            .url(baseUrl + "/mc/ping?" + query)
             .addHeader("Authorization", token)
             .build();
         
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        ApiCallEvent event = FlightEvents.apiCall();
+        Exchange exchange;
         try(Response response = CLIENT.newCall(request).execute()){
+            long responseAt = System.nanoTime();
             ResponseBody responseBody = response.body();
-            if(responseBody == null)
-                return new FailedAPIResponse("API returned a null/invalid Body!");
-            
-            if(!response.isSuccessful())
-                return GSON.fromJson(responseBody.string(), FailedAPIResponse.class);
-            
-            return GSON.fromJson(responseBody.string(), MCServerPingResponse.class);
+            if(responseBody == null){
+                exchange = new Exchange(new FailedAPIResponse("API returned a null/invalid Body!"), response.code(), -1);
+            }else{
+                byte[] body = responseBody.bytes();
+                String json = new String(body, StandardCharsets.UTF_8);
+                exchange = new Exchange(response.isSuccessful()
+                    ? GSON.fromJson(json, MCServerPingResponse.class)
+                    : GSON.fromJson(json, FailedAPIResponse.class), response.code(), body.length);
+            }
+            exchange.receivedAt(responseAt);
         }catch(IOException ex){
-            return new FailedAPIResponse("Encountered IOException: " + ex.getMessage());
+            exchange = new Exchange(new FailedAPIResponse("Encountered IOException: " + ex.getMessage()), -1, -1);
+        }
+        
+        if(event.shouldCommit())
+            event.commit("/mc/ping", 0, exchange.code, exchange.size, queueWait(start), false, false);
+        
+        notifyListeners("/mc/ping", query, null, timestamp, -1, start, exchange);
+        return exchange.response;
+    }
+    
+    /**
+     * Wraps a supplier that is run asynchronously, so that the time it waited to be run is recorded as the queue wait
+     * of the first request it performs.
+     * 
+     * @param  supplier
+     *         The supplier to wrap.
+     * @param  <T>
+     *         The type returned by the supplier.
+     * 
+     * @return The wrapped supplier.
+     */
+    public static <T> Supplier<T> queued(Supplier<T> supplier){
+        long queuedAt = System.nanoTime();
+        return () -> {
+            QUEUED_AT.set(queuedAt);
+            try{
+                return supplier.get();
+            }finally{
+                QUEUED_AT.remove();
+            }
+        };
+    }
+    
+    public void addRequestListener(RequestListener listener){
+        listeners.add(listener);
+    }
+    
+    public void removeRequestListener(RequestListener listener){
+        listeners.remove(listener);
+    }
+    
+    private GenericAPIResponse getImage(String token, String endpoint, String json, long encodeDuration){
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        ApiCallEvent event = FlightEvents.apiCall();
+        
+        Exchange exchange;
+        int threshold = gzipThreshold;
+        boolean compressed = threshold >= 0 && !gzipRejected && json.length() > threshold;
+        boolean retried = false;
+        if(!compressed){
+            exchange = getImage(token, endpoint, json, false);
+        }else{
+            exchange = getImage(token, endpoint, json, true);
+            if(exchange.rejected){
+                retried = true;
+                gzipRejected = true;
+                exchange = getImage(token, endpoint, json, false);
+            }
         }
+        
+        if(event.shouldCommit())
+            event.commit(endpoint, json.getBytes(StandardCharsets.UTF_8).length, exchange.code, exchange.size,
+                queueWait(start), compressed, retried);
+        
+        notifyListeners(endpoint, null, json, timestamp, encodeDuration, start, exchange);
+        return exchange.response;
     }
     
-    private GenericAPIResponse getImage(String token, String endpoint, String json){
-        RequestBody requestBody = RequestBody.create(json, null);
+    private Exchange getImage(String token, String endpoint, String json, boolean gzip){
+        RequestBody requestBody = gzip ? new GzipRequestBody(json, null) : RequestBody.create(json, null);
         
-        Request request = new Request.Builder()
-            .url(BASE_URL + endpoint)
+        Request.Builder builder = new Request.Builder()
+            .url(baseUrl + endpoint)
             .addHeader("Authorization", token)
             .addHeader("Content-Type", "application/json")
-            .post(requestBody)
-            .build();
+            .post(requestBody);
+        if(gzip)
+            builder.addHeader("Content-Encoding", "gzip");
         
-        try(Response response = CLIENT.newCall(request).execute()){
+        try(Response response = CLIENT.newCall(builder.build()).execute()){
+            long responseAt = System.nanoTime();
+            // A 400 may just as well be an invalid image, so only 415 is blamed on the compression.
+            if(gzip && response.code() == 415)
+                return Exchange.rejected(response.code());
+            
             ResponseBody responseBody = response.body();
             if(responseBody == null)
-                return new FailedAPIResponse("API returned a null/invalid Body!");
+                return new Exchange(new FailedAPIResponse("API returned a null/invalid Body!"), response.code(), -1)
+                    .receivedAt(responseAt);
             
+            // The body has to be read before the response is closed.
+            byte[] body = responseBody.bytes();
             if(!response.isSuccessful())
-                return GSON.fromJson(responseBody.string(), FailedAPIResponse.class);
+                return new Exchange(GSON.fromJson(new String(body, StandardCharsets.UTF_8), FailedAPIResponse.class),
+                    response.code(), body.length).receivedAt(responseAt);
             
-            return new GeneratedImage(responseBody.byteStream());
+            return new Exchange(new GeneratedImage(new ByteArrayInputStream(body)), response.code(), body.length)
+                .receivedAt(responseAt);
         }catch(IOException ex){
-            return new FailedAPIResponse("Encountered IOException: " + ex.getMessage());
+            return new Exchange(new FailedAPIResponse("Encountered IOException: " + ex.getMessage()), -1, -1);
+        }
+    }
+    
+    private static long queueWait(long start){
+        Long queuedAt = QUEUED_AT.get();
+        if(queuedAt == null)
+            return 0;
+        
+        // Only the first request of a queued task waited in the queue.
+        QUEUED_AT.remove();
+        return start - queuedAt;
+    }
+    
+    private void notifyListeners(String endpoint, String query, String body, long timestamp, long encodeDuration,
+                                 long start, Exchange exchange){
+        if(listeners.isEmpty())
+            return;
+        
+        long end = System.nanoTime();
+        long requestDuration = exchange.received ? exchange.responseAt - start : end - start;
+        long responseDuration = exchange.received ? end - exchange.responseAt : -1;
+        RequestEvent event = new RequestEvent(endpoint, query, body, timestamp, end - start, exchange.code,
+            exchange.size, encodeDuration, requestDuration, responseDuration);
+        for(RequestListener listener : listeners){
+            try{
+                listener.onRequest(event);
+            }catch(RuntimeException ignored){
+                // A failing listener shouldn't fail the request or prevent other listeners from being called.
+            }
+        }
+    }
+    
+    /*
+     * Response of a single HTTP request, together with the status code, body size and the time the response was
+     * received at for the RequestListeners.
+     * Rejected exchanges are compressed requests answered with 415, which are retried without compression.
+     */
+    private static class Exchange{
+        
+        private final GenericAPIResponse response;
+        private final int code;
+        private final long size;
+        private final boolean rejected;
+        
+        private boolean received = false;
+        private long responseAt;
+        
+        private Exchange(GenericAPIResponse response, int code, long size){
+            this(response, code, size, false);
+        }
+        
+        private Exchange(GenericAPIResponse response, int code, long size, boolean rejected){
+            this.response = response;
+            this.code = code;
+            this.size = size;
+            this.rejected = rejected;
+        }
+        
+        private static Exchange rejected(int code){
+            return new Exchange(null, code, -1, true);
+        }
+        
+        private Exchange receivedAt(long responseAt){
+            this.received = true;
+            this.responseAt = responseAt;
+            return this;
         }
     }
 }
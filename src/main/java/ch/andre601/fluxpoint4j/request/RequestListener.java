@@ -0,0 +1,21 @@
+package ch.andre601.fluxpoint4j.request;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listener notified about every request made to the Fluxpoint API, such as the
+ * {@link ch.andre601.fluxpoint4j.traffic.TrafficRecorder TrafficRecorder}.
+ * <br>Listeners are called on the thread that made the request, right after it completed, and should therefore return
+ * quickly. Exceptions thrown by a listener are ignored.
+ */
+@FunctionalInterface
+public interface RequestListener{
+    
+    /**
+     * Called after a request to the Fluxpoint API completed, whether successful or not.
+     * 
+     * @param event
+     *        The {@link RequestEvent RequestEvent} describing the request.
+     */
+    void onRequest(@NotNull RequestEvent event);
+}
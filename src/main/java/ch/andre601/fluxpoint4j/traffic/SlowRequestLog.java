@@ -0,0 +1,387 @@
+package ch.andre601.fluxpoint4j.traffic;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.HashUtil;
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.request.CanonicalJson;
+import ch.andre601.fluxpoint4j.request.RequestEvent;
+import ch.andre601.fluxpoint4j.request.RequestListener;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RequestListener RequestListener} keeping the most recent requests to {@code /gen/custom} that took longer
+ * than a threshold, to find out which images are slow to generate.
+ * <br>Add it using {@link ch.andre601.fluxpoint4j.Fluxpoint4J#addRequestListener(RequestListener) addRequestListener}
+ * and use {@link #dump() dump} to get the captured requests.
+ * 
+ * <p>Every {@link Entry Entry} contains the hash of the canonical JSON of the image, which is the same for equal images
+ * no matter how they were built, together with its layers, canvas size, body size and phase timings.
+ * <br>Requests faster than the threshold are only compared against it, so the log can stay registered in production.
+ */
+public class SlowRequestLog implements RequestListener{
+    
+    private static final int DEFAULT_BASE_SIZE = new Image.Rectangle().getWidth();
+    private static final int DEFAULT_RADIUS = new Image.Circle().getRadius();
+    
+    private final long threshold;
+    private final Entry[] entries;
+    
+    private int next = 0;
+    private int size = 0;
+    
+    /**
+     * Creates a new SlowRequestLog keeping up to {@code capacity} requests that took longer than the provided
+     * threshold. Once full, the oldest request is replaced by the next slow one.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Threshold is negative.</li>
+     *     <li>TimeUnit is null.</li>
+     *     <li>Capacity is less than 1.</li>
+     * </ul>
+     * 
+     * @param threshold
+     *        The duration a request has to exceed to be captured.
+     * @param unit
+     *        The TimeUnit of the threshold.
+     * @param capacity
+     *        The amount of requests to keep.
+     */
+    public SlowRequestLog(long threshold, @NotNull TimeUnit unit, int capacity){
+        CheckUtil.check(threshold >= 0, "Threshold may not be negative.");
+        CheckUtil.notNull(unit, "TimeUnit");
+        CheckUtil.check(capacity >= 1, "Capacity may not be less than 1.");
+        
+        this.threshold = unit.toNanos(threshold);
+        this.entries = new Entry[capacity];
+    }
+    
+    /**
+     * Captures the provided request if it was sent to {@code /gen/custom} and took longer than the threshold.
+     * 
+     * @param event
+     *        The completed request.
+     */
+    @Override
+    public void onRequest(@NotNull RequestEvent event){
+        if(event.getDuration(TimeUnit.NANOSECONDS) <= threshold)
+            return;
+        if(!event.getEndpoint().equals("/gen/custom") || event.getBody() == null)
+            return;
+        
+        Entry entry = Entry.of(event);
+        synchronized(entries){
+            entries[next] = entry;
+            next = (next + 1) % entries.length;
+            size = Math.min(size + 1, entries.length);
+        }
+    }
+    
+    /**
+     * Returns the captured requests, from the oldest to the most recent one.
+     * <br>The log isn't cleared by this, use {@link #clear() clear} for that.
+     * 
+     * @return Unmodifiable List of the captured requests.
+     */
+    @NotNull
+    public List<Entry> dump(){
+        List<Entry> result = new ArrayList<>(entries.length);
+        synchronized(entries){
+            int oldest = (next - size + entries.length) % entries.length;
+            for(int i = 0; i < size; i++)
+                result.add(entries[(oldest + i) % entries.length]);
+        }
+        
+        return Collections.unmodifiableList(result);
+    }
+    
+    /**
+     * Writes the captured requests into the provided file, replacing any existing content.
+     * <br>Each request is written as a single line of JSON, from the oldest to the most recent one.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Path is null.</li>
+     * </ul>
+     * 
+     * @param  file
+     *         The file to write the requests into.
+     * 
+     * @throws IOException
+     *         When the file couldn't be written.
+     */
+    public void dump(@NotNull Path file) throws IOException{
+        CheckUtil.notNull(file, "Path");
+        
+        try(BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)){
+            for(Entry entry : dump()){
+                writer.write(entry.toJson().toString());
+                writer.newLine();
+            }
+        }
+    }
+    
+    /**
+     * Removes all captured requests.
+     */
+    public void clear(){
+        synchronized(entries){
+            Arrays.fill(entries, null);
+            next = 0;
+            size = 0;
+        }
+    }
+    
+    /**
+     * A single request captured by a {@link SlowRequestLog SlowRequestLog}.
+     */
+    public static final class Entry{
+        
+        private final long timestamp;
+        private final String hash;
+        private final Map<String, Integer> layers;
+        private final int width;
+        private final int height;
+        private final int bodySize;
+        private final int code;
+        private final long duration;
+        private final long encodeDuration;
+        private final long requestDuration;
+        private final long responseDuration;
+        
+        private Entry(RequestEvent event, String hash, Map<String, Integer> layers, int width, int height, int bodySize){
+            this.timestamp = event.getTimestamp();
+            this.hash = hash;
+            this.layers = Collections.unmodifiableMap(layers);
+            this.width = width;
+            this.height = height;
+            this.bodySize = bodySize;
+            this.code = event.getCode();
+            this.duration = event.getDuration(TimeUnit.NANOSECONDS);
+            this.encodeDuration = event.getEncodeDuration(TimeUnit.NANOSECONDS);
+            this.requestDuration = event.getRequestDuration(TimeUnit.NANOSECONDS);
+            this.responseDuration = event.getResponseDuration(TimeUnit.NANOSECONDS);
+        }
+        
+        private static Entry of(RequestEvent event){
+            String body = event.getBody();
+            JsonObject json = JsonParser.parseString(body).getAsJsonObject();
+            
+            Map<String, Integer> layers = new LinkedHashMap<>();
+            int width = -1;
+            int height = -1;
+            
+            JsonElement base = json.get("base");
+            if(base != null && base.isJsonObject()){
+                JsonObject image = base.getAsJsonObject();
+                count(layers, getString(image, "type", "unknown"));
+                if("circle".equals(getString(image, "type", null))){
+                    width = height = getInt(image, "radius", DEFAULT_RADIUS) * 2;
+                }else{
+                    width = getInt(image, "width", DEFAULT_BASE_SIZE);
+                    height = getInt(image, "height", DEFAULT_BASE_SIZE);
+                }
+            }
+            
+            for(JsonElement image : getArray(json, "images"))
+                count(layers, image.isJsonObject() ? getString(image.getAsJsonObject(), "type", "unknown") : "unknown");
+            for(JsonElement ignored : getArray(json, "texts"))
+                count(layers, "text");
+            
+            return new Entry(event, HashUtil.sha256Hex(CanonicalJson.encode(json)), layers, width, height,
+                body.getBytes(StandardCharsets.UTF_8).length);
+        }
+        
+        /**
+         * The time the request was started at.
+         * 
+         * @return The start of the request in milliseconds since the epoch.
+         */
+        public long getTimestamp(){
+            return timestamp;
+        }
+        
+        /**
+         * The SHA-256 hash of the {@link CanonicalJson canonical JSON} of the image, as hexadecimal String.
+         * <br>Requests for equal images have the same hash, no matter in which order the settings of their layers were
+         * made. Adding the layers themselves in a different order results in a different hash.
+         * 
+         * @return The hash of the requested image.
+         */
+        @NotNull
+        public String getHash(){
+            return hash;
+        }
+        
+        /**
+         * The amount of layers by their type, such as {@code bitmap}, {@code url}, {@code circle}, {@code triangle}
+         * or {@code text}. The base is counted as a layer too.
+         * 
+         * @return Unmodifiable Map of the layer types and their amounts.
+         */
+        @NotNull
+        public Map<String, Integer> getLayerCounts(){
+            return layers;
+        }
+        
+        /**
+         * The width of the canvas, given by the base image.
+         * 
+         * @return The width of the canvas, or -1 if the request had no base.
+         */
+        public int getWidth(){
+            return width;
+        }
+        
+        /**
+         * The height of the canvas, given by the base image.
+         * 
+         * @return The height of the canvas, or -1 if the request had no base.
+         */
+        public int getHeight(){
+            return height;
+        }
+        
+        /**
+         * The size of the JSON body of the request before compression.
+         * 
+         * @return The size of the body in bytes.
+         */
+        public int getBodySize(){
+            return bodySize;
+        }
+        
+        /**
+         * The HTTP status code of the response.
+         * 
+         * @return The status code of the response, or -1 if no response was received.
+         */
+        public int getCode(){
+            return code;
+        }
+        
+        /**
+         * The time the request took.
+         * 
+         * @param  unit
+         *         The TimeUnit to return the duration in.
+         * 
+         * @return The duration of the request in the provided TimeUnit.
+         * 
+         * @see RequestEvent#getDuration(TimeUnit) RequestEvent.getDuration(TimeUnit)
+         */
+        public long getDuration(@NotNull TimeUnit unit){
+            return unit.convert(duration, TimeUnit.NANOSECONDS);
+        }
+        
+        /**
+         * The time creating the JSON body took.
+         * 
+         * @param  unit
+         *         The TimeUnit to return the duration in.
+         * 
+         * @return The encoding duration in the provided TimeUnit, or -1 if unknown.
+         * 
+         * @see RequestEvent#getEncodeDuration(TimeUnit) RequestEvent.getEncodeDuration(TimeUnit)
+         */
+        public long getEncodeDuration(@NotNull TimeUnit unit){
+            return convert(encodeDuration, unit);
+        }
+        
+        /**
+         * The time until the response was received.
+         * 
+         * @param  unit
+         *         The TimeUnit to return the duration in.
+         * 
+         * @return The request duration in the provided TimeUnit, or -1 if unknown.
+         * 
+         * @see RequestEvent#getRequestDuration(TimeUnit) RequestEvent.getRequestDuration(TimeUnit)
+         */
+        public long getRequestDuration(@NotNull TimeUnit unit){
+            return convert(requestDuration, unit);
+        }
+        
+        /**
+         * The time reading the response body took.
+         * 
+         * @param  unit
+         *         The TimeUnit to return the duration in.
+         * 
+         * @return The response duration in the provided TimeUnit, or -1 if unknown.
+         * 
+         * @see RequestEvent#getResponseDuration(TimeUnit) RequestEvent.getResponseDuration(TimeUnit)
+         */
+        public long getResponseDuration(@NotNull TimeUnit unit){
+            return convert(responseDuration, unit);
+        }
+        
+        private JsonObject toJson(){
+            JsonObject json = new JsonObject();
+            json.addProperty("timestamp", timestamp);
+            json.addProperty("hash", hash);
+            
+            JsonObject counts = new JsonObject();
+            for(Map.Entry<String, Integer> layer : layers.entrySet())
+                counts.addProperty(layer.getKey(), layer.getValue());
+            json.add("layers", counts);
+            
+            json.addProperty("width", width);
+            json.addProperty("height", height);
+            json.addProperty("bodySize", bodySize);
+            json.addProperty("code", code);
+            json.addProperty("duration", duration);
+            json.addProperty("encodeDuration", encodeDuration);
+            json.addProperty("requestDuration", requestDuration);
+            json.addProperty("responseDuration", responseDuration);
+            return json;
+        }
+        
+        @Override
+        public String toString(){
+            return getClass().getName() + "[hash=" + hash + ", layers=" + layers + ", width=" + width + ", height="
+                + height + ", bodySize=" + bodySize + ", code=" + code + ", duration="
+                + TimeUnit.NANOSECONDS.toMillis(duration) + "ms]";
+        }
+        
+        private static long convert(long duration, TimeUnit unit){
+            return duration < 0 ? -1 : unit.convert(duration, TimeUnit.NANOSECONDS);
+        }
+        
+        private static void count(Map<String, Integer> layers, String type){
+            layers.merge(type, 1, Integer::sum);
+        }
+        
+        private static String getString(JsonObject json, String name, String fallback){
+            JsonElement element = json.get(name);
+            return element == null || !element.isJsonPrimitive() ? fallback : element.getAsString();
+        }
+        
+        private static int getInt(JsonObject json, String name, int fallback){
+            JsonElement element = json.get(name);
+            return element == null || !element.isJsonPrimitive() ? fallback : element.getAsInt();
+        }
+        
+        private static JsonArray getArray(JsonObject json, String name){
+            JsonElement element = json.get(name);
+            return element == null || !element.isJsonArray() ? new JsonArray() : element.getAsJsonArray();
+        }
+    }
+}
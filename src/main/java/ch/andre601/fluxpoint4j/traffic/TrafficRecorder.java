@@ -0,0 +1,182 @@
+package ch.andre601.fluxpoint4j.traffic;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.request.RequestEvent;
+import ch.andre601.fluxpoint4j.request.RequestListener;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RequestListener RequestListener} writing every request made to the Fluxpoint API into a file, to be replayed
+ * later using a {@link TrafficReplayer TrafficReplayer}.
+ * <br>Add it using {@link ch.andre601.fluxpoint4j.Fluxpoint4J#addRequestListener(RequestListener) addRequestListener}
+ * and make sure to {@link #close() close} it once recording should stop.
+ * 
+ * <p>Each request is written as a single line of JSON, containing endpoint, query, body, timestamp, duration, status
+ * code and response size. The API token is never recorded, but the bodies contain all the data of the images.
+ * <br>Lines are buffered, so use {@link #flush() flush} to make sure all recorded requests are written.
+ */
+public class TrafficRecorder implements RequestListener, Closeable{
+    
+    private final BufferedWriter writer;
+    
+    private boolean closed = false;
+    private IOException failure = null;
+    
+    /**
+     * Creates a new TrafficRecorder writing into the provided file, replacing any existing content.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Path is null.</li>
+     * </ul>
+     * 
+     * @param  file
+     *         The file to write the requests into.
+     * 
+     * @throws IOException
+     *         When the file couldn't be opened.
+     */
+    public TrafficRecorder(@NotNull Path file) throws IOException{
+        CheckUtil.notNull(file, "Path");
+        
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Reads all requests recorded in the provided file, in the order they were recorded.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Path is null.</li>
+     * </ul>
+     * 
+     * @param  file
+     *         The file to read the requests from.
+     * 
+     * @return List of the recorded requests.
+     * 
+     * @throws IOException
+     *         When the file couldn't be read or contains invalid lines.
+     */
+    @NotNull
+    public static List<RequestEvent> read(@NotNull Path file) throws IOException{
+        CheckUtil.notNull(file, "Path");
+        
+        List<RequestEvent> events = new ArrayList<>();
+        try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)){
+            String line;
+            int number = 0;
+            while((line = reader.readLine()) != null){
+                number++;
+                if(line.isEmpty())
+                    continue;
+                
+                try{
+                    events.add(fromJson(JsonParser.parseString(line).getAsJsonObject()));
+                }catch(JsonParseException | IllegalStateException | IllegalArgumentException | NullPointerException ex){
+                    throw new IOException("Invalid recording in line " + number + ": " + ex.getMessage(), ex);
+                }
+            }
+        }
+        
+        return events;
+    }
+    
+    /**
+     * Writes the provided request into the file.
+     * <br>Requests made after the recorder has been closed are ignored.
+     * 
+     * @param event
+     *        The request to record.
+     */
+    @Override
+    public synchronized void onRequest(@NotNull RequestEvent event){
+        if(closed || failure != null)
+            return;
+        
+        try{
+            writer.write(toJson(event).toString());
+            writer.newLine();
+        }catch(IOException ex){
+            // Listeners can't throw, so the failure is reported by flush() and close().
+            failure = ex;
+        }
+    }
+    
+    /**
+     * Writes all buffered requests into the file.
+     * 
+     * @throws IOException
+     *         When writing any of the recorded requests failed.
+     */
+    public synchronized void flush() throws IOException{
+        checkFailure();
+        if(!closed)
+            writer.flush();
+    }
+    
+    /**
+     * Writes all buffered requests and closes the file. Following requests are no longer recorded.
+     * 
+     * @throws IOException
+     *         When writing any of the recorded requests failed.
+     */
+    @Override
+    public synchronized void close() throws IOException{
+        if(closed)
+            return;
+        
+        closed = true;
+        writer.close();
+        checkFailure();
+    }
+    
+    private void checkFailure() throws IOException{
+        if(failure != null)
+            throw new IOException("Recording requests failed: " + failure.getMessage(), failure);
+    }
+    
+    private static JsonObject toJson(RequestEvent event){
+        JsonObject json = new JsonObject();
+        json.addProperty("endpoint", event.getEndpoint());
+        json.addProperty("query", event.getQuery());
+        json.addProperty("body", event.getBody());
+        json.addProperty("timestamp", event.getTimestamp());
+        json.addProperty("duration", event.getDuration(TimeUnit.NANOSECONDS));
+        json.addProperty("code", event.getCode());
+        json.addProperty("responseSize", event.getResponseSize());
+        return json;
+    }
+    
+    private static RequestEvent fromJson(JsonObject json){
+        return new RequestEvent(
+            json.get("endpoint").getAsString(),
+            getString(json, "query"),
+            getString(json, "body"),
+            json.get("timestamp").getAsLong(),
+            json.get("duration").getAsLong(),
+            json.get("code").getAsInt(),
+            json.get("responseSize").getAsLong()
+        );
+    }
+    
+    private static String getString(JsonObject json, String name){
+        JsonElement element = json.get(name);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+}
@@ -0,0 +1,236 @@
+package ch.andre601.fluxpoint4j.traffic;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.RequestEvent;
+import ch.andre601.fluxpoint4j.request.RequestHandler;
+import ch.andre601.fluxpoint4j.request.RequestListener;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays requests recorded by a {@link TrafficRecorder TrafficRecorder}, usually against a local stand-in of the
+ * Fluxpoint API, to benchmark changes of the client with real traffic.
+ * 
+ * <p>Requests are started at the same intervals as they were recorded at, or faster when a speed is provided, and run
+ * concurrently just like the recorded ones did. They are sent through the {@link RequestHandler RequestHandler} of the
+ * {@link ch.andre601.fluxpoint4j.Fluxpoint4J Fluxpoint4J} instance, meaning that its settings, such as layer
+ * optimization or compression, are applied to the recorded bodies.
+ * <br>Supported are requests to {@code /gen/custom}, {@code /gen/welcome} and {@code /mc/ping}.
+ */
+public class TrafficReplayer{
+    
+    private final String token;
+    private final RequestHandler handler;
+    
+    private final ThreadLocal<RequestEvent[]> capture = new ThreadLocal<>();
+    private final RequestListener listener = event -> {
+        RequestEvent[] slot = capture.get();
+        if(slot != null)
+            slot[0] = event;
+    };
+    
+    /**
+     * Creates a new TrafficReplayer.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>RequestHandler is null.</li>
+     * </ul>
+     * 
+     * @param token
+     *        The API token to use.
+     * @param handler
+     *        The RequestHandler to perform the requests with.
+     */
+    public TrafficReplayer(String token, @NotNull RequestHandler handler){
+        CheckUtil.notNull(handler, "RequestHandler");
+        
+        this.token = token;
+        this.handler = handler;
+    }
+    
+    /**
+     * Replays the provided requests with their recorded intervals and waits for all of them to complete.
+     * 
+     * @param  events
+     *         The recorded requests to replay.
+     * 
+     * @return List of the replayed requests, in the same order as the provided ones.
+     * 
+     * @throws InterruptedException
+     *         When the thread was interrupted while replaying.
+     * 
+     * @see #replay(List, double) replay(List, double)
+     */
+    @NotNull
+    public List<RequestEvent> replay(@NotNull List<RequestEvent> events) throws InterruptedException{
+        return replay(events, 1);
+    }
+    
+    /**
+     * Replays the provided requests with their recorded intervals divided by the speed and waits for all of them to
+     * complete.
+     * <br>A speed of 2 replays the requests twice as fast, while {@link Double#POSITIVE_INFINITY POSITIVE_INFINITY}
+     * starts all requests at once.
+     * 
+     * <p>The returned requests contain the duration, status code and response size of the replay, while the bodies
+     * are the ones that were sent during the replay.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Events is null or contains null.</li>
+     *     <li>Speed is not larger than 0.</li>
+     *     <li>An event has an unsupported endpoint or is missing its body or query.</li>
+     * </ul>
+     * 
+     * @param  events
+     *         The recorded requests to replay.
+     * @param  speed
+     *         The factor to speed up the replay by.
+     * 
+     * @return List of the replayed requests, in the same order as the provided ones.
+     * 
+     * @throws InterruptedException
+     *         When the thread was interrupted while replaying.
+     */
+    @NotNull
+    public List<RequestEvent> replay(@NotNull List<RequestEvent> events, double speed) throws InterruptedException{
+        CheckUtil.notNull(events, "Events");
+        CheckUtil.check(speed > 0, "Speed has to be larger than 0.");
+        for(RequestEvent event : events){
+            CheckUtil.notNull(event, "Event");
+            validate(event);
+        }
+        
+        // Events are recorded once completed, so they have to be sorted by their start to replay them in order.
+        Integer[] order = new Integer[events.size()];
+        for(int i = 0; i < order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, Comparator.comparingLong(index -> events.get(index).getTimestamp()));
+        
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "Fluxpoint4J-TrafficReplayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        handler.addRequestListener(listener);
+        try{
+            List<Future<RequestEvent>> futures = new ArrayList<>(Collections.<Future<RequestEvent>>nCopies(events.size(), null));
+            long start = System.nanoTime();
+            long first = order.length == 0 ? 0 : events.get(order[0]).getTimestamp();
+            for(int index : order){
+                RequestEvent event = events.get(index);
+                long delay = (long)(TimeUnit.MILLISECONDS.toNanos(event.getTimestamp() - first) / speed);
+                long wait = start + delay - System.nanoTime();
+                if(wait > 0)
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                
+                futures.set(index, executor.submit(() -> perform(event)));
+            }
+            
+            List<RequestEvent> results = new ArrayList<>(futures.size());
+            for(Future<RequestEvent> future : futures){
+                try{
+                    results.add(future.get());
+                }catch(ExecutionException ex){
+                    throw new IllegalStateException("Replaying request failed: " + ex.getCause().getMessage(), ex.getCause());
+                }
+            }
+            
+            return results;
+        }finally{
+            handler.removeRequestListener(listener);
+            executor.shutdownNow();
+        }
+    }
+    
+    private RequestEvent perform(RequestEvent event){
+        RequestEvent[] slot = new RequestEvent[1];
+        capture.set(slot);
+        
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        GenericAPIResponse response;
+        try{
+            switch(event.getEndpoint()){
+                case "/gen/custom":
+                    response = handler.getCustomImage(token, parseBody(event));
+                    break;
+                
+                case "/gen/welcome":
+                    response = handler.getWelcomeImage(token, parseBody(event));
+                    break;
+                
+                default:
+                    Map<String, String> query = parseQuery(event.getQuery());
+                    response = handler.getMcServerResponse(token, query.get("host"), Integer.parseInt(query.get("port")),
+                        Boolean.parseBoolean(query.get("icon")));
+            }
+        }finally{
+            capture.remove();
+        }
+        
+        if(slot[0] != null)
+            return slot[0];
+        
+        // Only happens if the listener has been removed from the RequestHandler during the replay.
+        return new RequestEvent(event.getEndpoint(), event.getQuery(), event.getBody(), timestamp,
+            System.nanoTime() - start, response.getCode(), -1);
+    }
+    
+    private static void validate(RequestEvent event){
+        switch(event.getEndpoint()){
+            case "/gen/custom":
+            case "/gen/welcome":
+                CheckUtil.check(event.getBody() != null, "Request to " + event.getEndpoint() + " is missing its body.");
+                break;
+            
+            case "/mc/ping":
+                Map<String, String> query = parseQuery(event.getQuery());
+                CheckUtil.check(query.containsKey("host") && query.containsKey("port"), "Request to /mc/ping is missing host or port.");
+                try{
+                    Integer.parseInt(query.get("port"));
+                }catch(NumberFormatException ex){
+                    throw new IllegalArgumentException("Request to /mc/ping has an invalid port.");
+                }
+                break;
+            
+            default:
+                throw new IllegalArgumentException("Unsupported endpoint " + event.getEndpoint() + ".");
+        }
+    }
+    
+    private static JsonObject parseBody(RequestEvent event){
+        return JsonParser.parseString(event.getBody()).getAsJsonObject();
+    }
+    
+    private static Map<String, String> parseQuery(String query){
+        Map<String, String> result = new HashMap<>();
+        if(query == null)
+            return result;
+        
+        for(String pair : query.split("&")){
+            int index = pair.indexOf('=');
+            if(index > 0)
+                result.put(pair.substring(0, index), pair.substring(index + 1));
+        }
+        
+        return result;
+    }
+}
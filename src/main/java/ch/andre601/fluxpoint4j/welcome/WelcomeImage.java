@@ -41,6 +41,87 @@ public class WelcomeImage{
         this.membersColor = membersColor;
     }
     
+    /**
+     * Returns the username to display on the image.
+     * 
+     * @return The username to display.
+     */
+    public String getUsername(){
+        return username;
+    }
+    
+    /**
+     * Returns the URL of the avatar to display on the image.
+     * 
+     * @return The URL of the avatar.
+     */
+    public String getAvatar(){
+        return avatar;
+    }
+    
+    /**
+     * Returns the background color.
+     * 
+     * @return The {@link ColorObject ColorObject} used for the background.
+     */
+    public ColorObject getBackgroundColor(){
+        return backgroundColor;
+    }
+    
+    /**
+     * Returns the text displayed under the username.
+     * 
+     * @return Possibly-null text displayed under the username.
+     */
+    public String getMembersText(){
+        return membersText;
+    }
+    
+    /**
+     * Returns the icon displayed on the right side of the image.
+     * 
+     * @return Possibly-null icon name or URL.
+     */
+    public String getIcon(){
+        return icon;
+    }
+    
+    /**
+     * Returns the banner to display.
+     * 
+     * @return Possibly-null banner name or URL.
+     */
+    public String getBanner(){
+        return banner;
+    }
+    
+    /**
+     * Returns the color for the "Welcome" text.
+     * 
+     * @return Possibly-null {@link ColorObject ColorObject} used for the "Welcome" text.
+     */
+    public ColorObject getWelcomeColor(){
+        return welcomeColor;
+    }
+    
+    /**
+     * Returns the color for the username.
+     * 
+     * @return Possibly-null {@link ColorObject ColorObject} used for the username.
+     */
+    public ColorObject getUsernameColor(){
+        return usernameColor;
+    }
+    
+    /**
+     * Returns the color for the members text.
+     * 
+     * @return Possibly-null {@link ColorObject ColorObject} used for the members text.
+     */
+    public ColorObject getMembersColor(){
+        return membersColor;
+    }
+    
     /**
      * Builder class to create a new {@link WelcomeImage WelcomeImage instance} to use in the
      * {@link ch.andre601.fluxpoint4j.Fluxpoint4J Fluxpoint4J class}.
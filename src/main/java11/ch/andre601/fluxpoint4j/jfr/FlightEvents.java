@@ -0,0 +1,56 @@
+package ch.andre601.fluxpoint4j.jfr;
+
+/**
+ * Creates the Java Flight Recorder events of Fluxpoint4J, used internally by the request handler and local renderers.
+ * 
+ * <p>This version is used on Java 11 and newer. The events are recorded with JFR when the {@code jdk.jfr} module is
+ * present in the runtime, otherwise no events are recorded.
+ * <br>JFR only records the events if they are enabled in the recording settings, which they are by default.
+ */
+public final class FlightEvents{
+    
+    private static final EventFactory FACTORY = createFactory();
+    
+    private FlightEvents(){}
+    
+    /**
+     * Starts a new {@link ApiCallEvent ApiCallEvent}.
+     * 
+     * @return The started event.
+     */
+    public static ApiCallEvent apiCall(){
+        return FACTORY.apiCall();
+    }
+    
+    /**
+     * Starts a new {@link RenderEvent RenderEvent}.
+     * 
+     * @return The started event.
+     */
+    public static RenderEvent render(){
+        return FACTORY.render();
+    }
+    
+    /**
+     * Starts a new {@link DecodeEvent DecodeEvent}.
+     * 
+     * @return The started event.
+     */
+    public static DecodeEvent decode(){
+        return FACTORY.decode();
+    }
+    
+    private static EventFactory createFactory(){
+        if(ModuleLayer.boot().findModule("jdk.jfr").isEmpty())
+            return NoOpEvents.INSTANCE;
+        
+        // Loaded reflectively, as linking the class fails without the module being present.
+        try{
+            return (EventFactory)Class.forName("ch.andre601.fluxpoint4j.jfr.JfrEventFactory")
+                .getDeclaredConstructor()
+                .newInstance();
+        }catch(ReflectiveOperationException | LinkageError ex){
+            return NoOpEvents.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ch.andre601.fluxpoint4j.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * {@link ApiCallEvent ApiCallEvent} recorded by JFR.
+ */
+@Name("ch.andre601.fluxpoint4j.ApiCall")
+@Label("API Call")
+@Category({"Fluxpoint4J", "API"})
+@Description("Call to the Fluxpoint API, with the network time as duration.")
+@StackTrace(false)
+class JfrApiCallEvent extends Event implements ApiCallEvent{
+    
+    @Label("Endpoint")
+    String endpoint;
+    
+    @Label("Payload Size")
+    @DataAmount
+    long payloadSize;
+    
+    @Label("Status Code")
+    int statusCode;
+    
+    @Label("Response Size")
+    @DataAmount
+    long responseSize;
+    
+    @Label("Queue Wait")
+    @Description("Time the call waited before it was started.")
+    @Timespan
+    long queueWait;
+    
+    @Label("Compressed")
+    boolean compressed;
+    
+    @Label("Retried")
+    @Description("Whether the request was sent again uncompressed, after the compressed request was rejected.")
+    boolean retried;
+    
+    JfrApiCallEvent(){
+        begin();
+    }
+    
+    @Override
+    public void commit(String endpoint, long payloadSize, int statusCode, long responseSize, long queueWait,
+                       boolean compressed, boolean retried){
+        this.endpoint = endpoint;
+        this.payloadSize = payloadSize;
+        this.statusCode = statusCode;
+        this.responseSize = responseSize;
+        this.queueWait = queueWait;
+        this.compressed = compressed;
+        this.retried = retried;
+        commit();
+    }
+}
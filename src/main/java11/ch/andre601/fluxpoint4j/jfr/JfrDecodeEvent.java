@@ -0,0 +1,40 @@
+package ch.andre601.fluxpoint4j.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * {@link DecodeEvent DecodeEvent} recorded by JFR.
+ */
+@Name("ch.andre601.fluxpoint4j.Decode")
+@Label("Image Decode")
+@Category({"Fluxpoint4J", "Rendering"})
+@Description("Decoding of an image, such as a loaded avatar or an image returned by the Fluxpoint API.")
+@StackTrace(false)
+class JfrDecodeEvent extends Event implements DecodeEvent{
+    
+    @Label("Source")
+    String source;
+    
+    @Label("Width")
+    int width;
+    
+    @Label("Height")
+    int height;
+    
+    JfrDecodeEvent(){
+        begin();
+    }
+    
+    @Override
+    public void commit(String source, int width, int height){
+        this.source = source;
+        this.width = width;
+        this.height = height;
+        commit();
+    }
+}
@@ -0,0 +1,22 @@
+package ch.andre601.fluxpoint4j.jfr;
+
+/**
+ * {@link EventFactory EventFactory} creating events recorded by JFR.
+ */
+final class JfrEventFactory implements EventFactory{
+    
+    @Override
+    public ApiCallEvent apiCall(){
+        return new JfrApiCallEvent();
+    }
+    
+    @Override
+    public RenderEvent render(){
+        return new JfrRenderEvent();
+    }
+    
+    @Override
+    public DecodeEvent decode(){
+        return new JfrDecodeEvent();
+    }
+}
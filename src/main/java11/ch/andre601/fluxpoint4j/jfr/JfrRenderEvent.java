@@ -0,0 +1,44 @@
+package ch.andre601.fluxpoint4j.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * {@link RenderEvent RenderEvent} recorded by JFR.
+ */
+@Name("ch.andre601.fluxpoint4j.Render")
+@Label("Local Render")
+@Category({"Fluxpoint4J", "Rendering"})
+@Description("Phase of rendering an image locally.")
+@StackTrace(false)
+class JfrRenderEvent extends Event implements RenderEvent{
+    
+    @Label("Phase")
+    String phase;
+    
+    @Label("Width")
+    int width;
+    
+    @Label("Height")
+    int height;
+    
+    @Label("Layers")
+    int layers;
+    
+    JfrRenderEvent(){
+        begin();
+    }
+    
+    @Override
+    public void commit(String phase, int width, int height, int layers){
+        this.phase = phase;
+        this.width = width;
+        this.height = height;
+        this.layers = layers;
+        commit();
+    }
+}
@@ -0,0 +1,27 @@
+package ch.andre601.fluxpoint4j.render;
+
+/**
+ * Selects the {@link CompositeKernel CompositeKernel} to use.
+ * 
+ * <p>This version is used on Java 17 and newer. The {@link VectorCompositeKernel VectorCompositeKernel} is used when
+ * the {@code jdk.incubator.vector} module has been added to the runtime (i.e. using
+ * {@code --add-modules jdk.incubator.vector}), otherwise the {@link ScalarCompositeKernel ScalarCompositeKernel} is used.
+ */
+final class CompositeKernels{
+    
+    private CompositeKernels(){}
+    
+    static CompositeKernel create(){
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return new ScalarCompositeKernel();
+        
+        // Loaded reflectively, as linking the class fails without the module being present.
+        try{
+            return (CompositeKernel)Class.forName("ch.andre601.fluxpoint4j.render.VectorCompositeKernel")
+                .getDeclaredConstructor()
+                .newInstance();
+        }catch(ReflectiveOperationException | LinkageError ex){
+            return new ScalarCompositeKernel();
+        }
+    }
+}
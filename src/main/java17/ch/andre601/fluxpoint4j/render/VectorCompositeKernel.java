@@ -0,0 +1,74 @@
+package ch.andre601.fluxpoint4j.render;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link CompositeKernel CompositeKernel} blending as many pixels at once as the CPU's vector registers allow, using
+ * the incubating Vector API.
+ * <br>Remaining pixels at the end of a row are blended by the {@link ScalarCompositeKernel ScalarCompositeKernel}.
+ */
+final class VectorCompositeKernel implements CompositeKernel{
+    
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    
+    private final ScalarCompositeKernel scalar = new ScalarCompositeKernel();
+    
+    @Override
+    public void srcOver(int[] src, int srcPos, int[] dst, int dstPos, int length){
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += SPECIES.length()){
+            IntVector s = IntVector.fromArray(SPECIES, src, srcPos + i);
+            IntVector d = IntVector.fromArray(SPECIES, dst, dstPos + i);
+            IntVector inverse = s.lanewise(VectorOperators.LSHR, 24).neg().add(255);
+            
+            blend(s, d, inverse).intoArray(dst, dstPos + i);
+        }
+        
+        if(i < length)
+            scalar.srcOver(src, srcPos + i, dst, dstPos + i, length - i);
+    }
+    
+    @Override
+    public void fill(int color, int[] dst, int dstPos, int length){
+        int alpha = color >>> 24;
+        if(alpha == 0 || alpha == 255){
+            scalar.fill(color, dst, dstPos, length);
+            return;
+        }
+        
+        IntVector s = IntVector.broadcast(SPECIES, color);
+        IntVector inverse = IntVector.broadcast(SPECIES, 255 - alpha);
+        
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for(; i < bound; i += SPECIES.length()){
+            IntVector d = IntVector.fromArray(SPECIES, dst, dstPos + i);
+            blend(s, d, inverse).intoArray(dst, dstPos + i);
+        }
+        
+        if(i < length)
+            scalar.fill(color, dst, dstPos + i, length - i);
+    }
+    
+    private static IntVector blend(IntVector s, IntVector d, IntVector inverse){
+        return channel(s, d, inverse, 24).lanewise(VectorOperators.LSHL, 24)
+            .or(channel(s, d, inverse, 16).lanewise(VectorOperators.LSHL, 16))
+            .or(channel(s, d, inverse, 8).lanewise(VectorOperators.LSHL, 8))
+            .or(channel(s, d, inverse, 0));
+    }
+    
+    /*
+     * Source channel + div255(destination channel * inverse source alpha), the same as in the ScalarCompositeKernel.
+     */
+    private static IntVector channel(IntVector s, IntVector d, IntVector inverse, int shift){
+        IntVector source = s.lanewise(VectorOperators.LSHR, shift).and(0xFF);
+        IntVector value = d.lanewise(VectorOperators.LSHR, shift).and(0xFF).mul(inverse).add(128);
+        
+        return value.add(value.lanewise(VectorOperators.LSHR, 8))
+            .lanewise(VectorOperators.LSHR, 8)
+            .add(source);
+    }
+}
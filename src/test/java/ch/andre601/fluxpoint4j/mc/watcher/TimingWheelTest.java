@@ -0,0 +1,58 @@
+package ch.andre601.fluxpoint4j.mc.watcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/*
+ * Lives in the watcher package, as TimingWheel is package-private.
+ */
+public class TimingWheelTest{
+    
+    @Test
+    public void expireAfterDelay(){
+        TimingWheel<String> wheel = new TimingWheel<>(1, 4);
+        List<String> expired = new ArrayList<>();
+        
+        wheel.schedule("a", 1);
+        wheel.schedule("b", 3);
+        // Longer than the wheel, so it has to wait for a second round.
+        wheel.schedule("c", 6);
+        TimingWheel.Node<String> cancelled = wheel.schedule("d", 2);
+        wheel.cancel(cancelled);
+        
+        for(int i = 0; i < 6; i++){
+            wheel.advance(expired::add);
+            expired.add("|");
+        }
+        
+        assertEquals(Arrays.asList("a", "|", "|", "b", "|", "|", "|", "c", "|"), expired);
+    }
+    
+    @Test
+    public void rescheduleIntoCurrentBucket(){
+        TimingWheel<String> wheel = new TimingWheel<>(1, 4);
+        List<String> expired = new ArrayList<>();
+        
+        wheel.schedule("a", 1);
+        wheel.schedule("b", 1);
+        
+        // Rescheduling by a full round lands in the bucket that is being advanced.
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for(int i = 0; i < 8; i++){
+                wheel.advance(value -> {
+                    expired.add(value);
+                    wheel.schedule(value, 4);
+                });
+            }
+        });
+        
+        assertEquals(Arrays.asList("a", "b", "a", "b"), expired);
+    }
+}
@@ -0,0 +1,122 @@
+package ch.andre601.fluxpoint4j.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Lives in the render package, as GaussianBlur is package-private.
+ */
+public class GaussianBlurTest{
+    
+    @Test
+    public void matchNaiveBlur(){
+        int width = 23;
+        int height = 17;
+        int[] alpha = randomMask(width, height, 1);
+        int[] expected = naiveBlur(alpha.clone(), width, height, GaussianBlur.boxRadii(3f));
+        
+        GaussianBlur.blur(alpha, width, height, 3f, false);
+        assertArrayEquals(expected, alpha);
+    }
+    
+    @Test
+    public void matchSerialBlur(){
+        int width = 300;
+        int height = 280;
+        int[] serial = randomMask(width, height, 2);
+        int[] parallel = serial.clone();
+        int[] automatic = serial.clone();
+        
+        GaussianBlur.blur(serial, width, height, 4f, false);
+        GaussianBlur.blur(parallel, width, height, 4f, true);
+        // Large enough to be blurred in parallel.
+        GaussianBlur.blur(automatic, width, height, 4f);
+        
+        assertArrayEquals(serial, parallel);
+        assertArrayEquals(serial, automatic);
+    }
+    
+    @Test
+    public void keepMaskWithRadiusZero(){
+        for(int radius : GaussianBlur.boxRadii(0.1f))
+            assertEquals(0, radius);
+        
+        int[] alpha = randomMask(10, 10, 3);
+        int[] original = alpha.clone();
+        GaussianBlur.blur(alpha, 10, 10, 0.1f);
+        
+        assertArrayEquals(original, alpha);
+    }
+    
+    @Test
+    public void clampEdges(){
+        int width = 40;
+        int height = 40;
+        int[] alpha = new int[width * height];
+        Arrays.fill(alpha, 255);
+        
+        GaussianBlur.blur(alpha, width, height, 2f);
+        
+        // Pixels outside of the mask are transparent, so only the edges lose alpha.
+        assertEquals(255, alpha[20 * width + 20]);
+        assertTrue(alpha[0] < alpha[width + 1]);
+        assertTrue(alpha[width + 1] < alpha[20 * width + 20]);
+        assertEquals(alpha[0], alpha[width - 1]);
+        assertEquals(alpha[0], alpha[(height - 1) * width]);
+        
+        // Radii larger than the mask only cover the mask itself.
+        int[] small = {255, 0, 255};
+        GaussianBlur.blur(small, 3, 1, 10f);
+        for(int value : small)
+            assertTrue(value >= 0 && value <= 255);
+        assertEquals(small[0], small[2]);
+    }
+    
+    private static int[] randomMask(int width, int height, long seed){
+        Random random = new Random(seed);
+        int[] alpha = new int[width * height];
+        for(int i = 0; i < alpha.length; i++)
+            alpha[i] = random.nextInt(256);
+        
+        return alpha;
+    }
+    
+    /*
+     * All horizontal box passes followed by all vertical ones, averaging every window with pixels outside of the mask
+     * counted as 0.
+     */
+    private static int[] naiveBlur(int[] alpha, int width, int height, int[] radii){
+        for(int radius : radii)
+            alpha = naiveBox(alpha, width, height, radius, 1, 0);
+        for(int radius : radii)
+            alpha = naiveBox(alpha, width, height, radius, 0, 1);
+        
+        return alpha;
+    }
+    
+    private static int[] naiveBox(int[] alpha, int width, int height, int radius, int dx, int dy){
+        int size = radius * 2 + 1;
+        int[] result = new int[alpha.length];
+        for(int y = 0; y < height; y++){
+            for(int x = 0; x < width; x++){
+                int sum = 0;
+                for(int i = -radius; i <= radius; i++){
+                    int sx = x + i * dx;
+                    int sy = y + i * dy;
+                    if(sx >= 0 && sx < width && sy >= 0 && sy < height)
+                        sum += alpha[sy * width + sx];
+                }
+                
+                result[y * width + x] = (sum + size / 2) / size;
+            }
+        }
+        
+        return result;
+    }
+}
@@ -0,0 +1,94 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.render.CachingImageLoader;
+import ch.andre601.fluxpoint4j.render.ImageLoader;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CachingImageLoaderTest{
+    
+    @Test
+    public void hitAndMiss() throws IOException{
+        CountingLoader delegate = new CountingLoader();
+        CachingImageLoader loader = new CachingImageLoader(delegate);
+        
+        BufferedImage first = loader.load("a");
+        assertSame(first, loader.load("a"));
+        assertEquals(1, delegate.getLoads("a"));
+        
+        loader.load("b");
+        assertEquals(1, delegate.getLoads("b"));
+        
+        loader.clear();
+        assertNotSame(first, loader.load("a"));
+        assertEquals(2, delegate.getLoads("a"));
+    }
+    
+    @Test
+    public void evictLeastRecentlyUsed() throws IOException{
+        CountingLoader delegate = new CountingLoader();
+        CachingImageLoader loader = new CachingImageLoader(delegate, 2, 1, TimeUnit.HOURS);
+        
+        loader.load("a");
+        loader.load("b");
+        // Using a makes b the least recently used image.
+        loader.load("a");
+        loader.load("c");
+        
+        loader.load("a");
+        assertEquals(1, delegate.getLoads("a"));
+        loader.load("b");
+        assertEquals(2, delegate.getLoads("b"));
+    }
+    
+    @Test
+    public void expire() throws Exception{
+        CountingLoader delegate = new CountingLoader();
+        CachingImageLoader loader = new CachingImageLoader(delegate, 16, 1, TimeUnit.MILLISECONDS);
+        
+        loader.load("a");
+        TimeUnit.MILLISECONDS.sleep(5);
+        loader.load("a");
+        assertEquals(2, delegate.getLoads("a"));
+    }
+    
+    @Test
+    public void doNotCacheFailures() throws IOException{
+        CountingLoader delegate = new CountingLoader();
+        CachingImageLoader loader = new CachingImageLoader(delegate);
+        
+        assertThrows(IOException.class, () -> loader.load("missing"));
+        assertThrows(IOException.class, () -> loader.load("missing"));
+        assertEquals(2, delegate.getLoads("missing"));
+    }
+    
+    private static class CountingLoader implements ImageLoader{
+        
+        private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+        
+        @Override
+        public BufferedImage load(String url) throws IOException{
+            loads.computeIfAbsent(url, key -> new AtomicInteger()).incrementAndGet();
+            if(url.equals("missing"))
+                throw new IOException("Missing image");
+            
+            return new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        }
+        
+        int getLoads(String url){
+            AtomicInteger count = loads.get(url);
+            return count == null ? 0 : count.get();
+        }
+    }
+}
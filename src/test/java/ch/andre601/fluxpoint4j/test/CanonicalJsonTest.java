@@ -0,0 +1,71 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import ch.andre601.fluxpoint4j.request.CanonicalJson;
+import ch.andre601.fluxpoint4j.request.RequestHandler;
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CanonicalJsonTest{
+    
+    @Test
+    public void omitDefaults(){
+        CustomImage image = CustomImage.Builder.createBase(new Image.Rectangle().withWidth(400).withHeight(200))
+            .addImage(new Image.Circle().withPosX(50).withPosY(50).withRadius(20))
+            .addText(new Text.SingleLine("Hello").withPosX(10).withColor(ColorObject.getFromRGB(255, 0, 0)))
+            .build();
+        
+        String canonical = CanonicalJson.encode(image);
+        JsonObject json = JsonParser.parseString(canonical).getAsJsonObject();
+        
+        JsonObject base = json.getAsJsonObject("base");
+        assertEquals("bitmap", base.get("type").getAsString());
+        assertEquals(400, base.get("width").getAsInt());
+        assertFalse(base.has("color"));
+        assertFalse(base.has("x"));
+        
+        JsonObject circle = json.getAsJsonArray("images").get(0).getAsJsonObject();
+        assertEquals(20, circle.get("radius").getAsInt());
+        assertTrue(circle.has("width"));
+        
+        JsonObject text = json.getAsJsonArray("texts").get(0).getAsJsonObject();
+        assertEquals("Hello", text.get("text").getAsString());
+        assertEquals(10, text.get("x").getAsInt());
+        assertEquals("255, 0, 0", text.get("color").getAsString());
+        assertFalse(text.has("font"));
+        assertFalse(text.has("weight"));
+        assertFalse(text.has("outlinecolor"));
+        assertFalse(text.has("y"));
+        
+        assertTrue(canonical.length() < new RequestHandler().toJson(image).toString().length() / 2);
+    }
+    
+    @Test
+    public void stableEncoding(){
+        CustomImage first = CustomImage.Builder.createBase(new Image.Rectangle().withWidth(100).withHeight(100))
+            .addText(new Text.SingleLine("Text").withPosX(5).withPosY(5).withSize(20))
+            .build();
+        CustomImage second = CustomImage.Builder.createBase(new Image.Rectangle().withHeight(100).withWidth(100))
+            .addText(new Text.SingleLine("Text").withSize(20).withPosY(5).withPosX(5))
+            .build();
+        CustomImage third = CustomImage.Builder.createBase(new Image.Rectangle().withWidth(100).withHeight(100))
+            .addText(new Text.SingleLine("Text").withPosX(5).withPosY(6).withSize(20))
+            .build();
+        
+        assertEquals(CanonicalJson.encode(first), CanonicalJson.encode(second));
+        assertFalse(CanonicalJson.encode(first).equals(CanonicalJson.encode(third)));
+        
+        String canonical = CanonicalJson.encode(first);
+        assertTrue(canonical.indexOf("\"base\"") < canonical.indexOf("\"texts\""));
+        assertTrue(canonical.indexOf("\"size\"") < canonical.indexOf("\"text\""));
+        assertTrue(canonical.indexOf("\"text\"") < canonical.indexOf("\"x\""));
+    }
+}
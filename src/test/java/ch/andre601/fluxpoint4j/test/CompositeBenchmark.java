@@ -0,0 +1,94 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.render.AlphaCompositor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link AlphaCompositor AlphaCompositor} with blending the same pixels using {@link Graphics2D Graphics2D}.
+ * <br>Run using {@code gradlew benchmark}, which adds the Vector API module on Java 17 and newer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompositeBenchmark{
+    
+    @Param({"300", "1000"})
+    public int size;
+    
+    private BufferedImage source;
+    private BufferedImage canvas;
+    private int[] sourcePixels;
+    private int[] canvasPixels;
+    private Graphics2D graphics;
+    private final Color color = new Color(255, 255, 255, 100);
+    
+    @Setup
+    public void setup(){
+        source = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+        canvas = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+        
+        // A semi-transparent gradient, similar to a blurred outline or a layer using a RGBA color.
+        Graphics2D g = source.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(255, 0, 0, 30), size, size, new Color(0, 0, 255, 220)));
+        g.fillRect(0, 0, size, size);
+        g.dispose();
+        
+        g = canvas.createGraphics();
+        g.setColor(Color.DARK_GRAY);
+        g.fillRect(0, 0, size, size);
+        g.dispose();
+        
+        sourcePixels = ((DataBufferInt)source.getRaster().getDataBuffer()).getData();
+        canvasPixels = ((DataBufferInt)canvas.getRaster().getDataBuffer()).getData();
+        graphics = canvas.createGraphics();
+    }
+    
+    @TearDown
+    public void tearDown(){
+        graphics.dispose();
+    }
+    
+    @Benchmark
+    public int[] compositorImage(){
+        AlphaCompositor.srcOver(sourcePixels, 0, size, canvasPixels, 0, size, size, size);
+        return canvasPixels;
+    }
+    
+    @Benchmark
+    public BufferedImage graphicsImage(){
+        graphics.drawImage(source, 0, 0, null);
+        return canvas;
+    }
+    
+    @Benchmark
+    public int[] compositorFill(){
+        AlphaCompositor.fill(color.getRGB(), canvasPixels, 0, size, size, size);
+        return canvasPixels;
+    }
+    
+    @Benchmark
+    public BufferedImage graphicsFill(){
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, size, size);
+        return canvas;
+    }
+}
@@ -0,0 +1,140 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.Fluxpoint4J;
+import ch.andre601.fluxpoint4j.request.GeneratedImage;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import ch.andre601.fluxpoint4j.request.RequestHandler;
+import ch.andre601.fluxpoint4j.simulator.FluxpointSimulator;
+import ch.andre601.fluxpoint4j.simulator.SimulatorFixtures;
+import ch.andre601.fluxpoint4j.simulator.SimulatorProfile;
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import ch.andre601.fluxpoint4j.welcome.WelcomeImage;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import static ch.andre601.fluxpoint4j.simulator.SimulatorFixtures.createApi;
+import static ch.andre601.fluxpoint4j.simulator.SimulatorFixtures.image;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FluxpointSimulatorTest{
+    
+    @Test
+    public void generateImages() throws Exception{
+        try(FluxpointSimulator simulator = new FluxpointSimulator()){
+            Fluxpoint4J api = createApi(simulator);
+            // A trailing slash is removed from the base URL.
+            api.setBaseUrl(simulator.getBaseUrl() + "/");
+            
+            GenericAPIResponse response = api.getCustomImage(image(400, 200, "Simulated"));
+            assertTrue(response instanceof GeneratedImage, response.getMessage());
+            
+            BufferedImage image = ((GeneratedImage)response).getAsBufferedImage();
+            assertEquals(400, image.getWidth());
+            assertEquals(200, image.getHeight());
+            assertEquals(SimulatorFixtures.BASE_COLOR, image.getRGB(0, 0));
+            
+            response = api.getWelcomeImage(new WelcomeImage.Builder()
+                .withUsername("User")
+                .withAvatar("https://example.com/avatar.png")
+                .withBackgroundColor(ColorObject.getFromRGB(1, 2, 3))
+                .build());
+            assertTrue(response instanceof GeneratedImage, response.getMessage());
+            assertEquals(FluxpointSimulator.WELCOME_WIDTH, ((GeneratedImage)response).getAsBufferedImage().getWidth());
+            
+            response = api.getNewMCRequestBuilder()
+                .withHost("play.example.com")
+                .withIcon(true)
+                .performRequest();
+            assertTrue(response instanceof MCServerPingResponse, response.getMessage());
+            assertTrue(((MCServerPingResponse)response).isOnline());
+            assertTrue(((MCServerPingResponse)response).getRawIcon().startsWith("iVBORw0KGgo"));
+            assertEquals(1, simulator.getRequests("/mc/ping"));
+        }
+    }
+    
+    @Test
+    public void rejectInvalidPayloads() throws Exception{
+        try(FluxpointSimulator simulator = new FluxpointSimulator()){
+            RequestHandler handler = new RequestHandler();
+            handler.setBaseUrl(simulator.getBaseUrl());
+            
+            JsonObject json = handler.toJson(image(400, 200, "Simulated"));
+            json.getAsJsonObject("base").addProperty("type", "hexagon");
+            assertEquals(400, handler.getCustomImage("token", json).getCode());
+            
+            json = handler.toJson(image(400, 200, "Simulated"));
+            json.getAsJsonObject("base").remove("width");
+            assertEquals(400, handler.getCustomImage("token", json).getCode());
+            
+            assertEquals(401, handler.getCustomImage("", image(400, 200, "Simulated")).getCode());
+        }
+    }
+    
+    @Test
+    public void applyProfile() throws Exception{
+        SimulatorProfile profile = new SimulatorProfile()
+            .withScript(SimulatorProfile.Fault.RATE_LIMIT, SimulatorProfile.Fault.SERVER_ERROR,
+                SimulatorProfile.Fault.SLOW_BODY, SimulatorProfile.Fault.NONE)
+            .withSlowBodyChance(0, 1, TimeUnit.MILLISECONDS);
+        
+        try(FluxpointSimulator simulator = new FluxpointSimulator(profile)){
+            Fluxpoint4J api = createApi(simulator);
+            
+            assertEquals(429, api.getCustomImage(image(400, 200, "Simulated")).getCode());
+            assertEquals(500, api.getCustomImage(image(400, 200, "Simulated")).getCode());
+            assertTrue(api.getCustomImage(image(400, 200, "Simulated")) instanceof GeneratedImage);
+            assertTrue(api.getCustomImage(image(400, 200, "Simulated")) instanceof GeneratedImage);
+            
+            simulator.setProfile(new SimulatorProfile().withLatency(100, TimeUnit.MILLISECONDS));
+            long start = System.nanoTime();
+            assertTrue(api.getCustomImage(image(400, 200, "Simulated")) instanceof GeneratedImage);
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        }
+    }
+    
+    @Test
+    public void fallbackWithoutGzip() throws Exception{
+        try(FluxpointSimulator simulator = new FluxpointSimulator(new SimulatorProfile().withGzipSupport(false))){
+            Fluxpoint4J api = createApi(simulator);
+            api.setGzipThreshold(0);
+            
+            assertTrue(api.getCustomImage(image(400, 200, "Simulated")) instanceof GeneratedImage);
+            assertEquals(2, simulator.getRequests("/gen/custom"));
+            
+            // Compression is no longer used after being rejected.
+            assertTrue(api.getCustomImage(image(400, 200, "Simulated")) instanceof GeneratedImage);
+            assertEquals(3, simulator.getRequests("/gen/custom"));
+            
+            simulator.setProfile(new SimulatorProfile());
+            api = createApi(simulator);
+            api.setGzipThreshold(0);
+            api.setCanonicalJson(true);
+            assertTrue(api.getCustomImage(image(400, 200, "Simulated")) instanceof GeneratedImage);
+            assertEquals(4, simulator.getRequests("/gen/custom"));
+        }
+    }
+    
+    @Test
+    public void keepCompressionOnInvalidPayload() throws Exception{
+        try(FluxpointSimulator simulator = new FluxpointSimulator()){
+            RequestHandler handler = new RequestHandler();
+            handler.setBaseUrl(simulator.getBaseUrl());
+            handler.setGzipThreshold(0);
+            
+            // An invalid payload is reported as-is instead of being resent uncompressed.
+            JsonObject json = handler.toJson(image(400, 200, "Simulated"));
+            json.getAsJsonObject("base").addProperty("type", "hexagon");
+            assertEquals(400, handler.getCustomImage("token", json).getCode());
+            assertEquals(1, simulator.getRequests("/gen/custom"));
+            
+            assertTrue(handler.getCustomImage("token", image(400, 200, "Simulated")) instanceof GeneratedImage);
+            assertEquals(2, simulator.getRequests("/gen/custom"));
+        }
+    }
+}
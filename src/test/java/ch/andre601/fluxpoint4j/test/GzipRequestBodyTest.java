@@ -0,0 +1,77 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.request.GzipRequestBody;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GzipRequestBodyTest{
+    
+    @Test
+    public void compressBody() throws IOException{
+        StringBuilder json = new StringBuilder("{\"texts\":[");
+        for(int i = 0; i < 500; i++)
+            json.append("{\"text\":\"Line ").append(i).append(" ä\",\"font\":\"Sans Serif\",\"weight\":500},");
+        json.append("{}]}");
+        
+        GzipRequestBody body = new GzipRequestBody(json.toString(), null);
+        assertEquals(-1, body.contentLength());
+        
+        // Writing twice must produce the same result, as OkHttp may retry requests.
+        for(int i = 0; i < 2; i++){
+            Buffer buffer = new Buffer();
+            body.writeTo(buffer);
+            
+            assertTrue(buffer.size() < json.length() / 5);
+            assertEquals(json.toString(), decompress(buffer.inputStream()));
+        }
+    }
+    
+    @Test
+    public void compressConcurrently() throws Exception{
+        Thread[] threads = new Thread[16];
+        Throwable[] errors = new Throwable[threads.length];
+        for(int i = 0; i < threads.length; i++){
+            int index = i;
+            threads[i] = new Thread(() -> {
+                try{
+                    for(int j = 0; j < 50; j++){
+                        String text = "Thread " + index + " request " + j;
+                        Buffer buffer = new Buffer();
+                        new GzipRequestBody(text, null).writeTo(buffer);
+                        assertEquals(text, decompress(buffer.inputStream()));
+                    }
+                }catch(Throwable ex){
+                    errors[index] = ex;
+                }
+            });
+            threads[i].start();
+        }
+        
+        for(int i = 0; i < threads.length; i++){
+            threads[i].join();
+            if(errors[i] != null)
+                throw new AssertionError(errors[i]);
+        }
+    }
+    
+    private static String decompress(InputStream stream) throws IOException{
+        try(GZIPInputStream input = new GZIPInputStream(stream)){
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int length;
+            while((length = input.read(buffer)) != -1)
+                output.write(buffer, 0, length);
+            
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.mc.HostCanonicalizer;
+import ch.andre601.fluxpoint4j.mc.HostResolver;
+import ch.andre601.fluxpoint4j.mc.IconCache;
+import ch.andre601.fluxpoint4j.mc.MCRequestBuilder;
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.CachingDns;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import ch.andre601.fluxpoint4j.request.RequestHandler;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HostResolutionTest{
+    
+    @Test
+    public void cacheLookups() throws Exception{
+        AtomicInteger lookups = new AtomicInteger();
+        InetAddress address = InetAddress.getByAddress("api.fluxpoint.dev", new byte[]{127, 0, 0, 1});
+        
+        CachingDns dns = new CachingDns(hostname -> {
+            lookups.incrementAndGet();
+            if(hostname.equals("missing.example.com"))
+                throw new UnknownHostException(hostname);
+            
+            return Collections.singletonList(address);
+        }, 1, 1, TimeUnit.HOURS);
+        
+        List<InetAddress> addresses = dns.lookup("api.fluxpoint.dev");
+        assertEquals(Collections.singletonList(address), addresses);
+        assertSame(addresses, dns.lookup("API.Fluxpoint.dev"));
+        
+        assertThrows(UnknownHostException.class, () -> dns.lookup("missing.example.com"));
+        assertThrows(UnknownHostException.class, () -> dns.lookup("missing.example.com"));
+        assertEquals(2, lookups.get());
+        
+        dns.invalidate("api.fluxpoint.dev");
+        dns.lookup("api.fluxpoint.dev");
+        assertEquals(3, lookups.get());
+    }
+    
+    @Test
+    public void canonicalizeAliases(){
+        Map<String, ServerTarget> srv = new HashMap<>();
+        srv.put("play.example.com", new ServerTarget("mc.example.com.", 25566));
+        
+        Map<String, String> cnames = new HashMap<>();
+        cnames.put("www.example.com", "example.com");
+        
+        AtomicInteger lookups = new AtomicInteger();
+        HostCanonicalizer canonicalizer = new HostCanonicalizer(new HostResolver(){
+            @Override
+            public ServerTarget resolveSrv(String host){
+                lookups.incrementAndGet();
+                return srv.get(host);
+            }
+            
+            @Override
+            public String resolveCanonicalName(String host){
+                return cnames.getOrDefault(host, host);
+            }
+        }, 1, TimeUnit.HOURS);
+        
+        ServerTarget canonical = new ServerTarget("mc.example.com", 25566);
+        assertEquals(canonical, canonicalizer.canonicalize(new ServerTarget("Play.Example.com")));
+        assertEquals(canonical, canonicalizer.canonicalize(new ServerTarget("mc.example.com.", 25566)));
+        
+        // SRV records are only used with the default port.
+        assertEquals(new ServerTarget("play.example.com", 25570), canonicalizer.canonicalize(new ServerTarget("play.example.com", 25570)));
+        assertEquals(new ServerTarget("example.com"), canonicalizer.canonicalize(new ServerTarget("www.example.com")));
+        assertEquals(new ServerTarget("127.0.0.1"), canonicalizer.canonicalize(new ServerTarget("127.0.0.1")));
+        
+        canonicalizer.canonicalize(new ServerTarget("play.example.com"));
+        assertEquals(2, lookups.get());
+    }
+    
+    @Test
+    public void retryFailedLookups(){
+        AtomicInteger lookups = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        HostCanonicalizer canonicalizer = new HostCanonicalizer(new HostResolver(){
+            @Override
+            public ServerTarget resolveSrv(String host) throws IOException{
+                lookups.incrementAndGet();
+                if(failing.get())
+                    throw new IOException("DNS timeout");
+                
+                return new ServerTarget("mc.example.com", 25566);
+            }
+            
+            @Override
+            public String resolveCanonicalName(String host){
+                return host;
+            }
+        }, 1, TimeUnit.HOURS);
+        
+        assertEquals(new ServerTarget("play.example.com"), canonicalizer.canonicalize(new ServerTarget("play.example.com.")));
+        
+        failing.set(false);
+        assertEquals(new ServerTarget("mc.example.com", 25566), canonicalizer.canonicalize(new ServerTarget("play.example.com")));
+        canonicalizer.canonicalize(new ServerTarget("play.example.com"));
+        assertEquals(2, lookups.get());
+    }
+    
+    @Test
+    public void requestProvidedHost(){
+        List<String> requests = new ArrayList<>();
+        RequestHandler handler = new RequestHandler(){
+            @Override
+            public GenericAPIResponse getMcServerResponse(String token, String server, int port, boolean withIcon){
+                requests.add(server + ":" + port + ":" + withIcon);
+                return new MCServerPingResponse.Builder().withOnline(true).withRawIcon("icon").build();
+            }
+        };
+        HostCanonicalizer canonicalizer = new HostCanonicalizer(new HostResolver(){
+            @Override
+            public ServerTarget resolveSrv(String host){
+                return new ServerTarget("mc.example.com", 25566);
+            }
+            
+            @Override
+            public String resolveCanonicalName(String host){
+                return host;
+            }
+        }, 1, TimeUnit.HOURS);
+        IconCache cache = new IconCache();
+        
+        for(String host : new String[]{"play.example.com", "example.com"}){
+            new MCRequestBuilder("token", handler)
+                .withHost(host)
+                .withIconCache(cache)
+                .withHostCanonicalizer(canonicalizer)
+                .performRequest();
+        }
+        
+        // Both aliases share the cached icon, but each is requested by the name it was given.
+        assertEquals(Arrays.asList("play.example.com:25565:true", "example.com:25565:false"), requests);
+        assertEquals("icon", cache.getIcon(new ServerTarget("mc.example.com", 25566)));
+    }
+}
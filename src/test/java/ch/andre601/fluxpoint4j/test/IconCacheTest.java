@@ -0,0 +1,86 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.mc.IconCache;
+import ch.andre601.fluxpoint4j.mc.MCRequestBuilder;
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import ch.andre601.fluxpoint4j.request.RequestHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class IconCacheTest{
+    
+    @Test
+    public void fetchIconsOnlyWhenNeeded(){
+        StubHandler handler = new StubHandler();
+        IconCache cache = new IconCache();
+        
+        handler.motds.put("lobby.example.com", "Welcome!");
+        handler.motds.put("survival.example.com", "Welcome!");
+        
+        // First sight of a server requests the icon.
+        MCServerPingResponse lobby = request(handler, cache, "lobby.example.com");
+        request(handler, cache, "survival.example.com");
+        assertEquals("icon:Welcome!", lobby.getRawIcon());
+        assertEquals(1, cache.size());
+        
+        // Further requests use the cached icon.
+        lobby = request(handler, cache, "lobby.example.com");
+        assertEquals("icon:Welcome!", lobby.getRawIcon());
+        assertSame(cache.getIcon(new ServerTarget("survival.example.com")), lobby.getRawIcon());
+        
+        // A changed MOTD fetches the icon again.
+        handler.motds.put("lobby.example.com", "Event!");
+        lobby = request(handler, cache, "lobby.example.com");
+        assertEquals("icon:Event!", lobby.getRawIcon());
+        assertEquals(2, cache.size());
+        
+        // Another change within the TTL keeps the cached icon.
+        handler.motds.put("lobby.example.com", "Event ended!");
+        lobby = request(handler, cache, "lobby.example.com");
+        assertEquals("icon:Event!", lobby.getRawIcon());
+        
+        assertEquals("[lobby.example.com:true, survival.example.com:true, lobby.example.com:false, "
+            + "lobby.example.com:false, lobby.example.com:true, lobby.example.com:false]", handler.requests.toString());
+        
+        String hash = cache.getIconHash(new ServerTarget("survival.example.com"));
+        assertEquals("869773e96dd41e1fc2358ab620ca2c2bce8b9691bcd3da7c972cdaef73ff8022", hash);
+        assertEquals("icon:Welcome!", cache.getIconByHash(hash));
+        
+        cache.invalidate(new ServerTarget("survival.example.com"));
+        assertEquals(1, cache.size());
+    }
+    
+    private static MCServerPingResponse request(RequestHandler handler, IconCache cache, String host){
+        return (MCServerPingResponse)new MCRequestBuilder("token", handler)
+            .withHost(host)
+            .withIconCache(cache)
+            .performRequest();
+    }
+    
+    private static class StubHandler extends RequestHandler{
+        
+        private final Map<String, String> motds = new HashMap<>();
+        private final List<String> requests = new ArrayList<>();
+        
+        @Override
+        public GenericAPIResponse getMcServerResponse(String token, String server, int port, boolean withIcon){
+            requests.add(server + ":" + withIcon);
+            
+            String motd = motds.get(server);
+            return new MCServerPingResponse.Builder()
+                .withOnline(true)
+                .withMotd(motd)
+                .withRawIcon(withIcon ? "icon:" + motd : null)
+                .build();
+        }
+    }
+}
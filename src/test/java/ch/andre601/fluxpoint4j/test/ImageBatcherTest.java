@@ -0,0 +1,125 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.image.ImageBatcher;
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import ch.andre601.fluxpoint4j.request.GeneratedImage;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.RequestHandler;
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImageBatcherTest{
+    
+    @Test
+    public void combineImages() throws Exception{
+        StubHandler handler = new StubHandler();
+        List<CompletableFuture<GenericAPIResponse>> futures = new ArrayList<>();
+        
+        try(ImageBatcher batcher = new ImageBatcher("token", handler, 1, TimeUnit.HOURS)){
+            for(int i = 0; i < 20; i++)
+                futures.add(batcher.queue(badge(300, 100 + i, i)));
+        }
+        
+        for(int i = 0; i < futures.size(); i++){
+            BufferedImage image = ((GeneratedImage)futures.get(i).get(10, TimeUnit.SECONDS)).getAsBufferedImage();
+            assertEquals(300, image.getWidth());
+            assertEquals(100 + i, image.getHeight());
+            
+            // Base in the color of the badge, with a white square at 10,10.
+            assertEquals(new Color(i, 0, 255).getRGB(), image.getRGB(0, 0));
+            assertEquals(new Color(i, 0, 255).getRGB(), image.getRGB(299, 99 + i));
+            assertEquals(Color.WHITE.getRGB(), image.getRGB(15, 15));
+            assertEquals(new Color(i, 0, 255).getRGB(), image.getRGB(25, 15));
+        }
+        
+        assertEquals(1, handler.sheets.get());
+        assertEquals(0, handler.singles.get());
+    }
+    
+    @Test
+    public void checkBatchable(){
+        assertTrue(ImageBatcher.isBatchable(badge(300, 100, 0)));
+        assertFalse(ImageBatcher.isBatchable(badge(1500, 100, 0)));
+        
+        Image base = new Image.Rectangle().withWidth(300).withHeight(100);
+        assertFalse(ImageBatcher.isBatchable(CustomImage.Builder.createBase(base)
+            .addImage(new Image.Rectangle().withPosX(250).withWidth(100).withHeight(10))
+            .build()));
+        assertFalse(ImageBatcher.isBatchable(CustomImage.Builder.createBase(base)
+            .addText(new Text.SingleLine("Unbounded"))
+            .build()));
+        assertTrue(ImageBatcher.isBatchable(CustomImage.Builder.createBase(base)
+            .addText(new Text.SingleLine("Bounded").withMaxWidth(200).withMaxHeight(50))
+            .build()));
+    }
+    
+    private static CustomImage badge(int width, int height, int index){
+        return CustomImage.Builder.createBase(new Image.Rectangle()
+            .withWidth(width)
+            .withHeight(height)
+            .withColor(ColorObject.getFromRGB(index, 0, 255)))
+            .addImage(new Image.Rectangle()
+                .withPosX(10)
+                .withPosY(10)
+                .withWidth(10)
+                .withHeight(10)
+                .withColor(ColorObject.getFromRGB(255, 255, 255)))
+            .build();
+    }
+    
+    /*
+     * Paints the rectangles of the received JSON, like the Fluxpoint API would.
+     */
+    private static class StubHandler extends RequestHandler{
+        
+        private final AtomicInteger sheets = new AtomicInteger();
+        private final AtomicInteger singles = new AtomicInteger();
+        
+        @Override
+        public GenericAPIResponse getCustomImage(String token, CustomImage image){
+            singles.incrementAndGet();
+            return getCustomImage(token, toJson(image));
+        }
+        
+        @Override
+        public GenericAPIResponse getCustomImage(String token, JsonObject json){
+            sheets.incrementAndGet();
+            
+            JsonObject base = json.getAsJsonObject("base");
+            BufferedImage image = new BufferedImage(base.get("width").getAsInt(), base.get("height").getAsInt(),
+                BufferedImage.TYPE_INT_ARGB);
+            
+            Graphics2D g = image.createGraphics();
+            paint(g, base);
+            for(JsonElement layer : json.getAsJsonArray("images"))
+                paint(g, layer.getAsJsonObject());
+            g.dispose();
+            
+            return new GeneratedImage(image);
+        }
+        
+        private static void paint(Graphics2D g, JsonObject layer){
+            String[] rgba = layer.get("color").getAsString().split("\\s*,\\s*");
+            g.setColor(new Color(Integer.parseInt(rgba[0]), Integer.parseInt(rgba[1]), Integer.parseInt(rgba[2]),
+                rgba.length == 4 ? Integer.parseInt(rgba[3]) : 255));
+            g.fillRect(layer.get("x").getAsInt(), layer.get("y").getAsInt(), layer.get("width").getAsInt(),
+                layer.get("height").getAsInt());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import ch.andre601.fluxpoint4j.request.LayerOptimizer;
+import ch.andre601.fluxpoint4j.request.RequestHandler;
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LayerOptimizerTest{
+    
+    @Test
+    public void optimizeLayers(){
+        CustomImage image = CustomImage.Builder.createBase(new Image.Rectangle().withWidth(400).withHeight(200))
+            // Off-canvas, transparent and covered layers.
+            .addImage(new Image.Rectangle().withPosX(500).withWidth(10).withHeight(10))
+            .addImage(new Image.Circle().withPosX(50).withPosY(50).withRadius(20).withColor(ColorObject.getFromRGBA(0, 0, 0, 0)))
+            .addImage(new Image.Circle().withPosX(60).withPosY(60).withRadius(10))
+            .addImage(new Image.Rectangle().withPosX(40).withPosY(40).withWidth(100).withHeight(100))
+            // Partially off-canvas and adjacent rectangles.
+            .addImage(new Image.Rectangle().withPosX(350).withPosY(-10).withWidth(100).withHeight(50).withColor(ColorObject.getFromRGB(1, 2, 3)))
+            .addImage(new Image.Rectangle().withPosX(0).withPosY(150).withWidth(100).withHeight(50).withColor(ColorObject.getFromRGB(1, 2, 3)))
+            .addImage(new Image.Rectangle().withPosX(100).withPosY(150).withWidth(100).withHeight(50).withColor(ColorObject.getFromRGB(1, 2, 3)))
+            .addText(new Text.SingleLine("Invisible").withColor(ColorObject.getFromRGBA(0, 0, 0, 0)))
+            .addText(new Text.SingleLine("Below").withPosY(300))
+            .addText(new Text.SingleLine("Visible").withPosX(10).withPosY(10))
+            .build();
+        
+        RequestHandler handler = new RequestHandler();
+        JsonObject json = handler.toJson(image);
+        JsonObject optimized = LayerOptimizer.optimize(json);
+        
+        // The original JSON stays unchanged.
+        assertEquals(7, json.getAsJsonArray("images").size());
+        
+        JsonArray images = optimized.getAsJsonArray("images");
+        assertEquals(3, images.size());
+        assertRectangle(images.get(0).getAsJsonObject(), 40, 40, 100, 100);
+        assertRectangle(images.get(1).getAsJsonObject(), 350, 0, 50, 40);
+        assertRectangle(images.get(2).getAsJsonObject(), 0, 150, 200, 50);
+        assertFalse(images.get(0).getAsJsonObject().has("round"));
+        
+        JsonArray texts = optimized.getAsJsonArray("texts");
+        assertEquals(1, texts.size());
+        
+        JsonObject text = texts.get(0).getAsJsonObject();
+        assertEquals("Visible", text.get("text").getAsString());
+        assertFalse(text.has("bold"));
+        assertFalse(text.has("outlinecolor"));
+        assertTrue(text.has("size"));
+        
+        assertTrue(optimized.toString().length() < json.toString().length() / 2);
+    }
+    
+    private static void assertRectangle(JsonObject layer, int x, int y, int width, int height){
+        assertEquals(x, layer.get("x").getAsInt());
+        assertEquals(y, layer.get("y").getAsInt());
+        assertEquals(width, layer.get("width").getAsInt());
+        assertEquals(height, layer.get("height").getAsInt());
+    }
+}
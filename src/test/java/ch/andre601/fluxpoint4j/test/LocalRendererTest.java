@@ -0,0 +1,215 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import ch.andre601.fluxpoint4j.render.FontRegistry;
+import ch.andre601.fluxpoint4j.render.LayerCache;
+import ch.andre601.fluxpoint4j.render.LocalRenderer;
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocalRendererTest{
+    
+    private final LocalRenderer renderer = new LocalRenderer(url -> {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 10, 10);
+        g.dispose();
+        
+        return image;
+    });
+    
+    @Test
+    public void renderShapes() throws IOException{
+        CustomImage image = CustomImage.Builder.createBase(new Image.Rectangle()
+                .withColor(ColorObject.getFromColor(Color.BLUE))
+                .withWidth(200)
+                .withHeight(100))
+            .addImage(new Image.Circle()
+                .withColor(ColorObject.getFromColor(Color.YELLOW))
+                .withRadius(20)
+                .withPosX(50)
+                .withPosY(50))
+            .addImage(new Image.Triangle()
+                .withColor(ColorObject.getFromString("lime"))
+                .withCut(Image.Cut.TOP_LEFT)
+                .withWidth(40)
+                .withHeight(40)
+                .withPosX(100)
+                .withPosY(10))
+            .addImage(new Image.ImageURL()
+                .withUrl("https://example.com/avatar.png")
+                .withWidth(20)
+                .withHeight(20)
+                .withPosX(170)
+                .withPosY(70))
+            .build();
+        
+        BufferedImage result = renderer.render(image);
+        
+        assertEquals(200, result.getWidth());
+        assertEquals(100, result.getHeight());
+        assertEquals(Color.BLUE.getRGB(), result.getRGB(5, 5));
+        assertEquals(Color.YELLOW.getRGB(), result.getRGB(50, 50));
+        // Cut TOP_LEFT keeps the bottom-right half of the triangle.
+        assertEquals(0xFF00FF00, result.getRGB(135, 45));
+        assertEquals(Color.BLUE.getRGB(), result.getRGB(105, 15));
+        assertEquals(Color.RED.getRGB(), result.getRGB(180, 80));
+    }
+    
+    @Test
+    public void renderText() throws IOException{
+        CustomImage image = CustomImage.Builder.createBase(new Image.Rectangle()
+                .withColor(ColorObject.getFromColor(Color.WHITE))
+                .withWidth(300)
+                .withHeight(100))
+            .addText(new Text.MultiLine("First line", "Second line")
+                .withColor(ColorObject.getFromColor(Color.BLACK))
+                .withSize(20)
+                .withMaxWidth(50)
+                .withPosX(10)
+                .withPosY(10))
+            .build();
+        
+        BufferedImage result = renderer.render(image);
+        
+        boolean painted = false;
+        for(int x = 0; x < 300 && !painted; x++){
+            for(int y = 0; y < 100 && !painted; y++)
+                painted = result.getRGB(x, y) != Color.WHITE.getRGB();
+        }
+        
+        assertTrue(painted);
+        // The text is scaled down to not exceed its max width.
+        for(int y = 0; y < 100; y++)
+            assertEquals(Color.WHITE.getRGB(), result.getRGB(70, y));
+    }
+    
+    @Test
+    public void renderWithLayerCache() throws IOException{
+        LayerCache cache = new LayerCache();
+        LocalRenderer cachedRenderer = new LocalRenderer(url -> new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), cache);
+        
+        for(String username : new String[]{"First", "Second", "Third"}){
+            CustomImage image = getCard(username);
+            
+            BufferedImage expected = renderer.render(image);
+            BufferedImage actual = cachedRenderer.render(image);
+            
+            assertArrayEquals(
+                expected.getRGB(0, 0, 300, 100, null, 0, 300),
+                actual.getRGB(0, 0, 300, 100, null, 0, 300)
+            );
+        }
+        
+        // The second render stores the shared prefix, which the third render starts from.
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+    
+    @Test
+    public void renderWithFontRegistry() throws IOException{
+        FontRegistry fonts = new FontRegistry();
+        LocalRenderer fontRenderer = new LocalRenderer.Builder()
+            .withImageLoader(url -> new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB))
+            .withFontRegistry(fonts)
+            .build();
+        
+        BufferedImage first = fontRenderer.render(getCard("Username"));
+        BufferedImage second = fontRenderer.render(getCard("Username"));
+        
+        assertArrayEquals(
+            first.getRGB(0, 0, 300, 100, null, 0, 300),
+            second.getRGB(0, 0, 300, 100, null, 0, 300)
+        );
+        // The glyphs of the username are only rasterized once.
+        assertEquals(1, fonts.getHits());
+        assertEquals(1, fonts.getMisses());
+        assertEquals("SansSerif", fonts.resolveFamily("sans serif"));
+    }
+    
+    @Test
+    public void renderTiled() throws IOException{
+        LocalRenderer tiledRenderer = new LocalRenderer.Builder()
+            .withImageLoader(url -> new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB))
+            .withTiledRendering(128, 0)
+            .build();
+        
+        CustomImage.Builder builder = CustomImage.Builder.createBase(new Image.Rectangle()
+            .withColor(ColorObject.getFromColor(Color.DARK_GRAY))
+            .withWidth(1500)
+            .withHeight(1000));
+        
+        for(int i = 0; i < 20; i++){
+            builder.addImage(new Image.Circle()
+                    .withColor(ColorObject.getFromRGBA(i * 12, 255 - i * 12, 128, 150))
+                    .withRadius(40 + i * 7)
+                    .withPosX(75 * i + 13)
+                    .withPosY(47 * i + 5))
+                .addImage(new Image.Rectangle()
+                    .withColor(ColorObject.getFromRGBA(255, i * 12, 0, 100))
+                    .withRound(i)
+                    .withWidth(97 + i)
+                    .withHeight(61 + i)
+                    .withPosX(1400 - 70 * i)
+                    .withPosY(31 * i));
+        }
+        
+        CustomImage image = builder
+            .addImage(new Image.Triangle()
+                .withColor(ColorObject.getFromString("#3366cc"))
+                .withCut(Image.Cut.BOTTOM_RIGHT)
+                .withWidth(777)
+                .withHeight(333)
+                .withPosX(101)
+                .withPosY(601))
+            .addText(new Text.MultiLine("Tiled rendering", "should look the same")
+                .withColor(ColorObject.getFromColor(Color.WHITE))
+                .withOutline(true)
+                .withOutlineWidth(4)
+                .withOutlineBlur(2)
+                .withSize(90)
+                .withTextAlignment(Text.TextAlignment.MIDDLE)
+                .withPosX(750)
+                .withPosY(380))
+            .build();
+        
+        BufferedImage expected = renderer.render(image);
+        BufferedImage actual = tiledRenderer.render(image);
+        
+        assertArrayEquals(
+            expected.getRGB(0, 0, 1500, 1000, null, 0, 1500),
+            actual.getRGB(0, 0, 1500, 1000, null, 0, 1500)
+        );
+    }
+    
+    private CustomImage getCard(String username){
+        return CustomImage.Builder.createBase(new Image.Rectangle()
+                .withColor(ColorObject.getFromColor(Color.DARK_GRAY))
+                .withWidth(300)
+                .withHeight(100))
+            .addImage(new Image.Rectangle()
+                .withColor(ColorObject.getFromRGBA(255, 255, 255, 100))
+                .withRound(10)
+                .withWidth(280)
+                .withHeight(80)
+                .withPosX(10)
+                .withPosY(10))
+            .addText(new Text.SingleLine(username)
+                .withColor(ColorObject.getFromColor(Color.WHITE))
+                .withSize(30)
+                .withPosX(20)
+                .withPosY(20))
+            .build();
+    }
+}
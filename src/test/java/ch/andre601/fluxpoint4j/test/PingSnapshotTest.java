@@ -0,0 +1,98 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.mc.PingSnapshot;
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PingSnapshotTest{
+    
+    private static final String ICON = Base64.getEncoder().encodeToString(new byte[2048]);
+    
+    @Test
+    public void roundtrip(@TempDir Path directory) throws IOException{
+        Map<ServerTarget, MCServerPingResponse> responses = new LinkedHashMap<>();
+        for(int i = 0; i < 50; i++){
+            responses.put(new ServerTarget("mc" + i + ".example.com"), new MCServerPingResponse.Builder()
+                .withOnline(true)
+                .withMotd("A Minecraft Server")
+                .withVersion("Paper 1.19.2")
+                .withStatus("ok")
+                .withPlayersOnline(i)
+                .withMaxPlayers(100)
+                .withPlayers("Andre_601", "Steve")
+                .withRawIcon(ICON)
+                .build());
+        }
+        responses.put(new ServerTarget("query.example.com", 25566), new MCServerPingResponse.Builder()
+            .withOnline(true)
+            .withFullQuery(true)
+            .withMotd("Query §aServer")
+            .withPlayersOnline(-1)
+            .withSoftware("Paper on 1.19.2")
+            .withPlugins("WorldEdit 7.2.12", "LuckPerms 5.4")
+            .withRawIcon("not base64\n")
+            .build());
+        responses.put(new ServerTarget("offline.example.com"), new MCServerPingResponse.Builder()
+            .withStatus("offline")
+            .withMessage("Connection refused")
+            .build());
+        
+        Path file = directory.resolve("snapshot.bin");
+        PingSnapshot.write(file, responses);
+        
+        // Shared Strings and icons are only stored once.
+        assertTrue(Files.size(file) * 10 < new Gson().toJson(responses.values()).getBytes(StandardCharsets.UTF_8).length);
+        
+        Map<ServerTarget, MCServerPingResponse> read = PingSnapshot.read(file);
+        assertArrayEquals(responses.keySet().toArray(), read.keySet().toArray());
+        for(Map.Entry<ServerTarget, MCServerPingResponse> entry : responses.entrySet())
+            assertResponse(entry.getValue(), read.get(entry.getKey()));
+        
+        MCServerPingResponse offline = read.get(new ServerTarget("offline.example.com"));
+        assertNull(offline.getMotd());
+        assertNull(offline.getRawIcon());
+    }
+    
+    @Test
+    public void rejectInvalidData(){
+        assertThrows(IOException.class, () -> PingSnapshot.decode(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5})));
+        
+        ByteBuffer buffer = PingSnapshot.encode(new LinkedHashMap<>());
+        buffer.limit(buffer.limit() - 1);
+        assertThrows(IOException.class, () -> PingSnapshot.decode(buffer));
+    }
+    
+    private static void assertResponse(MCServerPingResponse expected, MCServerPingResponse actual){
+        assertEquals(expected.getCode(), actual.getCode());
+        assertEquals(expected.getMessage(), actual.getMessage());
+        assertEquals(expected.isOnline(), actual.isOnline());
+        assertEquals(expected.isFullQuery(), actual.isFullQuery());
+        assertEquals(expected.getMotd(), actual.getMotd());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getPlayersOnline(), actual.getPlayersOnline());
+        assertEquals(expected.getMaxPlayers(), actual.getMaxPlayers());
+        assertEquals(expected.getRawIcon(), actual.getRawIcon());
+        assertEquals(expected.getSoftware(), actual.getSoftware());
+        assertArrayEquals(expected.getPlayers(), actual.getPlayers());
+        assertArrayEquals(expected.getPlugins(), actual.getPlugins());
+    }
+}
@@ -0,0 +1,106 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.mc.history.PlayerHistory;
+import ch.andre601.fluxpoint4j.mc.history.PlayerSamples;
+import ch.andre601.fluxpoint4j.mc.history.PlayerStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PlayerHistoryTest{
+    
+    private static final ServerTarget TARGET = new ServerTarget("example.com");
+    private static final long MINUTE = 60_000;
+    
+    @Test
+    public void querySamples(){
+        PlayerHistory history = new PlayerHistory(100);
+        
+        // 150 samples, one per minute, of which the oldest 50 get overwritten.
+        for(int i = 0; i < 150; i++)
+            history.record(TARGET, i * MINUTE, i % 10 == 9 ? -1 : i);
+        
+        assertEquals(100, history.size(TARGET));
+        
+        PlayerSamples samples = history.getSamples(TARGET, 0, 54 * MINUTE);
+        assertArrayEquals(new long[]{50 * MINUTE, 51 * MINUTE, 52 * MINUTE, 53 * MINUTE, 54 * MINUTE}, samples.getTimestamps());
+        assertArrayEquals(new int[]{50, 51, 52, 53, 54}, samples.getPlayers());
+        
+        samples = history.getSamples(TARGET, 137 * MINUTE + 1, 140 * MINUTE);
+        assertArrayEquals(new int[]{138, -1, 140}, samples.getPlayers());
+        
+        PlayerStats stats = history.getStats(TARGET, 100 * MINUTE, 119 * MINUTE);
+        assertEquals(20, stats.getSamples());
+        assertEquals(100, stats.getMin());
+        assertEquals(118, stats.getMax());
+        assertEquals(0.9, stats.getUptime(), 1e-9);
+        assertEquals(109, stats.getAverage(), 1e-9);
+        
+        samples = history.downsample(TARGET, 100 * MINUTE, 119 * MINUTE, 10 * MINUTE);
+        assertArrayEquals(new long[]{100 * MINUTE, 110 * MINUTE}, samples.getTimestamps());
+        assertArrayEquals(new int[]{104, 114}, samples.getPlayers());
+    }
+    
+    @Test
+    public void bridgeLargeGaps(){
+        PlayerHistory history = new PlayerHistory(10);
+        long later = 60L * 24 * 60 * MINUTE;
+        
+        history.record(TARGET, 0, 1);
+        history.record(TARGET, later, 2);
+        
+        PlayerSamples samples = history.getSamples(TARGET, 0, later);
+        assertArrayEquals(new long[]{0, later}, samples.getTimestamps());
+        assertArrayEquals(new int[]{1, 2}, samples.getPlayers());
+    }
+    
+    @Test
+    public void keepSingleSample(){
+        PlayerHistory history = new PlayerHistory(1);
+        long later = 60L * 24 * 60 * MINUTE;
+        
+        history.record(TARGET, 100, 1);
+        history.record(TARGET, 200, 2);
+        assertEquals(1, history.size(TARGET));
+        
+        PlayerSamples samples = history.getSamples(TARGET, 0, Long.MAX_VALUE);
+        assertArrayEquals(new long[]{200}, samples.getTimestamps());
+        assertArrayEquals(new int[]{2}, samples.getPlayers());
+        assertEquals(2, history.getStats(TARGET, 200, 200).getMax());
+        
+        // Gap samples bridging the delta overwrite each other as well.
+        history.record(TARGET, later, 3);
+        samples = history.getSamples(TARGET, 0, Long.MAX_VALUE);
+        assertArrayEquals(new long[]{later}, samples.getTimestamps());
+        assertArrayEquals(new int[]{3}, samples.getPlayers());
+    }
+    
+    @Test
+    public void reopenFile(@TempDir Path directory) throws IOException{
+        Path file = directory.resolve("players.bin");
+        ServerTarget other = new ServerTarget("other.example.com", 25566);
+        
+        try(PlayerHistory history = new PlayerHistory(file, 8)){
+            for(int i = 0; i < 12; i++)
+                history.record(TARGET, i * MINUTE, i);
+            history.record(other, 0, -1);
+        }
+        
+        // The capacity of the existing file is used.
+        try(PlayerHistory history = new PlayerHistory(file, 100)){
+            assertEquals(8, history.getCapacity());
+            assertEquals(2, history.getTargets().size());
+            assertArrayEquals(new int[]{4, 5, 6, 7, 8, 9, 10, 11}, history.getSamples(TARGET, 0, Long.MAX_VALUE).getPlayers());
+            assertArrayEquals(new int[]{-1}, history.getSamples(other, 0, 0).getPlayers());
+            
+            history.record(TARGET, 12 * MINUTE, 12);
+            assertEquals(11 * MINUTE, history.getSamples(TARGET, 5 * MINUTE, 12 * MINUTE).getTimestamp(6));
+        }
+    }
+}
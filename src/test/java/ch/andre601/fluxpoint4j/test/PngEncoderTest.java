@@ -0,0 +1,76 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.png.PngEncoder;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PngEncoderTest{
+    
+    @Test
+    public void encodeFilters() throws IOException{
+        BufferedImage image = getImage(BufferedImage.TYPE_INT_ARGB);
+        
+        for(PngEncoder.Filter filter : PngEncoder.Filter.values()){
+            // Small chunks, so that the image is compressed in multiple parts.
+            PngEncoder encoder = new PngEncoder.Builder()
+                .withFilter(filter)
+                .withChunkSize(4096)
+                .build();
+            
+            assertDecodesTo(image, encoder.encode(image));
+        }
+    }
+    
+    @Test
+    public void encodeOpaque() throws IOException{
+        BufferedImage image = getImage(BufferedImage.TYPE_INT_RGB);
+        
+        PngEncoder encoder = new PngEncoder.Builder()
+            .withCompressionLevel(9)
+            .withChunkSize(1024)
+            .build();
+        
+        assertDecodesTo(image, encoder.encode(image));
+        // Encoding in parallel does not change the result.
+        assertArrayEquals(encoder.encode(image), new PngEncoder.Builder()
+            .withCompressionLevel(9)
+            .withChunkSize(1024)
+            .withParallel(false)
+            .build()
+            .encode(image));
+    }
+    
+    private void assertDecodesTo(BufferedImage expected, byte[] png) throws IOException{
+        BufferedImage actual = ImageIO.read(new ByteArrayInputStream(png));
+        
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertArrayEquals(
+            expected.getRGB(0, 0, expected.getWidth(), expected.getHeight(), null, 0, expected.getWidth()),
+            actual.getRGB(0, 0, actual.getWidth(), actual.getHeight(), null, 0, actual.getWidth())
+        );
+    }
+    
+    private BufferedImage getImage(int type){
+        BufferedImage image = new BufferedImage(123, 77, type);
+        Random random = new Random(601);
+        
+        // Gradients with some noise, so that every filter is picked at least once by the adaptive filter.
+        for(int y = 0; y < image.getHeight(); y++){
+            for(int x = 0; x < image.getWidth(); x++){
+                int noise = random.nextInt(8);
+                image.setRGB(x, y, (x * 2 + noise) << 24 | (y * 3) << 16 | (x + y + noise) << 8 | random.nextInt(256));
+            }
+        }
+        
+        return image;
+    }
+}
@@ -0,0 +1,60 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.mc.index.PresenceIndex;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PresenceIndexTest{
+    
+    private static final ServerTarget LOBBY = new ServerTarget("lobby.example.com");
+    private static final ServerTarget SURVIVAL = new ServerTarget("survival.example.com");
+    
+    @Test
+    public void updatePresence(){
+        PresenceIndex index = new PresenceIndex();
+        
+        index.update(LOBBY, response(true, "Andre_601", "Fluxpoint", "Steve"));
+        index.update(SURVIVAL, response(true, "steve", "Alex"));
+        
+        assertEquals(4, index.getPlayerCount());
+        assertEquals(new HashSet<>(Arrays.asList(LOBBY, SURVIVAL)), index.getServers("STEVE"));
+        assertEquals(new HashSet<>(Arrays.asList(LOBBY)), index.getServers("andre_601"));
+        
+        // Only the players that left or joined are updated.
+        index.update(LOBBY, response(true, "Andre_601", "Notch"));
+        assertEquals(new HashSet<>(Arrays.asList(SURVIVAL)), index.getServers("Steve"));
+        assertFalse(index.isOnline("Fluxpoint"));
+        assertTrue(index.isOnline("Notch"));
+        assertArrayEquals(new String[]{"Andre_601", "Notch"}, sorted(index.getPlayers(LOBBY)));
+        
+        index.update(SURVIVAL, response(false));
+        assertTrue(index.getServers("Alex").isEmpty());
+        assertEquals(2, index.getPlayerCount());
+        
+        assertTrue(index.remove(LOBBY));
+        assertEquals(0, index.getPlayerCount());
+        assertEquals(1, index.getServerCount());
+    }
+    
+    private static String[] sorted(String[] array){
+        Arrays.sort(array);
+        return array;
+    }
+    
+    private static MCServerPingResponse response(boolean online, String... players){
+        return new MCServerPingResponse.Builder()
+            .withOnline(online)
+            .withPlayersOnline(players.length)
+            .withPlayers(players)
+            .build();
+    }
+}
@@ -0,0 +1,63 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.mc.index.IndexedServer;
+import ch.andre601.fluxpoint4j.mc.index.ServerIndex;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ServerIndexTest{
+    
+    @Test
+    public void querySnapshot(){
+        ServerIndex index = new ServerIndex();
+        for(int i = 0; i < 100; i++)
+            index.update(target(i), response(i % 5 != 0, i, i % 2 == 0 ? "1.19.2" : "1.8.9"));
+        
+        ServerIndex.Snapshot snapshot = index.getSnapshot();
+        assertSame(snapshot, index.getSnapshot());
+        assertEquals(80, snapshot.getOnlineCount());
+        assertEquals(20, snapshot.getOfflineCount());
+        
+        List<IndexedServer> top = snapshot.getTop(3);
+        assertEquals(target(99), top.get(0).getTarget());
+        assertEquals(target(98), top.get(1).getTarget());
+        assertEquals(target(97), top.get(2).getTarget());
+        
+        assertEquals(50, snapshot.getByVersion("1.8.9").size());
+        assertEquals(target(99), snapshot.getByVersion("1.8.9").get(0).getTarget());
+        assertEquals(80, snapshot.getByStatus("ok").size());
+        assertEquals(0, snapshot.getByVersion("1.12.2").size());
+        
+        // Updates create a new snapshot and leave the old one unchanged.
+        index.update(target(1), response(true, 500, "1.12.2"));
+        index.remove(target(99));
+        
+        ServerIndex.Snapshot updated = index.getSnapshot();
+        assertEquals(target(1), updated.getTop(1).get(0).getTarget());
+        assertEquals(target(98), updated.getTop(2).get(1).getTarget());
+        assertEquals(1, updated.getByVersion("1.12.2").size());
+        assertNull(updated.get(target(99)));
+        assertEquals(99, updated.size());
+        assertEquals(target(99), snapshot.getTop(1).get(0).getTarget());
+    }
+    
+    private static ServerTarget target(int i){
+        return new ServerTarget("server" + i + ".example.com");
+    }
+    
+    private static MCServerPingResponse response(boolean online, int players, String version){
+        return new MCServerPingResponse.Builder()
+            .withOnline(online)
+            .withStatus(online ? "ok" : "offline")
+            .withPlayersOnline(online ? players : 0)
+            .withVersion(version)
+            .build();
+    }
+}
@@ -0,0 +1,183 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.mc.ServerListPinger;
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.FailedAPIResponse;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServerListPingerTest{
+    
+    private static final String STATUS = "{\"version\":{\"name\":\"Paper 1.19.2\",\"protocol\":760}," +
+        "\"players\":{\"max\":100,\"online\":2,\"sample\":[{\"name\":\"Andre_601\",\"id\":\"0\"},{\"name\":\"Fluxpoint\",\"id\":\"1\"}]}," +
+        "\"description\":{\"text\":\"A \",\"extra\":[{\"text\":\"Minecraft\",\"bold\":true},\" Server\"]}," +
+        "\"favicon\":\"data:image/png;base64,iVBORw0KGgo=\"}";
+    
+    private ServerSocket server;
+    private ServerListPinger pinger;
+    
+    private volatile String status = STATUS;
+    
+    @BeforeEach
+    public void setup() throws IOException{
+        server = new ServerSocket(0, 100, InetAddress.getLoopbackAddress());
+        pinger = new ServerListPinger(2, TimeUnit.SECONDS);
+    }
+    
+    @AfterEach
+    public void tearDown() throws IOException{
+        pinger.close();
+        server.close();
+    }
+    
+    @Test
+    public void pingServer(){
+        startServer(true);
+        
+        List<CompletableFuture<GenericAPIResponse>> futures = new ArrayList<>();
+        for(int i = 0; i < 50; i++)
+            futures.add(pinger.ping(new ServerTarget("127.0.0.1", server.getLocalPort())));
+        
+        for(CompletableFuture<GenericAPIResponse> future : futures){
+            GenericAPIResponse response = future.join();
+            assertTrue(response instanceof MCServerPingResponse);
+            
+            MCServerPingResponse ping = (MCServerPingResponse)response;
+            assertTrue(ping.isOnline());
+            assertEquals("ok", ping.getStatus());
+            assertEquals("A Minecraft Server", ping.getMotd());
+            assertEquals("Paper 1.19.2", ping.getVersion());
+            assertEquals(2, ping.getPlayersOnline());
+            assertEquals(100, ping.getMaxPlayers());
+            assertArrayEquals(new String[]{"Andre_601", "Fluxpoint"}, ping.getPlayers());
+            assertEquals("iVBORw0KGgo=", ping.getRawIcon());
+        }
+    }
+    
+    @Test
+    public void pingTimeout(){
+        startServer(false);
+        
+        MCServerPingResponse response = (MCServerPingResponse)pinger.ping(new ServerTarget("127.0.0.1", server.getLocalPort())).join();
+        assertFalse(response.isOnline());
+        assertEquals("offline", response.getStatus());
+        assertTrue(response.getMessage().startsWith("Timed out"));
+    }
+    
+    @Test
+    public void pingClosedPort() throws IOException{
+        int port = server.getLocalPort();
+        server.close();
+        
+        MCServerPingResponse response = (MCServerPingResponse)pinger.ping(new ServerTarget("127.0.0.1", port)).join();
+        assertFalse(response.isOnline());
+        assertEquals("offline", response.getStatus());
+    }
+    
+    @Test
+    public void pingInvalidStatus() throws Exception{
+        startServer(true);
+        ServerTarget target = new ServerTarget("127.0.0.1", server.getLocalPort());
+        
+        String[] invalid = {
+            "{\"players\":{\"online\":\"abc\",\"max\":10}}",
+            "{\"players\":{\"online\":null,\"max\":10}}",
+            "{\"players\":{\"online\":2,\"sample\":[{\"name\":[]}]}}"
+        };
+        for(String json : invalid){
+            status = json;
+            GenericAPIResponse response = pinger.ping(target).get(5, TimeUnit.SECONDS);
+            assertTrue(response instanceof FailedAPIResponse, json);
+        }
+        
+        // A broken server must not stop the pinger from pinging others.
+        status = STATUS;
+        GenericAPIResponse response = pinger.ping(target).get(5, TimeUnit.SECONDS);
+        assertTrue(response instanceof MCServerPingResponse);
+        assertTrue(((MCServerPingResponse)response).isOnline());
+    }
+    
+    /*
+     * Minimal server answering the handshake and status request, or never answering at all.
+     */
+    private void startServer(boolean respond){
+        Thread thread = new Thread(() -> {
+            while(!server.isClosed()){
+                try{
+                    Socket socket = server.accept();
+                    if(respond){
+                        new Thread(() -> answer(socket)).start();
+                    }
+                }catch(IOException ignored){}
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private void answer(Socket socket){
+        try(Socket s = socket){
+            DataInputStream in = new DataInputStream(s.getInputStream());
+            
+            // Handshake and status request
+            in.readFully(new byte[readVarInt(in)]);
+            in.readFully(new byte[readVarInt(in)]);
+            
+            byte[] json = status.getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream packet = new ByteArrayOutputStream();
+            writeVarInt(packet, 0);
+            writeVarInt(packet, json.length);
+            packet.write(json);
+            
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            writeVarInt(response, packet.size());
+            packet.writeTo(response);
+            
+            DataOutputStream out = new DataOutputStream(s.getOutputStream());
+            out.write(response.toByteArray());
+            out.flush();
+        }catch(IOException ignored){}
+    }
+    
+    private static int readVarInt(DataInputStream in) throws IOException{
+        int value = 0;
+        for(int i = 0; i < 5; i++){
+            byte current = in.readByte();
+            value |= (current & 0x7F) << (7 * i);
+            if((current & 0x80) == 0)
+                return value;
+        }
+        
+        throw new IOException("VarInt too long");
+    }
+    
+    private static void writeVarInt(ByteArrayOutputStream out, int value){
+        while((value & ~0x7F) != 0){
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        
+        out.write(value);
+    }
+}
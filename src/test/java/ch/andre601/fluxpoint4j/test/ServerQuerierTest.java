@@ -0,0 +1,178 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.mc.ServerQuerier;
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.request.FailedAPIResponse;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServerQuerierTest{
+    
+    private static final int TOKEN = 9513307;
+    
+    private DatagramSocket server;
+    private ServerQuerier querier;
+    private volatile boolean truncate = false;
+    
+    @BeforeEach
+    public void setup() throws IOException{
+        server = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        querier = new ServerQuerier(2, TimeUnit.SECONDS);
+    }
+    
+    @AfterEach
+    public void tearDown(){
+        querier.close();
+        server.close();
+    }
+    
+    @Test
+    public void queryServer(){
+        startServer(true);
+        
+        List<CompletableFuture<GenericAPIResponse>> futures = new ArrayList<>();
+        for(int i = 0; i < 50; i++)
+            futures.add(querier.query(new ServerTarget("127.0.0.1", server.getLocalPort())));
+        
+        for(CompletableFuture<GenericAPIResponse> future : futures){
+            GenericAPIResponse response = future.join();
+            assertTrue(response instanceof MCServerPingResponse);
+            
+            MCServerPingResponse query = (MCServerPingResponse)response;
+            assertTrue(query.isOnline());
+            assertTrue(query.isFullQuery());
+            assertEquals("A Minecraft Server", query.getMotd());
+            assertEquals("1.19.2", query.getVersion());
+            assertEquals(2, query.getPlayersOnline());
+            assertEquals(20, query.getMaxPlayers());
+            assertArrayEquals(new String[]{"Andre_601", "Fluxpoint"}, query.getPlayers());
+            assertEquals("Paper on git-Paper-307", query.getSoftware());
+            assertArrayEquals(new String[]{"WorldEdit 7.2.12", "Vault 1.7.3"}, query.getPlugins());
+        }
+    }
+    
+    @Test
+    public void queryTimeout(){
+        startServer(false);
+        
+        MCServerPingResponse response = (MCServerPingResponse)querier.query(new ServerTarget("127.0.0.1", server.getLocalPort()), 200, TimeUnit.MILLISECONDS).join();
+        assertFalse(response.isOnline());
+        assertEquals("offline", response.getStatus());
+        assertTrue(response.getMessage().startsWith("Timed out"));
+    }
+    
+    @Test
+    public void queryTruncatedResponse() throws Exception{
+        startServer(true);
+        ServerTarget target = new ServerTarget("127.0.0.1", server.getLocalPort());
+        
+        truncate = true;
+        GenericAPIResponse response = querier.query(target).get(5, TimeUnit.SECONDS);
+        assertTrue(response instanceof FailedAPIResponse);
+        assertTrue(((FailedAPIResponse)response).getMessage().startsWith("Invalid query response"));
+        
+        // The querier keeps receiving packets after the malformed one.
+        truncate = false;
+        response = querier.query(target).get(5, TimeUnit.SECONDS);
+        assertTrue(response instanceof MCServerPingResponse);
+        assertTrue(((MCServerPingResponse)response).isOnline());
+    }
+    
+    /*
+     * Minimal server answering handshakes and full stat requests, or ignoring all packets.
+     */
+    private void startServer(boolean respond){
+        Thread thread = new Thread(() -> {
+            byte[] data = new byte[1500];
+            while(!server.isClosed()){
+                try{
+                    DatagramPacket packet = new DatagramPacket(data, data.length);
+                    server.receive(packet);
+                    if(!respond)
+                        continue;
+                    
+                    ByteBuffer request = ByteBuffer.wrap(data, 0, packet.getLength());
+                    request.getShort();
+                    byte type = request.get();
+                    int session = request.getInt();
+                    
+                    byte[] response = type == 9 ? handshake(session) : stat(session, request.getInt());
+                    // Cut the stat response off within the padding before the key-value section.
+                    if(type == 0 && truncate)
+                        response = Arrays.copyOf(response, 9);
+                    server.send(new DatagramPacket(response, response.length, packet.getSocketAddress()));
+                }catch(IOException ignored){}
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private static byte[] handshake(int session){
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(9);
+        writeInt(out, session);
+        writeString(out, String.valueOf(TOKEN));
+        return out.toByteArray();
+    }
+    
+    private static byte[] stat(int session, int token){
+        assertEquals(TOKEN, token);
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0);
+        writeInt(out, session);
+        writeString(out, "splitnum");
+        out.write(0x80);
+        out.write(0);
+        
+        String[] values = {"hostname", "A Minecraft Server", "gametype", "SMP", "game_id", "MINECRAFT",
+            "version", "1.19.2", "plugins", "Paper on git-Paper-307: WorldEdit 7.2.12; Vault 1.7.3", "map", "world",
+            "numplayers", "2", "maxplayers", "20", "hostport", "25565", "hostip", "127.0.0.1"};
+        for(String value : values)
+            writeString(out, value);
+        
+        out.write(0);
+        out.write(1);
+        writeString(out, "player_");
+        out.write(0);
+        writeString(out, "Andre_601");
+        writeString(out, "Fluxpoint");
+        out.write(0);
+        return out.toByteArray();
+    }
+    
+    private static void writeInt(ByteArrayOutputStream out, int value){
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+    
+    private static void writeString(ByteArrayOutputStream out, String value){
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+        out.write(0);
+    }
+}
@@ -0,0 +1,89 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.mc.ServerTarget;
+import ch.andre601.fluxpoint4j.mc.watcher.ServerChangeEvent;
+import ch.andre601.fluxpoint4j.mc.watcher.ServerWatcher;
+import ch.andre601.fluxpoint4j.request.GenericAPIResponse;
+import ch.andre601.fluxpoint4j.request.MCServerPingResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServerWatcherTest{
+    
+    @Test
+    public void watchServer() throws InterruptedException{
+        ServerTarget target = new ServerTarget("example.com");
+        AtomicReference<MCServerPingResponse> status = new AtomicReference<>(response(true, 5));
+        AtomicInteger pings = new AtomicInteger();
+        BlockingQueue<ServerChangeEvent> events = new LinkedBlockingQueue<>();
+        
+        ServerWatcher watcher = new ServerWatcher.Builder()
+            .withPingSource(server -> {
+                pings.incrementAndGet();
+                return CompletableFuture.completedFuture((GenericAPIResponse)status.get());
+            })
+            .withTickDuration(5, TimeUnit.MILLISECONDS)
+            .withWheelSize(16)
+            .withMaxBackoff(4)
+            .build();
+        watcher.addListener(events::add);
+        
+        try{
+            assertTrue(watcher.watch(target, 40, TimeUnit.MILLISECONDS));
+            assertFalse(watcher.watch(target, 40, TimeUnit.MILLISECONDS));
+            
+            // The first response reports all values as changed.
+            ServerChangeEvent event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event);
+            assertNull(event.getPrevious());
+            assertEquals(EnumSet.allOf(ServerChangeEvent.Change.class), event.getChanges());
+            
+            // Unchanged responses don't create events, but increase the interval.
+            Thread.sleep(800);
+            assertNull(events.poll());
+            assertEquals(160, watcher.getInterval(target, TimeUnit.MILLISECONDS));
+            
+            status.set(response(true, 6));
+            event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event);
+            assertEquals(EnumSet.of(ServerChangeEvent.Change.PLAYERS_ONLINE), event.getChanges());
+            assertEquals(5, event.getPrevious().getPlayersOnline());
+            assertEquals(6, event.getCurrent().getPlayersOnline());
+            
+            status.set(response(false, 0));
+            event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event);
+            assertTrue(event.hasChanged(ServerChangeEvent.Change.ONLINE));
+            
+            assertTrue(watcher.unwatch(target));
+            Thread.sleep(100);
+            int count = pings.get();
+            Thread.sleep(300);
+            assertEquals(count, pings.get());
+        }finally{
+            watcher.close();
+        }
+    }
+    
+    private static MCServerPingResponse response(boolean online, int players){
+        return new MCServerPingResponse.Builder()
+            .withOnline(online)
+            .withPlayersOnline(players)
+            .withMotd("A Minecraft Server")
+            .withVersion("1.19.2")
+            .build();
+    }
+}
@@ -0,0 +1,118 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.Fluxpoint4J;
+import ch.andre601.fluxpoint4j.request.CanonicalJson;
+import ch.andre601.fluxpoint4j.request.RequestEvent;
+import ch.andre601.fluxpoint4j.request.RequestHandler;
+import ch.andre601.fluxpoint4j.simulator.FluxpointSimulator;
+import ch.andre601.fluxpoint4j.simulator.SimulatorProfile;
+import ch.andre601.fluxpoint4j.traffic.SlowRequestLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ch.andre601.fluxpoint4j.simulator.SimulatorFixtures.createApi;
+import static ch.andre601.fluxpoint4j.simulator.SimulatorFixtures.image;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SlowRequestLogTest{
+    
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    public void captureSlowRequests(){
+        SlowRequestLog log = new SlowRequestLog(100, TimeUnit.MILLISECONDS, 4);
+        String body = new RequestHandler().toJson(image(300, 150, "Slow")).toString();
+        
+        log.onRequest(new RequestEvent("/gen/custom", null, body, 1_000, FAST, 200, 10));
+        log.onRequest(new RequestEvent("/mc/ping", "host=example.com&port=25565&icon=false", null, 1_000, SLOW, 200, 10));
+        log.onRequest(new RequestEvent("/gen/custom", null, body, 2_000, SLOW, 200, 10, 1_000, SLOW - 2_000, 1_000));
+        
+        List<SlowRequestLog.Entry> entries = log.dump();
+        assertEquals(1, entries.size());
+        
+        SlowRequestLog.Entry entry = entries.get(0);
+        assertEquals(2_000, entry.getTimestamp());
+        assertEquals(300, entry.getWidth());
+        assertEquals(150, entry.getHeight());
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length, entry.getBodySize());
+        assertEquals(1, entry.getLayerCounts().get("bitmap"));
+        assertEquals(1, entry.getLayerCounts().get("circle"));
+        assertEquals(2, entry.getLayerCounts().get("text"));
+        assertEquals(500, entry.getDuration(TimeUnit.MILLISECONDS));
+        assertEquals(1_000, entry.getEncodeDuration(TimeUnit.NANOSECONDS));
+        assertEquals(1, entry.getResponseDuration(TimeUnit.MICROSECONDS));
+        assertEquals(64, entry.getHash().length());
+    }
+    
+    @Test
+    public void hashCanonicalJson(){
+        SlowRequestLog log = new SlowRequestLog(0, TimeUnit.MILLISECONDS, 4);
+        RequestHandler handler = new RequestHandler();
+        
+        log.onRequest(new RequestEvent("/gen/custom", null, handler.toJson(image(300, 150, "A")).toString(), 0, SLOW, 200, 0));
+        // Same image, but with all defaults omitted and in a different key order.
+        log.onRequest(new RequestEvent("/gen/custom", null, CanonicalJson.encode(image(300, 150, "A")), 0, SLOW, 200, 0));
+        log.onRequest(new RequestEvent("/gen/custom", null, handler.toJson(image(300, 150, "B")).toString(), 0, SLOW, 200, 0));
+        
+        List<SlowRequestLog.Entry> entries = log.dump();
+        assertEquals(entries.get(0).getHash(), entries.get(1).getHash());
+        assertNotEquals(entries.get(0).getHash(), entries.get(2).getHash());
+    }
+    
+    @Test
+    public void keepMostRecent(){
+        SlowRequestLog log = new SlowRequestLog(100, TimeUnit.MILLISECONDS, 3);
+        String body = new RequestHandler().toJson(image(100, 100, "Ring")).toString();
+        
+        for(int i = 0; i < 5; i++)
+            log.onRequest(new RequestEvent("/gen/custom", null, body, i, SLOW, 200, 0));
+        
+        List<SlowRequestLog.Entry> entries = log.dump();
+        assertEquals(3, entries.size());
+        for(int i = 0; i < entries.size(); i++)
+            assertEquals(i + 2, entries.get(i).getTimestamp());
+        
+        log.clear();
+        assertTrue(log.dump().isEmpty());
+    }
+    
+    @Test
+    public void dumpRequests() throws Exception{
+        SlowRequestLog log = new SlowRequestLog(40, TimeUnit.MILLISECONDS, 8);
+        
+        try(FluxpointSimulator simulator = new FluxpointSimulator(new SimulatorProfile().withLatency(60, TimeUnit.MILLISECONDS))){
+            Fluxpoint4J api = createApi(simulator);
+            api.addRequestListener(log);
+            
+            api.getCustomImage(image(200, 100, "First"));
+            api.getCustomImage(image(200, 100, "Second"));
+        }
+        
+        List<SlowRequestLog.Entry> entries = log.dump();
+        assertEquals(2, entries.size());
+        for(SlowRequestLog.Entry entry : entries){
+            assertEquals(200, entry.getCode());
+            assertTrue(entry.getEncodeDuration(TimeUnit.NANOSECONDS) >= 0);
+            assertTrue(entry.getRequestDuration(TimeUnit.MILLISECONDS) >= 40);
+            assertTrue(entry.getResponseDuration(TimeUnit.NANOSECONDS) >= 0);
+        }
+        
+        Path file = directory.resolve("slow.jsonl");
+        log.dump(file);
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"hash\":\"" + entries.get(0).getHash() + "\""));
+    }
+}
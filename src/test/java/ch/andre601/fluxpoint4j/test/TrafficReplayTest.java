@@ -0,0 +1,111 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.Fluxpoint4J;
+import ch.andre601.fluxpoint4j.request.RequestEvent;
+import ch.andre601.fluxpoint4j.request.RequestHandler;
+import ch.andre601.fluxpoint4j.simulator.FluxpointSimulator;
+import ch.andre601.fluxpoint4j.simulator.SimulatorProfile;
+import ch.andre601.fluxpoint4j.traffic.TrafficRecorder;
+import ch.andre601.fluxpoint4j.traffic.TrafficReplayer;
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import ch.andre601.fluxpoint4j.welcome.WelcomeImage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ch.andre601.fluxpoint4j.simulator.SimulatorFixtures.createApi;
+import static ch.andre601.fluxpoint4j.simulator.SimulatorFixtures.image;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrafficReplayTest{
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    public void recordAndReplay() throws Exception{
+        Path file = directory.resolve("traffic.jsonl");
+        
+        try(FluxpointSimulator simulator = new FluxpointSimulator(new SimulatorProfile()
+            .withScript(SimulatorProfile.Fault.NONE, SimulatorProfile.Fault.NONE, SimulatorProfile.Fault.RATE_LIMIT))){
+            Fluxpoint4J api = createApi(simulator);
+            
+            try(TrafficRecorder recorder = new TrafficRecorder(file)){
+                api.addRequestListener(recorder);
+                api.getCustomImage(image(200, 100, "Recorded"));
+                api.getWelcomeImage(new WelcomeImage.Builder()
+                    .withUsername("User")
+                    .withAvatar("https://example.com/avatar.png")
+                    .withBackgroundColor(ColorObject.getFromRGB(1, 2, 3))
+                    .build());
+                api.getNewMCRequestBuilder().withHost("play.example.com").withPort(25570).performRequest();
+                api.removeRequestListener(recorder);
+            }
+            
+            // Not recorded, as the listener has been removed.
+            api.getCustomImage(image(200, 100, "Recorded"));
+        }
+        
+        List<RequestEvent> recorded = TrafficRecorder.read(file);
+        assertEquals(3, recorded.size());
+        
+        RequestEvent custom = recorded.get(0);
+        assertEquals("/gen/custom", custom.getEndpoint());
+        assertEquals(200, custom.getCode());
+        assertTrue(custom.getResponseSize() > 0);
+        assertTrue(custom.getBody().contains("\"Recorded\""));
+        assertNull(custom.getQuery());
+        
+        assertEquals("/gen/welcome", recorded.get(1).getEndpoint());
+        
+        RequestEvent ping = recorded.get(2);
+        assertEquals("/mc/ping", ping.getEndpoint());
+        assertEquals("host=play.example.com&port=25570&icon=false", ping.getQuery());
+        assertEquals(429, ping.getCode());
+        assertFalse(ping.isSuccessful());
+        
+        try(FluxpointSimulator simulator = new FluxpointSimulator()){
+            TrafficReplayer replayer = createApi(simulator).createTrafficReplayer();
+            List<RequestEvent> replayed = replayer.replay(recorded, Double.POSITIVE_INFINITY);
+            
+            assertEquals(3, replayed.size());
+            for(int i = 0; i < replayed.size(); i++){
+                assertEquals(recorded.get(i).getEndpoint(), replayed.get(i).getEndpoint());
+                assertEquals(200, replayed.get(i).getCode());
+            }
+            assertEquals(1, simulator.getRequests("/gen/custom"));
+            assertEquals(1, simulator.getRequests("/gen/welcome"));
+            assertEquals(1, simulator.getRequests("/mc/ping"));
+        }
+    }
+    
+    @Test
+    public void keepIntervals() throws Exception{
+        String body = new RequestHandler().toJson(image(200, 100, "Recorded")).toString();
+        List<RequestEvent> events = new ArrayList<>();
+        // Recorded out of order, as requests are recorded once they complete.
+        events.add(new RequestEvent("/gen/custom", null, body, 1_400, 0, 200, 0));
+        events.add(new RequestEvent("/gen/custom", null, body, 1_000, 0, 200, 0));
+        events.add(new RequestEvent("/gen/custom", null, body, 1_200, 0, 200, 0));
+        
+        try(FluxpointSimulator simulator = new FluxpointSimulator()){
+            TrafficReplayer replayer = createApi(simulator).createTrafficReplayer();
+            
+            List<RequestEvent> replayed = replayer.replay(events, 2);
+            assertEquals(3, replayed.size());
+            
+            // 400 milliseconds at twice the speed. Only the lower bound is checked, as a busy machine may delay requests.
+            long duration = replayed.get(0).getTimestamp() - replayed.get(1).getTimestamp();
+            assertTrue(duration >= 150, "Took " + duration + "ms");
+            assertTrue(replayed.get(2).getTimestamp() > replayed.get(1).getTimestamp());
+            assertTrue(replayed.get(0).getTimestamp() > replayed.get(2).getTimestamp());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import ch.andre601.fluxpoint4j.render.WelcomeRenderer;
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import ch.andre601.fluxpoint4j.welcome.WelcomeImage;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WelcomeRendererTest{
+    
+    private static final String AVATAR = "https://example.com/avatar.png";
+    private static final String BANNER = "https://example.com/banner.png";
+    private static final String ICON = "https://example.com/icon.png";
+    
+    private final WelcomeRenderer renderer = new WelcomeRenderer(url -> {
+        if(!url.startsWith("https://example.com/"))
+            throw new IOException("Unknown image " + url);
+        
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 10, 10);
+        g.dispose();
+        
+        return image;
+    });
+    
+    @Test
+    public void layout(){
+        CustomImage image = renderer.toCustomImage(new WelcomeImage.Builder()
+            .withUsername("User")
+            .withAvatar(AVATAR)
+            .withBackgroundColor(ColorObject.getFromRGB(1, 2, 3))
+            .withBanner(BANNER)
+            .withIcon(ICON)
+            .withMembersText("Member #10")
+            .build());
+        
+        assertEquals(WelcomeRenderer.WIDTH, image.getBase().getWidth());
+        assertEquals(WelcomeRenderer.HEIGHT, image.getBase().getHeight());
+        
+        List<Image> images = image.getImages();
+        assertEquals(4, images.size());
+        assertImage(images.get(0), BANNER, 20, 20, 960, 260);
+        
+        Image.Circle border = (Image.Circle)images.get(1);
+        assertEquals(106, border.getRadius());
+        assertEquals(150, border.getPosX());
+        assertEquals(150, border.getPosY());
+        
+        assertImage(images.get(2), AVATAR, 50, 50, 200, 200);
+        assertImage(images.get(3), ICON, 830, 90, 120, 120);
+        
+        List<Text> texts = image.getTexts();
+        assertEquals(3, texts.size());
+        assertText(texts.get(0), "Welcome", 55);
+        assertText(texts.get(1), "User", 115);
+        assertText(texts.get(2), "Member #10", 195);
+    }
+    
+    @Test
+    public void layoutWithoutMembers(){
+        CustomImage image = renderer.toCustomImage(new WelcomeImage.Builder()
+            .withUsername("User")
+            .withAvatar(AVATAR)
+            .withBackgroundColor(ColorObject.getFromRGB(1, 2, 3))
+            .build());
+        
+        // Only the avatar and its border, as neither banner nor icon are set.
+        assertEquals(2, image.getImages().size());
+        assertEquals(2, image.getTexts().size());
+        assertText(image.getTexts().get(0), "Welcome", 80);
+        assertText(image.getTexts().get(1), "User", 140);
+    }
+    
+    @Test
+    public void dropUnloadableAssets() throws IOException{
+        WelcomeImage welcomeImage = new WelcomeImage.Builder()
+            .withUsername("User")
+            .withAvatar(AVATAR)
+            .withBackgroundColor(ColorObject.getFromRGB(1, 2, 3))
+            .withBanner("banner_asset")
+            .withIcon("icon_asset")
+            .build();
+        
+        CustomImage image = renderer.toCustomImage(welcomeImage);
+        assertEquals(2, image.getImages().size());
+        assertEquals(AVATAR, ((Image.ImageURL)image.getImages().get(1)).getUrl());
+        
+        BufferedImage result = renderer.render(welcomeImage);
+        assertEquals(WelcomeRenderer.WIDTH, result.getWidth());
+        assertEquals(WelcomeRenderer.HEIGHT, result.getHeight());
+        // The background stays visible where the banner would have been.
+        assertEquals(0xFF010203, result.getRGB(30, 30));
+        assertEquals(Color.RED.getRGB(), result.getRGB(150, 150));
+    }
+    
+    private static void assertImage(Image image, String url, int x, int y, int width, int height){
+        assertTrue(image instanceof Image.ImageURL);
+        assertEquals(url, ((Image.ImageURL)image).getUrl());
+        assertEquals(x, image.getPosX());
+        assertEquals(y, image.getPosY());
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+    
+    private static void assertText(Text text, String content, int y){
+        assertEquals(content, ((Text.SingleLine)text).getText());
+        assertEquals(290, text.getPosX());
+        assertEquals(y, text.getPosY());
+        assertEquals(510, text.getMaxWidth());
+    }
+}
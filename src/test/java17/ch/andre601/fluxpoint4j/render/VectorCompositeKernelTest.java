@@ -0,0 +1,89 @@
+package ch.andre601.fluxpoint4j.render;
+
+import jdk.incubator.vector.IntVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Lives in the render package, as the kernels are package-private. Run by the java17Test task, which adds the
+ * jdk.incubator.vector module.
+ */
+public class VectorCompositeKernelTest{
+    
+    private static final int LANES = IntVector.SPECIES_PREFERRED.length();
+    
+    private final CompositeKernel scalar = new ScalarCompositeKernel();
+    private final CompositeKernel vector = new VectorCompositeKernel();
+    
+    @Test
+    public void selectVectorKernel(){
+        assertTrue(CompositeKernels.create() instanceof VectorCompositeKernel);
+    }
+    
+    @Test
+    public void srcOver(){
+        Random random = new Random(1);
+        // Lengths below, at and above multiples of the vector length, leaving tails of every size.
+        for(int length = 0; length <= LANES * 3 + 1; length++){
+            for(int offset = 0; offset < 3; offset++){
+                int[] src = pixels(random, length + offset);
+                int[] dst = pixels(random, length + offset + 1);
+                int[] expected = dst.clone();
+                
+                scalar.srcOver(src, offset, expected, offset + 1, length);
+                vector.srcOver(src, offset, dst, offset + 1, length);
+                assertArrayEquals(expected, dst, "Length " + length + ", offset " + offset);
+            }
+        }
+    }
+    
+    @Test
+    public void fill(){
+        Random random = new Random(2);
+        int[] colors = {0x00000000, 0xFFFFFFFF, 0xFF102030, 0x80404040, 0x01010101, 0xFE7F0010};
+        for(int color : colors){
+            for(int length = 0; length <= LANES * 3 + 1; length++){
+                int[] dst = pixels(random, length + 2);
+                int[] expected = dst.clone();
+                
+                scalar.fill(color, expected, 1, length);
+                vector.fill(color, dst, 1, length);
+                assertArrayEquals(expected, dst, "Color " + Integer.toHexString(color) + ", length " + length);
+            }
+        }
+    }
+    
+    /*
+     * Random premultiplied pixels, with every 4th pixel being fully transparent or opaque.
+     */
+    private static int[] pixels(Random random, int length){
+        int[] pixels = new int[length];
+        for(int i = 0; i < length; i++){
+            int alpha;
+            switch(i % 4){
+                case 0:
+                    alpha = random.nextBoolean() ? 0 : 255;
+                    break;
+                
+                case 1:
+                    alpha = random.nextBoolean() ? 1 : 254;
+                    break;
+                
+                default:
+                    alpha = random.nextInt(256);
+            }
+            
+            pixels[i] = alpha << 24 | channel(random, alpha) << 16 | channel(random, alpha) << 8 | channel(random, alpha);
+        }
+        
+        return pixels;
+    }
+    
+    private static int channel(Random random, int alpha){
+        return random.nextInt(alpha + 1);
+    }
+}
@@ -0,0 +1,68 @@
+package ch.andre601.fluxpoint4j.test;
+
+import ch.andre601.fluxpoint4j.Fluxpoint4J;
+import ch.andre601.fluxpoint4j.simulator.FluxpointSimulator;
+import ch.andre601.fluxpoint4j.simulator.SimulatorProfile;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static ch.andre601.fluxpoint4j.simulator.SimulatorFixtures.createApi;
+import static ch.andre601.fluxpoint4j.simulator.SimulatorFixtures.image;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Run by the java17Test task, as the events are only recorded by the classes of the Java 11 section.
+ */
+public class FlightEventsTest{
+    
+    private static final String API_CALL = "ch.andre601.fluxpoint4j.ApiCall";
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    public void recordApiCalls() throws Exception{
+        Path file = directory.resolve("recording.jfr");
+        
+        try(FluxpointSimulator simulator = new FluxpointSimulator(new SimulatorProfile()
+            .withScript(SimulatorProfile.Fault.RATE_LIMIT, SimulatorProfile.Fault.NONE));
+            Recording recording = new Recording()){
+            recording.enable(API_CALL);
+            recording.start();
+            
+            Fluxpoint4J api = createApi(simulator);
+            api.getCustomImage(image(200, 100, "Recorded"));
+            api.getCustomImage(image(200, 100, "Recorded"));
+            
+            recording.stop();
+            recording.dump(file);
+        }
+        
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals(API_CALL))
+            .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+            .collect(Collectors.toList());
+        assertEquals(2, events.size());
+        
+        RecordedEvent limited = events.get(0);
+        assertEquals("/gen/custom", limited.getString("endpoint"));
+        assertEquals(429, limited.getInt("statusCode"));
+        
+        RecordedEvent generated = events.get(1);
+        assertEquals("/gen/custom", generated.getString("endpoint"));
+        assertEquals(200, generated.getInt("statusCode"));
+        assertTrue(generated.getLong("payloadSize") > 0);
+        assertTrue(generated.getLong("responseSize") > 0);
+        assertFalse(generated.getBoolean("retried"));
+    }
+}
@@ -0,0 +1,408 @@
+package ch.andre601.fluxpoint4j.simulator;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.NotNull;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Local stand-in for the Fluxpoint API, used to test and benchmark the library without sending requests to the real API.
+ * <br>Point {@link ch.andre601.fluxpoint4j.Fluxpoint4J Fluxpoint4J} to it using
+ * {@link ch.andre601.fluxpoint4j.Fluxpoint4J#setBaseUrl(String) setBaseUrl(getBaseUrl())}.
+ * 
+ * <p>The following endpoints are available:
+ * <ul>
+ *     <li>{@code POST /gen/custom}, returning a PNG of the base's size and color.</li>
+ *     <li>{@code POST /gen/welcome}, returning a PNG of the welcome image's size and background color.</li>
+ *     <li>{@code GET /mc/ping}, returning an online server with players and MOTD derived from the host.</li>
+ * </ul>
+ * Payloads are validated against the constraints of the model classes and invalid ones are answered with
+ * {@code 400 Bad Request}. Requests without Authorization header are answered with {@code 401 Unauthorized}.
+ * 
+ * <p>Latency and faults are applied according to the {@link SimulatorProfile SimulatorProfile}, which may be replaced
+ * at any time.
+ */
+public class FluxpointSimulator implements Closeable{
+    
+    /**
+     * Width of the generated welcome images.
+     */
+    public static final int WELCOME_WIDTH = 1000;
+    /**
+     * Height of the generated welcome images.
+     */
+    public static final int WELCOME_HEIGHT = 300;
+    
+    private static final int SLOW_CHUNK_SIZE = 256;
+    // Default color of images, used when it is omitted in the request.
+    private static final String DEFAULT_COLOR = "0, 255, 255";
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    
+    private volatile SimulatorProfile profile;
+    
+    /**
+     * Starts a new FluxpointSimulator on a free port of the loopback address, answering every request immediately
+     * and successfully.
+     * 
+     * @throws IOException
+     *         When the server couldn't be started.
+     */
+    public FluxpointSimulator() throws IOException{
+        this(new SimulatorProfile());
+    }
+    
+    /**
+     * Starts a new FluxpointSimulator on a free port of the loopback address, using the provided SimulatorProfile.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>SimulatorProfile is null.</li>
+     * </ul>
+     * 
+     * @param  profile
+     *         The SimulatorProfile to use.
+     * 
+     * @throws IOException
+     *         When the server couldn't be started.
+     */
+    public FluxpointSimulator(@NotNull SimulatorProfile profile) throws IOException{
+        CheckUtil.notNull(profile, "SimulatorProfile");
+        
+        this.profile = profile;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "FluxpointSimulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/gen/custom", exchange -> handle(exchange, "POST", this::customImage));
+        server.createContext("/gen/welcome", exchange -> handle(exchange, "POST", this::welcomeImage));
+        server.createContext("/mc/ping", exchange -> handle(exchange, "GET", this::ping));
+        server.setExecutor(executor);
+        server.start();
+    }
+    
+    /**
+     * Returns the URL of this simulator, to use as base URL of the Fluxpoint API.
+     * 
+     * @return The URL of this simulator, without trailing slash.
+     */
+    @NotNull
+    public String getBaseUrl(){
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+    
+    /**
+     * Replaces the SimulatorProfile used for all following requests.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>SimulatorProfile is null.</li>
+     * </ul>
+     * 
+     * @param profile
+     *        The SimulatorProfile to use.
+     */
+    public void setProfile(@NotNull SimulatorProfile profile){
+        CheckUtil.notNull(profile, "SimulatorProfile");
+        
+        this.profile = profile;
+    }
+    
+    /**
+     * Returns the number of requests received for the provided endpoint, including failed ones.
+     * 
+     * @param  endpoint
+     *         The endpoint, such as {@code /gen/custom}.
+     * 
+     * @return The number of requests received for the endpoint.
+     */
+    public int getRequests(@NotNull String endpoint){
+        AtomicInteger count = requests.get(endpoint);
+        return count == null ? 0 : count.get();
+    }
+    
+    /**
+     * Stops this simulator, aborting all requests in progress.
+     */
+    @Override
+    public void close(){
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    private void handle(HttpExchange exchange, String method, Endpoint endpoint) throws IOException{
+        try{
+            String path = exchange.getHttpContext().getPath();
+            requests.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            
+            SimulatorProfile profile = this.profile;
+            sleep(profile.nextLatency());
+            
+            if(!method.equals(exchange.getRequestMethod())){
+                sendError(exchange, 405, "Method not allowed.");
+                return;
+            }
+            
+            String token = exchange.getRequestHeaders().getFirst("Authorization");
+            if(token == null || token.isEmpty()){
+                sendError(exchange, 401, "Unauthorized.");
+                return;
+            }
+            
+            SimulatorProfile.Fault fault = profile.nextFault();
+            if(fault == SimulatorProfile.Fault.RATE_LIMIT){
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(profile.getRetryAfter()));
+                sendError(exchange, 429, "Too many requests.");
+                return;
+            }
+            if(fault == SimulatorProfile.Fault.SERVER_ERROR){
+                sendError(exchange, 500, "Internal server error.");
+                return;
+            }
+            
+            Response response = endpoint.handle(exchange, profile);
+            exchange.getResponseHeaders().set("Content-Type", response.contentType);
+            if(fault == SimulatorProfile.Fault.SLOW_BODY){
+                sendSlowly(exchange, response, profile.getSlowBodyDelay());
+            }else{
+                send(exchange, response.code, response.body);
+            }
+        }catch(InterruptedException ex){
+            Thread.currentThread().interrupt();
+        }finally{
+            exchange.close();
+        }
+    }
+    
+    private Response customImage(HttpExchange exchange, SimulatorProfile profile) throws IOException{
+        JsonObject json = readJson(exchange, profile);
+        if(json == null)
+            return error(exchange, profile);
+        
+        String error = PayloadValidator.validateCustomImage(json);
+        if(error != null)
+            return Response.error(400, error);
+        
+        JsonObject base = json.getAsJsonObject("base");
+        String color = base.has("color") ? getString(base, "color") : DEFAULT_COLOR;
+        return Response.png(base.get("width").getAsInt(), base.get("height").getAsInt(), color);
+    }
+    
+    private Response welcomeImage(HttpExchange exchange, SimulatorProfile profile) throws IOException{
+        JsonObject json = readJson(exchange, profile);
+        if(json == null)
+            return error(exchange, profile);
+        
+        String error = PayloadValidator.validateWelcomeImage(json);
+        if(error != null)
+            return Response.error(400, error);
+        
+        return Response.png(WELCOME_WIDTH, WELCOME_HEIGHT, getString(json, "background"));
+    }
+    
+    private Response ping(HttpExchange exchange, SimulatorProfile profile) throws IOException{
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String host = query.get("host");
+        if(host == null || host.isEmpty())
+            return Response.error(400, "Host may not be null or empty.");
+        
+        int port;
+        try{
+            port = Integer.parseInt(query.getOrDefault("port", "25565"));
+        }catch(NumberFormatException ex){
+            return Response.error(400, "Invalid port.");
+        }
+        
+        // Derived from the target, so that repeated pings return the same server.
+        int seed = Math.abs((host + ":" + port).hashCode());
+        
+        JsonObject json = new JsonObject();
+        json.addProperty("code", 200);
+        json.addProperty("online", true);
+        json.addProperty("motd", "A simulated server on " + host);
+        json.addProperty("playersOnline", seed % 100);
+        json.addProperty("playersMax", 100);
+        json.addProperty("version", "1.18.2");
+        json.addProperty("status", "Online");
+        if(Boolean.parseBoolean(query.get("icon")))
+            json.addProperty("rawIcon", Base64.getEncoder().encodeToString(
+                Response.png(64, 64, (seed % 256) + ", 128, 128").body));
+        
+        return new Response(200, "application/json", json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /*
+     * Returns null if the body isn't valid JSON or uses an unsupported encoding, which error() then reports.
+     */
+    private JsonObject readJson(HttpExchange exchange, SimulatorProfile profile) throws IOException{
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        if(encoding != null && !(encoding.equalsIgnoreCase("gzip") && profile.isGzipSupported()))
+            return null;
+        
+        try(InputStream stream = encoding == null ? exchange.getRequestBody() : new GZIPInputStream(exchange.getRequestBody())){
+            JsonElement element = JsonParser.parseString(new String(readAll(stream), StandardCharsets.UTF_8));
+            return element.isJsonObject() ? element.getAsJsonObject() : null;
+        }catch(JsonParseException | IOException ex){
+            return null;
+        }
+    }
+    
+    private Response error(HttpExchange exchange, SimulatorProfile profile){
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        if(encoding != null && !(encoding.equalsIgnoreCase("gzip") && profile.isGzipSupported()))
+            return Response.error(415, "Unsupported content encoding " + encoding + ".");
+        
+        return Response.error(400, "Body has to be a JSON object.");
+    }
+    
+    private static void sendError(HttpExchange exchange, int code, String message) throws IOException{
+        Response response = Response.error(code, message);
+        exchange.getResponseHeaders().set("Content-Type", response.contentType);
+        send(exchange, code, response.body);
+    }
+    
+    private static void send(HttpExchange exchange, int code, byte[] body) throws IOException{
+        exchange.sendResponseHeaders(code, body.length);
+        try(OutputStream output = exchange.getResponseBody()){
+            output.write(body);
+        }
+    }
+    
+    private static void sendSlowly(HttpExchange exchange, Response response, long delay) throws IOException, InterruptedException{
+        exchange.sendResponseHeaders(response.code, response.body.length);
+        try(OutputStream output = exchange.getResponseBody()){
+            for(int offset = 0; offset < response.body.length; offset += SLOW_CHUNK_SIZE){
+                output.write(response.body, offset, Math.min(SLOW_CHUNK_SIZE, response.body.length - offset));
+                output.flush();
+                sleep(delay);
+            }
+        }
+    }
+    
+    private static void sleep(long nanos) throws InterruptedException{
+        if(nanos > 0)
+            TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+    
+    private static byte[] readAll(InputStream stream) throws IOException{
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int length;
+        while((length = stream.read(buffer)) != -1)
+            output.write(buffer, 0, length);
+        
+        return output.toByteArray();
+    }
+    
+    private static Map<String, String> parseQuery(String query) throws IOException{
+        Map<String, String> result = new HashMap<>();
+        if(query == null)
+            return result;
+        
+        for(String pair : query.split("&")){
+            int index = pair.indexOf('=');
+            if(index > 0)
+                result.put(URLDecoder.decode(pair.substring(0, index), "UTF-8"), URLDecoder.decode(pair.substring(index + 1), "UTF-8"));
+        }
+        
+        return result;
+    }
+    
+    private static String getString(JsonObject object, String name){
+        JsonElement element = object.get(name);
+        return element == null || !element.isJsonPrimitive() ? null : element.getAsString();
+    }
+    
+    private interface Endpoint{
+        Response handle(HttpExchange exchange, SimulatorProfile profile) throws IOException;
+    }
+    
+    private static class Response{
+        
+        private final int code;
+        private final String contentType;
+        private final byte[] body;
+        
+        private Response(int code, String contentType, byte[] body){
+            this.code = code;
+            this.contentType = contentType;
+            this.body = body;
+        }
+        
+        /*
+         * Same format as the errors of the Fluxpoint API, which the library reads into a FailedAPIResponse.
+         */
+        private static Response error(int code, String message){
+            JsonObject json = new JsonObject();
+            json.addProperty("code", code);
+            json.addProperty("message", message);
+            return new Response(code, "application/json", json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        
+        /*
+         * Colors which aren't in the "r, g, b" or "r,g,b,a" format, such as names, are painted gray.
+         */
+        private static Response png(int width, int height, String color) throws IOException{
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            g.setColor(parseColor(color));
+            g.fillRect(0, 0, width, height);
+            g.dispose();
+            
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", output);
+            return new Response(200, "image/png", output.toByteArray());
+        }
+        
+        private static Color parseColor(String color){
+            if(color == null)
+                return Color.GRAY;
+            
+            String[] components = color.split("\\s*,\\s*");
+            try{
+                if(components.length == 3)
+                    return new Color(Integer.parseInt(components[0]), Integer.parseInt(components[1]),
+                        Integer.parseInt(components[2]));
+                if(components.length == 4)
+                    return new Color(Integer.parseInt(components[0]), Integer.parseInt(components[1]),
+                        Integer.parseInt(components[2]), Integer.parseInt(components[3]));
+            }catch(IllegalArgumentException ex){
+                return Color.GRAY;
+            }
+            
+            return Color.GRAY;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package ch.andre601.fluxpoint4j.simulator;
+
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Validates request payloads against the constraints of the model classes in {@link ch.andre601.fluxpoint4j.image}
+ * and {@link ch.andre601.fluxpoint4j.welcome}.
+ * <br>Fields may be missing, as the API uses their defaults, which keeps optimized and canonical JSON valid.
+ */
+final class PayloadValidator{
+    
+    private static final int MAX_SIZE = 3000;
+    
+    private PayloadValidator(){}
+    
+    /**
+     * Validates the JSON of a CustomImage.
+     * 
+     * @param  json
+     *         The JSON to validate.
+     * 
+     * @return The error message, or null if the JSON is valid.
+     */
+    static String validateCustomImage(JsonObject json){
+        JsonElement base = json.get("base");
+        if(base == null || !base.isJsonObject())
+            return "Missing base image.";
+        
+        String error = validateImage(base.getAsJsonObject(), "base");
+        if(error != null)
+            return error;
+        if(!base.getAsJsonObject().has("width") || !base.getAsJsonObject().has("height"))
+            return "base: Width and height are required.";
+        
+        JsonArray images = getArray(json, "images");
+        for(int i = 0; images != null && i < images.size(); i++){
+            String name = "images[" + i + "]";
+            if(!images.get(i).isJsonObject())
+                return name + ": Expected an object.";
+            
+            error = validateImage(images.get(i).getAsJsonObject(), name);
+            if(error != null)
+                return error;
+        }
+        
+        JsonArray texts = getArray(json, "texts");
+        for(int i = 0; texts != null && i < texts.size(); i++){
+            String name = "texts[" + i + "]";
+            if(!texts.get(i).isJsonObject())
+                return name + ": Expected an object.";
+            
+            error = validateText(texts.get(i).getAsJsonObject(), name);
+            if(error != null)
+                return error;
+        }
+        
+        if((json.has("images") && images == null) || (json.has("texts") && texts == null))
+            return "Images and texts have to be arrays.";
+        
+        return null;
+    }
+    
+    /**
+     * Validates the JSON of a WelcomeImage.
+     * 
+     * @param  json
+     *         The JSON to validate.
+     * 
+     * @return The error message, or null if the JSON is valid.
+     */
+    static String validateWelcomeImage(JsonObject json){
+        if(isBlank(getString(json, "username")))
+            return "Username may not be null or empty.";
+        if(isBlank(getString(json, "avatar")))
+            return "Avatar may not be null or empty.";
+        if(getString(json, "background") == null)
+            return "BackgroundColor may not be null.";
+        
+        return null;
+    }
+    
+    private static String validateImage(JsonObject image, String name){
+        String type = getString(image, "type");
+        if(type == null)
+            return name + ": Missing type.";
+        
+        switch(type){
+            case "bitmap":
+            case "circle":
+                break;
+            
+            case "url":
+                if(isBlank(getString(image, "url")))
+                    return name + ": URL may not be null or empty.";
+                break;
+            
+            case "triangle":
+                String cut = getString(image, "cut");
+                if(cut != null && !Image.Cut.fromName(cut).getName().equals(cut))
+                    return name + ": Unknown cut " + cut + ".";
+                break;
+            
+            default:
+                return name + ": Unknown type " + type + ".";
+        }
+        
+        if(!isInRange(image, "width", 1, MAX_SIZE) || !isInRange(image, "height", 1, MAX_SIZE))
+            return name + ": Width and height may not be less than 1 or larger than " + MAX_SIZE + ".";
+        if(!isInRange(image, "radius", 0, MAX_SIZE) || !isInRange(image, "round", 0, MAX_SIZE))
+            return name + ": Radius and round may not be negative.";
+        if(image.has("color") && getString(image, "color") == null)
+            return name + ": Color has to be a String.";
+        
+        return null;
+    }
+    
+    private static String validateText(JsonObject text, String name){
+        boolean single = text.has("text");
+        boolean multi = text.has("texts");
+        if(single == multi)
+            return name + ": Exactly one of text and texts is required.";
+        
+        if(single && isBlank(getString(text, "text")))
+            return name + ": Text may not be null or empty.";
+        if(multi){
+            JsonArray lines = getArray(text, "texts");
+            if(lines == null || lines.size() == 0)
+                return name + ": Texts may not be null or empty.";
+            
+            for(JsonElement line : lines){
+                if(!line.isJsonPrimitive())
+                    return name + ": Texts may only contain Strings.";
+            }
+        }
+        
+        String align = getString(text, "align");
+        if(align != null && !Text.TextAlignment.fromName(align).getName().equals(align))
+            return name + ": Unknown alignment " + align + ".";
+        
+        if(!isInRange(text, "size", 1, Integer.MAX_VALUE))
+            return name + ": Size may not be less than 1.";
+        if(!isInRange(text, "weight", 0, Integer.MAX_VALUE) || !isInRange(text, "width", 0, Integer.MAX_VALUE)
+            || !isInRange(text, "height", 0, Integer.MAX_VALUE) || !isInRange(text, "outlinewidth", 0, Integer.MAX_VALUE))
+            return name + ": Weight, width, height and outline width may not be negative.";
+        
+        return null;
+    }
+    
+    private static boolean isInRange(JsonObject object, String name, int min, int max){
+        JsonElement element = object.get(name);
+        if(element == null)
+            return true;
+        
+        try{
+            int value = element.getAsInt();
+            return value >= min && value <= max;
+        }catch(RuntimeException ex){
+            return false;
+        }
+    }
+    
+    private static JsonArray getArray(JsonObject object, String name){
+        JsonElement element = object.get(name);
+        return element == null || !element.isJsonArray() ? null : element.getAsJsonArray();
+    }
+    
+    private static String getString(JsonObject object, String name){
+        JsonElement element = object.get(name);
+        return element == null || !element.isJsonPrimitive() ? null : element.getAsString();
+    }
+    
+    private static boolean isBlank(String text){
+        return text == null || text.isEmpty();
+    }
+}
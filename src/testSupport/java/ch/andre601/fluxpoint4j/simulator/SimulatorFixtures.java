@@ -0,0 +1,62 @@
+package ch.andre601.fluxpoint4j.simulator;
+
+import ch.andre601.fluxpoint4j.Fluxpoint4J;
+import ch.andre601.fluxpoint4j.image.CustomImage;
+import ch.andre601.fluxpoint4j.image.format.Image;
+import ch.andre601.fluxpoint4j.image.format.Text;
+import ch.andre601.fluxpoint4j.util.ColorObject;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Shared fixtures for tests and benchmarks running against a {@link FluxpointSimulator FluxpointSimulator}.
+ */
+public final class SimulatorFixtures{
+    
+    /**
+     * Color of the base of {@link #image(int, int, String) images}.
+     */
+    public static final int BASE_COLOR = 0xFF102030;
+    
+    private SimulatorFixtures(){}
+    
+    /**
+     * Creates a new Fluxpoint4J instance sending its requests to the provided simulator.
+     * 
+     * @param  simulator
+     *         The simulator to send requests to.
+     * 
+     * @return A new Fluxpoint4J instance with a token and the base URL of the simulator set.
+     */
+    @NotNull
+    public static Fluxpoint4J createApi(@NotNull FluxpointSimulator simulator){
+        Fluxpoint4J api = new Fluxpoint4J();
+        api.setToken("token");
+        api.setBaseUrl(simulator.getBaseUrl());
+        return api;
+    }
+    
+    /**
+     * Creates a custom image with a base of the provided size and {@link #BASE_COLOR color}, a circle and the text as
+     * single-line and multi-line text.
+     * 
+     * @param  width
+     *         The width of the image.
+     * @param  height
+     *         The height of the image.
+     * @param  text
+     *         The text to add.
+     * 
+     * @return A new CustomImage.
+     */
+    @NotNull
+    public static CustomImage image(int width, int height, @NotNull String text){
+        return CustomImage.Builder.createBase(new Image.Rectangle()
+            .withWidth(width)
+            .withHeight(height)
+            .withColor(ColorObject.getFromRGB(16, 32, 48)))
+            .addImage(new Image.Circle().withPosX(20).withPosY(20).withRadius(10))
+            .addText(new Text.SingleLine(text).withPosX(10).withPosY(10))
+            .addText(new Text.MultiLine(text).withPosX(10).withPosY(50))
+            .build();
+    }
+}
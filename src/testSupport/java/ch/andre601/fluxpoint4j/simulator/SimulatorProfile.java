@@ -0,0 +1,272 @@
+package ch.andre601.fluxpoint4j.simulator;
+
+import ch.andre601.fluxpoint4j.CheckUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profile describing how the {@link FluxpointSimulator FluxpointSimulator} behaves, meaning how long it takes to answer
+ * and how often it fails.
+ * 
+ * <p>Faults are either chosen randomly using the configured chances, or scripted using {@link #withScript(Fault...) withScript},
+ * in which case the scripted faults are applied to the next requests in order, before falling back to the chances.
+ * <br>A new profile answers every request immediately and successfully.
+ */
+public class SimulatorProfile{
+    
+    private final Queue<Fault> script = new ConcurrentLinkedQueue<>();
+    
+    private volatile Random random = new Random();
+    
+    private volatile long minLatency = 0;
+    private volatile long maxLatency = 0;
+    private volatile double rateLimitChance = 0;
+    private volatile double serverErrorChance = 0;
+    private volatile double slowBodyChance = 0;
+    private volatile long slowBodyDelay = TimeUnit.MILLISECONDS.toNanos(50);
+    private volatile int retryAfter = 1;
+    private volatile boolean gzipSupported = true;
+    
+    /**
+     * Sets a fixed latency added before every response.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Latency is negative.</li>
+     *     <li>TimeUnit is null.</li>
+     * </ul>
+     * 
+     * @param  latency
+     *         The latency to add.
+     * @param  unit
+     *         The TimeUnit of the latency.
+     * 
+     * @return This SimulatorProfile after the latency has been set. Useful for chaining.
+     */
+    public SimulatorProfile withLatency(long latency, @NotNull TimeUnit unit){
+        return withLatency(latency, latency, unit);
+    }
+    
+    /**
+     * Sets a random latency between the minimum and maximum added before every response.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Minimum is negative.</li>
+     *     <li>Maximum is less than the minimum.</li>
+     *     <li>TimeUnit is null.</li>
+     * </ul>
+     * 
+     * @param  min
+     *         The minimum latency to add.
+     * @param  max
+     *         The maximum latency to add.
+     * @param  unit
+     *         The TimeUnit of both latencies.
+     * 
+     * @return This SimulatorProfile after the latency has been set. Useful for chaining.
+     */
+    public SimulatorProfile withLatency(long min, long max, @NotNull TimeUnit unit){
+        CheckUtil.notNull(unit, "TimeUnit");
+        CheckUtil.check(min >= 0, "Minimum may not be negative.");
+        CheckUtil.check(max >= min, "Maximum may not be less than the minimum.");
+        
+        this.minLatency = unit.toNanos(min);
+        this.maxLatency = unit.toNanos(max);
+        return this;
+    }
+    
+    /**
+     * Sets the chance of a request being answered with {@code 429 Too Many Requests}.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Chance is not between 0 and 1.</li>
+     *     <li>Retry after is negative.</li>
+     * </ul>
+     * 
+     * @param  chance
+     *         The chance between 0 and 1.
+     * @param  retryAfter
+     *         The seconds returned in the {@code Retry-After} header.
+     * 
+     * @return This SimulatorProfile after the chance has been set. Useful for chaining.
+     */
+    public SimulatorProfile withRateLimitChance(double chance, int retryAfter){
+        checkChance(chance);
+        CheckUtil.check(retryAfter >= 0, "Retry after may not be negative.");
+        
+        this.rateLimitChance = chance;
+        this.retryAfter = retryAfter;
+        return this;
+    }
+    
+    /**
+     * Sets the chance of a request being answered with {@code 500 Internal Server Error}.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Chance is not between 0 and 1.</li>
+     * </ul>
+     * 
+     * @param  chance
+     *         The chance between 0 and 1.
+     * 
+     * @return This SimulatorProfile after the chance has been set. Useful for chaining.
+     */
+    public SimulatorProfile withServerErrorChance(double chance){
+        checkChance(chance);
+        
+        this.serverErrorChance = chance;
+        return this;
+    }
+    
+    /**
+     * Sets the chance of a successful response having a slow body, which is sent in small chunks with the provided
+     * delay between them.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following cases:
+     * <ul>
+     *     <li>Chance is not between 0 and 1.</li>
+     *     <li>Delay is negative.</li>
+     *     <li>TimeUnit is null.</li>
+     * </ul>
+     * 
+     * @param  chance
+     *         The chance between 0 and 1.
+     * @param  delay
+     *         The delay between two chunks of the body.
+     * @param  unit
+     *         The TimeUnit of the delay.
+     * 
+     * @return This SimulatorProfile after the chance has been set. Useful for chaining.
+     */
+    public SimulatorProfile withSlowBodyChance(double chance, long delay, @NotNull TimeUnit unit){
+        checkChance(chance);
+        CheckUtil.notNull(unit, "TimeUnit");
+        CheckUtil.check(delay >= 0, "Delay may not be negative.");
+        
+        this.slowBodyChance = chance;
+        this.slowBodyDelay = unit.toNanos(delay);
+        return this;
+    }
+    
+    /**
+     * Sets whether gzip-compressed requests are accepted. If not, they are answered with
+     * {@code 415 Unsupported Media Type}.
+     * <br>Default is {@code true}.
+     * 
+     * @param  gzipSupported
+     *         Whether gzip-compressed requests are accepted.
+     * 
+     * @return This SimulatorProfile after the gzip support has been set. Useful for chaining.
+     */
+    public SimulatorProfile withGzipSupport(boolean gzipSupported){
+        this.gzipSupported = gzipSupported;
+        return this;
+    }
+    
+    /**
+     * Sets the seed used for the random latency and faults, to make runs repeatable.
+     * 
+     * @param  seed
+     *         The seed to use.
+     * 
+     * @return This SimulatorProfile after the seed has been set. Useful for chaining.
+     */
+    public SimulatorProfile withSeed(long seed){
+        this.random = new Random(seed);
+        return this;
+    }
+    
+    /**
+     * Adds faults to apply to the next requests, in the provided order.
+     * <br>Use {@link Fault#NONE NONE} for requests that should be answered normally.
+     * 
+     * <p>An {@link java.lang.IllegalArgumentException IllegalArgumentException} may be thrown in the following case:
+     * <ul>
+     *     <li>Faults is null or contains null.</li>
+     * </ul>
+     * 
+     * @param  faults
+     *         The faults to add.
+     * 
+     * @return This SimulatorProfile after the faults have been added. Useful for chaining.
+     */
+    public SimulatorProfile withScript(@NotNull Fault... faults){
+        CheckUtil.notNull(faults, "Faults");
+        for(Fault fault : faults)
+            CheckUtil.notNull(fault, "Fault");
+        
+        for(Fault fault : faults)
+            script.offer(fault);
+        return this;
+    }
+    
+    Fault nextFault(){
+        Fault fault = script.poll();
+        if(fault != null)
+            return fault;
+        
+        double value = random.nextDouble();
+        if(value < rateLimitChance)
+            return Fault.RATE_LIMIT;
+        
+        value -= rateLimitChance;
+        if(value < serverErrorChance)
+            return Fault.SERVER_ERROR;
+        
+        return random.nextDouble() < slowBodyChance ? Fault.SLOW_BODY : Fault.NONE;
+    }
+    
+    long nextLatency(){
+        long min = minLatency;
+        long max = maxLatency;
+        if(max == min)
+            return min;
+        
+        return min + (long)(random.nextDouble() * (max - min));
+    }
+    
+    long getSlowBodyDelay(){
+        return slowBodyDelay;
+    }
+    
+    int getRetryAfter(){
+        return retryAfter;
+    }
+    
+    boolean isGzipSupported(){
+        return gzipSupported;
+    }
+    
+    private static void checkChance(double chance){
+        CheckUtil.check(chance >= 0 && chance <= 1, "Chance may not be less than 0 or larger than 1.");
+    }
+    
+    /**
+     * Faults the {@link FluxpointSimulator FluxpointSimulator} can apply to a request.
+     */
+    public enum Fault{
+        /**
+         * The request is answered normally.
+         */
+        NONE,
+        /**
+         * The request is answered with {@code 429 Too Many Requests}.
+         */
+        RATE_LIMIT,
+        /**
+         * The request is answered with {@code 500 Internal Server Error}.
+         */
+        SERVER_ERROR,
+        /**
+         * The request is answered normally, but its body is sent in small, delayed chunks.
+         */
+        SLOW_BODY
+    }
+}